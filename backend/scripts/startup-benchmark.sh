@@ -0,0 +1,68 @@
+#!/usr/bin/env bash
+# Mede o startup do backend em cada forma de empacotamento (ver docs/startup.md).
+#
+# Uso, a partir de backend/ e com DATABASE_*, JWT_SECRET_KEY e o e-mail exportados:
+#   ./mvnw -Pfast-start -DskipTests package              # jar, AOT e AOT + CDS
+#   ./mvnw -Pnative -DskipTests native:compile           # opcional: imagem nativa
+#   scripts/startup-benchmark.sh [rodadas]
+#
+# Para cada modo imprime a mediana de duas medidas:
+#   started: o "Started KaijuApplication in X seconds" do log (refresh do contexto)
+#   ready:   relogio de parede ate /actuator/health/readiness responder 200, o que o Kubernetes enxerga
+set -euo pipefail
+
+RUNS=${1:-5}
+PORT=${BENCHMARK_PORT:-18080}
+JAR=$(ls target/kaiju-*.jar | grep -v -- '-plain' | head -n 1)
+CDS_DIR=target/cds
+CDS_JAR="$CDS_DIR/$(basename "$JAR")"
+CDS_ARCHIVE="$CDS_DIR/kaiju.jsa"
+NATIVE=target/kaiju
+LOG=$(mktemp)
+trap 'rm -f "$LOG"' EXIT
+
+median() {
+    sort -n | awk '{ v[NR] = $1 } END { if (NR % 2) print v[(NR + 1) / 2]; else print (v[NR / 2] + v[NR / 2 + 1]) / 2 }'
+}
+
+measure() {
+    local mode=$1
+    shift
+    local started=() ready=()
+    for _ in $(seq "$RUNS"); do
+        local begin end pid
+        begin=$(date +%s%N)
+        "$@" --server.port="$PORT" >"$LOG" 2>&1 &
+        pid=$!
+        until curl -sf -o /dev/null "http://localhost:$PORT/actuator/health/readiness"; do
+            if ! kill -0 "$pid" 2>/dev/null; then
+                echo "$mode: a aplicacao saiu antes de ficar pronta, log abaixo" >&2
+                cat "$LOG" >&2
+                exit 1
+            fi
+            sleep 0.02
+        done
+        end=$(date +%s%N)
+        kill "$pid"
+        wait "$pid" || true
+        ready+=("$(( (end - begin) / 1000000 ))")
+        started+=("$(grep -oP 'Started KaijuApplication in \K[0-9.]+' "$LOG")")
+    done
+    printf '| %-10s | %8s s | %8s ms |\n' "$mode" \
+        "$(printf '%s\n' "${started[@]}" | median)" \
+        "$(printf '%s\n' "${ready[@]}" | median)"
+}
+
+echo "Mediana de $RUNS rodadas, $(java -version 2>&1 | head -n 1)"
+echo "| modo       |  started   |    ready    |"
+echo "|------------|------------|-------------|"
+measure jar java -jar "$JAR"
+if [[ -f "$CDS_ARCHIVE" ]]; then
+    measure aot java -Dspring.aot.enabled=true -jar "$CDS_JAR"
+    measure aot+cds java -XX:SharedArchiveFile="$CDS_ARCHIVE" -Dspring.aot.enabled=true -jar "$CDS_JAR"
+else
+    echo "(sem $CDS_ARCHIVE: rode ./mvnw -Pfast-start -DskipTests package para medir AOT e CDS)"
+fi
+if [[ -x "$NATIVE" ]]; then
+    measure native "$NATIVE"
+fi
@@ -0,0 +1,91 @@
+package com.cesar.kaiju;
+
+import com.cesar.kaiju.enums.ProductCategory;
+import com.cesar.kaiju.enums.ProductStatus;
+import com.cesar.kaiju.enums.UserRole;
+import com.cesar.kaiju.enums.UserSituation;
+import com.cesar.kaiju.enums.VeterinarianSpecialization;
+import com.cesar.kaiju.model.Product;
+import com.cesar.kaiju.model.User;
+import com.cesar.kaiju.model.Veterinarian;
+
+import java.math.BigDecimal;
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Detached entities shaped like production rows, shared by the benchmarks.
+ */
+public final class BenchmarkFixtures {
+
+    private BenchmarkFixtures() {
+    }
+
+    public static User user(int i) {
+        User user = new User();
+        user.setUserId(UUID.randomUUID());
+        user.setUsername("user" + i);
+        user.setName("Usuário Kaiju " + i);
+        user.setEmail("user" + i + "@kaiju.invalid");
+        user.setPassword("$2a$10$7EqJtq98hPqEX7fNZaFWoO5fF0aC6aXH2pCkEoZp0Tn8Q9t7Q1b2e");
+        user.setRole(UserRole.USER);
+        user.setSituation(UserSituation.VERIFIED);
+        return user;
+    }
+
+    public static Product product(int i, User seller) {
+        Product product = new Product();
+        product.setProductId(UUID.randomUUID());
+        product.setName("Lâmpada UVB T5 HO 54W " + i);
+        product.setDescription("Lâmpada UVB de alta emissão para terrários desérticos, vida útil de 12 meses.");
+        product.setPrice(new BigDecimal("189.90"));
+        product.setCategory(ProductCategory.LIGHTING);
+        product.setStatus(ProductStatus.ACTIVE);
+        product.setImages(List.of("https://img.kaiju.invalid/" + i + "/1.webp", "https://img.kaiju.invalid/" + i + "/2.webp",
+                "https://img.kaiju.invalid/" + i + "/3.webp"));
+        product.setStockQuantity(12);
+        product.setSeller(seller);
+        product.setBrand("Arcadia");
+        product.setManufacturer("Arcadia Reptile");
+        product.setTags(List.of("uvb", "iluminacao", "deserto"));
+        product.setRating(4.6);
+        product.setReviewCount(38);
+        product.setCreatedAt(new Date());
+        product.setUpdatedAt(new Date());
+        return product;
+    }
+
+    public static Veterinarian veterinarian(int i, User user) {
+        Veterinarian vet = new Veterinarian();
+        vet.setVeterinarianId(UUID.randomUUID());
+        vet.setUser(user);
+        vet.setFullName("Dra. Kaiju " + i);
+        vet.setLicenseNumber("CRMV-PE " + (10000 + i));
+        vet.setSpecializations(List.of(VeterinarianSpecialization.HERPETOLOGY, VeterinarianSpecialization.REPTILE_GENERAL));
+        vet.setBio("Atende répteis e anfíbios há mais de dez anos, com foco em medicina preventiva.");
+        vet.setContactEmail(user.getEmail());
+        vet.setPhoneNumber("+55 81 99999-0000");
+        vet.setClinicName("Clínica Exóticos Recife");
+        vet.setClinicAddress("Rua da Aurora, 100");
+        vet.setCity("Recife");
+        vet.setState("PE");
+        vet.setCityId(2611606);
+        vet.setStateCode("PE");
+        vet.setCountry("Brasil");
+        vet.setLatitude(-8.04666);
+        vet.setLongitude(-34.8771);
+        vet.setYearsOfExperience(11);
+        vet.setCertifications(List.of("Medicina de Répteis", "Cirurgia de Exóticos"));
+        vet.setLanguagesSpoken(List.of("pt", "en"));
+        vet.setIsVerified(true);
+        vet.setIsAvailableForChat(true);
+        vet.setRating(4.8);
+        vet.setReviewCount(52);
+        vet.setConsultationFee(250.0);
+        vet.setAcceptsNewPatients(true);
+        vet.setCreatedAt(new Date());
+        vet.setUpdatedAt(new Date());
+        return vet;
+    }
+}
@@ -0,0 +1,100 @@
+package com.cesar.kaiju.controller;
+
+import com.cesar.kaiju.BenchmarkFixtures;
+import com.cesar.kaiju.dto.ProductCardDTO;
+import com.cesar.kaiju.dto.ProductResponseDTO;
+import com.cesar.kaiju.model.Product;
+import com.cesar.kaiju.model.User;
+import com.cesar.kaiju.util.SparseFields;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// The body written for GET /api/products, full and with ?view=card; the mapper is built the way Spring Boot builds its default one
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PageSerializationBenchmark {
+
+    @Param({"20", "100"})
+    private int pageSize;
+
+    private ObjectMapper objectMapper;
+    private Page<ProductResponseDTO> page;
+    private Page<ProductCardDTO> cardPage;
+
+    @Setup
+    public void setUp() {
+        objectMapper = Jackson2ObjectMapperBuilder.json().filters(SparseFields.serializeAll()).build();
+
+        List<ProductResponseDTO> content = new ArrayList<>(pageSize);
+        List<ProductCardDTO> cards = new ArrayList<>(pageSize);
+        for (int i = 0; i < pageSize; i++) {
+            User seller = BenchmarkFixtures.user(i);
+            Product product = BenchmarkFixtures.product(i, seller);
+            content.add(new ProductResponseDTO(
+                    product.getProductId(),
+                    product.getName(),
+                    product.getDescription(),
+                    product.getPrice(),
+                    product.getCategory(),
+                    product.getStatus(),
+                    product.getImages(),
+                    product.getStockQuantity(),
+                    seller.getUserId(),
+                    seller.getName(),
+                    product.getBrand(),
+                    product.getManufacturer(),
+                    product.getTags(),
+                    product.getRating(),
+                    product.getReviewCount(),
+                    product.getCreatedAt(),
+                    product.getUpdatedAt()
+            ));
+            cards.add(new ProductCardDTO(
+                    product.getProductId(),
+                    product.getName(),
+                    product.getPrice(),
+                    product.getCategory(),
+                    product.getStatus(),
+                    product.getThumbnailUrl(),
+                    seller.getUserId(),
+                    product.getRating(),
+                    product.getReviewCount()
+            ));
+        }
+        page = new PageImpl<>(content, PageRequest.of(0, pageSize), 10_000);
+        cardPage = new PageImpl<>(cards, PageRequest.of(0, pageSize), 10_000);
+    }
+
+    @Benchmark
+    public byte[] serializePage() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(page);
+    }
+
+    @Benchmark
+    public byte[] serializeCardPage() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(cardPage);
+    }
+}
@@ -0,0 +1,139 @@
+package com.cesar.kaiju.service;
+
+import com.cesar.kaiju.BenchmarkFixtures;
+import com.cesar.kaiju.model.Product;
+import com.cesar.kaiju.model.User;
+import org.hibernate.FlushMode;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.StatelessSession;
+import org.hibernate.Transaction;
+import org.hibernate.boot.MetadataSources;
+import org.hibernate.boot.registry.StandardServiceRegistry;
+import org.hibernate.boot.registry.StandardServiceRegistryBuilder;
+import org.hibernate.cfg.AvailableSettings;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Loading one page of products in the three session modes used by the services: a read-write
+ * transaction (snapshots plus dirty checking at flush), a read-only one (what
+ * {@code @Transactional(readOnly = true)} sets up: default read-only and {@code FlushMode.MANUAL})
+ * and a stateless session. Run with {@code -Djmh.args="-prof gc"} to compare allocation per page.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ReadSessionBenchmark {
+
+    private static final int SELLERS = 20;
+    private static final int PRODUCTS = 2000;
+    private static final String PAGE_QUERY = "FROM Product p WHERE p.status = 'ACTIVE' ORDER BY p.createdAt DESC";
+
+    @Param({"20", "500"})
+    private int pageSize;
+
+    private StandardServiceRegistry registry;
+    private SessionFactory sessionFactory;
+
+    @Setup
+    public void setUp() {
+        registry = new StandardServiceRegistryBuilder()
+                .applySetting(AvailableSettings.JAKARTA_JDBC_URL, "jdbc:h2:mem:kaiju_sessions;DB_CLOSE_DELAY=-1;MODE=PostgreSQL")
+                .applySetting(AvailableSettings.JAKARTA_JDBC_USER, "sa")
+                .applySetting(AvailableSettings.JAKARTA_VALIDATION_MODE, "none")
+                .applySetting(AvailableSettings.HBM2DDL_AUTO, "create-drop")
+                .applySetting(AvailableSettings.STATEMENT_BATCH_SIZE, 50)
+                .build();
+        sessionFactory = new MetadataSources(registry)
+                .addAnnotatedClass(User.class)
+                .addAnnotatedClass(Product.class)
+                .buildMetadata()
+                .buildSessionFactory();
+
+        sessionFactory.inTransaction(session -> {
+            User[] sellers = new User[SELLERS];
+            for (int i = 0; i < SELLERS; i++) {
+                sellers[i] = BenchmarkFixtures.user(i);
+                sellers[i].setUserId(null);
+                session.persist(sellers[i]);
+            }
+            for (int i = 0; i < PRODUCTS; i++) {
+                Product product = BenchmarkFixtures.product(i, sellers[i % SELLERS]);
+                product.setProductId(null);
+                session.persist(product);
+            }
+        });
+    }
+
+    @TearDown
+    public void tearDown() {
+        sessionFactory.close();
+        StandardServiceRegistryBuilder.destroy(registry);
+    }
+
+    @Benchmark
+    public double readWrite() {
+        try (Session session = sessionFactory.openSession()) {
+            Transaction transaction = session.beginTransaction();
+            double total = sum(session.createSelectionQuery(PAGE_QUERY, Product.class)
+                    .setMaxResults(pageSize)
+                    .getResultList());
+            // The commit flushes, comparing every loaded product with its snapshot
+            transaction.commit();
+            return total;
+        }
+    }
+
+    @Benchmark
+    public double readOnly() {
+        try (Session session = sessionFactory.openSession()) {
+            session.setDefaultReadOnly(true);
+            session.setHibernateFlushMode(FlushMode.MANUAL);
+            Transaction transaction = session.beginTransaction();
+            double total = sum(session.createSelectionQuery(PAGE_QUERY, Product.class)
+                    .setReadOnly(true)
+                    .setMaxResults(pageSize)
+                    .getResultList());
+            transaction.commit();
+            return total;
+        }
+    }
+
+    @Benchmark
+    public double stateless() {
+        try (StatelessSession session = sessionFactory.openStatelessSession()) {
+            Transaction transaction = session.beginTransaction();
+            double total = sum(session.createSelectionQuery(PAGE_QUERY, Product.class)
+                    .setMaxResults(pageSize)
+                    .getResultList());
+            transaction.commit();
+            return total;
+        }
+    }
+
+    // Only basic columns: a stateless session cannot initialize the lazy seller or collections afterwards
+    private static double sum(List<Product> products) {
+        double total = 0;
+        for (Product product : products) {
+            total += product.getPrice().doubleValue() * product.getStockQuantity() + product.getRating();
+        }
+        return total;
+    }
+}
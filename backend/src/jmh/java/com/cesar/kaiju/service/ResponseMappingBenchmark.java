@@ -0,0 +1,77 @@
+package com.cesar.kaiju.service;
+
+import com.cesar.kaiju.BenchmarkFixtures;
+import com.cesar.kaiju.dto.ProductResponseDTO;
+import com.cesar.kaiju.dto.VeterinarianResponseDTO;
+import com.cesar.kaiju.model.Product;
+import com.cesar.kaiju.model.User;
+import com.cesar.kaiju.model.Veterinarian;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Entity to DTO mapping for one page of results, on detached entities. This is the in-process cost
+ * only; the lazy loads the same mapping triggers inside a session are covered by the query budget tests.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ResponseMappingBenchmark {
+
+    @Param({"20", "100"})
+    private int pageSize;
+
+    private ProductService productService;
+    private VeterinarianService veterinarianService;
+    private List<Product> products;
+    private List<Veterinarian> veterinarians;
+
+    @Setup
+    public void setUp() {
+        // toResponseDTO touches none of the collaborators
+        productService = new ProductService(null, null, null, null, null);
+        veterinarianService = new VeterinarianService(null, null, null, null, null, null);
+
+        products = new ArrayList<>(pageSize);
+        veterinarians = new ArrayList<>(pageSize);
+        for (int i = 0; i < pageSize; i++) {
+            User user = BenchmarkFixtures.user(i);
+            products.add(BenchmarkFixtures.product(i, user));
+            veterinarians.add(BenchmarkFixtures.veterinarian(i, user));
+        }
+    }
+
+    @Benchmark
+    public List<ProductResponseDTO> productPage() {
+        List<ProductResponseDTO> page = new ArrayList<>(pageSize);
+        for (Product product : products) {
+            page.add(productService.toResponseDTO(product));
+        }
+        return page;
+    }
+
+    @Benchmark
+    public List<VeterinarianResponseDTO> veterinarianPage() {
+        List<VeterinarianResponseDTO> page = new ArrayList<>(pageSize);
+        for (Veterinarian veterinarian : veterinarians) {
+            page.add(veterinarianService.toResponseDTO(veterinarian));
+        }
+        return page;
+    }
+}
@@ -0,0 +1,163 @@
+package com.cesar.kaiju.service;
+
+import com.cesar.kaiju.BenchmarkFixtures;
+import com.cesar.kaiju.model.Product;
+import com.cesar.kaiju.model.ProductReview;
+import com.cesar.kaiju.model.User;
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import net.ttddyy.dsproxy.QueryCountHolder;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.hibernate.SessionFactory;
+import org.hibernate.boot.MetadataSources;
+import org.hibernate.boot.registry.StandardServiceRegistry;
+import org.hibernate.boot.registry.StandardServiceRegistryBuilder;
+import org.hibernate.cfg.AvailableSettings;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Multi-row writes against an embedded PostgreSQL: a product with 10 images and 10 tags, and 20
+ * reviews in one transaction. Compares batch size 1 (no batching) with the configured 50, with and
+ * without the driver's reWriteBatchedInserts. The {@code statements} counter is the number of JDBC
+ * executions, i.e. round-trips; divide it by {@code operations} for the count per write.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class WriteBatchingBenchmark {
+
+    private static final int IMAGES = 10;
+    private static final int TAGS = 10;
+    private static final int REVIEWS = 20;
+
+    @Param({"1", "50"})
+    private int batchSize;
+
+    @Param({"false", "true"})
+    private boolean reWriteBatchedInserts;
+
+    private EmbeddedPostgres postgres;
+    private HikariDataSource dataSource;
+    private StandardServiceRegistry registry;
+    private SessionFactory sessionFactory;
+    private User seller;
+    private Product reviewedProduct;
+    private int sequence;
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Counters {
+        public long statements;
+        public long operations;
+    }
+
+    @Setup
+    public void setUp() throws IOException {
+        postgres = EmbeddedPostgres.builder().start();
+
+        HikariConfig config = new HikariConfig();
+        config.setDataSource(ProxyDataSourceBuilder
+                .create(postgres.getPostgresDatabase(Map.of("reWriteBatchedInserts", String.valueOf(reWriteBatchedInserts))))
+                .countQuery()
+                .build());
+        config.setMaximumPoolSize(2);
+        dataSource = new HikariDataSource(config);
+
+        registry = new StandardServiceRegistryBuilder()
+                .applySetting(AvailableSettings.JAKARTA_NON_JTA_DATASOURCE, dataSource)
+                .applySetting(AvailableSettings.JAKARTA_VALIDATION_MODE, "none")
+                .applySetting(AvailableSettings.HBM2DDL_AUTO, "create")
+                .applySetting(AvailableSettings.STATEMENT_BATCH_SIZE, batchSize)
+                .applySetting(AvailableSettings.ORDER_INSERTS, true)
+                .applySetting(AvailableSettings.ORDER_UPDATES, true)
+                .build();
+        sessionFactory = new MetadataSources(registry)
+                .addAnnotatedClass(User.class)
+                .addAnnotatedClass(Product.class)
+                .addAnnotatedClass(ProductReview.class)
+                .buildMetadata()
+                .buildSessionFactory();
+
+        seller = BenchmarkFixtures.user(0);
+        seller.setUserId(null);
+        reviewedProduct = newProduct(seller);
+        sessionFactory.inTransaction(session -> {
+            session.persist(seller);
+            session.persist(reviewedProduct);
+        });
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        sessionFactory.close();
+        StandardServiceRegistryBuilder.destroy(registry);
+        dataSource.close();
+        postgres.close();
+    }
+
+    @Benchmark
+    public Product createProduct(Counters counters) {
+        Product product = newProduct(seller);
+        long before = QueryCountHolder.getGrandTotal().getTotal();
+        sessionFactory.inTransaction(session -> session.persist(product));
+        counters.statements += QueryCountHolder.getGrandTotal().getTotal() - before;
+        counters.operations++;
+        return product;
+    }
+
+    @Benchmark
+    public List<ProductReview> createReviews(Counters counters) {
+        List<ProductReview> reviews = new ArrayList<>(REVIEWS);
+        for (int i = 0; i < REVIEWS; i++) {
+            ProductReview review = new ProductReview();
+            review.setProduct(reviewedProduct);
+            review.setUser(seller);
+            review.setRating(1 + i % 5);
+            review.setComment("Chegou rápido e a iluminação ficou ótima no terrário.");
+            reviews.add(review);
+        }
+        long before = QueryCountHolder.getGrandTotal().getTotal();
+        sessionFactory.inTransaction(session -> reviews.forEach(session::persist));
+        counters.statements += QueryCountHolder.getGrandTotal().getTotal() - before;
+        counters.operations++;
+        return reviews;
+    }
+
+    private Product newProduct(User seller) {
+        Product product = BenchmarkFixtures.product(sequence++, seller);
+        product.setProductId(null);
+        List<String> images = new ArrayList<>(IMAGES);
+        for (int i = 0; i < IMAGES; i++) {
+            images.add("https://img.kaiju.invalid/" + sequence + "/" + i + ".webp");
+        }
+        List<String> tags = new ArrayList<>(TAGS);
+        for (int i = 0; i < TAGS; i++) {
+            tags.add("tag" + i);
+        }
+        product.setImages(images);
+        product.setTags(tags);
+        return product;
+    }
+}
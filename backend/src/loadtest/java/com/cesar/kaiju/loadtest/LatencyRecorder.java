@@ -0,0 +1,80 @@
+package com.cesar.kaiju.loadtest;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Keeps every latency sample (in microseconds) per endpoint. A run of a few minutes records a few
+ * million samples, small enough to sort at the end, which gives exact percentiles.
+ */
+public class LatencyRecorder {
+
+    private final Map<String, Samples> samples = new ConcurrentHashMap<>();
+
+    public void record(String endpoint, long micros, boolean success) {
+        samples.computeIfAbsent(endpoint, key -> new Samples()).add(micros, success);
+    }
+
+    public List<EndpointStats> summarize(double seconds) {
+        List<EndpointStats> stats = new ArrayList<>();
+        samples.entrySet().stream()
+                .sorted(Map.Entry.comparingByKey())
+                .forEach(entry -> stats.add(entry.getValue().summarize(entry.getKey(), seconds)));
+        return stats;
+    }
+
+    public record EndpointStats(String endpoint, long requests, long errors, double throughput,
+                                double p50Ms, double p90Ms, double p99Ms, double p999Ms, double maxMs) {
+
+        Map<String, Object> toMap() {
+            Map<String, Object> map = new LinkedHashMap<>();
+            map.put("endpoint", endpoint);
+            map.put("requests", requests);
+            map.put("errors", errors);
+            map.put("throughput", throughput);
+            map.put("p50Ms", p50Ms);
+            map.put("p90Ms", p90Ms);
+            map.put("p99Ms", p99Ms);
+            map.put("p999Ms", p999Ms);
+            map.put("maxMs", maxMs);
+            return map;
+        }
+    }
+
+    private static final class Samples {
+
+        private long[] values = new long[1 << 14];
+        private int size;
+        private long errors;
+
+        synchronized void add(long micros, boolean success) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = micros;
+            if (!success) {
+                errors++;
+            }
+        }
+
+        synchronized EndpointStats summarize(String endpoint, double seconds) {
+            long[] sorted = Arrays.copyOf(values, size);
+            Arrays.sort(sorted);
+            return new EndpointStats(endpoint, size, errors, size / seconds,
+                    percentile(sorted, 0.50), percentile(sorted, 0.90), percentile(sorted, 0.99),
+                    percentile(sorted, 0.999), sorted.length == 0 ? 0 : sorted[sorted.length - 1] / 1000.0);
+        }
+
+        private static double percentile(long[] sorted, double quantile) {
+            if (sorted.length == 0) {
+                return 0;
+            }
+            int index = (int) Math.ceil(quantile * sorted.length) - 1;
+            return sorted[Math.max(index, 0)] / 1000.0;
+        }
+    }
+}
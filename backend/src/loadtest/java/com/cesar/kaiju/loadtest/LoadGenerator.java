@@ -0,0 +1,205 @@
+package com.cesar.kaiju.loadtest;
+
+import com.cesar.kaiju.dto.CityResponseDTO;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Closed-loop HTTP load: each worker (a virtual thread) logs in once, then sends requests back to back,
+ * picking a scenario by weight every time. Samples taken during the warmup are discarded. Being closed
+ * loop, a slow server also slows the offered load, so compare runs at the same concurrency.
+ */
+public class LoadGenerator {
+
+    enum Scenario {
+        BROWSE("GET /api/products", 30),
+        PRODUCT("GET /api/products/{id}", 15),
+        PRODUCT_REVIEWS("GET /api/products/{id}/reviews", 10),
+        SEARCH("GET /api/products/search", 12),
+        VET_SEARCH("GET /api/veterinarians/search", 8),
+        NEARBY("GET /api/veterinarians/nearby", 10),
+        LOGIN("POST /api/auth/login", 5),
+        REVIEW("POST /api/products/{id}/reviews", 10);
+
+        private final String endpoint;
+        private final int weight;
+
+        Scenario(String endpoint, int weight) {
+            this.endpoint = endpoint;
+            this.weight = weight;
+        }
+    }
+
+    private static final int TOTAL_WEIGHT = totalWeight();
+
+    private final String baseUrl;
+    private final long users;
+    private final long products;
+    private final List<CityResponseDTO> cities;
+    private final HttpClient client;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    public LoadGenerator(String baseUrl, long users, long products, List<CityResponseDTO> cities) {
+        this.baseUrl = baseUrl;
+        this.users = users;
+        this.products = products;
+        this.cities = cities;
+        this.client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .build();
+    }
+
+    public LatencyRecorder run(int concurrency, Duration warmup, Duration duration) throws InterruptedException {
+        LatencyRecorder recorder = new LatencyRecorder();
+        long measureFrom = System.nanoTime() + warmup.toNanos();
+        long end = measureFrom + duration.toNanos();
+
+        try (ExecutorService workers = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < concurrency; i++) {
+                workers.submit(() -> work(recorder, measureFrom, end));
+            }
+        }
+        return recorder;
+    }
+
+    private Void work(LatencyRecorder recorder, long measureFrom, long end) throws InterruptedException {
+        String token = null;
+        while (token == null && System.nanoTime() < end) {
+            token = login(randomUser());
+        }
+        while (System.nanoTime() < end) {
+            Scenario scenario = pick();
+            HttpRequest request = request(scenario, token);
+            long start = System.nanoTime();
+            boolean success;
+            String body = null;
+            try {
+                HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+                success = response.statusCode() < 400;
+                body = response.body();
+            } catch (IOException e) {
+                success = false;
+            }
+            long finished = System.nanoTime();
+            if (start >= measureFrom) {
+                recorder.record(scenario.endpoint, (finished - start) / 1000, success);
+            }
+            if (scenario == Scenario.LOGIN && success) {
+                String refreshed = readToken(body);
+                token = refreshed != null ? refreshed : token;
+            }
+        }
+        return null;
+    }
+
+    private HttpRequest request(Scenario scenario, String token) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        return switch (scenario) {
+            case BROWSE -> get("/api/products?page=" + random.nextInt(50) + "&size=20&sort=createdAt,desc");
+            case PRODUCT -> get("/api/products/" + SyntheticDataGenerator.productId(random.nextLong(products)));
+            case PRODUCT_REVIEWS -> get("/api/products/" + hotProduct() + "/reviews?size=10&sort=createdAt,desc");
+            case SEARCH -> get("/api/products/search?size=20&keyword="
+                    + encode(SyntheticDataGenerator.PRODUCT_NOUNS[random.nextInt(SyntheticDataGenerator.PRODUCT_NOUNS.length)]));
+            case VET_SEARCH -> {
+                CityResponseDTO city = cities.get(random.nextInt(cities.size()));
+                yield get("/api/veterinarians/search?size=20&city=" + encode(city.name()) + "&state=" + city.stateCode());
+            }
+            case NEARBY -> {
+                CityResponseDTO city = cities.get(random.nextInt(cities.size()));
+                yield get("/api/veterinarians/nearby?radiusKm=10&latitude=" + city.latitude() + "&longitude=" + city.longitude());
+            }
+            case LOGIN -> loginRequest(randomUser());
+            case REVIEW -> HttpRequest.newBuilder(URI.create(baseUrl + "/api/products/" + hotProduct() + "/reviews"))
+                    .header("Content-Type", "application/json")
+                    .header("Authorization", "Bearer " + token)
+                    .POST(HttpRequest.BodyPublishers.ofString(
+                            "{\"rating\":" + (1 + random.nextInt(5)) + ",\"comment\":\"Avaliação do teste de carga\"}"))
+                    .build();
+        };
+    }
+
+    private String login(String username) throws InterruptedException {
+        try {
+            HttpResponse<String> response = client.send(loginRequest(username), HttpResponse.BodyHandlers.ofString());
+            return response.statusCode() == 200 ? readToken(response.body()) : null;
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    private HttpRequest loginRequest(String username) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + "/api/auth/login"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(
+                        "{\"username\":\"" + username + "\",\"password\":\"" + SyntheticDataGenerator.PASSWORD + "\"}"))
+                .build();
+    }
+
+    private String readToken(String body) {
+        try {
+            return objectMapper.readValue(body, Map.class).get("token").toString();
+        } catch (IOException | RuntimeException e) {
+            return null;
+        }
+    }
+
+    private HttpRequest get(String path) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path)).GET().build();
+    }
+
+    private String randomUser() {
+        return SyntheticDataGenerator.username(ThreadLocalRandom.current().nextLong(users));
+    }
+
+    // Reviews are concentrated on the first products (see SyntheticDataGenerator), so read and write there too
+    private Object hotProduct() {
+        return SyntheticDataGenerator.productId(ThreadLocalRandom.current().nextLong(Math.min(products, 1000)));
+    }
+
+    private static String encode(String value) {
+        return URLEncoder.encode(value, StandardCharsets.UTF_8);
+    }
+
+    private static Scenario pick() {
+        int roll = ThreadLocalRandom.current().nextInt(TOTAL_WEIGHT);
+        for (Scenario scenario : Scenario.values()) {
+            roll -= scenario.weight;
+            if (roll < 0) {
+                return scenario;
+            }
+        }
+        throw new IllegalStateException();
+    }
+
+    private static int totalWeight() {
+        int total = 0;
+        for (Scenario scenario : Scenario.values()) {
+            total += scenario.weight;
+        }
+        return total;
+    }
+
+    static List<String> describeMix() {
+        List<String> mix = new ArrayList<>();
+        for (Scenario scenario : Scenario.values()) {
+            mix.add(String.format("%3d%%  %s", Math.round(100.0 * scenario.weight / TOTAL_WEIGHT), scenario.endpoint));
+        }
+        return mix;
+    }
+}
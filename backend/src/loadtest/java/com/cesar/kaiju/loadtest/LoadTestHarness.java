@@ -0,0 +1,235 @@
+package com.cesar.kaiju.loadtest;
+
+import com.cesar.kaiju.KaijuApplication;
+import com.cesar.kaiju.dto.CityResponseDTO;
+import com.cesar.kaiju.dto.StateResponseDTO;
+import com.cesar.kaiju.service.LocationService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.CountAtBucket;
+import io.micrometer.core.instrument.distribution.HistogramSnapshot;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.File;
+import java.security.SecureRandom;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * End-to-end load test on a laptop: starts an embedded PostgreSQL (or uses {@code --jdbc-url}), boots
+ * the application on a random port, seeds the synthetic dataset and drives the mixed workload from
+ * {@link LoadGenerator}. Prints throughput and latency percentiles per endpoint and writes them as JSON.
+ *
+ * <pre>
+ * ./mvnw -Pload-test test-compile exec:exec -Dloadtest.args="--users=2000000 --products=1000000 --concurrency=400"
+ * </pre>
+ */
+public class LoadTestHarness {
+
+    private static final List<String> POOL_TIMERS = List.of("hikaricp.connections.usage", "hikaricp.connections.acquire");
+
+    public static void main(String[] args) throws Exception {
+        Options options = Options.parse(args);
+
+        EmbeddedPostgres postgres = null;
+        String jdbcUrl = options.jdbcUrl();
+        if (jdbcUrl == null) {
+            postgres = EmbeddedPostgres.builder()
+                    .setServerConfig("max_connections", "300")
+                    .setServerConfig("shared_buffers", "512MB")
+                    .start();
+            jdbcUrl = postgres.getJdbcUrl("postgres", "postgres");
+            System.out.println("Embedded PostgreSQL on " + jdbcUrl);
+        }
+
+        ConfigurableApplicationContext context = null;
+        try {
+            context = boot(options, jdbcUrl);
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+
+            LocationService locationService = context.getBean(LocationService.class);
+            List<StateResponseDTO> states = locationService.getStates();
+            Map<String, List<CityResponseDTO>> citiesByState = new HashMap<>();
+            List<CityResponseDTO> cities = new ArrayList<>();
+            for (StateResponseDTO state : states) {
+                List<CityResponseDTO> stateCities = locationService.getCities(state.code());
+                citiesByState.put(state.code(), stateCities);
+                cities.addAll(stateCities);
+            }
+
+            try (Connection connection = DriverManager.getConnection(jdbcUrl, options.dbUser(), options.dbPassword())) {
+                SyntheticDataGenerator generator = new SyntheticDataGenerator(connection);
+                if (generator.isSeeded()) {
+                    System.out.println("Synthetic dataset already present, skipping seed");
+                } else {
+                    System.out.println("Seeding synthetic dataset");
+                    generator.seed(options.users(), options.products(), options.reviews(), options.vets(), states, citiesByState);
+                }
+            }
+
+            System.out.printf("Running %d workers for %s (+%s warmup) against port %d%n",
+                    options.concurrency(), options.duration(), options.warmup(), port);
+            LoadGenerator.describeMix().forEach(line -> System.out.println("  " + line));
+
+            LoadGenerator generator = new LoadGenerator("http://localhost:" + port, options.users(), options.products(), cities);
+            LatencyRecorder recorder = generator.run(options.concurrency(), options.warmup(), options.duration());
+            report(options, recorder.summarize(options.duration().toMillis() / 1000.0), poolStats(context.getBean(MeterRegistry.class)));
+        } finally {
+            if (context != null) {
+                context.close();
+            }
+            if (postgres != null) {
+                postgres.close();
+            }
+        }
+    }
+
+    private static ConfigurableApplicationContext boot(Options options, String jdbcUrl) {
+        byte[] secret = new byte[64];
+        new SecureRandom().nextBytes(secret);
+
+        // Command-line arguments, so they take precedence over application.properties
+        List<String> arguments = new ArrayList<>(List.of(
+                "--spring.datasource.url=" + jdbcUrl,
+                "--spring.datasource.username=" + options.dbUser(),
+                "--spring.datasource.password=" + options.dbPassword(),
+                "--spring.datasource.hikari.maximum-pool-size=" + options.poolSize(),
+                "--JWT_SECRET_KEY=" + Base64.getEncoder().encodeToString(secret),
+                "--APP_MAIL_SENDER_EMAIL=loadtest@kaiju.invalid",
+                "--APP.MAIL.SENDER.EMAIL=loadtest@kaiju.invalid",
+                "--GMAIL_APP_PASSWORD=unused",
+                "--spring.mail.host=localhost",
+                "--spring.mail.port=1",
+                "--server.port=0",
+                "--spring.jpa.show-sql=false",
+                "--logging.level.root=WARN",
+                "--spring.threads.virtual.enabled=" + options.virtualThreads()));
+        arguments.addAll(options.springArguments());
+
+        return new SpringApplicationBuilder(KaijuApplication.class).run(arguments.toArray(String[]::new));
+    }
+
+    private static void report(Options options, List<LatencyRecorder.EndpointStats> stats, List<Map<String, Object>> pools)
+            throws Exception {
+        System.out.println();
+        System.out.printf("%-34s %10s %7s %9s %9s %9s %9s %9s %9s%n",
+                "endpoint", "requests", "errors", "req/s", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms");
+        long total = 0;
+        for (LatencyRecorder.EndpointStats endpoint : stats) {
+            total += endpoint.requests();
+            System.out.printf("%-34s %,10d %,7d %9.1f %9.2f %9.2f %9.2f %9.2f %9.2f%n",
+                    endpoint.endpoint(), endpoint.requests(), endpoint.errors(), endpoint.throughput(),
+                    endpoint.p50Ms(), endpoint.p90Ms(), endpoint.p99Ms(), endpoint.p999Ms(), endpoint.maxMs());
+        }
+        System.out.printf("%-34s %,10d %7s %9.1f%n", "total", total, "", total / (options.duration().toMillis() / 1000.0));
+        System.out.println();
+        for (Map<String, Object> pool : pools) {
+            System.out.printf("%-34s %,10d   mean %.2f ms, max %.2f ms%n",
+                    pool.get("metric") + " (" + pool.get("pool") + ")", pool.get("count"), pool.get("meanMs"), pool.get("maxMs"));
+        }
+
+        if (options.report() != null) {
+            Map<String, Object> json = new LinkedHashMap<>();
+            json.put("finishedAt", Instant.now().toString());
+            json.put("options", options.describe());
+            json.put("endpoints", stats.stream().map(LatencyRecorder.EndpointStats::toMap).toList());
+            json.put("connectionPools", pools);
+            File file = new File(options.report());
+            file.getParentFile().mkdirs();
+            new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(file, json);
+            System.out.println("Report written to " + file);
+        }
+    }
+
+    // Connection hold and acquire times of every Hikari pool over the whole run, warmup included
+    private static List<Map<String, Object>> poolStats(MeterRegistry registry) {
+        List<Map<String, Object>> pools = new ArrayList<>();
+        for (String name : POOL_TIMERS) {
+            for (Timer timer : registry.find(name).timers()) {
+                HistogramSnapshot snapshot = timer.takeSnapshot();
+                Map<String, Long> buckets = new LinkedHashMap<>();
+                for (CountAtBucket bucket : snapshot.histogramCounts()) {
+                    buckets.put("le " + bucket.bucket(TimeUnit.MILLISECONDS) + " ms", (long) bucket.count());
+                }
+
+                Map<String, Object> pool = new LinkedHashMap<>();
+                pool.put("pool", timer.getId().getTag("pool"));
+                pool.put("metric", name);
+                pool.put("count", snapshot.count());
+                pool.put("meanMs", snapshot.mean(TimeUnit.MILLISECONDS));
+                pool.put("maxMs", snapshot.max(TimeUnit.MILLISECONDS));
+                pool.put("buckets", buckets);
+                pools.add(pool);
+            }
+        }
+        return pools;
+    }
+
+    record Options(long users, long products, long reviews, long vets, int concurrency, Duration warmup,
+                   Duration duration, int poolSize, boolean virtualThreads, String jdbcUrl, String dbUser,
+                   String dbPassword, String report, List<String> springArguments) {
+
+        static Options parse(String[] args) {
+            Map<String, String> values = new HashMap<>();
+            List<String> springArguments = new ArrayList<>();
+            for (String arg : args) {
+                if (!arg.startsWith("--")) {
+                    continue;
+                }
+                int separator = arg.indexOf('=');
+                String key = separator > 0 ? arg.substring(2, separator) : arg.substring(2);
+                String value = separator > 0 ? arg.substring(separator + 1) : "true";
+                // Anything that looks like a Spring property is handed to the application untouched
+                if (key.contains(".")) {
+                    springArguments.add(arg);
+                } else {
+                    values.put(key, value);
+                }
+            }
+            return new Options(
+                    Long.parseLong(values.getOrDefault("users", "1000000")),
+                    Long.parseLong(values.getOrDefault("products", "1000000")),
+                    Long.parseLong(values.getOrDefault("reviews", "3000000")),
+                    Long.parseLong(values.getOrDefault("vets", "20000")),
+                    Integer.parseInt(values.getOrDefault("concurrency", "200")),
+                    Duration.ofSeconds(Long.parseLong(values.getOrDefault("warmup", "30"))),
+                    Duration.ofSeconds(Long.parseLong(values.getOrDefault("duration", "120"))),
+                    Integer.parseInt(values.getOrDefault("pool-size", "20")),
+                    Boolean.parseBoolean(values.getOrDefault("virtual-threads", "false")),
+                    values.get("jdbc-url"),
+                    values.getOrDefault("db-user", "postgres"),
+                    values.getOrDefault("db-password", values.containsKey("jdbc-url") ? "" : "postgres"),
+                    values.get("report"),
+                    springArguments);
+        }
+
+        Map<String, Object> describe() {
+            Map<String, Object> map = new LinkedHashMap<>();
+            map.put("users", users);
+            map.put("products", products);
+            map.put("reviews", reviews);
+            map.put("vets", vets);
+            map.put("concurrency", concurrency);
+            map.put("warmupSeconds", warmup.toSeconds());
+            map.put("durationSeconds", duration.toSeconds());
+            map.put("poolSize", poolSize);
+            map.put("virtualThreads", virtualThreads);
+            map.put("springArguments", springArguments);
+            return map;
+        }
+    }
+}
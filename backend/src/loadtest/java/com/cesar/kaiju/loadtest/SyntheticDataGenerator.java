@@ -0,0 +1,276 @@
+package com.cesar.kaiju.loadtest;
+
+import com.cesar.kaiju.dto.CityResponseDTO;
+import com.cesar.kaiju.dto.StateResponseDTO;
+import com.cesar.kaiju.enums.ProductCategory;
+import com.cesar.kaiju.enums.VeterinarianSpecialization;
+import com.cesar.kaiju.model.ProductReview;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.PGCopyOutputStream;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.UUID;
+
+/**
+ * Fills the schema Hibernate created with a synthetic dataset through {@code COPY ... FROM STDIN}.
+ * Ids are derived from the row number ({@link #userId(long)} and friends), so the load generator can
+ * address any seeded row without reading them back. The random seed is fixed: the same sizes give
+ * the same dataset.
+ */
+public class SyntheticDataGenerator {
+
+    public static final String PASSWORD = "loadtest";
+
+    private static final long USER_NAMESPACE = 0x4b41494a55000001L;
+    private static final long PRODUCT_NAMESPACE = 0x4b41494a55000002L;
+    private static final long VETERINARIAN_NAMESPACE = 0x4b41494a55000003L;
+
+    private static final int COPY_BUFFER_SIZE = 1 << 16;
+    private static final DateTimeFormatter TIMESTAMP = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    static final String[] PRODUCT_NOUNS = {"Lâmpada UVB", "Terrário", "Ração", "Aquecedor", "Termostato", "Substrato",
+            "Toca", "Bebedouro", "Pinça", "Vitamina", "Cálcio", "Tapete térmico", "Higrômetro", "Guia"};
+    private static final String[] PRODUCT_ADJECTIVES = {"Premium", "Compacto", "Natural", "Tropical", "Desértico",
+            "Profissional", "Básico", "XL", "Mini", "Orgânico"};
+    private static final String[] BRANDS = {"Arcadia", "Exo Terra", "Zoo Med", "Repti Zoo", "Kaiju", "Lucky Reptile"};
+    private static final String[] TAGS = {"gecko", "jiboia", "iguana", "tartaruga", "camaleao", "dragao-barbudo",
+            "pitao", "uvb", "aquecimento", "alimentacao"};
+    private static final String[] COMMENTS = {"Chegou rápido e bem embalado.", "Meu gecko se adaptou muito bem.",
+            "Bom custo-benefício.", "Qualidade abaixo do esperado.", "Recomendo, uso há meses sem problemas."};
+    private static final String[] LANGUAGES = {"pt", "en", "es"};
+
+    private final Connection connection;
+    private final SplittableRandom random = new SplittableRandom(42);
+    private final LocalDateTime now = LocalDateTime.now().withNano(0);
+
+    public SyntheticDataGenerator(Connection connection) {
+        this.connection = connection;
+    }
+
+    public static UUID userId(long i) {
+        return new UUID(USER_NAMESPACE, i);
+    }
+
+    public static UUID productId(long i) {
+        return new UUID(PRODUCT_NAMESPACE, i);
+    }
+
+    public static UUID veterinarianId(long i) {
+        return new UUID(VETERINARIAN_NAMESPACE, i);
+    }
+
+    public static String username(long i) {
+        return "lt" + i;
+    }
+
+    public boolean isSeeded() throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement("SELECT 1 FROM users WHERE user_id = ?")) {
+            statement.setObject(1, userId(0));
+            try (ResultSet rs = statement.executeQuery()) {
+                return rs.next();
+            }
+        }
+    }
+
+    // Veterinarians are the first users, so every vet has a login
+    public void seed(long users, long products, long reviews, long veterinarians,
+                     List<StateResponseDTO> states, Map<String, List<CityResponseDTO>> citiesByState) throws SQLException, IOException {
+        if (veterinarians > users) {
+            throw new IllegalArgumentException("--vets cannot exceed --users");
+        }
+        timed("users", users, () -> seedUsers(users));
+        timed("products", products, () -> seedProducts(products, users));
+        timed("reviews", reviews, () -> seedReviews(reviews, products, users));
+        timed("veterinarians", veterinarians, () -> seedVeterinarians(veterinarians, states, citiesByState));
+        timed("product ratings", products, this::refreshProductRatings);
+        timed("analyze", 0, () -> execute("ANALYZE"));
+    }
+
+    private void seedUsers(long users) throws SQLException, IOException {
+        // Every synthetic user shares one hash, so seeding does not spend minutes in BCrypt
+        String password = new BCryptPasswordEncoder().encode(PASSWORD);
+        try (Copy copy = copy("users (user_id, username, name, password, email, role, situation, created_at)")) {
+            for (long i = 0; i < users; i++) {
+                copy.row(userId(i), username(i), "Usuário Sintético " + i, password, username(i) + "@load.kaiju.invalid",
+                        "USER", "VERIFIED", timestamp(random.nextInt(3 * 365)));
+            }
+        }
+    }
+
+    private void seedProducts(long products, long users) throws SQLException, IOException {
+        ProductCategory[] categories = ProductCategory.values();
+        try (Copy copy = copy("products (product_id, name, description, price, category, status, stock_quantity, seller_id, " +
+                "brand, manufacturer, rating, review_count, created_at, updated_at, thumbnail_url)")) {
+            for (long i = 0; i < products; i++) {
+                String name = pick(PRODUCT_NOUNS) + " " + pick(PRODUCT_ADJECTIVES) + " " + i;
+                String status = random.nextInt(20) == 0 ? "OUT_OF_STOCK" : "ACTIVE";
+                String brand = pick(BRANDS);
+                String created = timestamp(random.nextInt(2 * 365));
+                copy.row(productId(i), name, "Produto sintético para teste de carga: " + name, price(),
+                        categories[random.nextInt(categories.length)].name(), status, random.nextInt(200),
+                        userId(random.nextLong(users)), brand, brand, 0.0, 0, created, created, imageUrl(i, 0));
+            }
+        }
+        try (Copy copy = copy("product_images (product_id, image_url)")) {
+            for (long i = 0; i < products; i++) {
+                int images = 1 + random.nextInt(3);
+                for (int j = 0; j < images; j++) {
+                    copy.row(productId(i), imageUrl(i, j));
+                }
+            }
+        }
+        try (Copy copy = copy("product_tags (product_id, tag)")) {
+            for (long i = 0; i < products; i++) {
+                copy.row(productId(i), pick(TAGS));
+                copy.row(productId(i), pick(TAGS));
+            }
+        }
+    }
+
+    private void seedReviews(long reviews, long products, long users) throws SQLException, IOException {
+        try (Copy copy = copy("product_reviews (id, product_id, user_id, rating, comment, helpful, created_at)")) {
+            for (long i = 0; i < reviews; i++) {
+                // Skewed towards the first products so some pages have many reviews, like real best sellers
+                long product = (long) (products * Math.pow(random.nextDouble(), 3));
+                copy.row(i + 1, productId(product), userId(random.nextLong(users)), 1 + random.nextInt(5), pick(COMMENTS),
+                        random.nextInt(10), timestamp(random.nextInt(365)));
+            }
+        }
+        // The ids were written explicitly, so the sequence (blocks of 50) has to start past them
+        execute("SELECT setval('product_reviews_seq', " + (reviews + ProductReview.ID_ALLOCATION_SIZE) + ")");
+    }
+
+    private void seedVeterinarians(long veterinarians, List<StateResponseDTO> states,
+                                   Map<String, List<CityResponseDTO>> citiesByState) throws SQLException, IOException {
+        VeterinarianSpecialization[] specializations = VeterinarianSpecialization.values();
+        try (Copy copy = copy("veterinarians (veterinarian_id, user_id, full_name, license_number, bio, contact_email, " +
+                "phone_number, clinic_name, clinic_address, city, state, city_id, state_code, country, latitude, longitude, " +
+                "years_of_experience, is_verified, is_available_for_chat, rating, review_count, consultation_fee, " +
+                "accepts_new_patients, created_at, updated_at)")) {
+            for (long i = 0; i < veterinarians; i++) {
+                StateResponseDTO state = states.get(random.nextInt(states.size()));
+                List<CityResponseDTO> cities = citiesByState.get(state.code());
+                CityResponseDTO city = cities.get(random.nextInt(cities.size()));
+                // Up to ~15 km around the city centroid
+                double latitude = city.latitude() + (random.nextDouble() - 0.5) * 0.27;
+                double longitude = city.longitude() + (random.nextDouble() - 0.5) * 0.27;
+                String created = timestamp(random.nextInt(3 * 365));
+                copy.row(veterinarianId(i), userId(i), "Dr(a). Sintético " + i, "CRMV-" + state.code() + " " + i,
+                        "Veterinário sintético para teste de carga.", username(i) + "@load.kaiju.invalid",
+                        "+55 11 90000-0000", "Clínica Sintética " + i, "Rua Sintética, " + i, city.name(), state.name(),
+                        city.cityId(), state.code(), "Brasil", latitude, longitude, random.nextInt(30),
+                        random.nextInt(10) != 0, random.nextBoolean(), 3.0 + random.nextDouble() * 2.0,
+                        random.nextInt(200), 100.0 + random.nextInt(300), true, created, created);
+            }
+        }
+        try (Copy copy = copy("veterinarian_specializations (veterinarian_id, specialization)")) {
+            for (long i = 0; i < veterinarians; i++) {
+                int first = random.nextInt(specializations.length);
+                copy.row(veterinarianId(i), specializations[first].name());
+                if (random.nextBoolean()) {
+                    copy.row(veterinarianId(i), specializations[(first + 1) % specializations.length].name());
+                }
+            }
+        }
+        try (Copy copy = copy("veterinarian_certifications (veterinarian_id, certification)")) {
+            for (long i = 0; i < veterinarians; i++) {
+                copy.row(veterinarianId(i), "Medicina de Répteis");
+            }
+        }
+        try (Copy copy = copy("veterinarian_languages (veterinarian_id, language)")) {
+            for (long i = 0; i < veterinarians; i++) {
+                copy.row(veterinarianId(i), "pt");
+                if (random.nextInt(3) == 0) {
+                    copy.row(veterinarianId(i), LANGUAGES[1 + random.nextInt(LANGUAGES.length - 1)]);
+                }
+            }
+        }
+    }
+
+    private void refreshProductRatings() throws SQLException {
+        execute("UPDATE products p SET rating = r.rating, review_count = r.review_count " +
+                "FROM (SELECT product_id, AVG(rating) AS rating, COUNT(*) AS review_count " +
+                "FROM product_reviews GROUP BY product_id) r WHERE p.product_id = r.product_id");
+    }
+
+    private void execute(String sql) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute(sql);
+        }
+    }
+
+    private Copy copy(String table) throws SQLException {
+        PGConnection pgConnection = connection.unwrap(PGConnection.class);
+        return new Copy(new PGCopyOutputStream(pgConnection, "COPY " + table + " FROM STDIN", COPY_BUFFER_SIZE));
+    }
+
+    // The first image is also the product's thumbnail_url
+    private static String imageUrl(long product, int image) {
+        return "https://img.kaiju.invalid/products/" + product + "/" + image + ".webp";
+    }
+
+    private String pick(String[] values) {
+        return values[random.nextInt(values.length)];
+    }
+
+    private String price() {
+        return (5 + random.nextInt(995)) + "." + (10 + random.nextInt(90));
+    }
+
+    private String timestamp(int daysAgo) {
+        return now.minusDays(daysAgo).minusSeconds(random.nextInt(86400)).format(TIMESTAMP);
+    }
+
+    private void timed(String name, long rows, Step step) throws SQLException, IOException {
+        long start = System.nanoTime();
+        step.run();
+        long ms = (System.nanoTime() - start) / 1_000_000;
+        System.out.printf("  %-16s %,12d rows  %,8d ms%n", name, rows, ms);
+    }
+
+    @FunctionalInterface
+    private interface Step {
+        void run() throws SQLException, IOException;
+    }
+
+    // COPY text format: tab-separated, one row per line; the generated values never contain tabs or newlines
+    private static final class Copy implements AutoCloseable {
+
+        private final OutputStream out;
+        private final StringBuilder line = new StringBuilder(256);
+
+        private Copy(OutputStream out) {
+            this.out = out;
+        }
+
+        void row(Object... values) throws IOException {
+            line.setLength(0);
+            for (int i = 0; i < values.length; i++) {
+                if (i > 0) {
+                    line.append('\t');
+                }
+                line.append(values[i] == null ? "\\N" : values[i]);
+            }
+            line.append('\n');
+            out.write(line.toString().getBytes(StandardCharsets.UTF_8));
+        }
+
+        @Override
+        public void close() throws IOException {
+            out.close();
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package com.cesar.kaiju.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableAsync;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+@Configuration
+@EnableAsync
+public class AsyncConfig {
+
+    private static final Logger logger = LoggerFactory.getLogger(AsyncConfig.class);
+
+    // Fan-outs are long, paced jobs; a small dedicated pool keeps them off request and scheduler threads
+    @Bean
+    public ThreadPoolTaskExecutor notificationExecutor(
+            @Value("${notifications.fanout.pool-size:2}") int poolSize,
+            @Value("${notifications.fanout.queue-capacity:1000}") int queueCapacity,
+            @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("notification-");
+        if (virtualThreads) {
+            // Same pool size, queue and rejection policy; only the workers become virtual threads
+            executor.setThreadFactory(Thread.ofVirtual().name("notification-", 0).factory());
+        }
+        // Fan-outs are stored before they are started, so a rejected start is resumed by the next poll
+        executor.setRejectedExecutionHandler((task, pool) ->
+                logger.warn("Notification executor is full, fan-out start deferred to the next poll"));
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(30);
+        return executor;
+    }
+}
@@ -0,0 +1,28 @@
+package com.cesar.kaiju.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheManagerProxy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableCaching
+public class CacheConfig {
+
+    // Response DTOs keyed by id, read by the single and batch lookups
+    public static final String PRODUCTS = "products";
+    public static final String VETERINARIANS = "veterinarians";
+    public static final String USERS = "users";
+
+    // Puts and evictions wait for the commit, so a read racing an update cannot cache the old row again
+    @Bean
+    public CacheManager cacheManager(@Value("${cache.entities.spec}") String spec) {
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager(PRODUCTS, VETERINARIANS, USERS);
+        cacheManager.setCacheSpecification(spec);
+        cacheManager.setAllowNullValues(false);
+        return new TransactionAwareCacheManagerProxy(cacheManager);
+    }
+}
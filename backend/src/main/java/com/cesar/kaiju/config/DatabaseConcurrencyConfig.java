@@ -0,0 +1,82 @@
+package com.cesar.kaiju.config;
+
+import com.cesar.kaiju.util.ConcurrencyLimitedDataSource;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Puts a {@link ConcurrencyLimitedDataSource} in front of every Hikari pool. It is on by default with
+ * virtual threads, where nothing else bounds how many requests reach the pool at once.
+ */
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnProperty(name = "db.concurrency-limit.enabled", havingValue = "true")
+public class DatabaseConcurrencyConfig {
+
+    // Static, and reading plain properties, so the DataSource is not created before the post-processor
+    @Bean
+    public static LimitingPostProcessor concurrencyLimitingDataSourcePostProcessor(Environment environment) {
+        return new LimitingPostProcessor(
+                environment.getProperty("db.concurrency-limit.max-waiting", Integer.class, 1000),
+                environment.getProperty("db.concurrency-limit.acquire-timeout-ms", Long.class, 5000L));
+    }
+
+    // Meter binders run once every singleton exists, so the pools have been wrapped by then
+    @Bean
+    public MeterBinder concurrencyLimitMetrics(LimitingPostProcessor postProcessor) {
+        return postProcessor::bindTo;
+    }
+
+    static class LimitingPostProcessor implements BeanPostProcessor {
+
+        private final int maxWaiting;
+        private final long acquireTimeoutMs;
+        private final List<Limited> limited = new ArrayList<>();
+
+        LimitingPostProcessor(int maxWaiting, long acquireTimeoutMs) {
+            this.maxWaiting = maxWaiting;
+            this.acquireTimeoutMs = acquireTimeoutMs;
+        }
+
+        @Override
+        public Object postProcessAfterInitialization(Object bean, String beanName) {
+            if (!(bean instanceof HikariDataSource hikari)) {
+                return bean;
+            }
+            ConcurrencyLimitedDataSource dataSource = new ConcurrencyLimitedDataSource(
+                    hikari, hikari.getMaximumPoolSize(), maxWaiting, acquireTimeoutMs);
+            limited.add(new Limited(hikari.getPoolName() != null ? hikari.getPoolName() : beanName, dataSource));
+            return dataSource;
+        }
+
+        void bindTo(MeterRegistry registry) {
+            for (Limited entry : limited) {
+                Gauge.builder("kaiju.db.permits.in-use", entry.dataSource(), ConcurrencyLimitedDataSource::getInUse)
+                        .description("Connections checked out through the concurrency limiter")
+                        .tag("pool", entry.pool())
+                        .register(registry);
+                Gauge.builder("kaiju.db.permits.waiting", entry.dataSource(), ConcurrencyLimitedDataSource::getWaiting)
+                        .description("Threads queued for a connection permit")
+                        .tag("pool", entry.pool())
+                        .register(registry);
+                FunctionCounter.builder("kaiju.db.permits.rejected", entry.dataSource(), ConcurrencyLimitedDataSource::getRejected)
+                        .description("Connection requests refused because the wait queue was full or timed out")
+                        .tag("pool", entry.pool())
+                        .register(registry);
+            }
+        }
+    }
+
+    private record Limited(String pool, ConcurrencyLimitedDataSource dataSource) {
+    }
+}
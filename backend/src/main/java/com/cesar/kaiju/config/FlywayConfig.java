@@ -0,0 +1,30 @@
+package com.cesar.kaiju.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.flyway.FlywayMigrationStrategy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+/**
+ * Decides at startup whether the Flyway initializer migrates. With AOT (-Pfast-start) the initializer is
+ * registered whenever spring.flyway.enabled was true at build time, so turning Flyway off has to be a
+ * runtime check instead of a bean condition; the cds-training profile uses it to boot without a database.
+ */
+@Configuration(proxyBeanMethods = false)
+public class FlywayConfig {
+
+    private static final Logger logger = LoggerFactory.getLogger(FlywayConfig.class);
+
+    @Bean
+    public FlywayMigrationStrategy flywayMigrationStrategy(Environment environment) {
+        return flyway -> {
+            if (environment.getProperty("db.migrate-on-startup", Boolean.class, true)) {
+                flyway.migrate();
+            } else {
+                logger.info("Skipping Flyway migrations (db.migrate-on-startup=false)");
+            }
+        };
+    }
+}
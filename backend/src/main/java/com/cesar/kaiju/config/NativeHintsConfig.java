@@ -0,0 +1,48 @@
+package com.cesar.kaiju.config;
+
+import com.cesar.kaiju.dto.AccountDeletionJobResponseDTO;
+import com.cesar.kaiju.dto.CategoryCountDTO;
+import com.cesar.kaiju.dto.ConsultationSlotResponseDTO;
+import com.cesar.kaiju.dto.ConversationSummaryDTO;
+import com.cesar.kaiju.dto.JobRunResponseDTO;
+import com.cesar.kaiju.dto.MessageResponseDTO;
+import com.cesar.kaiju.dto.NotificationResponseDTO;
+import com.cesar.kaiju.dto.ProductCardDTO;
+import com.cesar.kaiju.dto.ReviewSummaryDTO;
+import com.cesar.kaiju.dto.VeterinarianCardDTO;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.ImportRuntimeHints;
+
+import java.util.List;
+
+// Reflection and resources the AOT engine cannot infer on its own, needed by the native image (-Pnative)
+@Configuration(proxyBeanMethods = false)
+@ImportRuntimeHints(NativeHintsConfig.Hints.class)
+public class NativeHintsConfig {
+
+    static class Hints implements RuntimeHintsRegistrar {
+
+        // Instantiated by Hibernate from "SELECT new ..." JPQL constructor expressions
+        private static final List<Class<?>> QUERY_PROJECTIONS = List.of(
+                AccountDeletionJobResponseDTO.class,
+                CategoryCountDTO.class,
+                ConsultationSlotResponseDTO.class,
+                ConversationSummaryDTO.class,
+                JobRunResponseDTO.class,
+                MessageResponseDTO.class,
+                NotificationResponseDTO.class,
+                ProductCardDTO.class,
+                ReviewSummaryDTO.class,
+                VeterinarianCardDTO.class);
+
+        @Override
+        public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+            QUERY_PROJECTIONS.forEach(type -> hints.reflection().registerType(type, MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS));
+            // Read through ClassPathResource by LocationGazetteer
+            hints.resources().registerPattern("locations/*.csv");
+        }
+    }
+}
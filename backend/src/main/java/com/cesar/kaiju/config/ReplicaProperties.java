@@ -0,0 +1,35 @@
+package com.cesar.kaiju.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+@Getter
+@Setter
+@ConfigurationProperties("datasource.replicas")
+public class ReplicaProperties {
+
+    private boolean enabled;
+
+    // A replica further behind than this stops receiving reads until it catches up
+    private Duration maxLag = Duration.ofSeconds(5);
+
+    // After a write, the same client reads from the primary for this long
+    private Duration readYourWritesWindow = Duration.ofSeconds(5);
+
+    private List<Pool> pools = new ArrayList<>();
+
+    @Getter
+    @Setter
+    public static class Pool {
+        private String name;
+        private String url;
+        private String username;
+        private String password;
+        private int maximumPoolSize = 10;
+    }
+}
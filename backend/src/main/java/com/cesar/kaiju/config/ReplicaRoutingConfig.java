@@ -0,0 +1,100 @@
+package com.cesar.kaiju.config;
+
+import com.cesar.kaiju.util.ReplicaRoutingDataSource;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Sends read-only transactions to replica pools. The application DataSource is a
+ * {@link LazyConnectionDataSourceProxy}: the physical connection is only fetched on the first
+ * statement, after the transaction manager has marked the connection read-only, and read-only
+ * connections come from the {@link ReplicaRoutingDataSource} instead of the primary.
+ */
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnProperty(name = "datasource.replicas.enabled", havingValue = "true")
+@EnableConfigurationProperties(ReplicaProperties.class)
+public class ReplicaRoutingConfig {
+
+    private ReplicaRoutingDataSource replicaRouting;
+
+    public ReplicaRoutingConfig(Environment environment) {
+        // With open-in-view a read-only transaction's replica connection stays bound to the request and
+        // would be reused by a later write in the same request
+        if (environment.getProperty("spring.jpa.open-in-view", Boolean.class, true)) {
+            throw new IllegalStateException("datasource.replicas.enabled requires spring.jpa.open-in-view=false");
+        }
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(
+            DataSourceProperties dataSourceProperties,
+            ReplicaProperties replicaProperties,
+            Environment environment,
+            MeterRegistry registry,
+            ObjectProvider<DatabaseConcurrencyConfig.LimitingPostProcessor> concurrencyLimit) {
+        HikariDataSource primaryPool = dataSourceProperties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        Binder.get(environment).bind("spring.datasource.hikari", Bindable.ofInstance(primaryPool));
+        if (primaryPool.getPoolName() == null) {
+            primaryPool.setPoolName(ReplicaRoutingDataSource.PRIMARY);
+        }
+        DataSource primary = limit(primaryPool, concurrencyLimit);
+
+        Map<String, DataSource> replicas = new LinkedHashMap<>();
+        for (ReplicaProperties.Pool pool : replicaProperties.getPools()) {
+            HikariDataSource replicaPool = new HikariDataSource();
+            replicaPool.setPoolName("replica-" + pool.getName());
+            replicaPool.setJdbcUrl(pool.getUrl());
+            replicaPool.setUsername(pool.getUsername());
+            replicaPool.setPassword(pool.getPassword());
+            replicaPool.setMaximumPoolSize(pool.getMaximumPoolSize());
+            replicaPool.setReadOnly(true);
+            // Spring Boot only instruments the pool it can reach from the DataSource bean, which is the primary
+            replicaPool.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(registry));
+            replicas.put(replicaPool.getPoolName(), limit(replicaPool, concurrencyLimit));
+        }
+
+        replicaRouting = new ReplicaRoutingDataSource(primary, replicas, replicaProperties.getMaxLag(), registry);
+        replicaRouting.afterPropertiesSet();
+        replicaRouting.checkLag();
+
+        LazyConnectionDataSourceProxy dataSource = new LazyConnectionDataSourceProxy(primary);
+        dataSource.setReadOnlyDataSource(replicaRouting);
+        return dataSource;
+    }
+
+    @Bean
+    public ReadYourWritesFilter readYourWritesFilter(ReplicaProperties replicaProperties) {
+        return new ReadYourWritesFilter(replicaProperties.getReadYourWritesWindow());
+    }
+
+    @Scheduled(fixedDelayString = "${datasource.replicas.lag-check-interval-ms:1000}")
+    public void checkReplicaLag() {
+        if (replicaRouting != null) {
+            replicaRouting.checkLag();
+        }
+    }
+
+    private static DataSource limit(HikariDataSource pool,
+                                    ObjectProvider<DatabaseConcurrencyConfig.LimitingPostProcessor> concurrencyLimit) {
+        DatabaseConcurrencyConfig.LimitingPostProcessor postProcessor = concurrencyLimit.getIfAvailable();
+        return postProcessor != null ? (DataSource) postProcessor.postProcessAfterInitialization(pool, pool.getPoolName()) : pool;
+    }
+}
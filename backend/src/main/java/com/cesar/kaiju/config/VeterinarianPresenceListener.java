@@ -0,0 +1,47 @@
+package com.cesar.kaiju.config;
+
+import com.cesar.kaiju.enums.UserRole;
+import com.cesar.kaiju.model.User;
+import com.cesar.kaiju.service.ConsultationAssignmentService;
+import org.springframework.context.event.EventListener;
+import org.springframework.security.core.Authentication;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.messaging.AbstractSubProtocolEvent;
+import org.springframework.web.socket.messaging.SessionConnectedEvent;
+import org.springframework.web.socket.messaging.SessionDisconnectEvent;
+
+// A veterinarian is routable while it holds at least one open chat connection
+@Component
+public class VeterinarianPresenceListener {
+
+    private final ConsultationAssignmentService consultationAssignmentService;
+
+    public VeterinarianPresenceListener(ConsultationAssignmentService consultationAssignmentService) {
+        this.consultationAssignmentService = consultationAssignmentService;
+    }
+
+    @EventListener
+    public void onConnected(SessionConnectedEvent event) {
+        User user = getVeterinarianUser(event);
+        if (user != null) {
+            consultationAssignmentService.veterinarianConnected(user);
+        }
+    }
+
+    @EventListener
+    public void onDisconnected(SessionDisconnectEvent event) {
+        User user = getVeterinarianUser(event);
+        if (user != null) {
+            consultationAssignmentService.veterinarianDisconnected(user);
+        }
+    }
+
+    private User getVeterinarianUser(AbstractSubProtocolEvent event) {
+        if (event.getUser() instanceof Authentication authentication
+                && authentication.getPrincipal() instanceof User user
+                && user.getRole() == UserRole.VETERINARIAN) {
+            return user;
+        }
+        return null;
+    }
+}
@@ -1,6 +1,8 @@
 package com.cesar.kaiju.config;
 
+import com.cesar.kaiju.util.SparseFields;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.jackson.Jackson2ObjectMapperBuilderCustomizer;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.web.servlet.config.annotation.CorsRegistry;
@@ -27,4 +29,10 @@ public class WebConfig {
             }
         };
     }
+
+    // DTOs marked @JsonFilter are written in full unless the request selects fields (see SparseFields)
+    @Bean
+    public Jackson2ObjectMapperBuilderCustomizer sparseFieldsFilter() {
+        return builder -> builder.filters(SparseFields.serializeAll());
+    }
 }
@@ -0,0 +1,79 @@
+package com.cesar.kaiju.controller;
+
+import com.cesar.kaiju.dto.AccountDeletionJobResponseDTO;
+import com.cesar.kaiju.dto.JobRunResponseDTO;
+import com.cesar.kaiju.dto.PinnedThreadSiteDTO;
+import com.cesar.kaiju.dto.VeterinarianResponseDTO;
+import com.cesar.kaiju.service.AccountDeletionService;
+import com.cesar.kaiju.dto.TokenCleanupRunDTO;
+import com.cesar.kaiju.service.ClusterJobRunner;
+import com.cesar.kaiju.service.TokenCleanupService;
+import com.cesar.kaiju.service.VeterinarianService;
+import com.cesar.kaiju.service.VirtualThreadPinningMonitor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+import java.util.UUID;
+
+@RestController
+@RequestMapping("/api/admin")
+public class AdminController {
+
+    private static final int MAX_JOB_RUNS = 200;
+
+    private final TokenCleanupService tokenCleanupService;
+    private final ClusterJobRunner clusterJobRunner;
+    private final AccountDeletionService accountDeletionService;
+    private final VirtualThreadPinningMonitor pinningMonitor;
+    private final VeterinarianService veterinarianService;
+
+    public AdminController(
+            TokenCleanupService tokenCleanupService,
+            ClusterJobRunner clusterJobRunner,
+            AccountDeletionService accountDeletionService,
+            VirtualThreadPinningMonitor pinningMonitor,
+            VeterinarianService veterinarianService) {
+        this.tokenCleanupService = tokenCleanupService;
+        this.clusterJobRunner = clusterJobRunner;
+        this.accountDeletionService = accountDeletionService;
+        this.pinningMonitor = pinningMonitor;
+        this.veterinarianService = veterinarianService;
+    }
+
+    @PutMapping("/veterinarians/{id}/verification")
+    public ResponseEntity<VeterinarianResponseDTO> setVeterinarianVerified(
+            @PathVariable UUID id,
+            @RequestParam boolean verified) {
+        return ResponseEntity.ok(veterinarianService.setVerified(id, verified));
+    }
+
+    @GetMapping("/account-deletions")
+    public ResponseEntity<List<AccountDeletionJobResponseDTO>> getAccountDeletions(
+            @RequestParam(defaultValue = "50") int limit) {
+        return ResponseEntity.ok(accountDeletionService.getRecentJobs(Math.min(limit, MAX_JOB_RUNS)));
+    }
+
+    @GetMapping("/account-deletions/{id}")
+    public ResponseEntity<AccountDeletionJobResponseDTO> getAccountDeletion(@PathVariable UUID id) {
+        return ResponseEntity.ok(accountDeletionService.getJob(id));
+    }
+
+    @GetMapping("/jobs/runs")
+    public ResponseEntity<List<JobRunResponseDTO>> getJobRuns(
+            @RequestParam(required = false) String job,
+            @RequestParam(defaultValue = "50") int limit) {
+        return ResponseEntity.ok(clusterJobRunner.getRecentRuns(job, Math.min(limit, MAX_JOB_RUNS)));
+    }
+
+    @GetMapping("/maintenance/token-cleanup")
+    public ResponseEntity<TokenCleanupRunDTO> getLastTokenCleanup() {
+        TokenCleanupRunDTO lastRun = tokenCleanupService.getLastRun();
+        return lastRun != null ? ResponseEntity.ok(lastRun) : ResponseEntity.noContent().build();
+    }
+
+    @GetMapping("/virtual-threads/pinned")
+    public ResponseEntity<List<PinnedThreadSiteDTO>> getPinnedThreadSites() {
+        return ResponseEntity.ok(pinningMonitor.getPinnedSites());
+    }
+}
@@ -0,0 +1,47 @@
+package com.cesar.kaiju.controller;
+
+import com.cesar.kaiju.dto.ConsultationSlotResponseDTO;
+import com.cesar.kaiju.service.AppointmentService;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+import java.util.UUID;
+
+@RestController
+@RequestMapping("/api/appointments")
+public class AppointmentController {
+
+    private final AppointmentService appointmentService;
+
+    public AppointmentController(AppointmentService appointmentService) {
+        this.appointmentService = appointmentService;
+    }
+
+    @GetMapping
+    public ResponseEntity<List<ConsultationSlotResponseDTO>> getMyAppointments() {
+        List<ConsultationSlotResponseDTO> appointments = appointmentService.getMyAppointments();
+        return ResponseEntity.ok(appointments);
+    }
+
+    @PostMapping("/slots/{slotId}")
+    public ResponseEntity<?> bookSlot(@PathVariable UUID slotId) {
+        try {
+            ConsultationSlotResponseDTO slot = appointmentService.bookSlot(slotId);
+            return ResponseEntity.status(HttpStatus.CREATED).body(slot);
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body("Horário indisponível.");
+        }
+    }
+
+    @DeleteMapping("/slots/{slotId}")
+    public ResponseEntity<String> cancelBooking(@PathVariable UUID slotId) {
+        try {
+            appointmentService.cancelBooking(slotId);
+            return ResponseEntity.ok("Consulta cancelada com sucesso.");
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body("Consulta não encontrada.");
+        }
+    }
+}
@@ -4,9 +4,11 @@ import com.cesar.kaiju.dto.LoginRequestDTO;
 import com.cesar.kaiju.dto.LoginResponseDTO;
 import com.cesar.kaiju.dto.ResetPasswordRequestDTO;
 import com.cesar.kaiju.dto.UserRegisterRequestDTO;
+import com.cesar.kaiju.dto.UsernameAvailabilityResponseDTO;
 import com.cesar.kaiju.exception.EmailAlreadyUsedException;
 import com.cesar.kaiju.exception.UsernameAlreadyUsedExcpetion;
 import com.cesar.kaiju.service.UserService;
+import com.cesar.kaiju.service.UsernameAvailabilityService;
 import com.cesar.kaiju.util.JwtUtil;
 import jakarta.persistence.EntityNotFoundException;
 import org.springframework.http.*;
@@ -23,11 +25,17 @@ public class AuthController {
     private final AuthenticationManager authenticationManager;
     private final UserService userService;
     private final JwtUtil jwtUtil;
+    private final UsernameAvailabilityService usernameAvailabilityService;
 
-    public AuthController(AuthenticationManager authenticationManager, UserService userService, JwtUtil jwtUtil) {
+    public AuthController(
+            AuthenticationManager authenticationManager,
+            UserService userService,
+            JwtUtil jwtUtil,
+            UsernameAvailabilityService usernameAvailabilityService) {
         this.authenticationManager = authenticationManager;
         this.userService = userService;
         this.jwtUtil = jwtUtil;
+        this.usernameAvailabilityService = usernameAvailabilityService;
     }
 
     @PostMapping("/login")
@@ -108,6 +116,24 @@ public class AuthController {
         }
     }
 
+    @GetMapping("/username-available")
+    public ResponseEntity<Object> usernameAvailable(
+            @RequestParam(required = false) String username,
+            @RequestParam(required = false) String email) {
+        if ((username == null || username.isBlank()) && (email == null || email.isBlank())) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body("Informe o username ou o email.");
+        }
+
+        UsernameAvailabilityResponseDTO response = new UsernameAvailabilityResponseDTO(
+                username != null && !username.isBlank() ? usernameAvailabilityService.isUsernameAvailable(username) : null,
+                email != null && !email.isBlank() ? usernameAvailabilityService.isEmailAvailable(email) : null
+        );
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.noStore())
+                .body(response);
+    }
+
     @GetMapping("/verify/{uuid}")
     public ResponseEntity<String> verify(@PathVariable("uuid") String token) {
         try {
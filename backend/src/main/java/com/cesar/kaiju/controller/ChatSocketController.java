@@ -0,0 +1,43 @@
+package com.cesar.kaiju.controller;
+
+import com.cesar.kaiju.dto.SendMessageRequestDTO;
+import com.cesar.kaiju.exception.ChatBackpressureException;
+import com.cesar.kaiju.model.User;
+import com.cesar.kaiju.service.ChatEngine;
+import jakarta.validation.Valid;
+import org.springframework.messaging.handler.annotation.DestinationVariable;
+import org.springframework.messaging.handler.annotation.MessageExceptionHandler;
+import org.springframework.messaging.handler.annotation.MessageMapping;
+import org.springframework.messaging.handler.annotation.Payload;
+import org.springframework.messaging.simp.annotation.SendToUser;
+import org.springframework.security.core.Authentication;
+import org.springframework.stereotype.Controller;
+
+import java.security.Principal;
+import java.util.UUID;
+
+@Controller
+public class ChatSocketController {
+
+    private final ChatEngine chatEngine;
+
+    public ChatSocketController(ChatEngine chatEngine) {
+        this.chatEngine = chatEngine;
+    }
+
+    @MessageMapping("/conversations/{id}/send")
+    public void sendMessage(
+            @DestinationVariable UUID id,
+            @Valid @Payload SendMessageRequestDTO request,
+            Principal principal) {
+        User user = (User) ((Authentication) principal).getPrincipal();
+        chatEngine.send(id, user, request.type(), request.content());
+    }
+
+    // Only the sender hears about it: the message was not sent and can be retried in a moment
+    @MessageExceptionHandler(ChatBackpressureException.class)
+    @SendToUser(destinations = "/queue/errors", broadcast = false)
+    public String handleBackpressure(ChatBackpressureException e) {
+        return "Não foi possível enviar a mensagem agora. Tente novamente em instantes.";
+    }
+}
@@ -0,0 +1,81 @@
+package com.cesar.kaiju.controller;
+
+import com.cesar.kaiju.dto.ConversationResponseDTO;
+import com.cesar.kaiju.dto.ConversationSummaryDTO;
+import com.cesar.kaiju.dto.MessageResponseDTO;
+import com.cesar.kaiju.dto.SendMessageRequestDTO;
+import com.cesar.kaiju.dto.StartConversationRequestDTO;
+import com.cesar.kaiju.model.User;
+import com.cesar.kaiju.service.ChatEngine;
+import com.cesar.kaiju.service.ConversationService;
+import jakarta.validation.Valid;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+import java.util.UUID;
+
+@RestController
+@RequestMapping("/api/conversations")
+public class ConversationController {
+
+    private final ConversationService conversationService;
+    private final ChatEngine chatEngine;
+
+    public ConversationController(ConversationService conversationService, ChatEngine chatEngine) {
+        this.conversationService = conversationService;
+        this.chatEngine = chatEngine;
+    }
+
+    @PostMapping
+    public ResponseEntity<ConversationResponseDTO> startConversation(
+            @Valid @RequestBody StartConversationRequestDTO request) {
+        ConversationResponseDTO conversation = conversationService.startConversation(request);
+        return ResponseEntity.status(HttpStatus.CREATED).body(conversation);
+    }
+
+    @GetMapping
+    public ResponseEntity<List<ConversationSummaryDTO>> getInbox(
+            @RequestParam(defaultValue = "50") int limit) {
+        List<ConversationSummaryDTO> conversations = conversationService.getInbox(limit);
+        return ResponseEntity.ok(conversations);
+    }
+
+    @GetMapping("/{id}")
+    public ResponseEntity<ConversationResponseDTO> getConversation(@PathVariable UUID id) {
+        ConversationResponseDTO conversation = conversationService.getConversation(id);
+        return ResponseEntity.ok(conversation);
+    }
+
+    @GetMapping("/{id}/messages")
+    public ResponseEntity<List<MessageResponseDTO>> getMessages(
+            @PathVariable UUID id,
+            @RequestParam(required = false) Long before,
+            @RequestParam(defaultValue = "50") int limit) {
+        List<MessageResponseDTO> messages = conversationService.getMessages(id, before, limit);
+        return ResponseEntity.ok(messages);
+    }
+
+    @PostMapping("/{id}/read")
+    public ResponseEntity<Void> markAsRead(@PathVariable UUID id) {
+        conversationService.markAsRead(id);
+        return ResponseEntity.noContent().build();
+    }
+
+    @PostMapping("/{id}/close")
+    public ResponseEntity<Void> closeConversation(@PathVariable UUID id) {
+        conversationService.closeConversation(id);
+        return ResponseEntity.noContent().build();
+    }
+
+    @PostMapping("/{id}/messages")
+    public ResponseEntity<MessageResponseDTO> sendMessage(
+            @PathVariable UUID id,
+            @Valid @RequestBody SendMessageRequestDTO request) {
+        User user = (User) SecurityContextHolder.getContext().getAuthentication().getPrincipal();
+        MessageResponseDTO message = chatEngine.send(id, user, request.type(), request.content());
+        return ResponseEntity.status(HttpStatus.CREATED).body(message);
+    }
+}
@@ -0,0 +1,34 @@
+package com.cesar.kaiju.controller;
+
+import com.cesar.kaiju.dto.HomeResponseDTO;
+import com.cesar.kaiju.service.HomeSnapshotService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.concurrent.TimeUnit;
+
+@RestController
+@RequestMapping("/api/home")
+public class HomeController {
+
+    private final HomeSnapshotService homeSnapshotService;
+
+    @Value("${home.refresh-interval-ms:5000}")
+    private long refreshIntervalMs;
+
+    public HomeController(HomeSnapshotService homeSnapshotService) {
+        this.homeSnapshotService = homeSnapshotService;
+    }
+
+    // The snapshot changes at most once per refresh, so browsers and CDNs may keep it that long
+    @GetMapping
+    public ResponseEntity<HomeResponseDTO> getHome() {
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.maxAge(refreshIntervalMs, TimeUnit.MILLISECONDS).cachePublic())
+                .body(homeSnapshotService.getSnapshot());
+    }
+}
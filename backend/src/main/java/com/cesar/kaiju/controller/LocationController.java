@@ -0,0 +1,48 @@
+package com.cesar.kaiju.controller;
+
+import com.cesar.kaiju.dto.CityResponseDTO;
+import com.cesar.kaiju.dto.StateResponseDTO;
+import com.cesar.kaiju.service.LocationService;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@RestController
+@RequestMapping("/api/locations")
+public class LocationController {
+
+    private final LocationService locationService;
+
+    public LocationController(LocationService locationService) {
+        this.locationService = locationService;
+    }
+
+    @GetMapping("/states")
+    public ResponseEntity<List<StateResponseDTO>> getStates() {
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.maxAge(1, TimeUnit.DAYS).cachePublic())
+                .body(locationService.getStates());
+    }
+
+    @GetMapping("/states/{code}/cities")
+    public ResponseEntity<List<CityResponseDTO>> getCities(@PathVariable String code) {
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.maxAge(1, TimeUnit.DAYS).cachePublic())
+                .body(locationService.getCities(code));
+    }
+
+    @GetMapping("/cities/{id}")
+    public ResponseEntity<CityResponseDTO> getCity(@PathVariable Integer id) {
+        return ResponseEntity.ok(locationService.getCity(id));
+    }
+
+    @GetMapping("/cities/search")
+    public ResponseEntity<List<CityResponseDTO>> searchCities(
+            @RequestParam String query,
+            @RequestParam(defaultValue = "10") int limit) {
+        return ResponseEntity.ok(locationService.searchCities(query, limit));
+    }
+}
@@ -1,17 +1,26 @@
 package com.cesar.kaiju.controller;
 
+import com.cesar.kaiju.dto.BatchResponseDTO;
+import com.cesar.kaiju.dto.ProductCardDTO;
 import com.cesar.kaiju.dto.ProductRequestDTO;
 import com.cesar.kaiju.dto.ProductResponseDTO;
+import com.cesar.kaiju.dto.ProductReviewRequestDTO;
+import com.cesar.kaiju.dto.ProductReviewResponseDTO;
 import com.cesar.kaiju.enums.ProductCategory;
 import com.cesar.kaiju.enums.ProductStatus;
 import com.cesar.kaiju.service.ProductService;
+import com.cesar.kaiju.util.SparseFields;
 import jakarta.validation.Valid;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.json.MappingJacksonValue;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.List;
+import java.util.Set;
 import java.util.UUID;
 
 @RestController
@@ -20,6 +29,9 @@ public class ProductController {
 
     private final ProductService productService;
 
+    @Value("${api.batch.max-ids:100}")
+    private int maxBatchIds;
+
     public ProductController(ProductService productService) {
         this.productService = productService;
     }
@@ -36,26 +48,64 @@ public class ProductController {
         return ResponseEntity.ok(product);
     }
 
+    // ?ids=a,b,c: found products in request order, plus the ids that were not found
+    @GetMapping("/batch")
+    public ResponseEntity<BatchResponseDTO<ProductResponseDTO>> getProducts(@RequestParam List<String> ids) {
+        if (ids.size() > maxBatchIds) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(productService.getProductsByIds(ids));
+    }
+
     @GetMapping("/count")
     public Long getProductCounts() {
         return productService.getProductCount();
     }
 
+    // ?view=card or ?fields=... (see SparseFields); without them the full ProductResponseDTO is returned
     @GetMapping
-    public ResponseEntity<Page<ProductResponseDTO>> getAllProducts(
+    public ResponseEntity<MappingJacksonValue> getAllProducts(
             @RequestParam(required = false) ProductStatus status,
             @RequestParam(required = false) ProductCategory category,
+            @RequestParam(required = false) String view,
+            @RequestParam(required = false) Set<String> fields,
             Pageable pageable) {
-        Page<ProductResponseDTO> products = productService.getAllProducts(status, category, pageable);
-        return ResponseEntity.ok(products);
+        Page<?> products = SparseFields.useCard(view, fields, ProductCardDTO.class)
+                ? productService.getProductCards(status, category, pageable)
+                : productService.getAllProducts(status, category, pageable);
+        return ResponseEntity.ok(SparseFields.select(products, fields));
     }
 
     @GetMapping("/search")
-    public ResponseEntity<Page<ProductResponseDTO>> searchProducts(
+    public ResponseEntity<MappingJacksonValue> searchProducts(
             @RequestParam String keyword,
+            @RequestParam(required = false) String view,
+            @RequestParam(required = false) Set<String> fields,
             Pageable pageable) {
-        Page<ProductResponseDTO> products = productService.searchProducts(keyword, pageable);
-        return ResponseEntity.ok(products);
+        Page<?> products = SparseFields.useCard(view, fields, ProductCardDTO.class)
+                ? productService.searchProductCards(keyword, pageable)
+                : productService.searchProducts(keyword, pageable);
+        return ResponseEntity.ok(SparseFields.select(products, fields));
+    }
+
+    @GetMapping("/{id}/reviews")
+    public ResponseEntity<Page<ProductReviewResponseDTO>> getProductReviews(@PathVariable UUID id, Pageable pageable) {
+        Page<ProductReviewResponseDTO> reviews = productService.getProductReviews(id, pageable);
+        return ResponseEntity.ok(reviews);
+    }
+
+    @PostMapping("/{id}/reviews")
+    public ResponseEntity<ProductReviewResponseDTO> createProductReview(
+            @PathVariable UUID id,
+            @Valid @RequestBody ProductReviewRequestDTO request) {
+        ProductReviewResponseDTO review = productService.createProductReview(id, request);
+        return ResponseEntity.status(HttpStatus.CREATED).body(review);
+    }
+
+    @PostMapping("/{id}/reviews/{reviewId}/helpful")
+    public ResponseEntity<Void> markReviewHelpful(@PathVariable UUID id, @PathVariable Long reviewId) {
+        productService.markReviewHelpful(id, reviewId);
+        return ResponseEntity.noContent().build();
     }
 
 }
@@ -1,9 +1,12 @@
 package com.cesar.kaiju.controller;
 
+import com.cesar.kaiju.dto.BatchResponseDTO;
 import com.cesar.kaiju.dto.UserResponseDTO;
+import com.cesar.kaiju.dto.UserSummaryDTO;
 import com.cesar.kaiju.dto.UserUpdateRequestDTO;
 import com.cesar.kaiju.model.User;
 import com.cesar.kaiju.service.UserService;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseCookie;
@@ -11,6 +14,7 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.List;
 import java.util.UUID;
 
 @RestController
@@ -19,6 +23,9 @@ public class UserController {
 
     private final UserService userService;
 
+    @Value("${api.batch.max-ids:100}")
+    private int maxBatchIds;
+
     public UserController(UserService userService) {
         this.userService = userService;
     }
@@ -47,6 +54,15 @@ public class UserController {
         }
     }
 
+    // ?ids=a,b,c: public profile of each user (no email), in request order, plus the ids that were not found
+    @GetMapping("/batch")
+    public ResponseEntity<BatchResponseDTO<UserSummaryDTO>> getUsers(@RequestParam List<String> ids) {
+        if (ids.size() > maxBatchIds) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(userService.getUserSummaries(ids));
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<UserResponseDTO> getUserById(@PathVariable String id) {
         try {
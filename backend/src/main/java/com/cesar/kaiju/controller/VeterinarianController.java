@@ -1,26 +1,46 @@
 package com.cesar.kaiju.controller;
 
+import com.cesar.kaiju.dto.AvailabilityRequestDTO;
+import com.cesar.kaiju.dto.AvailabilityResponseDTO;
+import com.cesar.kaiju.dto.BatchResponseDTO;
+import com.cesar.kaiju.dto.ConsultationSlotResponseDTO;
+import com.cesar.kaiju.dto.VeterinarianCardDTO;
 import com.cesar.kaiju.dto.VeterinarianRequestDTO;
 import com.cesar.kaiju.dto.VeterinarianResponseDTO;
 import com.cesar.kaiju.enums.VeterinarianSpecialization;
+import com.cesar.kaiju.service.AppointmentService;
 import com.cesar.kaiju.service.VeterinarianService;
+import com.cesar.kaiju.util.SparseFields;
 import jakarta.validation.Valid;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.json.MappingJacksonValue;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Set;
 import java.util.UUID;
 
 @RestController
 @RequestMapping("/api/veterinarians")
 public class VeterinarianController {
 
+    private static final double MAX_NEARBY_RADIUS_KM = 200;
+
     private final VeterinarianService veterinarianService;
+    private final AppointmentService appointmentService;
+
+    @Value("${api.batch.max-ids:100}")
+    private int maxBatchIds;
 
-    public VeterinarianController(VeterinarianService veterinarianService) {
+    public VeterinarianController(VeterinarianService veterinarianService, AppointmentService appointmentService) {
         this.veterinarianService = veterinarianService;
+        this.appointmentService = appointmentService;
     }
 
     @PostMapping
@@ -36,27 +56,79 @@ public class VeterinarianController {
         return ResponseEntity.ok(vet);
     }
 
+    // ?ids=a,b,c: found veterinarians in request order, plus the ids that were not found
+    @GetMapping("/batch")
+    public ResponseEntity<BatchResponseDTO<VeterinarianResponseDTO>> getVeterinarians(@RequestParam List<String> ids) {
+        if (ids.size() > maxBatchIds) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(veterinarianService.getVeterinariansByIds(ids));
+    }
+
+    // ?view=card or ?fields=... (see SparseFields); without them the full VeterinarianResponseDTO is returned
     @GetMapping
-    public ResponseEntity<Page<VeterinarianResponseDTO>> getAllVeterinarians(
+    public ResponseEntity<MappingJacksonValue> getAllVeterinarians(
             @RequestParam(required = false) Boolean verified,
             @RequestParam(required = false) Boolean availableForChat,
+            @RequestParam(required = false) String view,
+            @RequestParam(required = false) Set<String> fields,
             Pageable pageable) {
-        Page<VeterinarianResponseDTO> vets = veterinarianService.getAllVeterinarians(verified, availableForChat, pageable);
-        return ResponseEntity.ok(vets);
+        Page<?> vets = SparseFields.useCard(view, fields, VeterinarianCardDTO.class)
+                ? veterinarianService.getVeterinarianCards(verified, availableForChat, pageable)
+                : veterinarianService.getAllVeterinarians(verified, availableForChat, pageable);
+        return ResponseEntity.ok(SparseFields.select(vets, fields));
     }
 
     @GetMapping("/search")
-    public ResponseEntity<Page<VeterinarianResponseDTO>> searchVeterinarians(
+    public ResponseEntity<MappingJacksonValue> searchVeterinarians(
             @RequestParam(required = false) String query,
             @RequestParam(required = false) VeterinarianSpecialization specialty,
             @RequestParam(required = false) String city,
             @RequestParam(required = false) String state,
             @RequestParam(required = false) Integer minExperience,
             @RequestParam(required = false) Boolean onlineConsultation,
+            @RequestParam(required = false) String view,
+            @RequestParam(required = false) Set<String> fields,
             Pageable pageable) {
-        Page<VeterinarianResponseDTO> vets = veterinarianService.searchVeterinarians(
-                query, specialty, city, state, minExperience, onlineConsultation, pageable);
+        Page<?> vets = SparseFields.useCard(view, fields, VeterinarianCardDTO.class)
+                ? veterinarianService.searchVeterinarianCards(query, specialty, city, state, pageable)
+                : veterinarianService.searchVeterinarians(query, specialty, city, state, minExperience, onlineConsultation, pageable);
+        return ResponseEntity.ok(SparseFields.select(vets, fields));
+    }
+
+    @GetMapping("/nearby")
+    public ResponseEntity<List<VeterinarianResponseDTO>> getNearbyVeterinarians(
+            @RequestParam Double latitude,
+            @RequestParam Double longitude,
+            @RequestParam(defaultValue = "25") Double radiusKm) {
+        List<VeterinarianResponseDTO> vets = veterinarianService.getNearbyVeterinarians(
+                latitude, longitude, Math.min(radiusKm, MAX_NEARBY_RADIUS_KM));
         return ResponseEntity.ok(vets);
     }
 
+    @GetMapping("/{id}/availability")
+    public ResponseEntity<List<AvailabilityResponseDTO>> getAvailability(@PathVariable UUID id) {
+        List<AvailabilityResponseDTO> availability = appointmentService.getAvailability(id);
+        return ResponseEntity.ok(availability);
+    }
+
+    @PutMapping("/me/availability")
+    public ResponseEntity<?> setAvailability(
+            @Valid @RequestBody List<AvailabilityRequestDTO> request) {
+        try {
+            List<AvailabilityResponseDTO> availability = appointmentService.setAvailability(request);
+            return ResponseEntity.ok(availability);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(e.getMessage());
+        }
+    }
+
+    @GetMapping("/{id}/slots")
+    public ResponseEntity<List<ConsultationSlotResponseDTO>> getAvailableSlots(
+            @PathVariable UUID id,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from) {
+        List<ConsultationSlotResponseDTO> slots = appointmentService.getAvailableSlots(id, from);
+        return ResponseEntity.ok(slots);
+    }
+
 }
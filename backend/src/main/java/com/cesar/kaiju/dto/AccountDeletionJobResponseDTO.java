@@ -0,0 +1,23 @@
+package com.cesar.kaiju.dto;
+
+import com.cesar.kaiju.enums.AccountDeletionStatus;
+
+import java.time.Instant;
+import java.util.UUID;
+
+public record AccountDeletionJobResponseDTO(
+        UUID jobId,
+        UUID userId,
+        AccountDeletionStatus status,
+        String currentStep,
+        Long productsDeleted,
+        Long reviewsDeleted,
+        Long ratingsRecomputed,
+        Long otherRowsDeleted,
+        Instant requestedAt,
+        Instant startedAt,
+        Instant finishedAt,
+        String lastError,
+        Integer attempts,
+        Instant nextAttemptAt
+) {}
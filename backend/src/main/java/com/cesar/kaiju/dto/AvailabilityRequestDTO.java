@@ -0,0 +1,15 @@
+package com.cesar.kaiju.dto;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+
+import java.time.DayOfWeek;
+import java.time.LocalTime;
+
+public record AvailabilityRequestDTO(
+        @NotNull DayOfWeek dayOfWeek,
+        @NotNull LocalTime startTime,
+        @NotNull LocalTime endTime,
+        @NotNull @Min(10) @Max(240) Integer slotMinutes
+) {}
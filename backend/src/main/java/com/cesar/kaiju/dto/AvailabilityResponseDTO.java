@@ -0,0 +1,13 @@
+package com.cesar.kaiju.dto;
+
+import java.time.DayOfWeek;
+import java.time.LocalTime;
+import java.util.UUID;
+
+public record AvailabilityResponseDTO(
+        UUID availabilityId,
+        DayOfWeek dayOfWeek,
+        LocalTime startTime,
+        LocalTime endTime,
+        Integer slotMinutes
+) {}
@@ -0,0 +1,8 @@
+package com.cesar.kaiju.dto;
+
+import java.util.List;
+
+public record BatchResponseDTO<T>(
+        List<T> items,
+        List<String> missing
+) {}
@@ -0,0 +1,8 @@
+package com.cesar.kaiju.dto;
+
+import com.cesar.kaiju.enums.ProductCategory;
+
+public record CategoryCountDTO(
+        ProductCategory category,
+        Long count
+) {}
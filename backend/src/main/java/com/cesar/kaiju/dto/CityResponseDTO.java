@@ -0,0 +1,9 @@
+package com.cesar.kaiju.dto;
+
+public record CityResponseDTO(
+        Integer cityId,
+        String name,
+        String stateCode,
+        Double latitude,
+        Double longitude
+) {}
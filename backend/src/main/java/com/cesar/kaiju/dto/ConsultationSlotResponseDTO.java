@@ -0,0 +1,14 @@
+package com.cesar.kaiju.dto;
+
+import com.cesar.kaiju.enums.SlotStatus;
+
+import java.time.Instant;
+import java.util.UUID;
+
+public record ConsultationSlotResponseDTO(
+        UUID slotId,
+        UUID veterinarianId,
+        Instant startsAt,
+        Instant endsAt,
+        SlotStatus status
+) {}
@@ -0,0 +1,19 @@
+package com.cesar.kaiju.dto;
+
+import com.cesar.kaiju.enums.ConversationStatus;
+import com.fasterxml.jackson.annotation.JsonFormat;
+
+import java.util.Date;
+import java.util.UUID;
+
+public record ConversationResponseDTO(
+        UUID conversationId,
+        UUID userId,
+        String userName,
+        UUID veterinarianId,
+        String veterinarianName,
+        ConversationStatus status,
+        String subject,
+        @JsonFormat(pattern = "dd/MM/yyyy HH:mm", timezone = "America/Sao_Paulo")
+        Date createdAt
+) {}
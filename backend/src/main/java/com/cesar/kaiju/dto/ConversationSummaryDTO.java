@@ -0,0 +1,20 @@
+package com.cesar.kaiju.dto;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+
+import java.util.Date;
+import java.util.UUID;
+
+public record ConversationSummaryDTO(
+        UUID conversationId,
+        String subject,
+        UUID userId,
+        String userName,
+        UUID veterinarianId,
+        String veterinarianName,
+        Long lastSeq,
+        String lastMessagePreview,
+        @JsonFormat(pattern = "dd/MM/yyyy HH:mm", timezone = "America/Sao_Paulo")
+        Date lastMessageAt,
+        Integer unreadCount
+) {}
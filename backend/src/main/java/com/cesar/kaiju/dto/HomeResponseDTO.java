@@ -0,0 +1,14 @@
+package com.cesar.kaiju.dto;
+
+import java.time.Instant;
+import java.util.List;
+
+public record HomeResponseDTO(
+        Long productCount,
+        List<CategoryCountDTO> categories,
+        List<ProductCardDTO> latestProducts,
+        List<ProductCardDTO> topRatedProducts,
+        List<VeterinarianCardDTO> topRatedVeterinarians,
+        List<String> stale,
+        Instant generatedAt
+) {}
@@ -0,0 +1,16 @@
+package com.cesar.kaiju.dto;
+
+import com.cesar.kaiju.enums.JobRunStatus;
+
+import java.time.Instant;
+
+public record JobRunResponseDTO(
+        Long id,
+        String jobName,
+        String owner,
+        JobRunStatus status,
+        Instant startedAt,
+        Instant finishedAt,
+        Long durationMs,
+        String error
+) {}
@@ -0,0 +1,19 @@
+package com.cesar.kaiju.dto;
+
+import com.cesar.kaiju.enums.MessageType;
+import com.fasterxml.jackson.annotation.JsonFormat;
+
+import java.util.Date;
+import java.util.UUID;
+
+public record MessageResponseDTO(
+        UUID messageId,
+        UUID conversationId,
+        Long seq,
+        UUID senderId,
+        String senderName,
+        MessageType type,
+        String content,
+        @JsonFormat(pattern = "dd/MM/yyyy HH:mm", timezone = "America/Sao_Paulo")
+        Date createdAt
+) {}
@@ -0,0 +1,16 @@
+package com.cesar.kaiju.dto;
+
+import com.cesar.kaiju.enums.NotificationType;
+
+import java.time.Instant;
+import java.util.UUID;
+
+public record NotificationResponseDTO(
+        UUID notificationId,
+        NotificationType type,
+        String title,
+        String message,
+        String link,
+        Instant createdAt,
+        Instant readAt
+) {}
@@ -0,0 +1,12 @@
+package com.cesar.kaiju.dto;
+
+import java.time.Instant;
+import java.util.List;
+
+public record PinnedThreadSiteDTO(
+        String site,
+        long count,
+        long maxDurationMs,
+        Instant lastSeenAt,
+        List<String> stackTrace
+) {}
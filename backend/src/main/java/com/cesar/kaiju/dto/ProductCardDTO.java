@@ -0,0 +1,22 @@
+package com.cesar.kaiju.dto;
+
+import com.cesar.kaiju.enums.ProductCategory;
+import com.cesar.kaiju.enums.ProductStatus;
+import com.cesar.kaiju.util.SparseFields;
+import com.fasterxml.jackson.annotation.JsonFilter;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+@JsonFilter(SparseFields.FILTER)
+public record ProductCardDTO(
+        UUID productId,
+        String name,
+        BigDecimal price,
+        ProductCategory category,
+        ProductStatus status,
+        String thumbnailUrl,
+        UUID sellerId,
+        Double rating,
+        Integer reviewCount
+) {}
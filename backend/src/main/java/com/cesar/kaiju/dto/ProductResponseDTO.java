@@ -2,12 +2,15 @@ package com.cesar.kaiju.dto;
 
 import com.cesar.kaiju.enums.ProductCategory;
 import com.cesar.kaiju.enums.ProductStatus;
+import com.cesar.kaiju.util.SparseFields;
+import com.fasterxml.jackson.annotation.JsonFilter;
 
 import java.math.BigDecimal;
 import java.util.Date;
 import java.util.List;
 import java.util.UUID;
 
+@JsonFilter(SparseFields.FILTER)
 public record ProductResponseDTO(
         UUID productId,
         String name,
@@ -0,0 +1,6 @@
+package com.cesar.kaiju.dto;
+
+public record ReviewSummaryDTO(
+        Long reviewCount,
+        Double averageRating
+) {}
@@ -0,0 +1,10 @@
+package com.cesar.kaiju.dto;
+
+import com.cesar.kaiju.enums.MessageType;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Size;
+
+public record SendMessageRequestDTO(
+        MessageType type,
+        @NotBlank @Size(max = 4000) String content
+) {}
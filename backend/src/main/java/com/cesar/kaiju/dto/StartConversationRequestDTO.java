@@ -1,11 +1,12 @@
 package com.cesar.kaiju.dto;
 
-import jakarta.validation.constraints.NotNull;
+import com.cesar.kaiju.enums.VeterinarianSpecialization;
 
 import java.util.UUID;
 
 public record StartConversationRequestDTO(
-        @NotNull UUID veterinarianId,
+        UUID veterinarianId,
+        VeterinarianSpecialization specialization,
         String subject,
         String initialMessage
 ) {}
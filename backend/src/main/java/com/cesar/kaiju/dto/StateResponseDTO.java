@@ -0,0 +1,10 @@
+package com.cesar.kaiju.dto;
+
+public record StateResponseDTO(
+        String code,
+        Integer ibgeCode,
+        String name,
+        Integer capitalCityId,
+        Double latitude,
+        Double longitude
+) {}
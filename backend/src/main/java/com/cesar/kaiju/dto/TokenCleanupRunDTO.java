@@ -0,0 +1,15 @@
+package com.cesar.kaiju.dto;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+
+import java.util.Date;
+
+public record TokenCleanupRunDTO(
+        @JsonFormat(pattern = "dd/MM/yyyy HH:mm", timezone = "America/Sao_Paulo")
+        Date startedAt,
+        Long durationMs,
+        Long passwordResetTokensDeleted,
+        Long userVerificationsDeleted,
+        Integer batches,
+        Boolean completed
+) {}
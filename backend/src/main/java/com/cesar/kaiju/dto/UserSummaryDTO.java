@@ -0,0 +1,13 @@
+package com.cesar.kaiju.dto;
+
+import com.cesar.kaiju.enums.UserRole;
+
+import java.util.UUID;
+
+public record UserSummaryDTO(
+        UUID id,
+        String username,
+        String name,
+        String avatar,
+        UserRole role
+) {}
@@ -0,0 +1,6 @@
+package com.cesar.kaiju.dto;
+
+public record UsernameAvailabilityResponseDTO(
+        Boolean usernameAvailable,
+        Boolean emailAvailable
+) {}
@@ -0,0 +1,21 @@
+package com.cesar.kaiju.dto;
+
+import com.cesar.kaiju.util.SparseFields;
+import com.fasterxml.jackson.annotation.JsonFilter;
+
+import java.util.UUID;
+
+@JsonFilter(SparseFields.FILTER)
+public record VeterinarianCardDTO(
+        UUID veterinarianId,
+        String fullName,
+        String profilePicture,
+        String clinicName,
+        String city,
+        String state,
+        Boolean isVerified,
+        Boolean isAvailableForChat,
+        Double rating,
+        Integer reviewCount,
+        Double consultationFee
+) {}
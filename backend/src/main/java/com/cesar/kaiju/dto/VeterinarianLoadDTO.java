@@ -0,0 +1,8 @@
+package com.cesar.kaiju.dto;
+
+import java.util.UUID;
+
+public record VeterinarianLoadDTO(
+        UUID veterinarianId,
+        Long openConversations
+) {}
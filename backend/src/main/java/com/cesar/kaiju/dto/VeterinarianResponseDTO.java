@@ -1,11 +1,14 @@
 package com.cesar.kaiju.dto;
 
 import com.cesar.kaiju.enums.VeterinarianSpecialization;
+import com.cesar.kaiju.util.SparseFields;
+import com.fasterxml.jackson.annotation.JsonFilter;
 
 import java.util.Date;
 import java.util.List;
 import java.util.UUID;
 
+@JsonFilter(SparseFields.FILTER)
 public record VeterinarianResponseDTO(
         UUID veterinarianId,
         UUID userId,
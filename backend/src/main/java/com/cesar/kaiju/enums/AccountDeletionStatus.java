@@ -0,0 +1,8 @@
+package com.cesar.kaiju.enums;
+
+public enum AccountDeletionStatus {
+    PENDING,
+    RUNNING,
+    COMPLETED,
+    FAILED
+}
@@ -0,0 +1,7 @@
+package com.cesar.kaiju.enums;
+
+public enum ConversationStatus {
+    WAITING,        // No veterinarian assigned yet
+    OPEN,
+    CLOSED
+}
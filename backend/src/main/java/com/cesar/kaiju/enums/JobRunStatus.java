@@ -0,0 +1,7 @@
+package com.cesar.kaiju.enums;
+
+public enum JobRunStatus {
+    SUCCEEDED,
+    FAILED,
+    TIMED_OUT
+}
@@ -0,0 +1,8 @@
+package com.cesar.kaiju.enums;
+
+public enum MailStatus {
+    PENDING,
+    SENDING,
+    SENT,
+    FAILED
+}
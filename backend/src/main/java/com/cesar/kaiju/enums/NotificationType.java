@@ -0,0 +1,7 @@
+package com.cesar.kaiju.enums;
+
+public enum NotificationType {
+    PRODUCT_RESTOCKED,
+    PRODUCT_PRICE_DROP,
+    VETERINARIAN_NEARBY
+}
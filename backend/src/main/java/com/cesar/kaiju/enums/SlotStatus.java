@@ -0,0 +1,6 @@
+package com.cesar.kaiju.enums;
+
+public enum SlotStatus {
+    AVAILABLE,
+    BOOKED
+}
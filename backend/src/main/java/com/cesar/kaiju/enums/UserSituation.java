@@ -4,5 +4,6 @@ public enum UserSituation {
     VERIFIED,
     INACTIVE,
     PENDING,
-    BLOCKED
+    BLOCKED,
+    DELETED
 }
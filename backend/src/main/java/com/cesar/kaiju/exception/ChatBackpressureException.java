@@ -0,0 +1,7 @@
+package com.cesar.kaiju.exception;
+
+public class ChatBackpressureException extends RuntimeException {
+    public ChatBackpressureException(String message) {
+        super(message);
+    }
+}
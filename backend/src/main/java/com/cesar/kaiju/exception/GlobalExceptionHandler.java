@@ -1,10 +1,13 @@
 package com.cesar.kaiju.exception;
 
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.jdbc.CannotGetJdbcConnectionException;
+import org.springframework.transaction.CannotCreateTransactionException;
 
 @ControllerAdvice
 public class GlobalExceptionHandler {
@@ -29,6 +32,22 @@ public class GlobalExceptionHandler {
                 .body("Dados inválidos. Verifique as informações fornecidas.");
     }
 
+    // No database connection within the wait limit (pool or concurrency limiter saturated)
+    @ExceptionHandler({CannotGetJdbcConnectionException.class, CannotCreateTransactionException.class})
+    public ResponseEntity<String> handleDatabaseUnavailable(Exception e) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body("Serviço temporariamente sobrecarregado. Tente novamente em instantes.");
+    }
+
+    // Chat messages are piling up unpersisted; the sender should retry once the writer catches up
+    @ExceptionHandler(ChatBackpressureException.class)
+    public ResponseEntity<String> handleChatBackpressure(ChatBackpressureException e) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body("Não foi possível enviar a mensagem agora. Tente novamente em instantes.");
+    }
+
     @ExceptionHandler(Exception.class)
     public ResponseEntity<String> handleGenericException(Exception e) {
         e.printStackTrace();
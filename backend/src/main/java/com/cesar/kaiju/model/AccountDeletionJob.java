@@ -0,0 +1,70 @@
+package com.cesar.kaiju.model;
+
+import com.cesar.kaiju.enums.AccountDeletionStatus;
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.Instant;
+import java.util.UUID;
+
+// Progress of the background purge of a deleted account; counters are updated after every batch
+@Entity
+@Table(name = "account_deletion_jobs", indexes = {
+        @Index(name = "idx_account_deletion_jobs_status", columnList = "status, requestedAt")
+})
+@Getter
+@Setter
+public class AccountDeletionJob {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    private UUID jobId;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "user_id", nullable = false)
+    private User user;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private AccountDeletionStatus status;
+
+    @Column(length = 40)
+    private String currentStep;
+
+    @Column(nullable = false)
+    private Long productsDeleted = 0L;
+
+    @Column(nullable = false)
+    private Long reviewsDeleted = 0L;
+
+    @Column(nullable = false)
+    private Long ratingsRecomputed = 0L;
+
+    @Column(nullable = false)
+    private Long otherRowsDeleted = 0L;
+
+    @Column(nullable = false)
+    private Instant requestedAt;
+
+    private Instant startedAt;
+
+    private Instant finishedAt;
+
+    @Column(length = 1000)
+    private String lastError;
+
+    // Failed runs so far; a FAILED job is retried at nextAttemptAt until account-deletion.max-attempts
+    @Column(nullable = false)
+    private Integer attempts = 0;
+
+    private Instant nextAttemptAt;
+
+    @PrePersist
+    protected void onCreate() {
+        requestedAt = Instant.now();
+        if (status == null) {
+            status = AccountDeletionStatus.PENDING;
+        }
+    }
+}
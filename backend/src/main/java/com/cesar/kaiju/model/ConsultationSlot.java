@@ -0,0 +1,48 @@
+package com.cesar.kaiju.model;
+
+import com.cesar.kaiju.enums.SlotStatus;
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.Instant;
+import java.util.UUID;
+
+// Slots are materialized from the availability templates; a booking is a conditional update of one row
+// The slots of one vet never overlap: exclusion constraint ex_consultation_slots_vet_overlap (V10)
+@Entity
+@Table(name = "consultation_slots", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_consultation_slots_vet_start", columnNames = {"veterinarian_id", "starts_at"})
+}, indexes = {
+        @Index(name = "idx_consultation_slots_patient", columnList = "patient_id, starts_at")
+})
+@Getter
+@Setter
+public class ConsultationSlot {
+
+    @Id
+    private UUID slotId;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "veterinarian_id", nullable = false)
+    private Veterinarian veterinarian;
+
+    @Column(nullable = false)
+    private Instant startsAt;
+
+    @Column(nullable = false)
+    private Instant endsAt;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private SlotStatus status;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "patient_id")
+    private User patient;
+
+    private Instant bookedAt;
+
+    @Column(nullable = false)
+    private Instant createdAt;
+}
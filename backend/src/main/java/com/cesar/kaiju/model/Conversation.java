@@ -0,0 +1,96 @@
+package com.cesar.kaiju.model;
+
+import com.cesar.kaiju.enums.ConversationStatus;
+import com.cesar.kaiju.enums.VeterinarianSpecialization;
+import com.fasterxml.jackson.annotation.JsonFormat;
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.Date;
+import java.util.UUID;
+
+@Entity
+@Table(name = "conversations", indexes = {
+        @Index(name = "idx_conversations_user_last_message", columnList = "user_id, last_message_at desc nulls last"),
+        @Index(name = "idx_conversations_vet_user_last_message", columnList = "veterinarian_user_id, last_message_at desc nulls last"),
+        @Index(name = "idx_conversations_vet_status", columnList = "veterinarian_id, status")
+})
+@Getter
+@Setter
+public class Conversation {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    private UUID conversationId;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "user_id", nullable = false)
+    private User user;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "veterinarian_id")
+    private Veterinarian veterinarian;
+
+    // Denormalized from veterinarian.user so the inbox of either participant is a single indexed lookup
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "veterinarian_user_id")
+    private User veterinarianUser;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private ConversationStatus status;
+
+    @Enumerated(EnumType.STRING)
+    private VeterinarianSpecialization requestedSpecialization;
+
+    @Column(length = 200)
+    private String subject;
+
+    // The columns below are written with JDBC by ChatEngine and ConversationActivityTracker; saving the
+    // entity must not put back the values it was loaded with
+    @Column(nullable = false, updatable = false)
+    private Long lastSeq;
+
+    // Seq of the message in the preview; last_seq runs ahead of it while activity is pending
+    @Column(nullable = false, updatable = false)
+    private Long lastMessageSeq;
+
+    @Column(length = 140, updatable = false)
+    private String lastMessagePreview;
+
+    @Temporal(TemporalType.TIMESTAMP)
+    @JsonFormat(pattern = "dd/MM/yyyy HH:mm", timezone = "America/Sao_Paulo")
+    @Column(updatable = false)
+    private Date lastMessageAt;
+
+    @Column(nullable = false, updatable = false)
+    private Integer userUnreadCount;
+
+    @Column(nullable = false, updatable = false)
+    private Integer veterinarianUnreadCount;
+
+    @Temporal(TemporalType.TIMESTAMP)
+    @JsonFormat(pattern = "dd/MM/yyyy HH:mm", timezone = "America/Sao_Paulo")
+    @Column(nullable = false)
+    private Date createdAt;
+
+    @Temporal(TemporalType.TIMESTAMP)
+    @JsonFormat(pattern = "dd/MM/yyyy HH:mm", timezone = "America/Sao_Paulo")
+    private Date updatedAt;
+
+    @PrePersist
+    protected void onCreate() {
+        createdAt = new Date();
+        updatedAt = new Date();
+        if (lastSeq == null) lastSeq = 0L;
+        if (lastMessageSeq == null) lastMessageSeq = 0L;
+        if (userUnreadCount == null) userUnreadCount = 0;
+        if (veterinarianUnreadCount == null) veterinarianUnreadCount = 0;
+    }
+
+    @PreUpdate
+    protected void onUpdate() {
+        updatedAt = new Date();
+    }
+}
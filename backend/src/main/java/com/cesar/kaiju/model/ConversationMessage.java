@@ -0,0 +1,48 @@
+package com.cesar.kaiju.model;
+
+import com.cesar.kaiju.enums.MessageType;
+import com.fasterxml.jackson.annotation.JsonFormat;
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+import org.hibernate.annotations.Immutable;
+
+import java.util.Date;
+import java.util.UUID;
+
+// Append-only: rows are written in batches by MessageBatchWriter and never updated.
+@Entity
+@Immutable
+@Table(name = "conversation_messages", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_conversation_messages_seq", columnNames = {"conversation_id", "seq"})
+})
+@Getter
+@Setter
+public class ConversationMessage {
+
+    @Id
+    private UUID messageId;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "conversation_id", nullable = false)
+    private Conversation conversation;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "sender_id", nullable = false)
+    private User sender;
+
+    @Column(nullable = false)
+    private Long seq;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private MessageType type;
+
+    @Column(nullable = false, columnDefinition = "TEXT")
+    private String content;
+
+    @Temporal(TemporalType.TIMESTAMP)
+    @JsonFormat(pattern = "dd/MM/yyyy HH:mm", timezone = "America/Sao_Paulo")
+    @Column(nullable = false)
+    private Date createdAt;
+}
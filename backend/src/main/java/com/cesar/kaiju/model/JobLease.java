@@ -0,0 +1,28 @@
+package com.cesar.kaiju.model;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.Instant;
+
+// One row per cluster job; a node may run the job only while it holds an unexpired lease
+@Entity
+@Table(name = "job_leases")
+@Getter
+@Setter
+public class JobLease {
+
+    @Id
+    @Column(length = 100)
+    private String jobName;
+
+    @Column(nullable = false, length = 100)
+    private String owner;
+
+    @Column(nullable = false)
+    private Instant leasedUntil;
+
+    @Column(nullable = false)
+    private Instant acquiredAt;
+}
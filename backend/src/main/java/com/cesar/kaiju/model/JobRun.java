@@ -0,0 +1,43 @@
+package com.cesar.kaiju.model;
+
+import com.cesar.kaiju.enums.JobRunStatus;
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.Instant;
+
+@Entity
+@Table(name = "job_runs", indexes = {
+        @Index(name = "idx_job_runs_job_started", columnList = "jobName, startedAt")
+})
+@Getter
+@Setter
+public class JobRun {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false, length = 100)
+    private String jobName;
+
+    @Column(nullable = false, length = 100)
+    private String owner;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private JobRunStatus status;
+
+    @Column(nullable = false)
+    private Instant startedAt;
+
+    @Column(nullable = false)
+    private Instant finishedAt;
+
+    @Column(nullable = false)
+    private Long durationMs;
+
+    @Column(length = 1000)
+    private String error;
+}
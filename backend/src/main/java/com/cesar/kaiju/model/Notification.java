@@ -0,0 +1,43 @@
+package com.cesar.kaiju.model;
+
+import com.cesar.kaiju.enums.NotificationType;
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.Instant;
+import java.util.UUID;
+
+// Rows are inserted in JDBC batches by NotificationFanoutService, so the id is assigned by the application
+@Entity
+@Table(name = "notifications", indexes = {
+        @Index(name = "idx_notifications_user_created", columnList = "user_id, createdAt")
+})
+@Getter
+@Setter
+public class Notification {
+
+    @Id
+    private UUID notificationId;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "user_id", nullable = false)
+    private User user;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 40)
+    private NotificationType type;
+
+    @Column(nullable = false)
+    private String title;
+
+    @Column(nullable = false, length = 500)
+    private String message;
+
+    private String link;
+
+    @Column(nullable = false)
+    private Instant createdAt;
+
+    private Instant readAt;
+}
@@ -10,7 +10,9 @@ import java.util.Date;
 import java.util.UUID;
 
 @Entity
-@Table(name = "password_reset_tokens")
+@Table(name = "password_reset_tokens", indexes = {
+        @Index(name = "idx_password_reset_tokens_expiration", columnList = "expiration")
+})
 @Getter
 @Setter
 public class PasswordResetToken {
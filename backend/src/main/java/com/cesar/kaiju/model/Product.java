@@ -7,6 +7,7 @@ import jakarta.persistence.*;
 import jakarta.validation.constraints.DecimalMin;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Size;
+import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.Setter;
 
@@ -50,6 +51,10 @@ public class Product {
     @Column(name = "image_url")
     private List<String> images;
 
+    // First image, denormalized so card listings do not read product_images; kept in sync by setImages
+    @Setter(AccessLevel.NONE)
+    private String thumbnailUrl;
+
     @Column(nullable = false)
     private Integer stockQuantity;
 
@@ -81,6 +86,11 @@ public class Product {
     @JsonFormat(pattern = "dd/MM/yyyy HH:mm", timezone = "America/Sao_Paulo")
     private Date updatedAt;
 
+    public void setImages(List<String> images) {
+        this.images = images;
+        this.thumbnailUrl = images == null || images.isEmpty() ? null : images.get(0);
+    }
+
     @PrePersist
     protected void onCreate() {
         createdAt = new Date();
@@ -12,13 +12,19 @@ import lombok.Setter;
 import java.util.Date;
 
 @Entity
-@Table(name = "product_reviews")
+@Table(name = "product_reviews", indexes = {
+        @Index(name = "idx_product_reviews_product_user", columnList = "product_id, user_id")
+})
 @Getter
 @Setter
 public class ProductReview {
 
+    public static final int ID_ALLOCATION_SIZE = 50;
+
+    // A pooled sequence hands out ids in blocks, so inserts can be batched (IDENTITY disables batching)
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "product_reviews_seq")
+    @SequenceGenerator(name = "product_reviews_seq", sequenceName = "product_reviews_seq", allocationSize = ProductReview.ID_ALLOCATION_SIZE)
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY)
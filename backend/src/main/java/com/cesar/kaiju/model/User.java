@@ -18,7 +18,10 @@ import java.util.UUID;
 @Getter
 @Setter
 @Entity
-@Table(name = "users")
+@Table(name = "users", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_users_username", columnNames = "username"),
+        @UniqueConstraint(name = "uk_users_email", columnNames = "email")
+})
 public class User implements UserDetails {
 
     @Id
@@ -55,6 +58,10 @@ public class User implements UserDetails {
     @JsonFormat(pattern = "dd/MM/yyyy", timezone = "America/Sao_Paulo")
     private Date createdAt;
 
+    @Temporal(TemporalType.TIMESTAMP)
+    @JsonFormat(pattern = "dd/MM/yyyy HH:mm", timezone = "America/Sao_Paulo")
+    private Date deletedAt;
+
     @Override
     public List<SimpleGrantedAuthority> getAuthorities() {
         if (role == null) {
@@ -10,7 +10,9 @@ import java.util.Date;
 import java.util.UUID;
 
 @Entity
-@Table(name = "user_verifications")
+@Table(name = "user_verifications", indexes = {
+        @Index(name = "idx_user_verifications_expires_at", columnList = "expiresAt")
+})
 @Getter
 @Setter
 public class UserVerified {
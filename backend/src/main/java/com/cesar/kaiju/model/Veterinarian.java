@@ -14,7 +14,11 @@ import java.util.List;
 import java.util.UUID;
 
 @Entity
-@Table(name = "veterinarians")
+@Table(name = "veterinarians", indexes = {
+        @Index(name = "idx_veterinarians_city_id", columnList = "city_id"),
+        @Index(name = "idx_veterinarians_state_code", columnList = "state_code"),
+        @Index(name = "idx_veterinarians_lat_lon", columnList = "latitude, longitude")
+})
 @Getter
 @Setter
 public class Veterinarian {
@@ -64,6 +68,16 @@ public class Veterinarian {
     @Column(length = 100)
     private String state;
 
+    // Canonical location resolved through LocationGazetteer when the profile is written (IBGE code / UF)
+    private Integer cityId;
+
+    @Column(length = 2)
+    private String stateCode;
+
+    // LocationGazetteer version the location was last resolved against
+    @Column(length = 16)
+    private String locationVersion;
+
     @Column(length = 20)
     private String zipCode;
 
@@ -0,0 +1,39 @@
+package com.cesar.kaiju.model;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.DayOfWeek;
+import java.time.LocalTime;
+import java.util.UUID;
+
+@Entity
+@Table(name = "veterinarian_availabilities", indexes = {
+        @Index(name = "idx_veterinarian_availabilities_vet", columnList = "veterinarian_id")
+})
+@Getter
+@Setter
+public class VeterinarianAvailability {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    private UUID availabilityId;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "veterinarian_id", nullable = false)
+    private Veterinarian veterinarian;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private DayOfWeek dayOfWeek;
+
+    @Column(nullable = false)
+    private LocalTime startTime;
+
+    @Column(nullable = false)
+    private LocalTime endTime;
+
+    @Column(nullable = false)
+    private Integer slotMinutes;
+}
@@ -0,0 +1,61 @@
+package com.cesar.kaiju.repository;
+
+import com.cesar.kaiju.dto.AccountDeletionJobResponseDTO;
+import com.cesar.kaiju.enums.AccountDeletionStatus;
+import com.cesar.kaiju.model.AccountDeletionJob;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+@Repository
+public interface AccountDeletionJobRepository extends JpaRepository<AccountDeletionJob, UUID> {
+
+    String RESPONSE_SELECT = "SELECT new com.cesar.kaiju.dto.AccountDeletionJobResponseDTO(j.jobId, j.user.userId, j.status, " +
+            "j.currentStep, j.productsDeleted, j.reviewsDeleted, j.ratingsRecomputed, j.otherRowsDeleted, " +
+            "j.requestedAt, j.startedAt, j.finishedAt, j.lastError, j.attempts, j.nextAttemptAt) FROM AccountDeletionJob j ";
+
+    @Query(RESPONSE_SELECT + "WHERE j.jobId = :jobId")
+    Optional<AccountDeletionJobResponseDTO> findResponseById(@Param("jobId") UUID jobId);
+
+    @Query(RESPONSE_SELECT + "ORDER BY j.requestedAt DESC")
+    List<AccountDeletionJobResponseDTO> findRecent(Pageable pageable);
+
+    // Pending and interrupted jobs, plus failed ones whose retry is due
+    @Query("SELECT j FROM AccountDeletionJob j WHERE j.status IN :statuses OR (j.status = :failed " +
+           "AND j.attempts < :maxAttempts AND j.nextAttemptAt <= :now) ORDER BY j.requestedAt")
+    List<AccountDeletionJob> findRunnable(@Param("statuses") Collection<AccountDeletionStatus> statuses,
+                                          @Param("failed") AccountDeletionStatus failed,
+                                          @Param("maxAttempts") int maxAttempts,
+                                          @Param("now") Instant now,
+                                          Pageable pageable);
+
+    @Modifying
+    @Query("UPDATE AccountDeletionJob j SET j.currentStep = :step, " +
+           "j.productsDeleted = j.productsDeleted + :products, j.reviewsDeleted = j.reviewsDeleted + :reviews, " +
+           "j.ratingsRecomputed = j.ratingsRecomputed + :ratings, j.otherRowsDeleted = j.otherRowsDeleted + :other " +
+           "WHERE j.jobId = :jobId")
+    int addProgress(@Param("jobId") UUID jobId, @Param("step") String step, @Param("products") long products,
+                    @Param("reviews") long reviews, @Param("ratings") long ratings, @Param("other") long other);
+
+    @Modifying
+    @Query("UPDATE AccountDeletionJob j SET j.status = :status, j.startedAt = COALESCE(j.startedAt, :now), " +
+           "j.finishedAt = :finishedAt, j.lastError = :error WHERE j.jobId = :jobId")
+    int updateStatus(@Param("jobId") UUID jobId, @Param("status") AccountDeletionStatus status, @Param("now") Instant now,
+                     @Param("finishedAt") Instant finishedAt, @Param("error") String error);
+
+    @Modifying
+    @Query("UPDATE AccountDeletionJob j SET j.status = com.cesar.kaiju.enums.AccountDeletionStatus.FAILED, " +
+           "j.finishedAt = :now, j.lastError = :error, j.attempts = j.attempts + 1, j.nextAttemptAt = :nextAttemptAt " +
+           "WHERE j.jobId = :jobId")
+    int recordFailure(@Param("jobId") UUID jobId, @Param("now") Instant now, @Param("error") String error,
+                      @Param("nextAttemptAt") Instant nextAttemptAt);
+}
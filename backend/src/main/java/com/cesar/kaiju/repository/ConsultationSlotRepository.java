@@ -0,0 +1,54 @@
+package com.cesar.kaiju.repository;
+
+import com.cesar.kaiju.dto.ConsultationSlotResponseDTO;
+import com.cesar.kaiju.model.ConsultationSlot;
+import com.cesar.kaiju.model.User;
+import com.cesar.kaiju.model.Veterinarian;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+@Repository
+public interface ConsultationSlotRepository extends JpaRepository<ConsultationSlot, UUID> {
+
+    @Query("SELECT new com.cesar.kaiju.dto.ConsultationSlotResponseDTO(s.slotId, s.veterinarian.veterinarianId, s.startsAt, s.endsAt, s.status) " +
+           "FROM ConsultationSlot s WHERE s.veterinarian.veterinarianId = :veterinarianId " +
+           "AND s.startsAt >= :from AND s.startsAt < :to AND s.status = com.cesar.kaiju.enums.SlotStatus.AVAILABLE " +
+           "ORDER BY s.startsAt")
+    List<ConsultationSlotResponseDTO> findAvailable(@Param("veterinarianId") UUID veterinarianId,
+                                                    @Param("from") Instant from,
+                                                    @Param("to") Instant to);
+
+    @Query("SELECT new com.cesar.kaiju.dto.ConsultationSlotResponseDTO(s.slotId, s.veterinarian.veterinarianId, s.startsAt, s.endsAt, s.status) " +
+           "FROM ConsultationSlot s WHERE s.slotId = :slotId")
+    Optional<ConsultationSlotResponseDTO> findResponseById(@Param("slotId") UUID slotId);
+
+    @Query("SELECT new com.cesar.kaiju.dto.ConsultationSlotResponseDTO(s.slotId, s.veterinarian.veterinarianId, s.startsAt, s.endsAt, s.status) " +
+           "FROM ConsultationSlot s WHERE s.patient = :patient AND s.startsAt >= :from ORDER BY s.startsAt")
+    List<ConsultationSlotResponseDTO> findUpcomingByPatient(@Param("patient") User patient, @Param("from") Instant from);
+
+    // The row lock taken by the update serializes concurrent bookings; whoever comes second sees BOOKED and matches nothing
+    @Modifying
+    @Query("UPDATE ConsultationSlot s SET s.status = com.cesar.kaiju.enums.SlotStatus.BOOKED, s.patient = :patient, s.bookedAt = :now " +
+           "WHERE s.slotId = :slotId AND s.status = com.cesar.kaiju.enums.SlotStatus.AVAILABLE AND s.startsAt > :now " +
+           "AND EXISTS (SELECT v FROM Veterinarian v WHERE v = s.veterinarian AND v.acceptsNewPatients = true)")
+    int book(@Param("slotId") UUID slotId, @Param("patient") User patient, @Param("now") Instant now);
+
+    @Modifying
+    @Query("UPDATE ConsultationSlot s SET s.status = com.cesar.kaiju.enums.SlotStatus.AVAILABLE, s.patient = null, s.bookedAt = null " +
+           "WHERE s.slotId = :slotId AND s.patient = :patient AND s.status = com.cesar.kaiju.enums.SlotStatus.BOOKED " +
+           "AND s.startsAt > :now")
+    int cancel(@Param("slotId") UUID slotId, @Param("patient") User patient, @Param("now") Instant now);
+
+    @Modifying
+    @Query("DELETE FROM ConsultationSlot s WHERE s.veterinarian = :veterinarian " +
+           "AND s.status = com.cesar.kaiju.enums.SlotStatus.AVAILABLE AND s.startsAt > :now")
+    int deleteFutureAvailable(@Param("veterinarian") Veterinarian veterinarian, @Param("now") Instant now);
+}
@@ -0,0 +1,26 @@
+package com.cesar.kaiju.repository;
+
+import com.cesar.kaiju.dto.MessageResponseDTO;
+import com.cesar.kaiju.model.ConversationMessage;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface ConversationMessageRepository extends JpaRepository<ConversationMessage, UUID> {
+
+    // Seek pagination on (conversation_id, seq): cost stays constant however long the conversation gets
+    @Query("SELECT new com.cesar.kaiju.dto.MessageResponseDTO(m.messageId, m.conversation.conversationId, m.seq, " +
+           "s.userId, s.name, m.type, m.content, m.createdAt) " +
+           "FROM ConversationMessage m JOIN m.sender s " +
+           "WHERE m.conversation.conversationId = :conversationId AND m.seq < :beforeSeq " +
+           "ORDER BY m.seq DESC")
+    List<MessageResponseDTO> findHistory(@Param("conversationId") UUID conversationId,
+                                         @Param("beforeSeq") Long beforeSeq,
+                                         Pageable pageable);
+}
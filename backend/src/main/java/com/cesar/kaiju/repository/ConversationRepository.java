@@ -0,0 +1,66 @@
+package com.cesar.kaiju.repository;
+
+import com.cesar.kaiju.dto.ConversationSummaryDTO;
+import com.cesar.kaiju.dto.VeterinarianLoadDTO;
+import com.cesar.kaiju.enums.ConversationStatus;
+import com.cesar.kaiju.model.Conversation;
+import com.cesar.kaiju.model.User;
+import com.cesar.kaiju.model.Veterinarian;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+@Repository
+public interface ConversationRepository extends JpaRepository<Conversation, UUID> {
+
+    @Query("SELECT c FROM Conversation c JOIN FETCH c.user LEFT JOIN FETCH c.veterinarian v LEFT JOIN FETCH v.user " +
+           "WHERE c.conversationId = :conversationId")
+    Optional<Conversation> findWithParticipants(@Param("conversationId") UUID conversationId);
+
+    // One branch per participant column, each read in order from its (…, last_message_at DESC NULLS LAST)
+    // index and cut at the limit, so only 2 × limit rows are merged; an OR over both columns sorts them all
+    @Query(value = "SELECT c.conversation_id, c.subject, u.user_id, u.name, v.veterinarian_id, v.full_name, " +
+                   "c.last_message_seq, c.last_message_preview, c.last_message_at, " +
+                   "CASE WHEN c.user_id = :userId THEN c.user_unread_count ELSE c.veterinarian_unread_count END " +
+                   "FROM ((SELECT * FROM conversations WHERE user_id = :userId " +
+                   "       ORDER BY last_message_at DESC NULLS LAST LIMIT :limit) " +
+                   "      UNION ALL " +
+                   "      (SELECT * FROM conversations WHERE veterinarian_user_id = :userId AND user_id <> :userId " +
+                   "       ORDER BY last_message_at DESC NULLS LAST LIMIT :limit)) c " +
+                   "JOIN users u ON u.user_id = c.user_id " +
+                   "LEFT JOIN veterinarians v ON v.veterinarian_id = c.veterinarian_id " +
+                   "ORDER BY c.last_message_at DESC NULLS LAST LIMIT :limit", nativeQuery = true)
+    List<ConversationSummaryDTO> findInbox(@Param("userId") UUID userId, @Param("limit") int limit);
+
+    long countByVeterinarianAndStatus(Veterinarian veterinarian, ConversationStatus status);
+
+    // Vets without open conversations are left out
+    @Query("SELECT new com.cesar.kaiju.dto.VeterinarianLoadDTO(c.veterinarian.veterinarianId, COUNT(c)) " +
+           "FROM Conversation c WHERE c.status = com.cesar.kaiju.enums.ConversationStatus.OPEN " +
+           "AND c.veterinarian.veterinarianId IN :veterinarianIds GROUP BY c.veterinarian.veterinarianId")
+    List<VeterinarianLoadDTO> countOpenByVeterinarian(@Param("veterinarianIds") Collection<UUID> veterinarianIds);
+
+    boolean existsByStatus(ConversationStatus status);
+
+    // Oldest consultation the vet can take; rows another transaction is claiming, on any node, are skipped
+    @Query(value = "SELECT conversation_id FROM conversations WHERE status = 'WAITING' " +
+                   "AND (requested_specialization IS NULL OR requested_specialization = ANY (CAST(:specializations AS varchar[]))) " +
+                   "ORDER BY created_at LIMIT 1 FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    Optional<UUID> lockOldestWaiting(@Param("specializations") String[] specializations);
+
+    // Conditional so a conversation closed or claimed in the meantime is left untouched
+    @Modifying
+    @Query("UPDATE Conversation c SET c.veterinarian = :veterinarian, c.veterinarianUser = :veterinarianUser, " +
+           "c.status = com.cesar.kaiju.enums.ConversationStatus.OPEN " +
+           "WHERE c.conversationId = :conversationId AND c.status = com.cesar.kaiju.enums.ConversationStatus.WAITING")
+    int assignVeterinarian(@Param("conversationId") UUID conversationId,
+                           @Param("veterinarian") Veterinarian veterinarian,
+                           @Param("veterinarianUser") User veterinarianUser);
+}
@@ -0,0 +1,29 @@
+package com.cesar.kaiju.repository;
+
+import com.cesar.kaiju.dto.JobRunResponseDTO;
+import com.cesar.kaiju.model.JobRun;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.List;
+
+@Repository
+public interface JobRunRepository extends JpaRepository<JobRun, Long> {
+
+    @Query("SELECT new com.cesar.kaiju.dto.JobRunResponseDTO(r.id, r.jobName, r.owner, r.status, r.startedAt, r.finishedAt, r.durationMs, r.error) " +
+           "FROM JobRun r ORDER BY r.startedAt DESC")
+    List<JobRunResponseDTO> findRecent(Pageable pageable);
+
+    @Query("SELECT new com.cesar.kaiju.dto.JobRunResponseDTO(r.id, r.jobName, r.owner, r.status, r.startedAt, r.finishedAt, r.durationMs, r.error) " +
+           "FROM JobRun r WHERE r.jobName = :jobName ORDER BY r.startedAt DESC")
+    List<JobRunResponseDTO> findRecentByJobName(@Param("jobName") String jobName, Pageable pageable);
+
+    @Modifying
+    @Query("DELETE FROM JobRun r WHERE r.startedAt < :before")
+    int deleteStartedBefore(@Param("before") Instant before);
+}
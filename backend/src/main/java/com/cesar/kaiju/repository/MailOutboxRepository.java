@@ -0,0 +1,21 @@
+package com.cesar.kaiju.repository;
+
+import com.cesar.kaiju.model.MailOutbox;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.UUID;
+
+@Repository
+public interface MailOutboxRepository extends JpaRepository<MailOutbox, UUID> {
+
+    @Modifying
+    @Query(value = "DELETE FROM mail_outbox WHERE id IN (" +
+            "SELECT id FROM mail_outbox WHERE status = 'SENT' AND sent_at < :before LIMIT :limit)",
+            nativeQuery = true)
+    int deleteSentBatch(@Param("before") Instant before, @Param("limit") int limit);
+}
@@ -0,0 +1,34 @@
+package com.cesar.kaiju.repository;
+
+import com.cesar.kaiju.dto.NotificationResponseDTO;
+import com.cesar.kaiju.model.Notification;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface NotificationRepository extends JpaRepository<Notification, UUID> {
+
+    @Query("SELECT new com.cesar.kaiju.dto.NotificationResponseDTO(n.notificationId, n.type, n.title, n.message, n.link, n.createdAt, n.readAt) " +
+           "FROM Notification n WHERE n.user.userId = :userId AND n.createdAt < :before ORDER BY n.createdAt DESC")
+    List<NotificationResponseDTO> findInbox(@Param("userId") UUID userId, @Param("before") Instant before, Pageable pageable);
+
+    @Query("SELECT COUNT(n) FROM Notification n WHERE n.user.userId = :userId AND n.readAt IS NULL")
+    long countUnread(@Param("userId") UUID userId);
+
+    @Modifying
+    @Query("UPDATE Notification n SET n.readAt = :readAt WHERE n.notificationId = :notificationId " +
+           "AND n.user.userId = :userId AND n.readAt IS NULL")
+    int markRead(@Param("notificationId") UUID notificationId, @Param("userId") UUID userId, @Param("readAt") Instant readAt);
+
+    @Modifying
+    @Query("UPDATE Notification n SET n.readAt = :readAt WHERE n.user.userId = :userId AND n.readAt IS NULL")
+    int markAllRead(@Param("userId") UUID userId, @Param("readAt") Instant readAt);
+}
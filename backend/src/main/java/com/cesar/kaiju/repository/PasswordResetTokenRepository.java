@@ -3,8 +3,12 @@ package com.cesar.kaiju.repository;
 import com.cesar.kaiju.model.PasswordResetToken;
 import com.cesar.kaiju.model.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.Instant;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -13,4 +17,11 @@ public interface PasswordResetTokenRepository extends JpaRepository<PasswordRese
     Optional<PasswordResetToken> findByToken(String token);
     void deleteByUser(User user);
     void deleteByToken(String token);
+
+    // Bounded by the limit and backed by idx_password_reset_tokens_expiration; rows locked by a reset in progress are skipped
+    @Modifying
+    @Query(value = "DELETE FROM password_reset_tokens WHERE id IN (" +
+            "SELECT id FROM password_reset_tokens WHERE expiration < :now LIMIT :limit FOR UPDATE SKIP LOCKED)",
+            nativeQuery = true)
+    int deleteExpiredBatch(@Param("now") Instant now, @Param("limit") int limit);
 }
@@ -1,31 +1,63 @@
 package com.cesar.kaiju.repository;
 
+import com.cesar.kaiju.dto.CategoryCountDTO;
+import com.cesar.kaiju.dto.ProductCardDTO;
 import com.cesar.kaiju.enums.ProductCategory;
 import com.cesar.kaiju.enums.ProductStatus;
 import com.cesar.kaiju.model.Product;
 import com.cesar.kaiju.model.User;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
-import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 @Repository
 public interface ProductRepository extends JpaRepository<Product, UUID> {
+
+    // Card listings select only these columns: no description, collections or seller row
+    String CARD_SELECT = "SELECT new com.cesar.kaiju.dto.ProductCardDTO(p.productId, p.name, p.price, p.category, " +
+            "p.status, p.thumbnailUrl, p.seller.userId, p.rating, p.reviewCount) FROM Product p";
+
+    // The response needs the seller's name, so it is joined instead of loaded by a second query
+    @EntityGraph(attributePaths = "seller")
+    @Override
+    Optional<Product> findById(UUID id);
+
+    // Listings only map the rows to DTOs, so they are loaded without dirty-checking snapshots
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
+    @EntityGraph(attributePaths = "seller")
+    @Override
+    Page<Product> findAll(Pageable pageable);
     
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
+    @EntityGraph(attributePaths = "seller")
     Page<Product> findByStatus(ProductStatus status, Pageable pageable);
     
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
+    @EntityGraph(attributePaths = "seller")
     Page<Product> findByCategory(ProductCategory category, Pageable pageable);
     
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
+    @EntityGraph(attributePaths = "seller")
     Page<Product> findByCategoryAndStatus(ProductCategory category, ProductStatus status, Pageable pageable);
     
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
+    @EntityGraph(attributePaths = "seller")
     Page<Product> findBySeller(User seller, Pageable pageable);
     
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
+    @EntityGraph(attributePaths = "seller")
     @Query("SELECT p FROM Product p WHERE p.status = :status AND " +
            "(LOWER(p.name) LIKE LOWER(CONCAT('%', :keyword, '%')) OR " +
            "LOWER(p.description) LIKE LOWER(CONCAT('%', :keyword, '%')))")
@@ -33,14 +65,55 @@ public interface ProductRepository extends JpaRepository<Product, UUID> {
                                   @Param("status") ProductStatus status, 
                                   Pageable pageable);
     
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
+    @EntityGraph(attributePaths = "seller")
     @Query("SELECT p FROM Product p WHERE p.category = :category AND p.status = 'ACTIVE' " +
            "ORDER BY p.rating DESC, p.reviewCount DESC")
     List<Product> findTopRatedByCategory(@Param("category") ProductCategory category, Pageable pageable);
     
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
+    @EntityGraph(attributePaths = "seller")
     @Query("SELECT p FROM Product p WHERE p.status = 'ACTIVE' ORDER BY p.createdAt DESC")
     List<Product> findLatestProducts(Pageable pageable);
-    
-    @Modifying
-    @Query("DELETE FROM Product p WHERE p.seller = :seller")
-    void deleteBySeller(@Param("seller") User seller);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
+    @EntityGraph(attributePaths = "seller")
+    @Query("SELECT p FROM Product p WHERE p.status = 'ACTIVE' ORDER BY p.rating DESC, p.reviewCount DESC")
+    List<Product> findTopRated(Pageable pageable);
+
+    @Query("SELECT new com.cesar.kaiju.dto.CategoryCountDTO(p.category, COUNT(p)) FROM Product p " +
+           "WHERE p.status = 'ACTIVE' GROUP BY p.category ORDER BY COUNT(p) DESC")
+    List<CategoryCountDTO> countActiveByCategory();
+
+    // Batch lookups: one IN query, the collections follow by batch fetch
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
+    @EntityGraph(attributePaths = "seller")
+    List<Product> findByProductIdIn(Collection<UUID> productIds);
+
+    @Query(CARD_SELECT)
+    Page<ProductCardDTO> findCards(Pageable pageable);
+
+    @Query(CARD_SELECT + " WHERE p.status = :status")
+    Page<ProductCardDTO> findCardsByStatus(@Param("status") ProductStatus status, Pageable pageable);
+
+    @Query(CARD_SELECT + " WHERE p.category = :category")
+    Page<ProductCardDTO> findCardsByCategory(@Param("category") ProductCategory category, Pageable pageable);
+
+    @Query(CARD_SELECT + " WHERE p.category = :category AND p.status = :status")
+    Page<ProductCardDTO> findCardsByCategoryAndStatus(@Param("category") ProductCategory category,
+                                                      @Param("status") ProductStatus status,
+                                                      Pageable pageable);
+
+    @Query(CARD_SELECT + " WHERE p.status = 'ACTIVE' ORDER BY p.createdAt DESC")
+    List<ProductCardDTO> findLatestCards(Pageable pageable);
+
+    @Query(CARD_SELECT + " WHERE p.status = 'ACTIVE' ORDER BY p.rating DESC, p.reviewCount DESC")
+    List<ProductCardDTO> findTopRatedCards(Pageable pageable);
+
+    @Query(CARD_SELECT + " WHERE p.status = :status AND " +
+           "(LOWER(p.name) LIKE LOWER(CONCAT('%', :keyword, '%')) OR " +
+           "LOWER(p.description) LIKE LOWER(CONCAT('%', :keyword, '%')))")
+    Page<ProductCardDTO> searchCards(@Param("keyword") String keyword,
+                                     @Param("status") ProductStatus status,
+                                     Pageable pageable);
 }
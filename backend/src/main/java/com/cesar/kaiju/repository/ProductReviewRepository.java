@@ -1,5 +1,6 @@
 package com.cesar.kaiju.repository;
 
+import com.cesar.kaiju.dto.ReviewSummaryDTO;
 import com.cesar.kaiju.model.Product;
 import com.cesar.kaiju.model.ProductReview;
 import com.cesar.kaiju.model.User;
@@ -19,6 +20,12 @@ public interface ProductReviewRepository extends JpaRepository<ProductReview, Lo
     Page<ProductReview> findByProduct(Product product, Pageable pageable);
     
     Page<ProductReview> findByProduct_ProductId(UUID productId, Pageable pageable);
+
+    boolean existsByProduct_ProductIdAndUser_UserId(UUID productId, UUID userId);
+
+    @Query("SELECT new com.cesar.kaiju.dto.ReviewSummaryDTO(COUNT(pr), COALESCE(AVG(pr.rating), 0.0)) " +
+           "FROM ProductReview pr WHERE pr.product = :product")
+    ReviewSummaryDTO summarizeByProduct(@Param("product") Product product);
     
     @Modifying
     @Query("DELETE FROM ProductReview pr WHERE pr.user = :user")
@@ -3,8 +3,12 @@ package com.cesar.kaiju.repository;
 import com.cesar.kaiju.model.User;
 import com.cesar.kaiju.model.UserVerified;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Date;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -14,4 +18,10 @@ public interface UserVerifiedRepository extends JpaRepository<UserVerified, UUID
     Optional<UserVerified> findByVerificationToken(String token);
     
     void deleteByUser(User user);
+
+    @Modifying
+    @Query(value = "DELETE FROM user_verifications WHERE id IN (" +
+            "SELECT id FROM user_verifications WHERE expires_at < :now LIMIT :limit FOR UPDATE SKIP LOCKED)",
+            nativeQuery = true)
+    int deleteExpiredBatch(@Param("now") Date now, @Param("limit") int limit);
 }
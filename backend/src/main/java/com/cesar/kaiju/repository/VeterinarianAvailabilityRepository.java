@@ -0,0 +1,25 @@
+package com.cesar.kaiju.repository;
+
+import com.cesar.kaiju.model.Veterinarian;
+import com.cesar.kaiju.model.VeterinarianAvailability;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface VeterinarianAvailabilityRepository extends JpaRepository<VeterinarianAvailability, UUID> {
+
+    List<VeterinarianAvailability> findByVeterinarian_VeterinarianId(UUID veterinarianId);
+
+    @Query("SELECT a FROM VeterinarianAvailability a JOIN FETCH a.veterinarian")
+    List<VeterinarianAvailability> findAllWithVeterinarian();
+
+    @Modifying
+    @Query("DELETE FROM VeterinarianAvailability a WHERE a.veterinarian = :veterinarian")
+    void deleteByVeterinarian(@Param("veterinarian") Veterinarian veterinarian);
+}
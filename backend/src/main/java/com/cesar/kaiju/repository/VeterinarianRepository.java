@@ -1,48 +1,127 @@
 package com.cesar.kaiju.repository;
 
+import com.cesar.kaiju.dto.VeterinarianCardDTO;
 import com.cesar.kaiju.enums.VeterinarianSpecialization;
 import com.cesar.kaiju.model.User;
 import com.cesar.kaiju.model.Veterinarian;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
 @Repository
 public interface VeterinarianRepository extends JpaRepository<Veterinarian, UUID> {
+
+    // Card listings select only these columns: no bio, collections or user row
+    String CARD_SELECT = "SELECT new com.cesar.kaiju.dto.VeterinarianCardDTO(v.veterinarianId, v.fullName, " +
+            "v.profilePicture, v.clinicName, v.city, v.state, v.isVerified, v.isAvailableForChat, v.rating, " +
+            "v.reviewCount, v.consultationFee) FROM Veterinarian v";
     
     Optional<Veterinarian> findByUser(User user);
     
     Optional<Veterinarian> findByLicenseNumber(String licenseNumber);
+
+    // Serializes consultation claims for one vet across nodes; NO KEY keeps inserts referencing the vet unblocked
+    @Query(value = "SELECT veterinarian_id FROM veterinarians WHERE veterinarian_id = :veterinarianId FOR NO KEY UPDATE",
+           nativeQuery = true)
+    Optional<UUID> lockById(@Param("veterinarianId") UUID veterinarianId);
+
+    // Listings only map the rows to DTOs, so they are loaded without dirty-checking snapshots
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
+    @EntityGraph(attributePaths = "user")
+    @Override
+    Page<Veterinarian> findAll(Pageable pageable);
     
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
+    @EntityGraph(attributePaths = "user")
     Page<Veterinarian> findByIsVerified(Boolean isVerified, Pageable pageable);
     
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
+    @EntityGraph(attributePaths = "user")
     Page<Veterinarian> findByIsAvailableForChat(Boolean isAvailableForChat, Pageable pageable);
     
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
+    @EntityGraph(attributePaths = "user")
     @Query("SELECT v FROM Veterinarian v JOIN v.specializations s WHERE s = :specialization AND v.isVerified = true")
     Page<Veterinarian> findBySpecialization(@Param("specialization") VeterinarianSpecialization specialization, Pageable pageable);
     
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
+    @EntityGraph(attributePaths = "user")
+    @Query("SELECT v FROM Veterinarian v WHERE v.isVerified = true AND " +
+           "(v.cityId = :cityId OR v.stateCode = :stateCode)")
+    Page<Veterinarian> findByLocation(@Param("cityId") Integer cityId, @Param("stateCode") String stateCode, Pageable pageable);
+
+    // Fallback for names the gazetteer does not know: compares the free-text fields as typed
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
+    @EntityGraph(attributePaths = "user")
     @Query("SELECT v FROM Veterinarian v WHERE v.isVerified = true AND " +
            "(LOWER(v.city) = LOWER(:city) OR LOWER(v.state) = LOWER(:state))")
-    Page<Veterinarian> findByLocation(@Param("city") String city, @Param("state") String state, Pageable pageable);
-    
+    Page<Veterinarian> findByLocationText(@Param("city") String city, @Param("state") String state, Pageable pageable);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
+    @EntityGraph(attributePaths = "user")
     @Query("SELECT v FROM Veterinarian v WHERE v.isVerified = true AND " +
            "(LOWER(v.fullName) LIKE LOWER(CONCAT('%', :keyword, '%')) OR " +
            "LOWER(v.clinicName) LIKE LOWER(CONCAT('%', :keyword, '%')) OR " +
            "LOWER(v.bio) LIKE LOWER(CONCAT('%', :keyword, '%')))")
     Page<Veterinarian> searchVeterinarians(@Param("keyword") String keyword, Pageable pageable);
     
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
+    @EntityGraph(attributePaths = "user")
     @Query("SELECT v FROM Veterinarian v WHERE v.isVerified = true ORDER BY v.rating DESC, v.reviewCount DESC")
     List<Veterinarian> findTopRated(Pageable pageable);
     
-    @Query("SELECT v FROM Veterinarian v WHERE v.isVerified = true AND v.latitude IS NOT NULL AND v.longitude IS NOT NULL AND " +
+    // The bounding box lets the (latitude, longitude) index discard most rows before the distance is computed
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
+    @EntityGraph(attributePaths = "user")
+    @Query("SELECT v FROM Veterinarian v WHERE v.isVerified = true AND " +
+           "v.latitude BETWEEN :minLat AND :maxLat AND v.longitude BETWEEN :minLon AND :maxLon AND " +
            "(6371 * acos(cos(radians(:lat)) * cos(radians(v.latitude)) * cos(radians(v.longitude) - radians(:lon)) + " +
            "sin(radians(:lat)) * sin(radians(v.latitude)))) <= :radius")
-    List<Veterinarian> findNearby(@Param("lat") Double latitude, @Param("lon") Double longitude, @Param("radius") Double radiusKm);
+    List<Veterinarian> findNearby(@Param("lat") Double latitude, @Param("lon") Double longitude, @Param("radius") Double radiusKm,
+                                  @Param("minLat") Double minLatitude, @Param("maxLat") Double maxLatitude,
+                                  @Param("minLon") Double minLongitude, @Param("maxLon") Double maxLongitude);
+
+    // Batch lookups: one IN query, the collections follow by batch fetch
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
+    @EntityGraph(attributePaths = "user")
+    List<Veterinarian> findByVeterinarianIdIn(Collection<UUID> veterinarianIds);
+
+    @Query(CARD_SELECT)
+    Page<VeterinarianCardDTO> findCards(Pageable pageable);
+
+    @Query(CARD_SELECT + " WHERE v.isVerified = :isVerified")
+    Page<VeterinarianCardDTO> findCardsByIsVerified(@Param("isVerified") Boolean isVerified, Pageable pageable);
+
+    @Query(CARD_SELECT + " WHERE v.isAvailableForChat = :isAvailableForChat")
+    Page<VeterinarianCardDTO> findCardsByIsAvailableForChat(@Param("isAvailableForChat") Boolean isAvailableForChat, Pageable pageable);
+
+    @Query(CARD_SELECT + " JOIN v.specializations s WHERE s = :specialization AND v.isVerified = true")
+    Page<VeterinarianCardDTO> findCardsBySpecialization(@Param("specialization") VeterinarianSpecialization specialization, Pageable pageable);
+
+    @Query(CARD_SELECT + " WHERE v.isVerified = true AND (v.cityId = :cityId OR v.stateCode = :stateCode)")
+    Page<VeterinarianCardDTO> findCardsByLocation(@Param("cityId") Integer cityId, @Param("stateCode") String stateCode, Pageable pageable);
+
+    @Query(CARD_SELECT + " WHERE v.isVerified = true AND (LOWER(v.city) = LOWER(:city) OR LOWER(v.state) = LOWER(:state))")
+    Page<VeterinarianCardDTO> findCardsByLocationText(@Param("city") String city, @Param("state") String state, Pageable pageable);
+
+    @Query(CARD_SELECT + " WHERE v.isVerified = true ORDER BY v.rating DESC, v.reviewCount DESC")
+    List<VeterinarianCardDTO> findTopRatedCards(Pageable pageable);
+
+    @Query(CARD_SELECT + " WHERE v.isVerified = true AND " +
+           "(LOWER(v.fullName) LIKE LOWER(CONCAT('%', :keyword, '%')) OR " +
+           "LOWER(v.clinicName) LIKE LOWER(CONCAT('%', :keyword, '%')) OR " +
+           "LOWER(v.bio) LIKE LOWER(CONCAT('%', :keyword, '%')))")
+    Page<VeterinarianCardDTO> searchCards(@Param("keyword") String keyword, Pageable pageable);
 }
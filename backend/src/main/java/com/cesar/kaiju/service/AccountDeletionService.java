@@ -0,0 +1,340 @@
+package com.cesar.kaiju.service;
+
+import com.cesar.kaiju.config.CacheConfig;
+import com.cesar.kaiju.dto.AccountDeletionJobResponseDTO;
+import com.cesar.kaiju.enums.AccountDeletionStatus;
+import com.cesar.kaiju.enums.UserSituation;
+import com.cesar.kaiju.model.AccountDeletionJob;
+import com.cesar.kaiju.model.User;
+import com.cesar.kaiju.repository.AccountDeletionJobRepository;
+import com.cesar.kaiju.repository.UserRepository;
+import jakarta.persistence.EntityNotFoundException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.PreparedStatement;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.Date;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Deletes accounts in two phases. {@link #requestDeletion} runs in the caller's transaction: the
+ * user is marked DELETED, anonymized (so the username and email can be reused) and can no longer
+ * log in. A background job then purges everything the account owns in bounded batches, each in its
+ * own short transaction, recording progress after every batch. Every step is idempotent, so a job
+ * interrupted by a timeout or a restart simply resumes, and a failed one is retried with exponential
+ * backoff up to a limit. The user row itself is kept as a tombstone so the other participants'
+ * conversation history stays intact. The rows are written with plain JDBC, so the cached responses
+ * of everything purged are evicted explicitly.
+ */
+@Service
+@Transactional
+public class AccountDeletionService {
+
+    private static final Logger logger = LoggerFactory.getLogger(AccountDeletionService.class);
+
+    private static final int MAX_ERROR_LENGTH = 1000;
+    private static final int MAX_JOBS_PER_RUN = 10;
+
+    private static final String DELETE_REVIEWS_BY_AUTHOR_SQL =
+            "DELETE FROM product_reviews WHERE id IN (" +
+            "SELECT id FROM product_reviews WHERE user_id = ? LIMIT ?) RETURNING product_id";
+
+    private static final String RECOMPUTE_RATINGS_SQL =
+            "UPDATE products p SET rating = COALESCE(s.average_rating, 0), review_count = s.review_count FROM (" +
+            "SELECT ids.product_id, AVG(r.rating) AS average_rating, COUNT(r.id) AS review_count " +
+            "FROM unnest(?::uuid[]) AS ids(product_id) LEFT JOIN product_reviews r ON r.product_id = ids.product_id " +
+            "GROUP BY ids.product_id) s WHERE p.product_id = s.product_id";
+
+    private static final String SELLER_PRODUCTS_SQL =
+            "SELECT product_id FROM products WHERE seller_id = ? LIMIT ?";
+
+    private static final String DELETE_PRODUCT_REVIEWS_SQL =
+            "DELETE FROM product_reviews WHERE id IN (" +
+            "SELECT id FROM product_reviews WHERE product_id = ANY(?::uuid[]) LIMIT ?)";
+
+    private static final List<String> DELETE_PRODUCT_ROWS_SQL = List.of(
+            "DELETE FROM product_images WHERE product_id = ANY(?::uuid[])",
+            "DELETE FROM product_tags WHERE product_id = ANY(?::uuid[])",
+            "DELETE FROM products WHERE product_id = ANY(?::uuid[])"
+    );
+
+    private static final String DETACH_VETERINARIAN_CONVERSATIONS_SQL =
+            "UPDATE conversations SET veterinarian_id = NULL, status = 'CLOSED' WHERE conversation_id IN (" +
+            "SELECT conversation_id FROM conversations WHERE veterinarian_id = ? LIMIT ?)";
+
+    private static final String DELETE_VETERINARIAN_SLOTS_SQL =
+            "DELETE FROM consultation_slots WHERE slot_id IN (" +
+            "SELECT slot_id FROM consultation_slots WHERE veterinarian_id = ? LIMIT ?)";
+
+    private static final List<String> DELETE_VETERINARIAN_ROWS_SQL = List.of(
+            "DELETE FROM veterinarian_availabilities WHERE veterinarian_id = ?",
+            "DELETE FROM veterinarian_specializations WHERE veterinarian_id = ?",
+            "DELETE FROM veterinarian_certifications WHERE veterinarian_id = ?",
+            "DELETE FROM veterinarian_languages WHERE veterinarian_id = ?",
+            "DELETE FROM veterinarians WHERE veterinarian_id = ?"
+    );
+
+    private static final String RELEASE_PATIENT_SLOTS_SQL =
+            "UPDATE consultation_slots SET patient_id = NULL, booked_at = NULL, status = 'AVAILABLE' WHERE slot_id IN (" +
+            "SELECT slot_id FROM consultation_slots WHERE patient_id = ? LIMIT ?)";
+
+    private static final String DELETE_NOTIFICATIONS_SQL =
+            "DELETE FROM notifications WHERE notification_id IN (" +
+            "SELECT notification_id FROM notifications WHERE user_id = ? LIMIT ?)";
+
+    private final AccountDeletionJobRepository jobRepository;
+    private final UserRepository userRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ClusterJobRunner clusterJobRunner;
+    private final ConsultationRouter consultationRouter;
+    private final CacheManager cacheManager;
+
+    @Value("${account-deletion.batch-size:500}")
+    private int batchSize;
+
+    @Value("${account-deletion.product-batch-size:100}")
+    private int productBatchSize;
+
+    @Value("${account-deletion.max-attempts:5}")
+    private int maxAttempts;
+
+    @Value("${account-deletion.retry-backoff-base-ms:60000}")
+    private long retryBackoffBaseMs;
+
+    @Value("${account-deletion.retry-backoff-max-ms:3600000}")
+    private long retryBackoffMaxMs;
+
+    public AccountDeletionService(
+            AccountDeletionJobRepository jobRepository,
+            UserRepository userRepository,
+            JdbcTemplate jdbcTemplate,
+            TransactionTemplate transactionTemplate,
+            ClusterJobRunner clusterJobRunner,
+            ConsultationRouter consultationRouter,
+            CacheManager cacheManager) {
+        this.jobRepository = jobRepository;
+        this.userRepository = userRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.clusterJobRunner = clusterJobRunner;
+        this.consultationRouter = consultationRouter;
+        this.cacheManager = cacheManager;
+    }
+
+    public AccountDeletionJobResponseDTO requestDeletion(User user) {
+        String tombstone = user.getUserId().toString().replace("-", "").substring(0, 12);
+        user.setSituation(UserSituation.DELETED);
+        user.setDeletedAt(new Date());
+        user.setUsername("deleted_" + tombstone);
+        user.setEmail("deleted+" + user.getUserId() + "@kaiju.invalid");
+        user.setName("Usuário removido");
+        user.setPassword("");
+        user.setAvatar(null);
+        user.setHeader(null);
+        user.setDescription(null);
+        userRepository.save(user);
+        evict(CacheConfig.USERS, List.of(user.getUserId()));
+        consultationRouter.offlineByUser(user.getUserId());
+
+        AccountDeletionJob job = new AccountDeletionJob();
+        job.setUser(user);
+        AccountDeletionJob savedJob = jobRepository.save(job);
+        return toResponseDTO(savedJob);
+    }
+
+    @Transactional(readOnly = true)
+    public AccountDeletionJobResponseDTO getJob(UUID jobId) {
+        return jobRepository.findResponseById(jobId)
+                .orElseThrow(() -> new EntityNotFoundException("Account deletion job not found with id: " + jobId));
+    }
+
+    @Transactional(readOnly = true)
+    public List<AccountDeletionJobResponseDTO> getRecentJobs(int limit) {
+        return jobRepository.findRecent(PageRequest.of(0, limit));
+    }
+
+    @Scheduled(fixedDelayString = "${account-deletion.poll-interval-ms:10000}")
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void processQueue() {
+        clusterJobRunner.run("account-deletion", Duration.ofMinutes(30), Duration.ZERO, () -> {
+            List<AccountDeletionJob> jobs = jobRepository.findRunnable(
+                    List.of(AccountDeletionStatus.PENDING, AccountDeletionStatus.RUNNING),
+                    AccountDeletionStatus.FAILED, maxAttempts, Instant.now(),
+                    PageRequest.of(0, MAX_JOBS_PER_RUN));
+            for (AccountDeletionJob job : jobs) {
+                if (Thread.currentThread().isInterrupted()) {
+                    return;
+                }
+                purge(job.getJobId(), job.getUser().getUserId(), job.getAttempts());
+            }
+        });
+    }
+
+    private void purge(UUID jobId, UUID userId, int previousFailures) {
+        transactionTemplate.executeWithoutResult(status ->
+                jobRepository.updateStatus(jobId, AccountDeletionStatus.RUNNING, Instant.now(), null, null));
+        try {
+            purgeAuthoredReviews(jobId, userId);
+            purgeProducts(jobId, userId);
+            purgeVeterinarianProfile(jobId, userId);
+            repeat(jobId, "PATIENT_SLOTS", RELEASE_PATIENT_SLOTS_SQL, userId);
+            repeat(jobId, "NOTIFICATIONS", DELETE_NOTIFICATIONS_SQL, userId);
+            if (Thread.currentThread().isInterrupted()) {
+                return;
+            }
+
+            transactionTemplate.executeWithoutResult(status -> {
+                jobRepository.addProgress(jobId, "DONE", 0, 0, 0, 0);
+                jobRepository.updateStatus(jobId, AccountDeletionStatus.COMPLETED, Instant.now(), Instant.now(), null);
+            });
+            logger.info("Account {} purged (job {})", userId, jobId);
+        } catch (RuntimeException e) {
+            // Every step is idempotent, so a retry resumes where this run stopped
+            String error = String.valueOf(e.getMessage());
+            int failures = previousFailures + 1;
+            long backoff = Math.min(retryBackoffBaseMs << Math.min(failures - 1, 20), retryBackoffMaxMs);
+            Instant now = Instant.now();
+            transactionTemplate.executeWithoutResult(status -> jobRepository.recordFailure(jobId, now,
+                    error.length() > MAX_ERROR_LENGTH ? error.substring(0, MAX_ERROR_LENGTH) : error,
+                    now.plusMillis(backoff)));
+            if (failures >= maxAttempts) {
+                logger.error("Account deletion job {} failed {} times, giving up", jobId, failures, e);
+            } else {
+                logger.warn("Account deletion job {} failed, retrying in {} ms", jobId, backoff, e);
+            }
+        }
+    }
+
+    // Reviews written by the user; the ratings of the products they were on are recomputed in the same transaction
+    private void purgeAuthoredReviews(UUID jobId, UUID userId) {
+        int deleted;
+        do {
+            deleted = transactionTemplate.execute(status -> {
+                List<UUID> productIds = jdbcTemplate.queryForList(DELETE_REVIEWS_BY_AUTHOR_SQL, UUID.class, userId, batchSize);
+                int recomputed = 0;
+                if (!productIds.isEmpty()) {
+                    List<UUID> reviewedProductIds = List.copyOf(new LinkedHashSet<>(productIds));
+                    recomputed = updateWithIds(RECOMPUTE_RATINGS_SQL, reviewedProductIds);
+                    evict(CacheConfig.PRODUCTS, reviewedProductIds);
+                }
+                jobRepository.addProgress(jobId, "AUTHORED_REVIEWS", 0, productIds.size(), recomputed, 0);
+                return productIds.size();
+            });
+        } while (deleted == batchSize && !Thread.currentThread().isInterrupted());
+    }
+
+    private void purgeProducts(UUID jobId, UUID userId) {
+        while (!Thread.currentThread().isInterrupted()) {
+            List<UUID> productIds = jdbcTemplate.queryForList(SELLER_PRODUCTS_SQL, UUID.class, userId, productBatchSize);
+            if (productIds.isEmpty()) {
+                return;
+            }
+
+            int deleted;
+            do {
+                deleted = transactionTemplate.execute(status -> {
+                    int rows = updateWithIds(DELETE_PRODUCT_REVIEWS_SQL, productIds, batchSize);
+                    jobRepository.addProgress(jobId, "PRODUCTS", 0, rows, 0, 0);
+                    return rows;
+                });
+            } while (deleted == batchSize);
+
+            transactionTemplate.executeWithoutResult(status -> {
+                long other = 0;
+                int products = 0;
+                for (String sql : DELETE_PRODUCT_ROWS_SQL) {
+                    products = updateWithIds(sql, productIds);
+                    other += products;
+                }
+                jobRepository.addProgress(jobId, "PRODUCTS", products, 0, 0, other - products);
+                evict(CacheConfig.PRODUCTS, productIds);
+            });
+        }
+    }
+
+    private void purgeVeterinarianProfile(UUID jobId, UUID userId) {
+        List<UUID> veterinarianIds = jdbcTemplate.queryForList(
+                "SELECT veterinarian_id FROM veterinarians WHERE user_id = ?", UUID.class, userId);
+        for (UUID veterinarianId : veterinarianIds) {
+            repeat(jobId, "VETERINARIAN_CONVERSATIONS", DETACH_VETERINARIAN_CONVERSATIONS_SQL, veterinarianId);
+            repeat(jobId, "VETERINARIAN_SLOTS", DELETE_VETERINARIAN_SLOTS_SQL, veterinarianId);
+            if (Thread.currentThread().isInterrupted()) {
+                return;
+            }
+            transactionTemplate.executeWithoutResult(status -> {
+                long rows = 0;
+                for (String sql : DELETE_VETERINARIAN_ROWS_SQL) {
+                    rows += jdbcTemplate.update(sql, veterinarianId);
+                }
+                jobRepository.addProgress(jobId, "VETERINARIAN_PROFILE", 0, 0, 0, rows);
+                evict(CacheConfig.VETERINARIANS, List.of(veterinarianId));
+            });
+        }
+    }
+
+    // Runs a bounded "WHERE id IN (SELECT ... LIMIT ?)" statement until it affects less than a full batch
+    private void repeat(UUID jobId, String step, String sql, UUID ownerId) {
+        int affected;
+        do {
+            affected = transactionTemplate.execute(status -> {
+                int rows = jdbcTemplate.update(sql, ownerId, batchSize);
+                jobRepository.addProgress(jobId, step, 0, 0, 0, rows);
+                return rows;
+            });
+        } while (affected == batchSize && !Thread.currentThread().isInterrupted());
+    }
+
+    // The cache manager is transaction-aware: inside a transaction the eviction happens after the commit
+    private void evict(String cacheName, Collection<UUID> ids) {
+        Cache cache = cacheManager.getCache(cacheName);
+        if (cache != null) {
+            ids.forEach(cache::evict);
+        }
+    }
+
+    private int updateWithIds(String sql, List<UUID> ids, Object... extraArgs) {
+        return jdbcTemplate.update(connection -> {
+            PreparedStatement statement = connection.prepareStatement(sql);
+            statement.setArray(1, connection.createArrayOf("uuid", ids.toArray()));
+            for (int i = 0; i < extraArgs.length; i++) {
+                statement.setObject(i + 2, extraArgs[i]);
+            }
+            return statement;
+        });
+    }
+
+    private AccountDeletionJobResponseDTO toResponseDTO(AccountDeletionJob job) {
+        return new AccountDeletionJobResponseDTO(
+                job.getJobId(),
+                job.getUser().getUserId(),
+                job.getStatus(),
+                job.getCurrentStep(),
+                job.getProductsDeleted(),
+                job.getReviewsDeleted(),
+                job.getRatingsRecomputed(),
+                job.getOtherRowsDeleted(),
+                job.getRequestedAt(),
+                job.getStartedAt(),
+                job.getFinishedAt(),
+                job.getLastError(),
+                job.getAttempts(),
+                job.getNextAttemptAt()
+        );
+    }
+}
@@ -0,0 +1,216 @@
+package com.cesar.kaiju.service;
+
+import com.cesar.kaiju.dto.AvailabilityRequestDTO;
+import com.cesar.kaiju.dto.AvailabilityResponseDTO;
+import com.cesar.kaiju.dto.ConsultationSlotResponseDTO;
+import com.cesar.kaiju.enums.SlotStatus;
+import com.cesar.kaiju.model.User;
+import com.cesar.kaiju.model.Veterinarian;
+import com.cesar.kaiju.model.VeterinarianAvailability;
+import com.cesar.kaiju.repository.ConsultationSlotRepository;
+import com.cesar.kaiju.repository.VeterinarianAvailabilityRepository;
+import com.cesar.kaiju.repository.VeterinarianRepository;
+import jakarta.persistence.EntityNotFoundException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+@Service
+@Transactional
+public class AppointmentService {
+
+    private static final ZoneId ZONE = ZoneId.of("America/Sao_Paulo");
+
+    private static final String MATERIALIZE_SQL =
+            "INSERT INTO consultation_slots (slot_id, veterinarian_id, starts_at, ends_at, status, created_at) " +
+            "VALUES (?, ?, ?, ?, ?, ?) ON CONFLICT DO NOTHING";
+
+    private final VeterinarianRepository veterinarianRepository;
+    private final VeterinarianAvailabilityRepository availabilityRepository;
+    private final ConsultationSlotRepository slotRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ClusterJobRunner clusterJobRunner;
+
+    @Value("${appointments.horizon-days:28}")
+    private int horizonDays;
+
+    public AppointmentService(
+            VeterinarianRepository veterinarianRepository,
+            VeterinarianAvailabilityRepository availabilityRepository,
+            ConsultationSlotRepository slotRepository,
+            JdbcTemplate jdbcTemplate,
+            TransactionTemplate transactionTemplate,
+            ClusterJobRunner clusterJobRunner) {
+        this.veterinarianRepository = veterinarianRepository;
+        this.availabilityRepository = availabilityRepository;
+        this.slotRepository = slotRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.clusterJobRunner = clusterJobRunner;
+    }
+
+    public List<AvailabilityResponseDTO> setAvailability(List<AvailabilityRequestDTO> request) {
+        User currentUser = getCurrentUser();
+        Veterinarian veterinarian = veterinarianRepository.findByUser(currentUser)
+                .orElseThrow(() -> new EntityNotFoundException("Veterinarian profile not found for current user"));
+
+        for (AvailabilityRequestDTO window : request) {
+            if (!window.startTime().isBefore(window.endTime())) {
+                throw new IllegalArgumentException("Availability start time must be before end time");
+            }
+        }
+        // Same day, sorted by start: each window must end before the next one starts
+        Map<DayOfWeek, List<AvailabilityRequestDTO>> windowsByDay = request.stream()
+                .collect(Collectors.groupingBy(AvailabilityRequestDTO::dayOfWeek));
+        for (List<AvailabilityRequestDTO> windows : windowsByDay.values()) {
+            windows.sort(Comparator.comparing(AvailabilityRequestDTO::startTime));
+            for (int i = 1; i < windows.size(); i++) {
+                if (windows.get(i).startTime().isBefore(windows.get(i - 1).endTime())) {
+                    throw new IllegalArgumentException("Availability windows on " + windows.get(i).dayOfWeek() + " overlap");
+                }
+            }
+        }
+
+        availabilityRepository.deleteByVeterinarian(veterinarian);
+        List<VeterinarianAvailability> templates = request.stream().map(window -> {
+            VeterinarianAvailability availability = new VeterinarianAvailability();
+            availability.setVeterinarian(veterinarian);
+            availability.setDayOfWeek(window.dayOfWeek());
+            availability.setStartTime(window.startTime());
+            availability.setEndTime(window.endTime());
+            availability.setSlotMinutes(window.slotMinutes());
+            return availability;
+        }).collect(Collectors.toList());
+        List<VeterinarianAvailability> savedTemplates = availabilityRepository.saveAll(templates);
+
+        // Booked slots are kept; only free future slots are regenerated from the new templates, skipping
+        // any that would overlap a booked one
+        slotRepository.deleteFutureAvailable(veterinarian, Instant.now());
+        materialize(veterinarian.getVeterinarianId(), savedTemplates);
+
+        return savedTemplates.stream()
+                .map(this::toAvailabilityResponseDTO)
+                .collect(Collectors.toList());
+    }
+
+    @Transactional(readOnly = true)
+    public List<AvailabilityResponseDTO> getAvailability(UUID veterinarianId) {
+        return availabilityRepository.findByVeterinarian_VeterinarianId(veterinarianId).stream()
+                .map(this::toAvailabilityResponseDTO)
+                .collect(Collectors.toList());
+    }
+
+    @Transactional(readOnly = true)
+    public List<ConsultationSlotResponseDTO> getAvailableSlots(UUID veterinarianId, LocalDate from) {
+        LocalDate start = from != null ? from : LocalDate.now(ZONE);
+        Instant rangeStart = start.atStartOfDay(ZONE).toInstant();
+        Instant rangeEnd = start.plusDays(7).atStartOfDay(ZONE).toInstant();
+        Instant now = Instant.now();
+        return slotRepository.findAvailable(veterinarianId, rangeStart.isAfter(now) ? rangeStart : now, rangeEnd);
+    }
+
+    @Transactional(readOnly = true)
+    public List<ConsultationSlotResponseDTO> getMyAppointments() {
+        return slotRepository.findUpcomingByPatient(getCurrentUser(), Instant.now());
+    }
+
+    public ConsultationSlotResponseDTO bookSlot(UUID slotId) {
+        User currentUser = getCurrentUser();
+        if (slotRepository.book(slotId, currentUser, Instant.now()) == 0) {
+            throw new IllegalStateException("Slot is no longer available");
+        }
+        return slotRepository.findResponseById(slotId)
+                .orElseThrow(() -> new EntityNotFoundException("Slot not found with id: " + slotId));
+    }
+
+    public void cancelBooking(UUID slotId) {
+        User currentUser = getCurrentUser();
+        if (slotRepository.cancel(slotId, currentUser, Instant.now()) == 0) {
+            throw new IllegalStateException("Booking not found or already started");
+        }
+    }
+
+    @Scheduled(cron = "${appointments.materialize-cron:0 30 3 * * *}", zone = "America/Sao_Paulo")
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void materializeUpcomingSlots() {
+        clusterJobRunner.run("slot-materialization", Duration.ofMinutes(30), Duration.ofHours(1), () ->
+                transactionTemplate.executeWithoutResult(status -> {
+                    Map<UUID, List<VeterinarianAvailability>> templatesByVet = availabilityRepository.findAllWithVeterinarian().stream()
+                            .collect(Collectors.groupingBy(availability -> availability.getVeterinarian().getVeterinarianId()));
+                    templatesByVet.forEach(this::materialize);
+                }));
+    }
+
+    // Idempotent: a slot that overlaps an existing one of the same vet, including itself, is skipped by the
+    // exclusion constraint on (veterinarian_id, [starts_at, ends_at))
+    private void materialize(UUID veterinarianId, List<VeterinarianAvailability> templates) {
+        Instant now = Instant.now();
+        Timestamp createdAt = Timestamp.from(now);
+        LocalDate today = LocalDate.now(ZONE);
+        List<Object[]> rows = new ArrayList<>();
+
+        for (int day = 0; day < horizonDays; day++) {
+            LocalDate date = today.plusDays(day);
+            for (VeterinarianAvailability template : templates) {
+                if (template.getDayOfWeek() != date.getDayOfWeek()) {
+                    continue;
+                }
+                LocalTime time = template.getStartTime();
+                while (!time.plusMinutes(template.getSlotMinutes()).isAfter(template.getEndTime())
+                        && time.plusMinutes(template.getSlotMinutes()).isAfter(time)) {
+                    ZonedDateTime startsAt = date.atTime(time).atZone(ZONE);
+                    if (startsAt.toInstant().isAfter(now)) {
+                        rows.add(new Object[]{
+                                UUID.randomUUID(),
+                                veterinarianId,
+                                Timestamp.from(startsAt.toInstant()),
+                                Timestamp.from(startsAt.plusMinutes(template.getSlotMinutes()).toInstant()),
+                                SlotStatus.AVAILABLE.name(),
+                                createdAt
+                        });
+                    }
+                    time = time.plusMinutes(template.getSlotMinutes());
+                }
+            }
+        }
+
+        if (!rows.isEmpty()) {
+            jdbcTemplate.batchUpdate(MATERIALIZE_SQL, rows);
+        }
+    }
+
+    private AvailabilityResponseDTO toAvailabilityResponseDTO(VeterinarianAvailability availability) {
+        return new AvailabilityResponseDTO(
+                availability.getAvailabilityId(),
+                availability.getDayOfWeek(),
+                availability.getStartTime(),
+                availability.getEndTime(),
+                availability.getSlotMinutes()
+        );
+    }
+
+    private User getCurrentUser() {
+        return (User) SecurityContextHolder.getContext().getAuthentication().getPrincipal();
+    }
+}
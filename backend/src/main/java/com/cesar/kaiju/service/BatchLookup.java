@@ -0,0 +1,72 @@
+package com.cesar.kaiju.service;
+
+import com.cesar.kaiju.dto.BatchResponseDTO;
+import org.springframework.cache.Cache;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Function;
+
+/**
+ * Multi-get behind the /batch endpoints: ids are served from the cache first, the misses are loaded
+ * with one query and cached. Items come back in request order, duplicates once; ids that are
+ * malformed or do not exist are listed in {@code missing}, also in request order.
+ */
+final class BatchLookup {
+
+    private BatchLookup() {
+    }
+
+    static <T> BatchResponseDTO<T> lookup(List<String> requested, Cache cache, Class<T> type,
+                                          Function<Set<UUID>, Map<UUID, T>> loader) {
+        Set<String> unique = new LinkedHashSet<>(requested);
+        Map<UUID, T> found = new HashMap<>();
+        Set<UUID> misses = new HashSet<>();
+        for (String value : unique) {
+            UUID id = parse(value);
+            if (id == null) {
+                continue;
+            }
+            T cached = cache.get(id, type);
+            if (cached != null) {
+                found.put(id, cached);
+            } else {
+                misses.add(id);
+            }
+        }
+
+        if (!misses.isEmpty()) {
+            Map<UUID, T> loaded = loader.apply(misses);
+            loaded.forEach(cache::put);
+            found.putAll(loaded);
+        }
+
+        List<T> items = new ArrayList<>(found.size());
+        List<String> missing = new ArrayList<>();
+        Set<UUID> returned = new HashSet<>();
+        for (String value : unique) {
+            UUID id = parse(value);
+            T item = id != null ? found.get(id) : null;
+            if (item == null) {
+                missing.add(value);
+            } else if (returned.add(id)) {
+                items.add(item);
+            }
+        }
+        return new BatchResponseDTO<>(items, missing);
+    }
+
+    private static UUID parse(String value) {
+        try {
+            return UUID.fromString(value.trim());
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+}
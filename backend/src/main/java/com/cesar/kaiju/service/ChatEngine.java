@@ -0,0 +1,205 @@
+package com.cesar.kaiju.service;
+
+import com.cesar.kaiju.dto.MessageResponseDTO;
+import com.cesar.kaiju.enums.ConversationStatus;
+import com.cesar.kaiju.enums.MessageType;
+import com.cesar.kaiju.model.Conversation;
+import com.cesar.kaiju.model.User;
+import com.cesar.kaiju.model.Veterinarian;
+import com.cesar.kaiju.repository.ConversationRepository;
+import jakarta.persistence.EntityNotFoundException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Hot path for chat messages. Participants of each active conversation are kept in memory; the
+ * sequence number is taken from conversations.last_seq with a single UPDATE ... RETURNING, which
+ * also returns the current status and veterinarian, so nodes serving the same conversation never
+ * hand out the same number and a vet assigned through another node is picked up on the next send.
+ * The message is then delivered to both participants and handed to {@link MessageBatchWriter}.
+ */
+@Service
+public class ChatEngine {
+
+    public static final String MESSAGE_DESTINATION = "/queue/messages";
+
+    private static final long IDLE_EVICTION_MS = TimeUnit.MINUTES.toMillis(30);
+
+    private static final String NEXT_SEQ_SQL =
+            "UPDATE conversations SET last_seq = last_seq + 1 " +
+            "WHERE conversation_id = ? AND status <> 'CLOSED' " +
+            "RETURNING last_seq, veterinarian_user_id, " +
+            "(SELECT username FROM users WHERE user_id = conversations.veterinarian_user_id)";
+
+    private final ConversationRepository conversationRepository;
+    private final MessageBatchWriter messageBatchWriter;
+    private final SimpMessagingTemplate messagingTemplate;
+    private final ConversationActivityTracker activityTracker;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate seqTransaction;
+
+    private final ConcurrentHashMap<UUID, ConversationChannel> channels = new ConcurrentHashMap<>();
+
+    public ChatEngine(
+            ConversationRepository conversationRepository,
+            MessageBatchWriter messageBatchWriter,
+            SimpMessagingTemplate messagingTemplate,
+            ConversationActivityTracker activityTracker,
+            JdbcTemplate jdbcTemplate,
+            PlatformTransactionManager transactionManager) {
+        this.conversationRepository = conversationRepository;
+        this.messageBatchWriter = messageBatchWriter;
+        this.messagingTemplate = messagingTemplate;
+        this.activityTracker = activityTracker;
+        this.jdbcTemplate = jdbcTemplate;
+        // Its own transaction even when called from afterCommit, where the caller's connection no longer commits
+        this.seqTransaction = new TransactionTemplate(transactionManager);
+        this.seqTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    public void openChannel(Conversation conversation) {
+        channels.putIfAbsent(conversation.getConversationId(), new ConversationChannel(conversation));
+    }
+
+    public MessageResponseDTO send(UUID conversationId, User sender, MessageType type, String content) {
+        ConversationChannel channel = getChannel(conversationId);
+        if (!channel.isParticipant(sender.getUserId())) {
+            // The vet may have been assigned through another node since the channel was loaded
+            channel.update(findWithParticipants(conversationId));
+            if (!channel.isParticipant(sender.getUserId())) {
+                throw new SecurityException("You are not a participant of this conversation");
+            }
+        }
+        if (channel.closed) {
+            throw new IllegalStateException("Conversation is closed");
+        }
+        messageBatchWriter.ensureCapacity();
+
+        MessageResponseDTO message;
+        // A lock rather than a monitor: enqueue can block, which would pin a virtual thread to its carrier
+        channel.lock.lock();
+        try {
+            long seq = nextSeq(conversationId, channel);
+            message = new MessageResponseDTO(
+                    UUID.randomUUID(),
+                    conversationId,
+                    seq,
+                    sender.getUserId(),
+                    sender.getName(),
+                    type != null ? type : MessageType.TEXT,
+                    content,
+                    new Date()
+            );
+            messageBatchWriter.enqueue(message);
+            channel.lastActivity = System.currentTimeMillis();
+        } finally {
+            channel.lock.unlock();
+        }
+        activityTracker.recordMessage(conversationId, message.seq(), channel.userId.equals(sender.getUserId()),
+                message.content(), message.createdAt());
+
+        messagingTemplate.convertAndSendToUser(channel.username, MESSAGE_DESTINATION, message);
+        String veterinarianUsername = channel.veterinarianUsername;
+        if (veterinarianUsername != null) {
+            messagingTemplate.convertAndSendToUser(veterinarianUsername, MESSAGE_DESTINATION, message);
+        }
+        return message;
+    }
+
+    public void assignVeterinarian(UUID conversationId, UUID veterinarianUserId, String veterinarianUsername) {
+        ConversationChannel channel = channels.get(conversationId);
+        if (channel != null) {
+            channel.veterinarianUserId = veterinarianUserId;
+            channel.veterinarianUsername = veterinarianUsername;
+        }
+    }
+
+    public void closeChannel(UUID conversationId) {
+        ConversationChannel channel = channels.get(conversationId);
+        if (channel != null) {
+            channel.closed = true;
+        }
+    }
+
+    @Scheduled(fixedDelay = 300000)
+    public void evictIdleChannels() {
+        long threshold = System.currentTimeMillis() - IDLE_EVICTION_MS;
+        channels.values().removeIf(channel -> channel.lastActivity < threshold);
+    }
+
+    private long nextSeq(UUID conversationId, ConversationChannel channel) {
+        List<Long> seq = seqTransaction.execute(status -> jdbcTemplate.query(NEXT_SEQ_SQL, (rs, rowNum) -> {
+            UUID veterinarianUserId = rs.getObject(2, UUID.class);
+            if (veterinarianUserId != null && !veterinarianUserId.equals(channel.veterinarianUserId)) {
+                channel.veterinarianUserId = veterinarianUserId;
+                channel.veterinarianUsername = rs.getString(3);
+            }
+            return rs.getLong(1);
+        }, conversationId));
+        if (seq == null || seq.isEmpty()) {
+            // Closed through another node
+            channel.closed = true;
+            throw new IllegalStateException("Conversation is closed");
+        }
+        return seq.get(0);
+    }
+
+    private ConversationChannel getChannel(UUID conversationId) {
+        ConversationChannel channel = channels.get(conversationId);
+        if (channel != null) {
+            return channel;
+        }
+
+        ConversationChannel loaded = new ConversationChannel(findWithParticipants(conversationId));
+        ConversationChannel existing = channels.putIfAbsent(conversationId, loaded);
+        return existing != null ? existing : loaded;
+    }
+
+    private Conversation findWithParticipants(UUID conversationId) {
+        return conversationRepository.findWithParticipants(conversationId)
+                .orElseThrow(() -> new EntityNotFoundException("Conversation not found with id: " + conversationId));
+    }
+
+    private static final class ConversationChannel {
+        private final ReentrantLock lock = new ReentrantLock();
+        private final UUID userId;
+        private final String username;
+        private volatile UUID veterinarianUserId;
+        private volatile String veterinarianUsername;
+        private volatile boolean closed;
+        private volatile long lastActivity;
+
+        private ConversationChannel(Conversation conversation) {
+            User user = conversation.getUser();
+            this.userId = user.getUserId();
+            this.username = user.getUsername();
+            update(conversation);
+            this.lastActivity = System.currentTimeMillis();
+        }
+
+        private void update(Conversation conversation) {
+            Veterinarian veterinarian = conversation.getVeterinarian();
+            if (veterinarian != null) {
+                this.veterinarianUserId = veterinarian.getUser().getUserId();
+                this.veterinarianUsername = veterinarian.getUser().getUsername();
+            }
+            this.closed = conversation.getStatus() == ConversationStatus.CLOSED;
+        }
+
+        private boolean isParticipant(UUID id) {
+            return userId.equals(id) || id.equals(veterinarianUserId);
+        }
+    }
+}
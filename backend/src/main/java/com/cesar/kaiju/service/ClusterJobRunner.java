@@ -0,0 +1,185 @@
+package com.cesar.kaiju.service;
+
+import com.cesar.kaiju.dto.JobRunResponseDTO;
+import com.cesar.kaiju.enums.JobRunStatus;
+import com.cesar.kaiju.model.JobRun;
+import com.cesar.kaiju.repository.JobRunRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.net.InetAddress;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Runs scheduled jobs that must execute on exactly one node of the cluster. Every node's scheduler
+ * still fires; the node that wins the job's row in job_leases runs the body on the job executor
+ * with a timeout, the others skip. The lease is held for at least {@code minInterval} so that
+ * nodes whose schedule fires slightly later do not run the job again, and it expires on its own
+ * if the owner dies. Lease times come from the database clock, so node clock skew does not matter.
+ * Each run is recorded in job_runs.
+ */
+@Service
+public class ClusterJobRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(ClusterJobRunner.class);
+
+    private static final int MAX_ERROR_LENGTH = 1000;
+
+    private static final String ACQUIRE_SQL =
+            "INSERT INTO job_leases (job_name, owner, leased_until, acquired_at) " +
+            "VALUES (?, ?, CURRENT_TIMESTAMP + ? * INTERVAL '1 millisecond', CURRENT_TIMESTAMP) " +
+            "ON CONFLICT (job_name) DO UPDATE SET owner = EXCLUDED.owner, " +
+            "leased_until = EXCLUDED.leased_until, acquired_at = EXCLUDED.acquired_at " +
+            "WHERE job_leases.leased_until < CURRENT_TIMESTAMP";
+
+    private static final String RELEASE_SQL =
+            "UPDATE job_leases SET leased_until = GREATEST(CURRENT_TIMESTAMP, acquired_at + ? * INTERVAL '1 millisecond') " +
+            "WHERE job_name = ? AND owner = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final JobRunRepository jobRunRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final AsyncTaskExecutor jobExecutor;
+    private final int historyRetentionDays;
+    private final String nodeId;
+
+    public ClusterJobRunner(
+            JdbcTemplate jdbcTemplate,
+            JobRunRepository jobRunRepository,
+            TransactionTemplate transactionTemplate,
+            @Qualifier("jobExecutor") AsyncTaskExecutor jobExecutor,
+            @Value("${jobs.history-retention-days:30}") int historyRetentionDays) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.jobRunRepository = jobRunRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.jobExecutor = jobExecutor;
+        this.historyRetentionDays = historyRetentionDays;
+        this.nodeId = resolveNodeId();
+    }
+
+    /**
+     * Runs the job if this node acquires its lease. Blocks the calling scheduler thread until the
+     * job finishes or the timeout elapses; on timeout the job thread is interrupted.
+     *
+     * @return whether this node ran the job
+     */
+    public boolean run(String jobName, Duration timeout, Duration minInterval, Runnable job) {
+        if (!tryAcquire(jobName, timeout.plus(minInterval))) {
+            logger.debug("Skipping job {}: lease held by another node", jobName);
+            return false;
+        }
+
+        Instant startedAt = Instant.now();
+        JobRunStatus status = JobRunStatus.SUCCEEDED;
+        String error = null;
+        long start = System.nanoTime();
+        try {
+            Future<?> future = jobExecutor.submit(job);
+            try {
+                future.get(timeout.toMillis(), TimeUnit.MILLISECONDS);
+            } catch (TimeoutException e) {
+                future.cancel(true);
+                status = JobRunStatus.TIMED_OUT;
+                error = "Timed out after " + timeout;
+            } catch (ExecutionException e) {
+                status = JobRunStatus.FAILED;
+                error = String.valueOf(e.getCause());
+                logger.error("Job {} failed", jobName, e.getCause());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            status = JobRunStatus.FAILED;
+            error = "Interrupted";
+        } catch (RuntimeException e) {
+            status = JobRunStatus.FAILED;
+            error = String.valueOf(e);
+            logger.error("Job {} could not be started", jobName, e);
+        }
+        long durationMs = (System.nanoTime() - start) / 1_000_000;
+        Instant finishedAt = Instant.now();
+
+        release(jobName, minInterval);
+        record(jobName, status, startedAt, finishedAt, durationMs, error);
+        if (status == JobRunStatus.TIMED_OUT) {
+            logger.warn("Job {} timed out after {} ms", jobName, durationMs);
+        }
+        return true;
+    }
+
+    public List<JobRunResponseDTO> getRecentRuns(String jobName, int limit) {
+        PageRequest page = PageRequest.of(0, limit);
+        return jobName != null && !jobName.isBlank()
+                ? jobRunRepository.findRecentByJobName(jobName, page)
+                : jobRunRepository.findRecent(page);
+    }
+
+    @Scheduled(cron = "${jobs.history-cleanup-cron:0 0 5 * * *}", zone = "America/Sao_Paulo")
+    public void pruneHistory() {
+        run("job-history-cleanup", Duration.ofMinutes(5), Duration.ofHours(1), () -> {
+            Instant before = Instant.now().minus(historyRetentionDays, ChronoUnit.DAYS);
+            transactionTemplate.executeWithoutResult(status -> jobRunRepository.deleteStartedBefore(before));
+        });
+    }
+
+    // The insert wins when no lease exists yet; the conditional update wins when the current lease has expired
+    private boolean tryAcquire(String jobName, Duration leaseDuration) {
+        try {
+            return jdbcTemplate.update(ACQUIRE_SQL, jobName, nodeId, leaseDuration.toMillis()) == 1;
+        } catch (RuntimeException e) {
+            logger.warn("Could not acquire lease for job {}", jobName, e);
+            return false;
+        }
+    }
+
+    private void release(String jobName, Duration minInterval) {
+        try {
+            jdbcTemplate.update(RELEASE_SQL, minInterval.toMillis(), jobName, nodeId);
+        } catch (RuntimeException e) {
+            logger.warn("Could not release lease for job {}, it will expire on its own", jobName, e);
+        }
+    }
+
+    private void record(String jobName, JobRunStatus status, Instant startedAt, Instant finishedAt, long durationMs, String error) {
+        JobRun run = new JobRun();
+        run.setJobName(jobName);
+        run.setOwner(nodeId);
+        run.setStatus(status);
+        run.setStartedAt(startedAt);
+        run.setFinishedAt(finishedAt);
+        run.setDurationMs(durationMs);
+        run.setError(error != null && error.length() > MAX_ERROR_LENGTH ? error.substring(0, MAX_ERROR_LENGTH) : error);
+        try {
+            jobRunRepository.save(run);
+        } catch (RuntimeException e) {
+            logger.warn("Could not record run of job {}", jobName, e);
+        }
+    }
+
+    private static String resolveNodeId() {
+        String host;
+        try {
+            host = InetAddress.getLocalHost().getHostName();
+        } catch (Exception e) {
+            host = "unknown";
+        }
+        String suffix = ProcessHandle.current().pid() + "-" + UUID.randomUUID().toString().substring(0, 8);
+        String id = host + ":" + suffix;
+        return id.length() > 100 ? id.substring(id.length() - 100) : id;
+    }
+}
@@ -0,0 +1,160 @@
+package com.cesar.kaiju.service;
+
+import com.cesar.kaiju.enums.ConversationStatus;
+import com.cesar.kaiju.enums.VeterinarianSpecialization;
+import com.cesar.kaiju.model.User;
+import com.cesar.kaiju.repository.ConversationRepository;
+import com.cesar.kaiju.repository.UserRepository;
+import com.cesar.kaiju.repository.VeterinarianRepository;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Connects {@link ConsultationRouter} to the database. WAITING conversations are the queue: they are
+ * claimed oldest first with FOR UPDATE SKIP LOCKED, so every node can hand them to the vets connected
+ * to it, and none is lost on a restart. Claims happen when a vet connects and on a periodic sweep over
+ * the vets with free capacity, which also picks up slots freed by closed conversations and
+ * consultations started on other nodes. A vet may be connected to several nodes, so the capacity check
+ * counts the vet's open conversations in the database under a lock on the vet's row, and the loads the
+ * router keeps are overwritten with that count. No transaction spans the whole assignment: each step
+ * holds a connection only for its own queries.
+ */
+@Service
+public class ConsultationAssignmentService {
+
+    public static final String ASSIGNMENT_DESTINATION = "/queue/assignments";
+
+    private final ConsultationRouter consultationRouter;
+    private final ConversationRepository conversationRepository;
+    private final VeterinarianRepository veterinarianRepository;
+    private final UserRepository userRepository;
+    private final ChatEngine chatEngine;
+    private final SimpMessagingTemplate messagingTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final TransactionTemplate readOnlyTransaction;
+
+    public ConsultationAssignmentService(
+            ConsultationRouter consultationRouter,
+            ConversationRepository conversationRepository,
+            VeterinarianRepository veterinarianRepository,
+            UserRepository userRepository,
+            ChatEngine chatEngine,
+            SimpMessagingTemplate messagingTemplate,
+            PlatformTransactionManager transactionManager) {
+        this.consultationRouter = consultationRouter;
+        this.conversationRepository = conversationRepository;
+        this.veterinarianRepository = veterinarianRepository;
+        this.userRepository = userRepository;
+        this.chatEngine = chatEngine;
+        this.messagingTemplate = messagingTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    public void veterinarianConnected(User user) {
+        Optional<Presence> presence = readOnlyTransaction.execute(status -> veterinarianRepository.findByUser(user)
+                .filter(veterinarian -> Boolean.TRUE.equals(veterinarian.getIsVerified())
+                        && Boolean.TRUE.equals(veterinarian.getIsAvailableForChat())
+                        && Boolean.TRUE.equals(veterinarian.getAcceptsNewPatients()))
+                .map(veterinarian -> new Presence(
+                        veterinarian.getVeterinarianId(),
+                        new ArrayList<>(veterinarian.getSpecializations()),
+                        (int) conversationRepository.countByVeterinarianAndStatus(veterinarian, ConversationStatus.OPEN))));
+        if (presence == null || presence.isEmpty()) {
+            return;
+        }
+
+        ConsultationRouter.RoutedVeterinarian routed = new ConsultationRouter.RoutedVeterinarian(
+                presence.get().veterinarianId(), user.getUserId(), user.getUsername());
+        consultationRouter.online(routed, presence.get().specializations(), presence.get().openConversations());
+
+        assignWaiting(routed);
+    }
+
+    public void veterinarianDisconnected(User user) {
+        consultationRouter.offlineByUser(user.getUserId());
+    }
+
+    // Must run inside the caller's transaction: the row lock is held until it commits the new conversation
+    public boolean hasCapacity(UUID veterinarianId) {
+        int openConversations = countOpenLocked(veterinarianId);
+        boolean hasCapacity = openConversations < consultationRouter.getMaxOpenConversations();
+        consultationRouter.updateLoad(veterinarianId, hasCapacity ? openConversations + 1 : openConversations);
+        return hasCapacity;
+    }
+
+    @Scheduled(fixedDelayString = "${chat.routing.waiting-poll-interval-ms:2000}")
+    public void assignWaitingToIdleVeterinarians() {
+        List<UUID> onlineIds = consultationRouter.onlineVeterinarianIds();
+        if (onlineIds.isEmpty() || !conversationRepository.existsByStatus(ConversationStatus.WAITING)) {
+            return;
+        }
+        refreshLoads(onlineIds);
+        consultationRouter.withCapacity().forEach(this::assignWaiting);
+    }
+
+    // Conversations opened or closed through other nodes only show up in the database
+    private void refreshLoads(List<UUID> veterinarianIds) {
+        Map<UUID, Integer> loads = new HashMap<>();
+        veterinarianIds.forEach(id -> loads.put(id, 0));
+        readOnlyTransaction.executeWithoutResult(status -> conversationRepository.countOpenByVeterinarian(veterinarianIds)
+                .forEach(load -> loads.put(load.veterinarianId(), load.openConversations().intValue())));
+        loads.forEach(consultationRouter::updateLoad);
+    }
+
+    private void assignWaiting(ConsultationRouter.RoutedVeterinarian veterinarian) {
+        String[] specializations = consultationRouter.getSpecializations(veterinarian.veterinarianId()).stream()
+                .map(Enum::name)
+                .toArray(String[]::new);
+        while (consultationRouter.reserve(veterinarian.veterinarianId())) {
+            Claim claim = transactionTemplate.execute(status -> {
+                int openConversations = countOpenLocked(veterinarian.veterinarianId());
+                if (openConversations >= consultationRouter.getMaxOpenConversations()) {
+                    return new Claim(null, openConversations);
+                }
+                return conversationRepository.lockOldestWaiting(specializations)
+                        .filter(conversationId -> conversationRepository.assignVeterinarian(
+                                conversationId,
+                                veterinarianRepository.getReferenceById(veterinarian.veterinarianId()),
+                                userRepository.getReferenceById(veterinarian.userId())) > 0)
+                        .map(conversationId -> new Claim(conversationId, openConversations + 1))
+                        .orElseGet(() -> new Claim(null, openConversations));
+            });
+
+            if (claim == null) {
+                consultationRouter.release(veterinarian.veterinarianId());
+                return;
+            }
+            consultationRouter.updateLoad(veterinarian.veterinarianId(), claim.openConversations());
+            if (claim.conversationId() == null) {
+                return;
+            }
+
+            UUID conversationId = claim.conversationId();
+            chatEngine.assignVeterinarian(conversationId, veterinarian.userId(), veterinarian.username());
+            messagingTemplate.convertAndSendToUser(veterinarian.username(), ASSIGNMENT_DESTINATION, conversationId);
+        }
+    }
+
+    // Claims for the same vet from any node wait on the row lock, so the count cannot go stale before they commit
+    private int countOpenLocked(UUID veterinarianId) {
+        veterinarianRepository.lockById(veterinarianId);
+        return (int) conversationRepository.countByVeterinarianAndStatus(
+                veterinarianRepository.getReferenceById(veterinarianId), ConversationStatus.OPEN);
+    }
+
+    private record Claim(UUID conversationId, int openConversations) {}
+
+    private record Presence(UUID veterinarianId, List<VeterinarianSpecialization> specializations, int openConversations) {}
+}
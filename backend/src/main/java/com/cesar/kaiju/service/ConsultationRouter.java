@@ -0,0 +1,222 @@
+package com.cesar.kaiju.service;
+
+import com.cesar.kaiju.enums.VeterinarianSpecialization;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+/**
+ * In-memory matching of consultations to online veterinarians. Every specialization has a skip
+ * list of (open conversations, veterinarian) keys, so the least-loaded vet is always the first
+ * entry. Load changes happen under the vet's own monitor and re-key the vet in all of its pools.
+ * Only vets connected to this node are known here, and their load only counts what this node did:
+ * {@link ConsultationAssignmentService} checks it against the database before a claim and overwrites
+ * it with {@link #updateLoad}. Consultations nobody could take stay WAITING in the database, where
+ * they are claimed as capacity frees up.
+ */
+@Component
+public class ConsultationRouter {
+
+    private final int maxOpenConversations;
+
+    private final ConcurrentHashMap<UUID, OnlineVeterinarian> online = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<UUID, UUID> onlineByUser = new ConcurrentHashMap<>();
+
+    private final Map<VeterinarianSpecialization, ConcurrentSkipListSet<LoadKey>> pools = new EnumMap<>(VeterinarianSpecialization.class);
+    private final ConcurrentSkipListSet<LoadKey> generalPool = new ConcurrentSkipListSet<>();
+
+    public ConsultationRouter(@Value("${chat.routing.max-open-conversations:5}") int maxOpenConversations) {
+        this.maxOpenConversations = maxOpenConversations;
+        for (VeterinarianSpecialization specialization : VeterinarianSpecialization.values()) {
+            pools.put(specialization, new ConcurrentSkipListSet<>());
+        }
+    }
+
+    public record RoutedVeterinarian(UUID veterinarianId, UUID userId, String username) {}
+
+    public void online(RoutedVeterinarian veterinarian, List<VeterinarianSpecialization> specializations, int openConversations) {
+        online.compute(veterinarian.veterinarianId(), (id, existing) -> {
+            if (existing != null) {
+                existing.sessions++;
+                return existing;
+            }
+            OnlineVeterinarian vet = new OnlineVeterinarian(veterinarian, specializations, openConversations);
+            synchronized (vet) {
+                if (vet.load < maxOpenConversations) {
+                    vet.pools.forEach(pool -> pool.add(new LoadKey(vet.load, id)));
+                }
+            }
+            return vet;
+        });
+        onlineByUser.put(veterinarian.userId(), veterinarian.veterinarianId());
+    }
+
+    public void offlineByUser(UUID userId) {
+        UUID veterinarianId = onlineByUser.get(userId);
+        if (veterinarianId == null) {
+            return;
+        }
+        online.computeIfPresent(veterinarianId, (id, vet) -> {
+            if (--vet.sessions > 0) {
+                return vet;
+            }
+            synchronized (vet) {
+                vet.online = false;
+                for (ConcurrentSkipListSet<LoadKey> pool : vet.pools) {
+                    pool.remove(new LoadKey(vet.load, id));
+                }
+            }
+            onlineByUser.remove(userId);
+            return null;
+        });
+    }
+
+    public boolean isOnline(UUID veterinarianId) {
+        return online.containsKey(veterinarianId);
+    }
+
+    public Optional<RoutedVeterinarian> assign(VeterinarianSpecialization specialization) {
+        ConcurrentSkipListSet<LoadKey> pool = specialization != null ? pools.get(specialization) : generalPool;
+        LoadKey key;
+        while ((key = pool.pollFirst()) != null) {
+            OnlineVeterinarian vet = online.get(key.veterinarianId());
+            if (vet == null) {
+                continue;
+            }
+            synchronized (vet) {
+                // A key that no longer matches the vet's load is stale; the current one is already indexed
+                if (!vet.online || vet.load != key.load()) {
+                    continue;
+                }
+                changeLoad(vet, vet.load + 1);
+                return Optional.of(vet.veterinarian);
+            }
+        }
+        return Optional.empty();
+    }
+
+    // Counts a conversation the user opened with a specific veterinarian, even beyond the routing capacity
+    public void acquire(UUID veterinarianId) {
+        OnlineVeterinarian vet = online.get(veterinarianId);
+        if (vet == null) {
+            return;
+        }
+        synchronized (vet) {
+            if (vet.online) {
+                changeLoad(vet, vet.load + 1);
+            }
+        }
+    }
+
+    public void release(UUID veterinarianId) {
+        OnlineVeterinarian vet = online.get(veterinarianId);
+        if (vet == null) {
+            return;
+        }
+        synchronized (vet) {
+            if (vet.online && vet.load > 0) {
+                changeLoad(vet, vet.load - 1);
+            }
+        }
+    }
+
+    // Counts a waiting consultation the vet is about to claim towards its load; undone with release
+    public boolean reserve(UUID veterinarianId) {
+        OnlineVeterinarian vet = online.get(veterinarianId);
+        if (vet == null) {
+            return false;
+        }
+        synchronized (vet) {
+            if (!vet.online || vet.load >= maxOpenConversations) {
+                return false;
+            }
+            changeLoad(vet, vet.load + 1);
+            return true;
+        }
+    }
+
+    // Replaces the load with the open conversations counted in the database, on every node
+    public void updateLoad(UUID veterinarianId, int openConversations) {
+        OnlineVeterinarian vet = online.get(veterinarianId);
+        if (vet == null) {
+            return;
+        }
+        synchronized (vet) {
+            if (vet.online && vet.load != openConversations) {
+                changeLoad(vet, openConversations);
+            }
+        }
+    }
+
+    public int getMaxOpenConversations() {
+        return maxOpenConversations;
+    }
+
+    public List<UUID> onlineVeterinarianIds() {
+        return List.copyOf(online.keySet());
+    }
+
+    public List<VeterinarianSpecialization> getSpecializations(UUID veterinarianId) {
+        OnlineVeterinarian vet = online.get(veterinarianId);
+        return vet != null ? vet.specializations : List.of();
+    }
+
+    // Online vets on this node that could take one more consultation
+    public List<RoutedVeterinarian> withCapacity() {
+        List<RoutedVeterinarian> result = new ArrayList<>();
+        for (OnlineVeterinarian vet : online.values()) {
+            synchronized (vet) {
+                if (vet.online && vet.load < maxOpenConversations) {
+                    result.add(vet.veterinarian);
+                }
+            }
+        }
+        return result;
+    }
+
+    private void changeLoad(OnlineVeterinarian vet, int newLoad) {
+        UUID id = vet.veterinarian.veterinarianId();
+        for (ConcurrentSkipListSet<LoadKey> pool : vet.pools) {
+            pool.remove(new LoadKey(vet.load, id));
+            if (newLoad < maxOpenConversations) {
+                pool.add(new LoadKey(newLoad, id));
+            }
+        }
+        vet.load = newLoad;
+    }
+
+    private record LoadKey(int load, UUID veterinarianId) implements Comparable<LoadKey> {
+        @Override
+        public int compareTo(LoadKey other) {
+            int byLoad = Integer.compare(load, other.load);
+            return byLoad != 0 ? byLoad : veterinarianId.compareTo(other.veterinarianId);
+        }
+    }
+
+    private final class OnlineVeterinarian {
+        private final RoutedVeterinarian veterinarian;
+        private final List<VeterinarianSpecialization> specializations;
+        private final List<ConcurrentSkipListSet<LoadKey>> pools = new ArrayList<>();
+        private int load;
+        private int sessions = 1;
+        private boolean online = true;
+
+        private OnlineVeterinarian(RoutedVeterinarian veterinarian, List<VeterinarianSpecialization> specializations, int load) {
+            this.veterinarian = veterinarian;
+            this.load = load;
+            this.specializations = specializations.stream().distinct().toList();
+            pools.add(generalPool);
+            for (VeterinarianSpecialization specialization : this.specializations) {
+                pools.add(ConsultationRouter.this.pools.get(specialization));
+            }
+        }
+    }
+}
@@ -0,0 +1,221 @@
+package com.cesar.kaiju.service;
+
+import com.cesar.kaiju.dto.ConversationSummaryDTO;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Keeps unread counters and last-message previews in memory as deltas over the conversations
+ * row and flushes them periodically in one JDBC batch, so neither sending a message nor loading
+ * the inbox needs a COUNT over conversation_messages. A batch that fails is rolled back as a whole
+ * and its deltas are merged back into the pending ones, to be retried by the next flush.
+ */
+@Component
+public class ConversationActivityTracker {
+
+    private static final Logger logger = LoggerFactory.getLogger(ConversationActivityTracker.class);
+
+    private static final int PREVIEW_LENGTH = 140;
+
+    // All right-hand sides see the old row values, so the CASE checks compare against the stored
+    // last_message_seq; last_seq itself is the counter ChatEngine allocates from
+    private static final String FLUSH_SQL =
+            "UPDATE conversations SET " +
+            "last_message_seq = GREATEST(last_message_seq, ?), " +
+            "last_message_preview = CASE WHEN ? > last_message_seq THEN ? ELSE last_message_preview END, " +
+            "last_message_at = CASE WHEN ? > last_message_seq THEN ? ELSE last_message_at END, " +
+            "user_unread_count = CASE WHEN ? THEN 0 ELSE user_unread_count END + ?, " +
+            "veterinarian_unread_count = CASE WHEN ? THEN 0 ELSE veterinarian_unread_count END + ? " +
+            "WHERE conversation_id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    private final ConcurrentHashMap<UUID, Activity> pending = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<UUID, Activity> inFlight = new ConcurrentHashMap<>();
+
+    public ConversationActivityTracker(JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+    }
+
+    public void recordMessage(UUID conversationId, long seq, boolean sentByUser, String content, Date sentAt) {
+        String preview = content.length() > PREVIEW_LENGTH ? content.substring(0, PREVIEW_LENGTH) : content;
+        while (true) {
+            Activity activity = pending.computeIfAbsent(conversationId, id -> new Activity());
+            synchronized (activity) {
+                if (activity.closed) {
+                    continue;
+                }
+                if (seq > activity.lastSeq) {
+                    activity.lastSeq = seq;
+                    activity.preview = preview;
+                    activity.lastMessageAt = sentAt;
+                }
+                if (sentByUser) {
+                    activity.veterinarianUnread++;
+                } else {
+                    activity.userUnread++;
+                }
+                return;
+            }
+        }
+    }
+
+    public void markRead(UUID conversationId, boolean readByUser) {
+        while (true) {
+            Activity activity = pending.computeIfAbsent(conversationId, id -> new Activity());
+            synchronized (activity) {
+                if (activity.closed) {
+                    continue;
+                }
+                if (readByUser) {
+                    activity.userRead = true;
+                    activity.userUnread = 0;
+                } else {
+                    activity.veterinarianRead = true;
+                    activity.veterinarianUnread = 0;
+                }
+                return;
+            }
+        }
+    }
+
+    // Applies activity that has not reached the database yet on top of a row read from it
+    public ConversationSummaryDTO overlay(ConversationSummaryDTO summary, boolean viewerIsUser) {
+        ConversationSummaryDTO result = summary;
+        Activity flushing = inFlight.get(summary.conversationId());
+        if (flushing != null) {
+            result = flushing.applyTo(result, viewerIsUser);
+        }
+        Activity waiting = pending.get(summary.conversationId());
+        if (waiting != null) {
+            result = waiting.applyTo(result, viewerIsUser);
+        }
+        return result;
+    }
+
+    @Scheduled(fixedDelayString = "${chat.activity.flush-interval-ms:2000}")
+    public void flush() {
+        List<UUID> ids = new ArrayList<>();
+        List<Activity> batch = new ArrayList<>();
+        for (UUID id : pending.keySet()) {
+            Activity activity = pending.remove(id);
+            if (activity == null) {
+                continue;
+            }
+            synchronized (activity) {
+                activity.closed = true;
+            }
+            inFlight.put(id, activity);
+            ids.add(id);
+            batch.add(activity);
+        }
+        if (batch.isEmpty()) {
+            return;
+        }
+
+        try {
+            // One transaction, so a failure leaves no row half-applied and the retry cannot count twice
+            transactionTemplate.executeWithoutResult(status ->
+                    jdbcTemplate.batchUpdate(FLUSH_SQL, new ArrayList<>(ids), ids.size(), (ps, id) -> {
+                        Activity activity = inFlight.get(id);
+                        Timestamp lastMessageAt = activity.lastMessageAt != null ? new Timestamp(activity.lastMessageAt.getTime()) : null;
+                        ps.setLong(1, activity.lastSeq);
+                        ps.setLong(2, activity.lastSeq);
+                        ps.setString(3, activity.preview);
+                        ps.setLong(4, activity.lastSeq);
+                        ps.setTimestamp(5, lastMessageAt);
+                        ps.setBoolean(6, activity.userRead);
+                        ps.setInt(7, activity.userUnread);
+                        ps.setBoolean(8, activity.veterinarianRead);
+                        ps.setInt(9, activity.veterinarianUnread);
+                        ps.setObject(10, id);
+                    }));
+        } catch (RuntimeException e) {
+            logger.warn("Failed to flush activity of {} conversations, retrying on the next flush: {}",
+                    batch.size(), e.getMessage());
+            for (int i = 0; i < ids.size(); i++) {
+                requeue(ids.get(i), batch.get(i));
+            }
+        } finally {
+            ids.forEach(inFlight::remove);
+        }
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+    }
+
+    private void requeue(UUID conversationId, Activity failed) {
+        while (true) {
+            Activity activity = pending.computeIfAbsent(conversationId, id -> new Activity());
+            synchronized (activity) {
+                if (activity.closed) {
+                    continue;
+                }
+                activity.mergeOlder(failed);
+                return;
+            }
+        }
+    }
+
+    private static final class Activity {
+        private long lastSeq;
+        private String preview;
+        private Date lastMessageAt;
+        private int userUnread;
+        private int veterinarianUnread;
+        private boolean userRead;
+        private boolean veterinarianRead;
+        private boolean closed;
+
+        // Folds in activity recorded before this one; a read recorded here wipes the older unread counts
+        private void mergeOlder(Activity older) {
+            if (older.lastSeq > lastSeq) {
+                lastSeq = older.lastSeq;
+                preview = older.preview;
+                lastMessageAt = older.lastMessageAt;
+            }
+            if (!userRead) {
+                userRead = older.userRead;
+                userUnread += older.userUnread;
+            }
+            if (!veterinarianRead) {
+                veterinarianRead = older.veterinarianRead;
+                veterinarianUnread += older.veterinarianUnread;
+            }
+        }
+
+        private synchronized ConversationSummaryDTO applyTo(ConversationSummaryDTO summary, boolean viewerIsUser) {
+            boolean newer = lastSeq > summary.lastSeq();
+            boolean reset = viewerIsUser ? userRead : veterinarianRead;
+            int delta = viewerIsUser ? userUnread : veterinarianUnread;
+            return new ConversationSummaryDTO(
+                    summary.conversationId(),
+                    summary.subject(),
+                    summary.userId(),
+                    summary.userName(),
+                    summary.veterinarianId(),
+                    summary.veterinarianName(),
+                    newer ? lastSeq : summary.lastSeq(),
+                    newer ? preview : summary.lastMessagePreview(),
+                    newer ? lastMessageAt : summary.lastMessageAt(),
+                    (reset ? 0 : summary.unreadCount()) + delta
+            );
+        }
+    }
+}
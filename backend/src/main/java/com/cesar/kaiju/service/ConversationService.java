@@ -0,0 +1,217 @@
+package com.cesar.kaiju.service;
+
+import com.cesar.kaiju.dto.ConversationResponseDTO;
+import com.cesar.kaiju.dto.ConversationSummaryDTO;
+import com.cesar.kaiju.dto.MessageResponseDTO;
+import com.cesar.kaiju.dto.StartConversationRequestDTO;
+import com.cesar.kaiju.enums.ConversationStatus;
+import com.cesar.kaiju.enums.MessageType;
+import com.cesar.kaiju.model.Conversation;
+import com.cesar.kaiju.model.User;
+import com.cesar.kaiju.model.Veterinarian;
+import com.cesar.kaiju.repository.ConversationMessageRepository;
+import com.cesar.kaiju.repository.ConversationRepository;
+import com.cesar.kaiju.repository.VeterinarianRepository;
+import jakarta.persistence.EntityNotFoundException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+@Service
+@Transactional
+public class ConversationService {
+
+    private static final int MAX_PAGE_SIZE = 100;
+
+    private final ConversationRepository conversationRepository;
+    private final ConversationMessageRepository messageRepository;
+    private final VeterinarianRepository veterinarianRepository;
+    private final ChatEngine chatEngine;
+    private final ConversationActivityTracker activityTracker;
+    private final ConsultationRouter consultationRouter;
+    private final ConsultationAssignmentService consultationAssignmentService;
+
+    public ConversationService(
+            ConversationRepository conversationRepository,
+            ConversationMessageRepository messageRepository,
+            VeterinarianRepository veterinarianRepository,
+            ChatEngine chatEngine,
+            ConversationActivityTracker activityTracker,
+            ConsultationRouter consultationRouter,
+            ConsultationAssignmentService consultationAssignmentService) {
+        this.conversationRepository = conversationRepository;
+        this.messageRepository = messageRepository;
+        this.veterinarianRepository = veterinarianRepository;
+        this.chatEngine = chatEngine;
+        this.activityTracker = activityTracker;
+        this.consultationRouter = consultationRouter;
+        this.consultationAssignmentService = consultationAssignmentService;
+    }
+
+    public ConversationResponseDTO startConversation(StartConversationRequestDTO request) {
+        User currentUser = getCurrentUser();
+
+        Conversation conversation = new Conversation();
+        conversation.setUser(currentUser);
+        conversation.setSubject(request.subject());
+        conversation.setRequestedSpecialization(request.specialization());
+
+        if (request.veterinarianId() != null) {
+            Veterinarian veterinarian = veterinarianRepository.findById(request.veterinarianId())
+                    .orElseThrow(() -> new EntityNotFoundException("Veterinarian not found with id: " + request.veterinarianId()));
+
+            if (!Boolean.TRUE.equals(veterinarian.getIsAvailableForChat())) {
+                throw new IllegalStateException("Veterinarian is not available for chat");
+            }
+
+            if (veterinarian.getUser().getUserId().equals(currentUser.getUserId())) {
+                throw new IllegalArgumentException("You cannot start a conversation with yourself");
+            }
+
+            conversation.setVeterinarian(veterinarian);
+            conversation.setVeterinarianUser(veterinarian.getUser());
+            conversation.setStatus(ConversationStatus.OPEN);
+            consultationRouter.acquire(veterinarian.getVeterinarianId());
+            releaseOnRollback(veterinarian.getVeterinarianId());
+        } else {
+            Optional<ConsultationRouter.RoutedVeterinarian> routed = consultationRouter.assign(request.specialization());
+            // hasCapacity corrects the load of a vet the database shows as full, so the next pick is someone else
+            while (routed.isPresent() && !consultationAssignmentService.hasCapacity(routed.get().veterinarianId())) {
+                routed = consultationRouter.assign(request.specialization());
+            }
+            if (routed.isPresent()) {
+                Veterinarian veterinarian = veterinarianRepository.getReferenceById(routed.get().veterinarianId());
+                conversation.setVeterinarian(veterinarian);
+                conversation.setVeterinarianUser(veterinarian.getUser());
+                conversation.setStatus(ConversationStatus.OPEN);
+                releaseOnRollback(routed.get().veterinarianId());
+            } else {
+                conversation.setStatus(ConversationStatus.WAITING);
+            }
+        }
+
+        Conversation savedConversation = conversationRepository.save(conversation);
+        chatEngine.openChannel(savedConversation);
+
+        // The message rows reference the conversation, so they can only be written once it is committed
+        UUID conversationId = savedConversation.getConversationId();
+        String initialMessage = request.initialMessage();
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                if (initialMessage != null && !initialMessage.isBlank()) {
+                    chatEngine.send(conversationId, currentUser, MessageType.TEXT, initialMessage);
+                }
+            }
+        });
+
+        return toResponseDTO(savedConversation);
+    }
+
+    public void closeConversation(UUID id) {
+        Conversation conversation = getParticipantConversation(id, getCurrentUser());
+        if (conversation.getStatus() == ConversationStatus.CLOSED) {
+            return;
+        }
+
+        boolean wasOpen = conversation.getStatus() == ConversationStatus.OPEN;
+        conversation.setStatus(ConversationStatus.CLOSED);
+        conversationRepository.save(conversation);
+
+        Veterinarian veterinarian = conversation.getVeterinarian();
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                chatEngine.closeChannel(id);
+                // Only the in-memory load: the periodic sweep hands the freed slot to a waiting consultation
+                if (wasOpen && veterinarian != null) {
+                    consultationRouter.release(veterinarian.getVeterinarianId());
+                }
+            }
+        });
+    }
+
+    @Transactional(readOnly = true)
+    public ConversationResponseDTO getConversation(UUID id) {
+        Conversation conversation = getParticipantConversation(id, getCurrentUser());
+        return toResponseDTO(conversation);
+    }
+
+    @Transactional(readOnly = true)
+    public List<ConversationSummaryDTO> getInbox(int limit) {
+        User currentUser = getCurrentUser();
+        List<ConversationSummaryDTO> conversations = conversationRepository.findInbox(
+                currentUser.getUserId(), Math.min(limit, MAX_PAGE_SIZE));
+
+        return conversations.stream()
+                .map(summary -> activityTracker.overlay(summary, summary.userId().equals(currentUser.getUserId())))
+                .collect(Collectors.toList());
+    }
+
+    @Transactional(readOnly = true)
+    public List<MessageResponseDTO> getMessages(UUID id, Long beforeSeq, int limit) {
+        getParticipantConversation(id, getCurrentUser());
+        long cursor = beforeSeq != null ? beforeSeq : Long.MAX_VALUE;
+        return messageRepository.findHistory(id, cursor, PageRequest.of(0, Math.min(limit, MAX_PAGE_SIZE)));
+    }
+
+    @Transactional(readOnly = true)
+    public void markAsRead(UUID id) {
+        User currentUser = getCurrentUser();
+        Conversation conversation = getParticipantConversation(id, currentUser);
+        activityTracker.markRead(id, conversation.getUser().getUserId().equals(currentUser.getUserId()));
+    }
+
+    private Conversation getParticipantConversation(UUID id, User user) {
+        Conversation conversation = conversationRepository.findWithParticipants(id)
+                .orElseThrow(() -> new EntityNotFoundException("Conversation not found with id: " + id));
+
+        if (!isParticipant(conversation, user)) {
+            throw new SecurityException("You are not a participant of this conversation");
+        }
+        return conversation;
+    }
+
+    private void releaseOnRollback(UUID veterinarianId) {
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status != STATUS_COMMITTED) {
+                    consultationRouter.release(veterinarianId);
+                }
+            }
+        });
+    }
+
+    private boolean isParticipant(Conversation conversation, User user) {
+        return conversation.getUser().getUserId().equals(user.getUserId())
+                || (conversation.getVeterinarian() != null
+                    && conversation.getVeterinarian().getUser().getUserId().equals(user.getUserId()));
+    }
+
+    private ConversationResponseDTO toResponseDTO(Conversation conversation) {
+        Veterinarian veterinarian = conversation.getVeterinarian();
+        return new ConversationResponseDTO(
+                conversation.getConversationId(),
+                conversation.getUser().getUserId(),
+                conversation.getUser().getName(),
+                veterinarian != null ? veterinarian.getVeterinarianId() : null,
+                veterinarian != null ? veterinarian.getFullName() : null,
+                conversation.getStatus(),
+                conversation.getSubject(),
+                conversation.getCreatedAt()
+        );
+    }
+
+    private User getCurrentUser() {
+        return (User) SecurityContextHolder.getContext().getAuthentication().getPrincipal();
+    }
+}
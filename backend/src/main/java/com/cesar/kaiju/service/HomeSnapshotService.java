@@ -0,0 +1,149 @@
+package com.cesar.kaiju.service;
+
+import com.cesar.kaiju.dto.CategoryCountDTO;
+import com.cesar.kaiju.dto.HomeResponseDTO;
+import com.cesar.kaiju.dto.ProductCardDTO;
+import com.cesar.kaiju.dto.VeterinarianCardDTO;
+import io.micrometer.core.annotation.Timed;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Everything the landing page shows, served from memory by GET /api/home. Each refresh loads the
+ * parts concurrently, one virtual thread per part, and waits at most {@code home.part-timeout-ms}
+ * for them. A part that fails or times out keeps its previous value and is listed in
+ * {@code stale}, so a slow query degrades one section instead of the whole page. The counts scan
+ * every active product and are reloaded less often ({@code home.counts-max-age-ms}).
+ */
+@Service
+@Timed("kaiju.service.home")
+public class HomeSnapshotService {
+
+    private static final Logger logger = LoggerFactory.getLogger(HomeSnapshotService.class);
+
+    private final ProductService productService;
+    private final VeterinarianService veterinarianService;
+    private final ExecutorService executor = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("home-", 0).factory());
+    private final long partTimeoutMs;
+    private final long countsMaxAgeMs;
+    private final int listSize;
+
+    private Part<Long> productCount;
+    private Part<List<CategoryCountDTO>> categories;
+    private Part<List<ProductCardDTO>> latestProducts;
+    private Part<List<ProductCardDTO>> topRatedProducts;
+    private Part<List<VeterinarianCardDTO>> topRatedVeterinarians;
+
+    private volatile HomeResponseDTO snapshot;
+
+    public HomeSnapshotService(
+            ProductService productService,
+            VeterinarianService veterinarianService,
+            @Value("${home.part-timeout-ms:2000}") long partTimeoutMs,
+            @Value("${home.counts-max-age-ms:60000}") long countsMaxAgeMs,
+            @Value("${home.list-size:8}") int listSize) {
+        this.productService = productService;
+        this.veterinarianService = veterinarianService;
+        this.partTimeoutMs = partTimeoutMs;
+        this.countsMaxAgeMs = countsMaxAgeMs;
+        this.listSize = listSize;
+    }
+
+    public HomeResponseDTO getSnapshot() {
+        HomeResponseDTO current = snapshot;
+        if (current == null) {
+            // Only until the first scheduled refresh finishes. Requests that queued behind it find the
+            // snapshot it built instead of refreshing again, one after another
+            synchronized (this) {
+                current = snapshot;
+                if (current == null) {
+                    refresh();
+                    current = snapshot;
+                }
+            }
+        }
+        return current;
+    }
+
+    @Scheduled(fixedDelayString = "${home.refresh-interval-ms:5000}")
+    public synchronized void refresh() {
+        Instant now = Instant.now();
+        boolean countsDue = productCount == null || productCount.loadedAt().plusMillis(countsMaxAgeMs).isBefore(now);
+
+        Future<Long> count = countsDue ? submit(productService::getProductCount) : null;
+        Future<List<CategoryCountDTO>> categoryCounts = countsDue ? submit(productService::getCategoryCounts) : null;
+        Future<List<ProductCardDTO>> latest = submit(() -> productService.getLatestProductCards(listSize));
+        Future<List<ProductCardDTO>> topRated = submit(() -> productService.getTopRatedProductCards(listSize));
+        Future<List<VeterinarianCardDTO>> topVets = submit(() -> veterinarianService.getTopRatedVeterinarianCards(listSize));
+
+        // The parts run side by side, so one deadline from the start is each part's timeout
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(partTimeoutMs);
+        List<String> stale = new ArrayList<>();
+        productCount = collect("productCount", count, productCount, deadline, now, stale);
+        categories = collect("categories", categoryCounts, categories, deadline, now, stale);
+        latestProducts = collect("latestProducts", latest, latestProducts, deadline, now, stale);
+        topRatedProducts = collect("topRatedProducts", topRated, topRatedProducts, deadline, now, stale);
+        topRatedVeterinarians = collect("topRatedVeterinarians", topVets, topRatedVeterinarians, deadline, now, stale);
+
+        snapshot = new HomeResponseDTO(
+                valueOf(productCount),
+                valueOf(categories),
+                valueOf(latestProducts),
+                valueOf(topRatedProducts),
+                valueOf(topRatedVeterinarians),
+                List.copyOf(stale),
+                now);
+    }
+
+    @PreDestroy
+    public void stop() {
+        executor.shutdownNow();
+    }
+
+    private <T> Future<T> submit(Callable<T> part) {
+        return executor.submit(part);
+    }
+
+    // Not due this round (null future), failed or late: the previous value stays
+    private <T> Part<T> collect(String name, Future<T> future, Part<T> previous, long deadline, Instant now, List<String> stale) {
+        if (future == null) {
+            return previous;
+        }
+        try {
+            long remaining = Math.max(0, deadline - System.nanoTime());
+            return new Part<>(future.get(remaining, TimeUnit.NANOSECONDS), now);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            logger.warn("Home part {} did not finish within {} ms, serving the previous value", name, partTimeoutMs);
+        } catch (ExecutionException e) {
+            logger.warn("Home part {} failed, serving the previous value", name, e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            future.cancel(true);
+        }
+        stale.add(name);
+        return previous;
+    }
+
+    private static <T> T valueOf(Part<T> part) {
+        return part != null ? part.value() : null;
+    }
+
+    private record Part<T>(T value, Instant loadedAt) {
+    }
+}
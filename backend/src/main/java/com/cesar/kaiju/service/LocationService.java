@@ -0,0 +1,158 @@
+package com.cesar.kaiju.service;
+
+import com.cesar.kaiju.config.CacheConfig;
+import com.cesar.kaiju.dto.CityResponseDTO;
+import com.cesar.kaiju.dto.StateResponseDTO;
+import com.cesar.kaiju.model.Veterinarian;
+import com.cesar.kaiju.util.LocationGazetteer;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.EntityNotFoundException;
+import org.hibernate.SessionFactory;
+import org.hibernate.StatelessSession;
+import org.hibernate.Transaction;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+@Service
+public class LocationService {
+
+    private static final Logger logger = LoggerFactory.getLogger(LocationService.class);
+
+    private static final int BACKFILL_BATCH_SIZE = 500;
+
+    private static final String BACKFILL_UPDATE = "UPDATE Veterinarian v SET v.cityId = :cityId, v.city = :city, " +
+            "v.stateCode = :stateCode, v.state = :state, v.latitude = :latitude, v.longitude = :longitude, " +
+            "v.locationVersion = :locationVersion " +
+            "WHERE v.veterinarianId = :id AND v.cityId IS NULL " +
+            "AND (v.locationVersion IS NULL OR v.locationVersion <> :locationVersion)";
+    private static final int MAX_SEARCH_RESULTS = 20;
+
+    private final LocationGazetteer gazetteer;
+    private final SessionFactory sessionFactory;
+    private final ClusterJobRunner clusterJobRunner;
+    private final CacheManager cacheManager;
+
+    public LocationService(LocationGazetteer gazetteer, EntityManagerFactory entityManagerFactory,
+                           ClusterJobRunner clusterJobRunner, CacheManager cacheManager) {
+        this.gazetteer = gazetteer;
+        this.sessionFactory = entityManagerFactory.unwrap(SessionFactory.class);
+        this.clusterJobRunner = clusterJobRunner;
+        this.cacheManager = cacheManager;
+    }
+
+    public List<StateResponseDTO> getStates() {
+        return gazetteer.getStates();
+    }
+
+    public List<CityResponseDTO> getCities(String stateCode) {
+        StateResponseDTO state = gazetteer.resolveState(stateCode)
+                .orElseThrow(() -> new EntityNotFoundException("State not found: " + stateCode));
+        return gazetteer.getCities(state.code());
+    }
+
+    public CityResponseDTO getCity(Integer cityId) {
+        return gazetteer.getCity(cityId)
+                .orElseThrow(() -> new EntityNotFoundException("City not found with id: " + cityId));
+    }
+
+    public List<CityResponseDTO> searchCities(String query, int limit) {
+        return gazetteer.searchCities(query, Math.min(limit, MAX_SEARCH_RESULTS));
+    }
+
+    // Stores the canonical city/state and, when the profile has no coordinates, the city centroid
+    public void applyCanonicalLocation(Veterinarian veterinarian) {
+        veterinarian.setLocationVersion(gazetteer.getVersion());
+        Optional<CityResponseDTO> city = gazetteer.resolveCity(veterinarian.getCity(), veterinarian.getState());
+        if (city.isPresent()) {
+            veterinarian.setCityId(city.get().cityId());
+            veterinarian.setCity(city.get().name());
+            veterinarian.setStateCode(city.get().stateCode());
+            veterinarian.setState(city.get().stateCode());
+            if (veterinarian.getLatitude() == null || veterinarian.getLongitude() == null) {
+                veterinarian.setLatitude(city.get().latitude());
+                veterinarian.setLongitude(city.get().longitude());
+            }
+            return;
+        }
+
+        veterinarian.setCityId(null);
+        veterinarian.setStateCode(gazetteer.resolveState(veterinarian.getState())
+                .map(StateResponseDTO::code)
+                .orElse(null));
+    }
+
+    // One node runs the backfill per boot wave; the others skip it while the lease is held
+    @EventListener(ApplicationReadyEvent.class)
+    public void scheduleBackfill() {
+        clusterJobRunner.run("location-backfill", Duration.ofMinutes(30), Duration.ofMinutes(10),
+                this::backfillCanonicalLocations);
+    }
+
+    // A stateless session keeps no persistence context, so the scan holds no snapshots of the rows it rewrites.
+    // Only the location columns are written back; the collections are never loaded. Profiles already tried
+    // against the current gazetteer version are skipped, so unresolvable ones are not rescanned on every boot.
+    // The update repeats the scan's conditions, so a profile edited after it was read keeps the edit.
+    // The transaction is Hibernate's, not Spring's, so cached profiles are evicted by hand after each commit.
+    public void backfillCanonicalLocations() {
+        Cache cache = cacheManager.getCache(CacheConfig.VETERINARIANS);
+        String version = gazetteer.getVersion();
+        UUID after = new UUID(0L, 0L);
+        int resolved = 0;
+        try (StatelessSession session = sessionFactory.openStatelessSession()) {
+            while (true) {
+                Transaction transaction = session.beginTransaction();
+                List<Veterinarian> batch;
+                try {
+                    batch = session.createSelectionQuery(
+                                    "FROM Veterinarian v JOIN FETCH v.user WHERE v.cityId IS NULL " +
+                                    "AND (v.locationVersion IS NULL OR v.locationVersion <> :version) " +
+                                    "AND v.veterinarianId > :after ORDER BY v.veterinarianId", Veterinarian.class)
+                            .setParameter("version", version)
+                            .setParameter("after", after)
+                            .setMaxResults(BACKFILL_BATCH_SIZE)
+                            .getResultList();
+                    for (Veterinarian veterinarian : batch) {
+                        applyCanonicalLocation(veterinarian);
+                        int updated = session.createMutationQuery(BACKFILL_UPDATE)
+                                .setParameter("cityId", veterinarian.getCityId())
+                                .setParameter("city", veterinarian.getCity())
+                                .setParameter("stateCode", veterinarian.getStateCode())
+                                .setParameter("state", veterinarian.getState())
+                                .setParameter("latitude", veterinarian.getLatitude())
+                                .setParameter("longitude", veterinarian.getLongitude())
+                                .setParameter("locationVersion", veterinarian.getLocationVersion())
+                                .setParameter("id", veterinarian.getVeterinarianId())
+                                .executeUpdate();
+                        if (updated > 0 && veterinarian.getCityId() != null) {
+                            resolved++;
+                        }
+                    }
+                    transaction.commit();
+                } catch (RuntimeException e) {
+                    transaction.rollback();
+                    throw e;
+                }
+                if (batch.isEmpty()) {
+                    break;
+                }
+                if (cache != null) {
+                    batch.forEach(veterinarian -> cache.evict(veterinarian.getVeterinarianId()));
+                }
+                after = batch.get(batch.size() - 1).getVeterinarianId();
+            }
+        }
+        if (resolved > 0) {
+            logger.info("Resolved canonical location of {} veterinarians", resolved);
+        }
+    }
+}
@@ -0,0 +1,263 @@
+package com.cesar.kaiju.service;
+
+import com.cesar.kaiju.repository.MailOutboxRepository;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.mail.MessagingException;
+import jakarta.mail.internet.MimeMessage;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.mail.javamail.MimeMessageHelper;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.thymeleaf.TemplateEngine;
+import org.thymeleaf.context.Context;
+
+import java.io.IOException;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Delivers the mail outbox. Each pass claims a batch of due rows with {@code FOR UPDATE SKIP LOCKED}
+ * (so several nodes can drain the outbox without sending twice), renders them and hands the whole
+ * batch to one {@link JavaMailSender#send(MimeMessage...)} call, which delivers it over a single
+ * SMTP connection. Failed messages are retried with exponential backoff; after repeated batch-wide
+ * failures the circuit opens and nothing is claimed until the cooldown has passed.
+ */
+@Service
+public class MailDispatcher {
+
+    private static final Logger logger = LoggerFactory.getLogger(MailDispatcher.class);
+
+    private static final int MAX_ERROR_LENGTH = 1000;
+    private static final int CLEANUP_BATCH_SIZE = 1000;
+
+    // A claimed row stays SENDING until its lease (next_attempt_at) expires, then any node may claim it again.
+    // The claim itself counts as the attempt, so a message whose sender keeps dying mid-send still runs out of attempts.
+    private static final String CLAIM_SQL =
+            "UPDATE mail_outbox SET status = 'SENDING', next_attempt_at = ?, attempts = attempts + 1 WHERE id IN (" +
+            "SELECT id FROM mail_outbox WHERE status IN ('PENDING', 'SENDING') AND next_attempt_at <= ? " +
+            "ORDER BY next_attempt_at LIMIT ? FOR UPDATE SKIP LOCKED) " +
+            "RETURNING id, recipient, subject, template_name, variables, body, attempts";
+
+    private static final String SENT_SQL =
+            "UPDATE mail_outbox SET status = 'SENT', sent_at = ?, last_error = NULL WHERE id = ?";
+
+    private static final String RETRY_SQL =
+            "UPDATE mail_outbox SET status = ?, next_attempt_at = ?, last_error = ? WHERE id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final MailOutboxRepository mailOutboxRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ClusterJobRunner clusterJobRunner;
+    private final JavaMailSender mailSender;
+    private final TemplateEngine templateEngine;
+    private final ObjectMapper objectMapper;
+
+    @Value("${APP.MAIL.SENDER.EMAIL}")
+    private String senderEmail;
+
+    @Value("${mail.outbox.batch-size:50}")
+    private int batchSize;
+
+    @Value("${mail.outbox.max-attempts:8}")
+    private int maxAttempts;
+
+    @Value("${mail.outbox.backoff-base-ms:30000}")
+    private long backoffBaseMs;
+
+    @Value("${mail.outbox.backoff-max-ms:3600000}")
+    private long backoffMaxMs;
+
+    @Value("${mail.outbox.circuit-failure-threshold:3}")
+    private int circuitFailureThreshold;
+
+    @Value("${mail.outbox.circuit-cooldown-ms:60000}")
+    private long circuitCooldownMs;
+
+    @Value("${mail.outbox.retention-days:7}")
+    private int retentionDays;
+
+    private int consecutiveFailures;
+    private Instant circuitOpenUntil = Instant.EPOCH;
+
+    public MailDispatcher(
+            JdbcTemplate jdbcTemplate,
+            MailOutboxRepository mailOutboxRepository,
+            TransactionTemplate transactionTemplate,
+            ClusterJobRunner clusterJobRunner,
+            JavaMailSender mailSender,
+            TemplateEngine templateEngine,
+            ObjectMapper objectMapper) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.mailOutboxRepository = mailOutboxRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.clusterJobRunner = clusterJobRunner;
+        this.mailSender = mailSender;
+        this.templateEngine = templateEngine;
+        this.objectMapper = objectMapper;
+    }
+
+    @Scheduled(fixedDelayString = "${mail.outbox.poll-interval-ms:1000}")
+    public synchronized void dispatch() {
+        while (Instant.now().isAfter(circuitOpenUntil)) {
+            // Half-open: after a cooldown a single message probes the server before full batches resume
+            int limit = consecutiveFailures >= circuitFailureThreshold ? 1 : batchSize;
+            List<OutboxMail> batch = claim(limit);
+            if (batch.isEmpty()) {
+                return;
+            }
+
+            boolean serverFailure = send(batch);
+            if (serverFailure) {
+                consecutiveFailures++;
+                if (consecutiveFailures >= circuitFailureThreshold) {
+                    long cooldown = Math.min(circuitCooldownMs << Math.min(consecutiveFailures - circuitFailureThreshold, 4),
+                            backoffMaxMs);
+                    circuitOpenUntil = Instant.now().plusMillis(cooldown);
+                    logger.warn("Mail server is failing, pausing delivery for {} ms", cooldown);
+                }
+                return;
+            }
+            consecutiveFailures = 0;
+            if (batch.size() < limit) {
+                return;
+            }
+        }
+    }
+
+    @Scheduled(cron = "${mail.outbox.cleanup-cron:0 15 5 * * *}", zone = "America/Sao_Paulo")
+    public void purgeSentMail() {
+        clusterJobRunner.run("mail-outbox-cleanup", Duration.ofMinutes(10), Duration.ofHours(1), () -> {
+            Instant before = Instant.now().minus(retentionDays, ChronoUnit.DAYS);
+            Integer deleted;
+            do {
+                deleted = transactionTemplate.execute(status -> mailOutboxRepository.deleteSentBatch(before, CLEANUP_BATCH_SIZE));
+            } while (deleted != null && deleted == CLEANUP_BATCH_SIZE);
+        });
+    }
+
+    private List<OutboxMail> claim(int limit) {
+        Instant now = Instant.now();
+        Timestamp leaseUntil = Timestamp.from(now.plus(Duration.ofMinutes(5)));
+        List<OutboxMail> claimed = transactionTemplate.execute(status -> jdbcTemplate.query(CLAIM_SQL,
+                (rs, rowNum) -> new OutboxMail(
+                        rs.getObject("id", UUID.class),
+                        rs.getString("recipient"),
+                        rs.getString("subject"),
+                        rs.getString("template_name"),
+                        rs.getString("variables"),
+                        rs.getString("body"),
+                        rs.getInt("attempts")),
+                leaseUntil, Timestamp.from(now), limit));
+        return claimed != null ? claimed : List.of();
+    }
+
+    // Returns whether the whole batch failed, which is taken as the server (not the messages) failing
+    private boolean send(List<OutboxMail> batch) {
+        Map<MimeMessage, OutboxMail> messages = new HashMap<>();
+        for (OutboxMail mail : batch) {
+            if (mail.attempts() > maxAttempts) {
+                // Every earlier claim ended with the lease expiring, never with a recorded result
+                markFailed(mail, new IllegalStateException("Delivery lease expired " + (mail.attempts() - 1) + " times"), true);
+                continue;
+            }
+            try {
+                messages.put(toMimeMessage(mail), mail);
+            } catch (Exception e) {
+                // A message that cannot be rendered will not succeed on retry
+                markFailed(mail, e, true);
+            }
+        }
+        if (messages.isEmpty()) {
+            return false;
+        }
+
+        Map<Object, Exception> failed = Map.of();
+        try {
+            mailSender.send(messages.keySet().toArray(new MimeMessage[0]));
+        } catch (MailSendException e) {
+            failed = e.getFailedMessages();
+            if (failed.isEmpty()) {
+                failed = new HashMap<>();
+                for (MimeMessage message : messages.keySet()) {
+                    failed.put(message, e);
+                }
+            }
+        } catch (MailException e) {
+            failed = new HashMap<>();
+            for (MimeMessage message : messages.keySet()) {
+                failed.put(message, e);
+            }
+        }
+
+        Instant sentAt = Instant.now();
+        List<Object[]> sent = new ArrayList<>();
+        for (Map.Entry<MimeMessage, OutboxMail> entry : messages.entrySet()) {
+            Exception error = failed.get(entry.getKey());
+            if (error == null) {
+                sent.add(new Object[]{Timestamp.from(sentAt), entry.getValue().id()});
+            } else {
+                markFailed(entry.getValue(), error, false);
+            }
+        }
+        if (!sent.isEmpty()) {
+            jdbcTemplate.batchUpdate(SENT_SQL, sent);
+        }
+        if (!failed.isEmpty()) {
+            logger.warn("Failed to send {} of {} emails", failed.size(), messages.size());
+        }
+        return failed.size() == messages.size();
+    }
+
+    private void markFailed(OutboxMail mail, Exception error, boolean permanent) {
+        int attempts = mail.attempts();
+        boolean giveUp = permanent || attempts >= maxAttempts;
+        long backoff = Math.min(backoffBaseMs << Math.min(attempts - 1, 20), backoffMaxMs);
+        String message = String.valueOf(error.getMessage());
+        jdbcTemplate.update(RETRY_SQL,
+                giveUp ? "FAILED" : "PENDING",
+                Timestamp.from(Instant.now().plusMillis(backoff)),
+                message.length() > MAX_ERROR_LENGTH ? message.substring(0, MAX_ERROR_LENGTH) : message,
+                mail.id());
+        if (giveUp) {
+            logger.error("Giving up on email {} to {} after {} attempts: {}", mail.id(), mail.recipient(), attempts, message);
+        }
+    }
+
+    private MimeMessage toMimeMessage(OutboxMail mail) throws MessagingException, IOException {
+        String htmlContent = mail.body();
+        if (htmlContent == null) {
+            Map<String, Object> variables = mail.variables() != null
+                    ? objectMapper.readValue(mail.variables(), new TypeReference<Map<String, Object>>() {})
+                    : Map.of();
+            Context context = new Context();
+            context.setVariables(variables);
+            htmlContent = templateEngine.process("emails/" + mail.templateName(), context);
+        }
+
+        MimeMessage message = mailSender.createMimeMessage();
+        MimeMessageHelper helper = new MimeMessageHelper(message, true, "UTF-8");
+        helper.setFrom(senderEmail);
+        helper.setTo(mail.recipient());
+        helper.setSubject(mail.subject());
+        helper.setText(htmlContent, true);
+        return message;
+    }
+
+    private record OutboxMail(UUID id, String recipient, String subject, String templateName, String variables, String body, int attempts) {
+    }
+}
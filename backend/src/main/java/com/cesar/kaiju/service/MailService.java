@@ -1,64 +1,45 @@
 package com.cesar.kaiju.service;
 
-import jakarta.mail.MessagingException;
-import jakarta.mail.internet.MimeMessage;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
-import org.springframework.beans.factory.annotation.Value;
-import org.springframework.mail.MailException;
-import org.springframework.mail.javamail.JavaMailSender;
-import org.springframework.mail.javamail.MimeMessageHelper;
+import com.cesar.kaiju.model.MailOutbox;
+import com.cesar.kaiju.repository.MailOutboxRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.annotation.Timed;
 import org.springframework.stereotype.Service;
-import org.thymeleaf.TemplateEngine;
-import org.thymeleaf.context.Context;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.Map;
 
+/**
+ * Queues emails in the mail outbox. The row is written in the caller's transaction, so an email is
+ * sent only if the operation that triggered it commits; {@link MailDispatcher} renders and delivers
+ * it in the background.
+ */
 @Service
+@Transactional
+@Timed("kaiju.service.mail")
 public class MailService {
 
-    private static final Logger logger = LoggerFactory.getLogger(MailService.class);
+    private final MailOutboxRepository mailOutboxRepository;
+    private final ObjectMapper objectMapper;
 
-    private final JavaMailSender mailSender;
-    private final TemplateEngine templateEngine;
-
-    @Value("${APP.MAIL.SENDER.EMAIL}")
-    private String senderEmail;
-
-    public MailService(JavaMailSender mailSender, TemplateEngine templateEngine) {
-        this.mailSender = mailSender;
-        this.templateEngine = templateEngine;
+    public MailService(MailOutboxRepository mailOutboxRepository, ObjectMapper objectMapper) {
+        this.mailOutboxRepository = mailOutboxRepository;
+        this.objectMapper = objectMapper;
     }
 
     public void sendEmail(String recipientEmail, String subject, String templateName,
                           Map<String, Object> variables) {
+        MailOutbox mail = new MailOutbox();
+        mail.setRecipient(recipientEmail);
+        mail.setSubject(subject);
+        mail.setTemplateName(templateName);
         try {
-            String htmlContent = renderTemplate(templateName, variables);
-            sendMimeMessage(recipientEmail, subject, htmlContent);
-            logger.info("Email sent to {} with subject '{}'", recipientEmail, subject);
-        } catch (MailException | MessagingException e) {
-            logger.error("Failed to send email to {}: {}", recipientEmail, e.getMessage());
+            mail.setVariables(objectMapper.writeValueAsString(variables));
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Email variables are not serializable", e);
         }
-    }
-
-    private String renderTemplate(String templateName, Map<String, Object> variables) {
-        Context context = new Context();
-        context.setVariables(variables);
-        return templateEngine.process("emails/" + templateName, context);
-    }
-
-    private void sendMimeMessage(String recipient, String subject, String htmlContent)
-            throws MessagingException {
-
-        MimeMessage message = mailSender.createMimeMessage();
-        MimeMessageHelper helper = new MimeMessageHelper(message, true, "UTF-8");
-
-        helper.setFrom(senderEmail);
-        helper.setTo(recipient);
-        helper.setSubject(subject);
-        helper.setText(htmlContent, true);
-
-        mailSender.send(message);
+        mailOutboxRepository.save(mail);
     }
 
     public void sendAccountVerificationEmail(String email, String verificationUrl, String username) {
@@ -87,4 +68,4 @@ public class MailService {
 
         sendEmail(email, "🚨 Novo link de verificação - Kaiju", "account-verification", variables);
     }
-}
\ No newline at end of file
+}
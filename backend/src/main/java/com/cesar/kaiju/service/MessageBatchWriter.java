@@ -0,0 +1,207 @@
+package com.cesar.kaiju.service;
+
+import com.cesar.kaiju.dto.MessageResponseDTO;
+import com.cesar.kaiju.exception.ChatBackpressureException;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Group-commits chat messages: producers enqueue and return immediately, a single writer
+ * thread drains the queue and inserts everything pending in one JDBC batch per transaction.
+ * Messages were already delivered when they get here, so none is dropped: when a batch keeps
+ * failing its rows are inserted one by one, rows the database rejects go to
+ * conversation_message_dead_letters and rows that fail for any other reason are retried.
+ * While rows are being retried, messages already delivered but not yet persisted are capped at
+ * chat.persistence.max-backlog: past it {@link #ensureCapacity} rejects new sends, so an outage
+ * cannot pile up the whole queue in memory.
+ */
+@Component
+public class MessageBatchWriter {
+
+    private static final Logger logger = LoggerFactory.getLogger(MessageBatchWriter.class);
+
+    private static final String INSERT_SQL =
+            "INSERT INTO conversation_messages (message_id, conversation_id, sender_id, seq, type, content, created_at) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?) ON CONFLICT (message_id) DO NOTHING";
+
+    private static final String DEAD_LETTER_SQL =
+            "INSERT INTO conversation_message_dead_letters " +
+            "(message_id, conversation_id, sender_id, seq, type, content, created_at, error, failed_at) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, now()) ON CONFLICT (message_id) DO NOTHING";
+
+    private static final int MAX_ATTEMPTS = 3;
+    private static final long RETRY_BACKOFF_MS = 1000;
+    private static final int MAX_ERROR_LENGTH = 1000;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final BlockingQueue<MessageResponseDTO> queue;
+    private final int batchSize;
+    private final long flushIntervalMs;
+    private final int maxBacklog;
+    // Rows that failed transiently; only touched by the writer thread, at most one batch long
+    private final List<MessageResponseDTO> retry = new ArrayList<>();
+    // Size of retry, published for the sending threads
+    private volatile int retrying;
+
+    private volatile boolean running;
+    private Thread worker;
+
+    public MessageBatchWriter(
+            JdbcTemplate jdbcTemplate,
+            TransactionTemplate transactionTemplate,
+            @Value("${chat.persistence.batch-size:200}") int batchSize,
+            @Value("${chat.persistence.flush-interval-ms:10}") long flushIntervalMs,
+            @Value("${chat.persistence.queue-capacity:50000}") int queueCapacity,
+            @Value("${chat.persistence.max-backlog:5000}") int maxBacklog) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.batchSize = batchSize;
+        this.flushIntervalMs = flushIntervalMs;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.maxBacklog = maxBacklog;
+    }
+
+    @PostConstruct
+    public void start() {
+        running = true;
+        worker = Thread.ofPlatform().name("chat-message-writer").daemon(true).start(this::drainLoop);
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        worker.join(TimeUnit.SECONDS.toMillis(10));
+        if (worker.isAlive()) {
+            logger.error("Chat message writer did not finish in time, {} queued messages were not persisted", queue.size());
+        }
+    }
+
+    public void enqueue(MessageResponseDTO message) {
+        try {
+            if (!queue.offer(message, 1, TimeUnit.SECONDS)) {
+                throw new IllegalStateException("Message queue is full, try again later");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while enqueuing message", e);
+        }
+    }
+
+    // Called before a message gets its seq, so a rejected send leaves no gap in the conversation
+    public void ensureCapacity() {
+        int retrying = this.retrying;
+        if (retrying > 0 && queue.size() + retrying >= maxBacklog) {
+            throw new ChatBackpressureException("Chat messages are not being persisted, try again later");
+        }
+    }
+
+    public int getPendingCount() {
+        return queue.size() + retrying;
+    }
+
+    private void drainLoop() {
+        List<MessageResponseDTO> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty() || !retry.isEmpty()) {
+            try {
+                if (retry.isEmpty()) {
+                    MessageResponseDTO first = queue.poll(flushIntervalMs, TimeUnit.MILLISECONDS);
+                    if (first == null) {
+                        continue;
+                    }
+                    batch.add(first);
+                } else {
+                    batch.addAll(retry);
+                    retry.clear();
+                }
+                queue.drainTo(batch, Math.max(0, batchSize - batch.size()));
+                flush(batch);
+                retrying = retry.size();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void flush(List<MessageResponseDTO> batch) throws InterruptedException {
+        for (int attempt = 1; attempt <= MAX_ATTEMPTS; attempt++) {
+            try {
+                transactionTemplate.executeWithoutResult(status ->
+                        jdbcTemplate.batchUpdate(INSERT_SQL, batch, batch.size(), MessageBatchWriter::bind));
+                return;
+            } catch (DataIntegrityViolationException e) {
+                // Retrying the same rows cannot help
+                break;
+            } catch (DataAccessException e) {
+                logger.warn("Failed to persist {} chat messages (attempt {}/{}): {}",
+                        batch.size(), attempt, MAX_ATTEMPTS, e.getMessage());
+                Thread.sleep(50L * attempt);
+            }
+        }
+        // A single bad row fails the whole batch, so isolate it
+        insertOneByOne(batch);
+    }
+
+    private void insertOneByOne(List<MessageResponseDTO> batch) throws InterruptedException {
+        for (MessageResponseDTO message : batch) {
+            try {
+                transactionTemplate.executeWithoutResult(status ->
+                        jdbcTemplate.update(INSERT_SQL, ps -> bind(ps, message)));
+            } catch (DataIntegrityViolationException e) {
+                deadLetter(message, e);
+            } catch (DataAccessException e) {
+                retry.add(message);
+            }
+        }
+        retrying = retry.size();
+        if (!retry.isEmpty()) {
+            logger.warn("Could not persist {} chat messages, retrying in {} ms", retry.size(), RETRY_BACKOFF_MS);
+            Thread.sleep(RETRY_BACKOFF_MS);
+        }
+    }
+
+    private void deadLetter(MessageResponseDTO message, DataIntegrityViolationException cause) {
+        String error = cause.getMostSpecificCause().getMessage();
+        try {
+            transactionTemplate.executeWithoutResult(status ->
+                    jdbcTemplate.update(DEAD_LETTER_SQL, ps -> {
+                        bind(ps, message);
+                        ps.setString(8, error != null && error.length() > MAX_ERROR_LENGTH ? error.substring(0, MAX_ERROR_LENGTH) : error);
+                    }));
+            logger.error("Chat message {} of conversation {} was rejected and moved to the dead-letter table: {}",
+                    message.messageId(), message.conversationId(), error);
+        } catch (DataAccessException e) {
+            retry.add(message);
+        }
+    }
+
+    private static void bind(PreparedStatement ps, MessageResponseDTO message) throws SQLException {
+        ps.setObject(1, message.messageId());
+        ps.setObject(2, message.conversationId());
+        ps.setObject(3, message.senderId());
+        ps.setLong(4, message.seq());
+        ps.setString(5, message.type().name());
+        ps.setString(6, message.content());
+        ps.setTimestamp(7, new Timestamp(message.createdAt().getTime()));
+    }
+}
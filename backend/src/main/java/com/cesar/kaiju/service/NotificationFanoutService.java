@@ -0,0 +1,303 @@
+package com.cesar.kaiju.service;
+
+import com.cesar.kaiju.enums.NotificationType;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.util.HtmlUtils;
+import org.thymeleaf.TemplateEngine;
+import org.thymeleaf.context.Context;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Fans a notification out to every interested user. The fan-out is stored in notification_fanouts
+ * before the triggering transaction commits, then worked through on the notification executor:
+ * recipients are streamed in keyset-paginated chunks, and each chunk gets its in-app notifications,
+ * its outbox emails and the advanced cursor written in one transaction. A fan-out cut short (restart,
+ * full executor) is leased like an outbox row and resumed from its cursor by the next poll. The email
+ * template is rendered once per run with a name placeholder that is substituted per recipient. Each
+ * chunk reserves its emails in notification_email_budget before it is written, so the outbox is fed
+ * at no more than the configured rate across all runs and nodes.
+ */
+@Service
+public class NotificationFanoutService {
+
+    private static final Logger logger = LoggerFactory.getLogger(NotificationFanoutService.class);
+
+    private static final String TEMPLATE_NAME = "notification";
+    private static final String NAME_PLACEHOLDER = "__KAIJU_RECIPIENT_NAME__";
+    private static final ZoneId ZONE = ZoneId.of("America/Sao_Paulo");
+    private static final UUID NONE = new UUID(0L, 0L);
+
+    private static final String RECIPIENTS_SELECT =
+            "SELECT u.user_id, u.name, u.email FROM users u " +
+            "WHERE u.situation = 'VERIFIED' AND u.user_id > ? AND u.user_id <> ? AND ";
+
+    private static final String PRODUCT_REVIEWERS_SQL = RECIPIENTS_SELECT +
+            "EXISTS (SELECT 1 FROM product_reviews r WHERE r.product_id = ? AND r.user_id = u.user_id) " +
+            "ORDER BY u.user_id LIMIT ?";
+
+    // Users have no address of their own; those who consulted a veterinarian in the same city are "nearby"
+    private static final String SAME_CITY_PATIENTS_SQL = RECIPIENTS_SELECT +
+            "EXISTS (SELECT 1 FROM conversations c JOIN veterinarians v ON v.veterinarian_id = c.veterinarian_id " +
+            "WHERE c.user_id = u.user_id AND v.city_id = (SELECT city_id FROM veterinarians WHERE veterinarian_id = ?)) " +
+            "ORDER BY u.user_id LIMIT ?";
+
+    private static final String INSERT_FANOUT_SQL =
+            "INSERT INTO notification_fanouts (id, type, subject_id, excluded_user_id, title, message, link, dedupe_key, " +
+            "status, delivered, leased_until, created_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?, 'PENDING', 0, ?, ?) " +
+            "ON CONFLICT (dedupe_key) DO NOTHING";
+
+    // While RUNNING, leased_until is the claim lease; it is extended with every chunk written
+    private static final String CLAIM_SQL =
+            "UPDATE notification_fanouts SET status = 'RUNNING', leased_until = ? WHERE id = (" +
+            "SELECT id FROM notification_fanouts WHERE status <> 'DONE' AND leased_until <= ? " +
+            "ORDER BY created_at LIMIT 1 FOR UPDATE SKIP LOCKED) " +
+            "RETURNING id, type, subject_id, excluded_user_id, title, message, link, last_user_id, delivered";
+
+    private static final String ADVANCE_SQL =
+            "UPDATE notification_fanouts SET last_user_id = ?, delivered = delivered + ?, leased_until = ? WHERE id = ?";
+
+    private static final String FINISH_SQL =
+            "UPDATE notification_fanouts SET status = 'DONE', finished_at = ? WHERE id = ?";
+
+    // Returns how long to wait for the reserved slot, by the database clock
+    private static final String RESERVE_EMAILS_SQL =
+            "UPDATE notification_email_budget " +
+            "SET next_free_at = GREATEST(next_free_at, clock_timestamp()) + ? * INTERVAL '1 millisecond' WHERE id = 1 " +
+            "RETURNING CAST(EXTRACT(EPOCH FROM next_free_at - ? * INTERVAL '1 millisecond' - clock_timestamp()) * 1000 AS bigint)";
+
+    private static final String EXTEND_LEASE_SQL =
+            "UPDATE notification_fanouts SET leased_until = ? WHERE id = ?";
+
+    private static final String CLEANUP_SQL =
+            "DELETE FROM notification_fanouts WHERE status = 'DONE' AND finished_at < ?";
+
+    private static final String INSERT_NOTIFICATION_SQL =
+            "INSERT INTO notifications (notification_id, user_id, type, title, message, link, created_at) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String INSERT_MAIL_SQL =
+            "INSERT INTO mail_outbox (id, recipient, subject, template_name, body, status, attempts, next_attempt_at, created_at) " +
+            "VALUES (?, ?, ?, ?, ?, 'PENDING', 0, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final TemplateEngine templateEngine;
+    private final TaskExecutor notificationExecutor;
+    private final ClusterJobRunner clusterJobRunner;
+
+    @Value("${notifications.fanout.batch-size:500}")
+    private int batchSize;
+
+    @Value("${notifications.fanout.emails-per-second:20}")
+    private int emailsPerSecond;
+
+    @Value("${notifications.fanout.lease-ms:300000}")
+    private long leaseMs;
+
+    @Value("${notifications.fanout.retention-days:7}")
+    private int retentionDays;
+
+    public NotificationFanoutService(
+            JdbcTemplate jdbcTemplate,
+            TransactionTemplate transactionTemplate,
+            TemplateEngine templateEngine,
+            @Qualifier("notificationExecutor") TaskExecutor notificationExecutor,
+            ClusterJobRunner clusterJobRunner) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.templateEngine = templateEngine;
+        this.notificationExecutor = notificationExecutor;
+        this.clusterJobRunner = clusterJobRunner;
+    }
+
+    /**
+     * Published by the services that detect the change. The fan-out is stored in their transaction
+     * and started once it commits.
+     *
+     * @param subjectId the product or veterinarian the notification is about
+     * @param excludedUserId a user that must not be notified (the seller or the veterinarian)
+     */
+    public record Request(NotificationType type, UUID subjectId, UUID excludedUserId,
+                          String title, String message, String link) {
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT, fallbackExecution = true)
+    public void enqueue(Request request) {
+        Timestamp now = Timestamp.from(Instant.now());
+        int created = jdbcTemplate.update(INSERT_FANOUT_SQL,
+                UUID.randomUUID(), request.type().name(), request.subjectId(), request.excludedUserId(),
+                request.title(), request.message(), request.link(), dedupeKey(request), now, now);
+        if (created == 0) {
+            logger.debug("Skipping {} fan-out for {}: already sent", request.type(), request.subjectId());
+        }
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void start(Request request) {
+        notificationExecutor.execute(this::drain);
+    }
+
+    // Picks up fan-outs whose start was rejected by a full executor or whose node died mid-run
+    @Scheduled(fixedDelayString = "${notifications.fanout.poll-interval-ms:30000}")
+    public void resumePending() {
+        notificationExecutor.execute(this::drain);
+    }
+
+    @Scheduled(cron = "${notifications.fanout.cleanup-cron:0 45 5 * * *}", zone = "America/Sao_Paulo")
+    public void purgeFinished() {
+        clusterJobRunner.run("notification-fanout-cleanup", Duration.ofMinutes(10), Duration.ofHours(1), () ->
+                jdbcTemplate.update(CLEANUP_SQL, Timestamp.from(Instant.now().minus(retentionDays, ChronoUnit.DAYS))));
+    }
+
+    /** Runs due fan-outs until none is left; several nodes and workers can drain concurrently. */
+    public void drain() {
+        Fanout fanout;
+        while ((fanout = claim()) != null) {
+            if (!run(fanout)) {
+                return;
+            }
+        }
+    }
+
+    // One fan-out per product, type and day, so a string of price cuts does not email every reviewer each time
+    private static String dedupeKey(Request request) {
+        return request.type() == NotificationType.VETERINARIAN_NEARBY
+                ? request.type() + ":" + request.subjectId()
+                : request.type() + ":" + request.subjectId() + ":" + LocalDate.now(ZONE);
+    }
+
+    private Fanout claim() {
+        Instant now = Instant.now();
+        List<Fanout> claimed = transactionTemplate.execute(status -> jdbcTemplate.query(CLAIM_SQL,
+                (rs, rowNum) -> new Fanout(
+                        rs.getObject("id", UUID.class),
+                        new Request(
+                                NotificationType.valueOf(rs.getString("type")),
+                                rs.getObject("subject_id", UUID.class),
+                                rs.getObject("excluded_user_id", UUID.class),
+                                rs.getString("title"),
+                                rs.getString("message"),
+                                rs.getString("link")),
+                        rs.getObject("last_user_id", UUID.class),
+                        rs.getLong("delivered")),
+                Timestamp.from(now.plusMillis(leaseMs)), Timestamp.from(now)));
+        return claimed == null || claimed.isEmpty() ? null : claimed.get(0);
+    }
+
+    // Returns false when interrupted; the fan-out stays leased and is resumed from its cursor later
+    private boolean run(Fanout fanout) {
+        Request request = fanout.request();
+        long start = System.nanoTime();
+        String recipientsSql = request.type() == NotificationType.VETERINARIAN_NEARBY
+                ? SAME_CITY_PATIENTS_SQL
+                : PRODUCT_REVIEWERS_SQL;
+        String body = renderOnce(request);
+        UUID excluded = request.excludedUserId() != null ? request.excludedUserId() : NONE;
+
+        UUID after = fanout.lastUserId() != null ? fanout.lastUserId() : NONE;
+        long delivered = 0;
+        try {
+            while (true) {
+                List<Recipient> recipients = jdbcTemplate.query(recipientsSql,
+                        (rs, rowNum) -> new Recipient(rs.getObject(1, UUID.class), rs.getString(2), rs.getString(3)),
+                        after, excluded, request.subjectId(), batchSize);
+                if (recipients.isEmpty()) {
+                    break;
+                }
+
+                pace(fanout.id(), recipients.size());
+                writeBatch(fanout.id(), request, body, recipients);
+                delivered += recipients.size();
+                after = recipients.get(recipients.size() - 1).userId();
+
+                if (recipients.size() < batchSize) {
+                    break;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            logger.warn("{} fan-out for {} interrupted after {} recipients", request.type(), request.subjectId(), delivered);
+            return false;
+        }
+
+        jdbcTemplate.update(FINISH_SQL, Timestamp.from(Instant.now()), fanout.id());
+        logger.info("{} fan-out for {} reached {} users in {} ms", request.type(), request.subjectId(),
+                fanout.delivered() + delivered, (System.nanoTime() - start) / 1_000_000);
+        return true;
+    }
+
+    private void writeBatch(UUID fanoutId, Request request, String body, List<Recipient> recipients) {
+        Timestamp now = Timestamp.from(Instant.now());
+        List<Object[]> notifications = new ArrayList<>(recipients.size());
+        List<Object[]> mails = new ArrayList<>(recipients.size());
+        for (Recipient recipient : recipients) {
+            notifications.add(new Object[]{
+                    UUID.randomUUID(), recipient.userId(), request.type().name(),
+                    request.title(), request.message(), request.link(), now
+            });
+            mails.add(new Object[]{
+                    UUID.randomUUID(), recipient.email(), request.title() + " - Kaiju", TEMPLATE_NAME,
+                    body.replace(NAME_PLACEHOLDER, HtmlUtils.htmlEscape(recipient.name())), now, now
+            });
+        }
+
+        transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.batchUpdate(INSERT_NOTIFICATION_SQL, notifications);
+            jdbcTemplate.batchUpdate(INSERT_MAIL_SQL, mails);
+            jdbcTemplate.update(ADVANCE_SQL, recipients.get(recipients.size() - 1).userId(), recipients.size(),
+                    Timestamp.from(Instant.now().plusMillis(leaseMs)), fanoutId);
+        });
+    }
+
+    private String renderOnce(Request request) {
+        Context context = new Context();
+        context.setVariable("username", NAME_PLACEHOLDER);
+        context.setVariable("title", request.title());
+        context.setVariable("message", request.message());
+        context.setVariable("link", request.link());
+        return templateEngine.process("emails/" + TEMPLATE_NAME, context);
+    }
+
+    // Sleeps until the shared budget has room for the chunk; the lease covers the wait so no other run takes over
+    private void pace(UUID fanoutId, int emails) throws InterruptedException {
+        long waitMillis = reserveEmails(emails);
+        if (waitMillis > 0) {
+            jdbcTemplate.update(EXTEND_LEASE_SQL, Timestamp.from(Instant.now().plusMillis(waitMillis + leaseMs)), fanoutId);
+            Thread.sleep(waitMillis);
+        }
+    }
+
+    long reserveEmails(int emails) {
+        if (emailsPerSecond <= 0) {
+            return 0;
+        }
+        long slotMillis = emails * 1000L / emailsPerSecond;
+        Long waitMillis = jdbcTemplate.queryForObject(RESERVE_EMAILS_SQL, Long.class, slotMillis, slotMillis);
+        return waitMillis != null ? waitMillis : 0;
+    }
+
+    private record Fanout(UUID id, Request request, UUID lastUserId, long delivered) {
+    }
+
+    private record Recipient(UUID userId, String name, String email) {
+    }
+}
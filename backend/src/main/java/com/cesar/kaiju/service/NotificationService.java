@@ -0,0 +1,51 @@
+package com.cesar.kaiju.service;
+
+import com.cesar.kaiju.dto.NotificationResponseDTO;
+import com.cesar.kaiju.model.User;
+import com.cesar.kaiju.repository.NotificationRepository;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+@Service
+@Transactional
+public class NotificationService {
+
+    private static final int MAX_PAGE_SIZE = 100;
+
+    private final NotificationRepository notificationRepository;
+
+    public NotificationService(NotificationRepository notificationRepository) {
+        this.notificationRepository = notificationRepository;
+    }
+
+    @Transactional(readOnly = true)
+    public List<NotificationResponseDTO> getNotifications(Instant before, int limit) {
+        return notificationRepository.findInbox(
+                getCurrentUser().getUserId(),
+                before != null ? before : Instant.now().plusSeconds(1),
+                PageRequest.of(0, Math.min(limit, MAX_PAGE_SIZE)));
+    }
+
+    @Transactional(readOnly = true)
+    public long getUnreadCount() {
+        return notificationRepository.countUnread(getCurrentUser().getUserId());
+    }
+
+    public void markAsRead(UUID notificationId) {
+        notificationRepository.markRead(notificationId, getCurrentUser().getUserId(), Instant.now());
+    }
+
+    public void markAllAsRead() {
+        notificationRepository.markAllRead(getCurrentUser().getUserId(), Instant.now());
+    }
+
+    private User getCurrentUser() {
+        return (User) SecurityContextHolder.getContext().getAuthentication().getPrincipal();
+    }
+}
@@ -1,9 +1,15 @@
 package com.cesar.kaiju.service;
 
+import com.cesar.kaiju.config.CacheConfig;
+import com.cesar.kaiju.dto.BatchResponseDTO;
+import com.cesar.kaiju.dto.CategoryCountDTO;
+import com.cesar.kaiju.dto.ProductCardDTO;
 import com.cesar.kaiju.dto.ProductRequestDTO;
 import com.cesar.kaiju.dto.ProductResponseDTO;
 import com.cesar.kaiju.dto.ProductReviewRequestDTO;
 import com.cesar.kaiju.dto.ProductReviewResponseDTO;
+import com.cesar.kaiju.dto.ReviewSummaryDTO;
+import com.cesar.kaiju.enums.NotificationType;
 import com.cesar.kaiju.enums.ProductCategory;
 import com.cesar.kaiju.enums.ProductStatus;
 import com.cesar.kaiju.model.Product;
@@ -13,29 +19,49 @@ import com.cesar.kaiju.repository.ProductRepository;
 import com.cesar.kaiju.repository.ProductReviewRepository;
 import com.cesar.kaiju.repository.UserRepository;
 import jakarta.persistence.EntityNotFoundException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.security.core.context.SecurityContextHolder;
+import io.micrometer.core.annotation.Timed;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.math.BigDecimal;
+import java.text.NumberFormat;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 import java.util.UUID;
 import java.util.stream.Collectors;
 
 @Service
 @Transactional
+@Timed("kaiju.service.products")
 public class ProductService {
 
     private final ProductRepository productRepository;
     private final UserRepository userRepository;
     private final ProductReviewRepository productReviewRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final CacheManager cacheManager;
 
-    public ProductService(ProductRepository productRepository, UserRepository userRepository, ProductReviewRepository productReviewRepository) {
+    @Value("${app.frontend-url:https://kaiju-xi.vercel.app}")
+    private String frontendUrl;
+
+    public ProductService(ProductRepository productRepository, UserRepository userRepository, ProductReviewRepository productReviewRepository,
+                          ApplicationEventPublisher eventPublisher, CacheManager cacheManager) {
         this.productRepository = productRepository;
         this.userRepository = userRepository;
         this.productReviewRepository = productReviewRepository;
+        this.eventPublisher = eventPublisher;
+        this.cacheManager = cacheManager;
     }
 
     public ProductResponseDTO createProduct(ProductRequestDTO request) {
@@ -59,12 +85,20 @@ public class ProductService {
     }
 
     @Transactional(readOnly = true)
+    @Cacheable(cacheNames = CacheConfig.PRODUCTS, key = "#id")
     public ProductResponseDTO getProductById(UUID id) {
         Product product = productRepository.findById(id)
                 .orElseThrow(() -> new EntityNotFoundException("Product not found with id: " + id));
         return toResponseDTO(product);
     }
 
+    @Transactional(readOnly = true)
+    public BatchResponseDTO<ProductResponseDTO> getProductsByIds(List<String> ids) {
+        return BatchLookup.lookup(ids, cacheManager.getCache(CacheConfig.PRODUCTS), ProductResponseDTO.class,
+                misses -> productRepository.findByProductIdIn(misses).stream()
+                        .collect(Collectors.toMap(Product::getProductId, this::toResponseDTO)));
+    }
+
     @Transactional(readOnly = true)
     public Page<ProductResponseDTO> getAllProducts(ProductStatus status, ProductCategory category, Pageable pageable) {
         Page<Product> products;
@@ -88,6 +122,23 @@ public class ProductService {
         return products.map(this::toResponseDTO);
     }
 
+    @Transactional(readOnly = true)
+    public Page<ProductCardDTO> getProductCards(ProductStatus status, ProductCategory category, Pageable pageable) {
+        if (status != null && category != null) {
+            return productRepository.findCardsByCategoryAndStatus(category, status, pageable);
+        } else if (status != null) {
+            return productRepository.findCardsByStatus(status, pageable);
+        } else if (category != null) {
+            return productRepository.findCardsByCategory(category, pageable);
+        }
+        return productRepository.findCards(pageable);
+    }
+
+    @Transactional(readOnly = true)
+    public Page<ProductCardDTO> searchProductCards(String keyword, Pageable pageable) {
+        return productRepository.searchCards(keyword, ProductStatus.ACTIVE, pageable);
+    }
+
     @Transactional(readOnly = true)
     public List<ProductResponseDTO> getTopRatedProducts(ProductCategory category, int limit) {
         Pageable pageable = PageRequest.of(0, limit);
@@ -96,10 +147,7 @@ public class ProductService {
         if (category != null) {
             products = productRepository.findTopRatedByCategory(category, pageable);
         } else {
-            products = productRepository.findAll(pageable).getContent()
-                    .stream()
-                    .sorted((p1, p2) -> Double.compare(p2.getRating(), p1.getRating()))
-                    .collect(Collectors.toList());
+            products = productRepository.findTopRated(pageable);
         }
         
         return products.stream()
@@ -116,6 +164,21 @@ public class ProductService {
                 .collect(Collectors.toList());
     }
 
+    @Transactional(readOnly = true)
+    public List<ProductCardDTO> getLatestProductCards(int limit) {
+        return productRepository.findLatestCards(PageRequest.of(0, limit));
+    }
+
+    @Transactional(readOnly = true)
+    public List<ProductCardDTO> getTopRatedProductCards(int limit) {
+        return productRepository.findTopRatedCards(PageRequest.of(0, limit));
+    }
+
+    @Transactional(readOnly = true)
+    public List<CategoryCountDTO> getCategoryCounts() {
+        return productRepository.countActiveByCategory();
+    }
+
     @Transactional(readOnly = true)
     public Page<ProductResponseDTO> getProductsBySeller(UUID sellerId, Pageable pageable) {
         User seller = userRepository.findById(sellerId)
@@ -124,6 +187,7 @@ public class ProductService {
         return products.map(this::toResponseDTO);
     }
 
+    @CacheEvict(cacheNames = CacheConfig.PRODUCTS, key = "#id")
     public ProductResponseDTO updateProduct(UUID id, ProductRequestDTO request) {
         Product product = productRepository.findById(id)
                 .orElseThrow(() -> new EntityNotFoundException("Product not found with id: " + id));
@@ -133,6 +197,9 @@ public class ProductService {
             throw new SecurityException("You can only update your own products");
         }
         
+        ProductStatus previousStatus = product.getStatus();
+        BigDecimal previousPrice = product.getPrice();
+
         product.setName(request.name());
         product.setDescription(request.description());
         product.setPrice(request.price());
@@ -145,16 +212,44 @@ public class ProductService {
         product.setTags(request.tags());
         
         Product updatedProduct = productRepository.save(product);
+        notifyInterestedUsers(updatedProduct, previousStatus, previousPrice);
         return toResponseDTO(updatedProduct);
     }
 
+    @CacheEvict(cacheNames = CacheConfig.PRODUCTS, key = "#id")
     public void updateProductStatus(UUID id, ProductStatus status) {
         Product product = productRepository.findById(id)
                 .orElseThrow(() -> new EntityNotFoundException("Product not found with id: " + id));
+        ProductStatus previousStatus = product.getStatus();
         product.setStatus(status);
         productRepository.save(product);
+        notifyInterestedUsers(product, previousStatus, product.getPrice());
+    }
+
+    // Reviewers are notified once the transaction commits; see NotificationFanoutService
+    private void notifyInterestedUsers(Product product, ProductStatus previousStatus, BigDecimal previousPrice) {
+        if (product.getStatus() != ProductStatus.ACTIVE) {
+            return;
+        }
+        String link = frontendUrl + "/products/" + product.getProductId();
+
+        if (previousStatus == ProductStatus.OUT_OF_STOCK) {
+            eventPublisher.publishEvent(new NotificationFanoutService.Request(
+                    NotificationType.PRODUCT_RESTOCKED, product.getProductId(), product.getSeller().getUserId(),
+                    "Produto de volta ao estoque",
+                    product.getName() + " está disponível novamente.",
+                    link));
+        } else if (previousPrice != null && product.getPrice() != null && product.getPrice().compareTo(previousPrice) < 0) {
+            String price = NumberFormat.getCurrencyInstance(Locale.forLanguageTag("pt-BR")).format(product.getPrice());
+            eventPublisher.publishEvent(new NotificationFanoutService.Request(
+                    NotificationType.PRODUCT_PRICE_DROP, product.getProductId(), product.getSeller().getUserId(),
+                    "Baixou o preço",
+                    product.getName() + " agora custa " + price + ".",
+                    link));
+        }
     }
 
+    @CacheEvict(cacheNames = CacheConfig.PRODUCTS, key = "#id")
     public void deleteProduct(UUID id) {
         Product product = productRepository.findById(id)
                 .orElseThrow(() -> new EntityNotFoundException("Product not found with id: " + id));
@@ -167,7 +262,8 @@ public class ProductService {
         productRepository.delete(product);
     }
 
-    private ProductResponseDTO toResponseDTO(Product product) {
+    // Package-private for the JMH benchmarks in src/jmh/java
+    ProductResponseDTO toResponseDTO(Product product) {
         return new ProductResponseDTO(
                 product.getProductId(),
                 product.getName(),
@@ -175,13 +271,13 @@ public class ProductService {
                 product.getPrice(),
                 product.getCategory(),
                 product.getStatus(),
-                product.getImages(),
+                copyOf(product.getImages()),
                 product.getStockQuantity(),
                 product.getSeller().getUserId(),
                 product.getSeller().getName(),
                 product.getBrand(),
                 product.getManufacturer(),
-                product.getTags(),
+                copyOf(product.getTags()),
                 product.getRating(),
                 product.getReviewCount(),
                 product.getCreatedAt(),
@@ -189,6 +285,11 @@ public class ProductService {
         );
     }
 
+    // Without open-in-view the DTO is serialized after the session closes, so lazy collections are copied here
+    private static <T> List<T> copyOf(List<T> values) {
+        return values != null ? new ArrayList<>(values) : null;
+    }
+
     @Transactional(readOnly = true)
     public Page<ProductReviewResponseDTO> getProductReviews(UUID productId, Pageable pageable) {
         Product product = productRepository.findById(productId)
@@ -198,6 +299,8 @@ public class ProductService {
         return reviews.map(this::toReviewResponseDTO);
     }
 
+    // The cached product carries the rating and review count
+    @CacheEvict(cacheNames = CacheConfig.PRODUCTS, key = "#productId")
     public ProductReviewResponseDTO createProductReview(UUID productId, ProductReviewRequestDTO request) {
         Product product = productRepository.findById(productId)
                 .orElseThrow(() -> new EntityNotFoundException("Product not found with id: " + productId));
@@ -205,12 +308,7 @@ public class ProductService {
         User currentUser = getCurrentUser();
         
         // Check if user already reviewed this product
-        boolean alreadyReviewed = productReviewRepository.findByProduct_ProductId(productId, Pageable.unpaged())
-                .getContent()
-                .stream()
-                .anyMatch(review -> review.getUser().getUserId().equals(currentUser.getUserId()));
-        
-        if (alreadyReviewed) {
+        if (productReviewRepository.existsByProduct_ProductIdAndUser_UserId(productId, currentUser.getUserId())) {
             throw new IllegalStateException("You have already reviewed this product");
         }
         
@@ -240,25 +338,16 @@ public class ProductService {
         productReviewRepository.save(review);
     }
 
+    // Aggregated in the database instead of loading every review into the session
     private void updateProductRating(Product product) {
-        var allReviews = productReviewRepository.findByProduct(product, Pageable.unpaged());
-        
-        if (allReviews.isEmpty()) {
-            product.setRating(0.0);
-            product.setReviewCount(0);
-        } else {
-            double averageRating = allReviews.getContent().stream()
-                    .mapToInt(ProductReview::getRating)
-                    .average()
-                    .orElse(0.0);
-            
-            product.setRating(averageRating);
-            product.setReviewCount(allReviews.getContent().size());
-        }
-        
+        ReviewSummaryDTO summary = productReviewRepository.summarizeByProduct(product);
+
+        product.setRating(summary.averageRating());
+        product.setReviewCount(summary.reviewCount().intValue());
         productRepository.save(product);
     }
 
+    @Transactional(readOnly = true)
     public Long getProductCount() {
         return productRepository.count();
     }
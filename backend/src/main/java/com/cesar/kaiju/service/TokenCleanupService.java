@@ -1,33 +1,103 @@
 package com.cesar.kaiju.service;
 
-import com.cesar.kaiju.model.PasswordResetToken;
+import com.cesar.kaiju.dto.TokenCleanupRunDTO;
 import com.cesar.kaiju.repository.PasswordResetTokenRepository;
+import com.cesar.kaiju.repository.UserVerifiedRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.time.Duration;
 import java.time.Instant;
-import java.util.List;
+import java.util.Date;
+import java.util.function.IntSupplier;
 
+/**
+ * Purges expired password reset tokens and email verifications. Rows are deleted by the database
+ * in bounded batches, each in its own short transaction, so a run never loads a table into memory
+ * and never holds locks on more than one batch at a time.
+ */
 @Service
 public class TokenCleanupService {
 
+    private static final Logger logger = LoggerFactory.getLogger(TokenCleanupService.class);
+
     private final PasswordResetTokenRepository resetTokenRepository;
+    private final UserVerifiedRepository userVerifiedRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ClusterJobRunner clusterJobRunner;
+    private final int batchSize;
+    private final int maxBatchesPerRun;
+
+    private volatile TokenCleanupRunDTO lastRun;
 
-    public TokenCleanupService(PasswordResetTokenRepository resetTokenRepository) {
+    public TokenCleanupService(
+            PasswordResetTokenRepository resetTokenRepository,
+            UserVerifiedRepository userVerifiedRepository,
+            TransactionTemplate transactionTemplate,
+            ClusterJobRunner clusterJobRunner,
+            @Value("${token-cleanup.batch-size:1000}") int batchSize,
+            @Value("${token-cleanup.max-batches-per-run:500}") int maxBatchesPerRun) {
         this.resetTokenRepository = resetTokenRepository;
+        this.userVerifiedRepository = userVerifiedRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.clusterJobRunner = clusterJobRunner;
+        this.batchSize = batchSize;
+        this.maxBatchesPerRun = maxBatchesPerRun;
     }
 
     @Scheduled(fixedRate = 3600000)
     public void cleanExpiredTokens() {
+        clusterJobRunner.run("token-cleanup", Duration.ofMinutes(10), Duration.ofMinutes(30), this::purgeExpiredTokens);
+    }
 
-        List<PasswordResetToken> expiredTokens = resetTokenRepository.findAll().stream()
-                .filter(token -> token.getExpiration().isBefore(Instant.now()))  // Verifica se o token expirou
-                .toList();
+    private void purgeExpiredTokens() {
+        Date startedAt = new Date();
+        long start = System.nanoTime();
+        Instant now = Instant.now();
 
-        for (PasswordResetToken token : expiredTokens) {
-            resetTokenRepository.deleteByToken(token.getToken());
+        BatchResult resetTokens = deleteInBatches(() -> resetTokenRepository.deleteExpiredBatch(now, batchSize));
+        BatchResult verifications = deleteInBatches(
+                () -> userVerifiedRepository.deleteExpiredBatch(Date.from(now), batchSize));
 
-            System.out.println("Removed expired token: " + token.getToken());
+        TokenCleanupRunDTO run = new TokenCleanupRunDTO(
+                startedAt,
+                (System.nanoTime() - start) / 1_000_000,
+                resetTokens.deleted(),
+                verifications.deleted(),
+                resetTokens.batches() + verifications.batches(),
+                resetTokens.completed() && verifications.completed()
+        );
+        lastRun = run;
+
+        if (run.passwordResetTokensDeleted() > 0 || run.userVerificationsDeleted() > 0 || !run.completed()) {
+            logger.info("Token cleanup removed {} password reset tokens and {} verifications in {} batches ({} ms){}",
+                    run.passwordResetTokensDeleted(), run.userVerificationsDeleted(), run.batches(), run.durationMs(),
+                    run.completed() ? "" : ", remaining rows are left for the next run");
         }
     }
+
+    public TokenCleanupRunDTO getLastRun() {
+        return lastRun;
+    }
+
+    private BatchResult deleteInBatches(IntSupplier batch) {
+        long deleted = 0;
+        int batches = 0;
+        while (batches < maxBatchesPerRun) {
+            Integer removed = transactionTemplate.execute(status -> batch.getAsInt());
+            batches++;
+            deleted += removed != null ? removed : 0;
+            if (removed == null || removed < batchSize) {
+                return new BatchResult(deleted, batches, true);
+            }
+        }
+        return new BatchResult(deleted, batches, false);
+    }
+
+    private record BatchResult(long deleted, int batches, boolean completed) {
+    }
 }
@@ -1,6 +1,9 @@
 package com.cesar.kaiju.service;
 
+import com.cesar.kaiju.config.CacheConfig;
+import com.cesar.kaiju.dto.BatchResponseDTO;
 import com.cesar.kaiju.dto.UserRegisterRequestDTO;
+import com.cesar.kaiju.dto.UserSummaryDTO;
 import com.cesar.kaiju.dto.UserUpdateRequestDTO;
 import com.cesar.kaiju.enums.UserRole;
 import com.cesar.kaiju.enums.UserSituation;
@@ -13,35 +16,51 @@ import com.cesar.kaiju.repository.PasswordResetTokenRepository;
 import com.cesar.kaiju.repository.UserRepository;
 import com.cesar.kaiju.repository.UserVerifiedRepository;
 import jakarta.persistence.EntityNotFoundException;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.crypto.password.PasswordEncoder;
+import io.micrometer.core.annotation.Timed;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.Instant;
 import java.util.Date;
+import java.util.List;
 import java.util.UUID;
+import java.util.stream.Collectors;
 
 @Service
 @Transactional
+@Timed("kaiju.service.users")
 public class UserService implements UserDetailsService {
 
     private final UserRepository userRepository;
     private final UserVerifiedRepository userVerifiedRepository;
     private final PasswordResetTokenRepository passwordResetTokenRepository;
     private final PasswordEncoder passwordEncoder;
+    private final UsernameAvailabilityService usernameAvailabilityService;
+    private final AccountDeletionService accountDeletionService;
+    private final CacheManager cacheManager;
 
     public UserService(
             UserRepository userRepository,
             UserVerifiedRepository userVerifiedRepository,
             PasswordResetTokenRepository passwordResetTokenRepository,
-            PasswordEncoder passwordEncoder) {
+            PasswordEncoder passwordEncoder,
+            UsernameAvailabilityService usernameAvailabilityService,
+            AccountDeletionService accountDeletionService,
+            CacheManager cacheManager) {
         this.userRepository = userRepository;
         this.userVerifiedRepository = userVerifiedRepository;
         this.passwordResetTokenRepository = passwordResetTokenRepository;
         this.passwordEncoder = passwordEncoder;
+        this.usernameAvailabilityService = usernameAvailabilityService;
+        this.accountDeletionService = accountDeletionService;
+        this.cacheManager = cacheManager;
     }
 
     @Override
@@ -53,30 +72,22 @@ public class UserService implements UserDetailsService {
     }
 
     public void createUser(UserRegisterRequestDTO request) {
-        // Check if username already exists
-        if (userRepository.findByUsername(request.username()).isPresent()) {
-            throw new UsernameAlreadyUsedExcpetion("Username já está em uso.");
-        }
-
-        // Check if email already exists
-        if (userRepository.findByEmail(request.email()).isPresent()) {
-            throw new EmailAlreadyUsedException("Email já está em uso.");
-        }
-
-        // Create new user
+        // Uniqueness is enforced by the uk_users_username / uk_users_email constraints
         User user = new User();
         user.setUsername(request.username());
         user.setEmail(request.email());
         user.setPassword(passwordEncoder.encode(request.password()));
         user.setName(request.name());
         user.setRole(request.userRole() != null ? request.userRole() : UserRole.USER);
-        user.setSituation(UserSituation.PENDING);
-
-        User savedUser = userRepository.save(user);
-
         // Set user as verified directly (email verification disabled)
-        savedUser.setSituation(UserSituation.VERIFIED);
-        userRepository.save(savedUser);
+        user.setSituation(UserSituation.VERIFIED);
+
+        try {
+            userRepository.saveAndFlush(user);
+        } catch (DataIntegrityViolationException e) {
+            throw toAlreadyUsedException(e);
+        }
+        usernameAvailabilityService.recordTaken(user.getUsername(), user.getEmail());
     }
 
     public String verifyUser(String token) {
@@ -127,6 +138,7 @@ public class UserService implements UserDetailsService {
         passwordResetTokenRepository.deleteByToken(token);
     }
 
+    @Transactional(readOnly = true)
     public boolean validateResetToken(String token) {
         return passwordResetTokenRepository.findByToken(token)
                 .map(resetToken -> !resetToken.isExpired())
@@ -139,6 +151,16 @@ public class UserService implements UserDetailsService {
                 .orElseThrow(() -> new EntityNotFoundException("User not found with id: " + userId));
     }
 
+    // Public fields only: this backs the unauthenticated /api/user/batch
+    @Transactional(readOnly = true)
+    public BatchResponseDTO<UserSummaryDTO> getUserSummaries(List<String> ids) {
+        return BatchLookup.lookup(ids, cacheManager.getCache(CacheConfig.USERS), UserSummaryDTO.class,
+                misses -> userRepository.findAllById(misses).stream()
+                        .collect(Collectors.toMap(User::getUserId, user -> new UserSummaryDTO(
+                                user.getUserId(), user.getUsername(), user.getName(), user.getAvatar(), user.getRole()))));
+    }
+
+    @CacheEvict(cacheNames = CacheConfig.USERS, key = "#userId")
     public void updateUser(UUID userId, UserUpdateRequestDTO request) {
         User user = getUserById(userId);
 
@@ -148,6 +170,7 @@ public class UserService implements UserDetailsService {
                 throw new UsernameAlreadyUsedExcpetion("Username já está em uso.");
             }
             user.setUsername(request.username());
+            usernameAvailabilityService.recordTaken(request.username(), null);
         }
 
         if (request.name() != null) {
@@ -170,25 +193,47 @@ public class UserService implements UserDetailsService {
             user.setPassword(passwordEncoder.encode(request.password()));
         }
 
-        userRepository.save(user);
+        try {
+            userRepository.saveAndFlush(user);
+        } catch (DataIntegrityViolationException e) {
+            throw toAlreadyUsedException(e);
+        }
     }
 
+    private RuntimeException toAlreadyUsedException(DataIntegrityViolationException e) {
+        String detail = String.valueOf(e.getMostSpecificCause().getMessage());
+        if (detail.contains("uk_users_username")) {
+            return new UsernameAlreadyUsedExcpetion("Username já está em uso.");
+        }
+        if (detail.contains("uk_users_email")) {
+            return new EmailAlreadyUsedException("Email já está em uso.");
+        }
+        return e;
+    }
+
+    @CacheEvict(cacheNames = CacheConfig.USERS, key = "#userId")
     public void deleteUser(UUID userId) {
         User user = getUserById(userId);
+        if (user.getSituation() == UserSituation.DELETED) {
+            return;
+        }
 
         // Delete related entities
         userVerifiedRepository.findByUser(user).ifPresent(userVerifiedRepository::delete);
         passwordResetTokenRepository.deleteByUser(user);
 
-        userRepository.delete(user);
+        // Products, reviews and the veterinarian profile are purged in the background
+        accountDeletionService.requestDeletion(user);
     }
 
+    @CacheEvict(cacheNames = CacheConfig.USERS, key = "#userId")
     public void becomeVeterinarian(UUID userId) {
         User user = getUserById(userId);
         user.setRole(UserRole.VETERINARIAN);
         userRepository.save(user);
     }
 
+    @CacheEvict(cacheNames = CacheConfig.USERS, key = "#userId")
     public void becomeSeller(UUID userId) {
         User user = getUserById(userId);
         user.setRole(UserRole.SELLER);
@@ -0,0 +1,176 @@
+package com.cesar.kaiju.service;
+
+import com.cesar.kaiju.repository.UserRepository;
+import com.cesar.kaiju.util.BloomFilter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Answers signup-form availability checks from a Bloom filter of every taken username and email.
+ * Only a positive answer (a taken value or a false positive) is confirmed against the database.
+ * Each node holds its own filter, so registrations made on other nodes are pulled in by polling
+ * users.created_at; until the next poll a negative answer is "probably available". Usernames
+ * renamed on another node are picked up by the nightly rebuild. The unique constraints on the
+ * users table remain the source of truth at registration time.
+ */
+@Service
+public class UsernameAvailabilityService {
+
+    private static final Logger logger = LoggerFactory.getLogger(UsernameAvailabilityService.class);
+
+    private static final String USERNAME_PREFIX = "u:";
+    private static final String EMAIL_PREFIX = "e:";
+
+    private final UserRepository userRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final long minimumCapacity;
+    private final double falsePositiveRate;
+    private final long syncLookbackMs;
+
+    private volatile BloomFilter filter;
+    private volatile BloomFilter rebuilding;
+    private final AtomicLong insertions = new AtomicLong();
+    // Newest created_at loaded into the filter
+    private volatile Timestamp watermark;
+
+    public UsernameAvailabilityService(
+            UserRepository userRepository,
+            JdbcTemplate jdbcTemplate,
+            TransactionTemplate transactionTemplate,
+            @Value("${auth.availability.minimum-capacity:100000}") long minimumCapacity,
+            @Value("${auth.availability.false-positive-rate:0.01}") double falsePositiveRate,
+            @Value("${auth.availability.sync-lookback-ms:60000}") long syncLookbackMs) {
+        this.userRepository = userRepository;
+        // The driver only streams rows with a fetch size inside a transaction
+        this.jdbcTemplate = new JdbcTemplate(jdbcTemplate.getDataSource());
+        this.jdbcTemplate.setFetchSize(1000);
+        this.transactionTemplate = transactionTemplate;
+        this.minimumCapacity = minimumCapacity;
+        this.falsePositiveRate = falsePositiveRate;
+        this.syncLookbackMs = syncLookbackMs;
+    }
+
+    public boolean isUsernameAvailable(String username) {
+        BloomFilter current = filter;
+        if (current != null && !current.mightContain(USERNAME_PREFIX + normalize(username))) {
+            return true;
+        }
+        return !userRepository.existsByUsername(username);
+    }
+
+    public boolean isEmailAvailable(String email) {
+        BloomFilter current = filter;
+        if (current != null && !current.mightContain(EMAIL_PREFIX + normalize(email))) {
+            return true;
+        }
+        return !userRepository.existsByEmail(email);
+    }
+
+    public void recordTaken(String username, String email) {
+        // Written to the filter being rebuilt too, so a registration racing the rebuild scan is never lost
+        BloomFilter next = rebuilding;
+        if (next != null) {
+            put(next, username, email);
+        }
+        BloomFilter current = filter;
+        if (current == null) {
+            return;
+        }
+        put(current, username, email);
+        if (insertions.addAndGet(2) > current.getExpectedInsertions()) {
+            // Past its sizing the filter degrades towards always answering "maybe"; the next rebuild resizes it
+            logger.info("Username availability filter is over capacity, it will be rebuilt on the next run");
+        }
+    }
+
+    // Deleted accounts and renamed usernames stay in the filter until the next rebuild; that only costs an extra lookup
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "${auth.availability.rebuild-cron:0 30 4 * * *}", zone = "America/Sao_Paulo")
+    public void rebuild() {
+        Long userCount = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM users", Long.class);
+        long capacity = Math.max(minimumCapacity, (userCount != null ? userCount : 0L) * 4);
+        BloomFilter rebuilt = new BloomFilter(capacity, falsePositiveRate);
+        rebuilding = rebuilt;
+
+        AtomicLong loaded = new AtomicLong();
+        AtomicReference<Timestamp> newest = new AtomicReference<>(new Timestamp(0L));
+        try {
+            transactionTemplate.executeWithoutResult(status -> jdbcTemplate.query(
+                    "SELECT username, email, created_at FROM users", resultSet -> {
+                        put(rebuilt, resultSet.getString(1), resultSet.getString(2));
+                        loaded.addAndGet(2);
+                        advance(newest, resultSet.getTimestamp(3));
+                    }));
+            insertions.set(loaded.get());
+            watermark = newest.get();
+            filter = rebuilt;
+        } finally {
+            rebuilding = null;
+        }
+        logger.info("Loaded {} usernames and emails into the availability filter", loaded.get() / 2);
+    }
+
+    /**
+     * Adds the users registered since the last rebuild or poll, wherever they registered. created_at
+     * is stamped by the registering node's clock and a row may commit after a later one, so every poll
+     * re-reads a lookback window; putting a value twice leaves the filter unchanged.
+     */
+    @Scheduled(fixedDelayString = "${auth.availability.sync-interval-ms:5000}")
+    public void syncRecentRegistrations() {
+        Timestamp since = watermark;
+        if (filter == null || since == null) {
+            return;
+        }
+        AtomicReference<Timestamp> newest = new AtomicReference<>(since);
+        jdbcTemplate.query("SELECT username, email, created_at FROM users WHERE created_at > ?", resultSet -> {
+            String username = resultSet.getString(1);
+            String email = resultSet.getString(2);
+            BloomFilter next = rebuilding;
+            if (next != null) {
+                put(next, username, email);
+            }
+            put(filter, username, email);
+            Timestamp createdAt = resultSet.getTimestamp(3);
+            if (createdAt.after(since)) {
+                insertions.addAndGet(2);
+            }
+            advance(newest, createdAt);
+        }, new Timestamp(since.getTime() - syncLookbackMs));
+        // A rebuild that finished meanwhile has already set a newer watermark
+        if (watermark == since) {
+            watermark = newest.get();
+        }
+    }
+
+    private static void advance(AtomicReference<Timestamp> newest, Timestamp createdAt) {
+        if (createdAt != null && createdAt.after(newest.get())) {
+            newest.set(createdAt);
+        }
+    }
+
+    private static void put(BloomFilter target, String username, String email) {
+        if (username != null) {
+            target.put(USERNAME_PREFIX + normalize(username));
+        }
+        if (email != null) {
+            target.put(EMAIL_PREFIX + normalize(email));
+        }
+    }
+
+    private static String normalize(String value) {
+        return value.trim().toLowerCase(Locale.ROOT);
+    }
+}
@@ -1,32 +1,67 @@
 package com.cesar.kaiju.service;
 
+import com.cesar.kaiju.config.CacheConfig;
+import com.cesar.kaiju.dto.BatchResponseDTO;
+import com.cesar.kaiju.dto.CityResponseDTO;
+import com.cesar.kaiju.dto.StateResponseDTO;
+import com.cesar.kaiju.dto.VeterinarianCardDTO;
 import com.cesar.kaiju.dto.VeterinarianRequestDTO;
 import com.cesar.kaiju.dto.VeterinarianResponseDTO;
+import com.cesar.kaiju.enums.NotificationType;
 import com.cesar.kaiju.enums.VeterinarianSpecialization;
 import com.cesar.kaiju.model.User;
 import com.cesar.kaiju.model.Veterinarian;
 import com.cesar.kaiju.repository.UserRepository;
 import com.cesar.kaiju.repository.VeterinarianRepository;
+import com.cesar.kaiju.util.LocationGazetteer;
 import jakarta.persistence.EntityNotFoundException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.security.core.context.SecurityContextHolder;
+import io.micrometer.core.annotation.Timed;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 import java.util.stream.Collectors;
 
 @Service
 @Transactional
+@Timed("kaiju.service.veterinarians")
 public class VeterinarianService {
 
+    private static final double KM_PER_DEGREE = 111.32;
+
     private final VeterinarianRepository veterinarianRepository;
+    private final LocationService locationService;
+    private final LocationGazetteer locationGazetteer;
+    private final ApplicationEventPublisher eventPublisher;
+    private final CacheManager cacheManager;
+
+    @Value("${app.frontend-url:https://kaiju-xi.vercel.app}")
+    private String frontendUrl;
 
-    public VeterinarianService(VeterinarianRepository veterinarianRepository, UserRepository userRepository) {
+    public VeterinarianService(
+            VeterinarianRepository veterinarianRepository,
+            UserRepository userRepository,
+            LocationService locationService,
+            LocationGazetteer locationGazetteer,
+            ApplicationEventPublisher eventPublisher,
+            CacheManager cacheManager) {
         this.veterinarianRepository = veterinarianRepository;
+        this.locationService = locationService;
+        this.locationGazetteer = locationGazetteer;
+        this.eventPublisher = eventPublisher;
+        this.cacheManager = cacheManager;
     }
 
     public VeterinarianResponseDTO createVeterinarian(VeterinarianRequestDTO request) {
@@ -47,6 +82,25 @@ public class VeterinarianService {
         return getVeterinarianResponseDTO(request, veterinarian);
     }
 
+    // Patients nearby hear of a veterinarian once the license is checked, not when the profile is created
+    @CacheEvict(cacheNames = CacheConfig.VETERINARIANS, key = "#id")
+    public VeterinarianResponseDTO setVerified(UUID id, boolean verified) {
+        Veterinarian veterinarian = veterinarianRepository.findById(id)
+                .orElseThrow(() -> new EntityNotFoundException("Veterinarian not found with id: " + id));
+        boolean newlyVerified = verified && !Boolean.TRUE.equals(veterinarian.getIsVerified());
+        veterinarian.setIsVerified(verified);
+        Veterinarian savedVet = veterinarianRepository.save(veterinarian);
+
+        if (newlyVerified && savedVet.getCityId() != null) {
+            eventPublisher.publishEvent(new NotificationFanoutService.Request(
+                    NotificationType.VETERINARIAN_NEARBY, savedVet.getVeterinarianId(), savedVet.getUser().getUserId(),
+                    "Novo veterinário perto de você",
+                    savedVet.getFullName() + " começou a atender em " + savedVet.getCity() + ".",
+                    frontendUrl + "/veterinarians/" + savedVet.getVeterinarianId()));
+        }
+        return toResponseDTO(savedVet);
+    }
+
     private VeterinarianResponseDTO getVeterinarianResponseDTO(VeterinarianRequestDTO request, Veterinarian veterinarian) {
         veterinarian.setSpecializations(request.specializations());
         veterinarian.setBio(request.bio());
@@ -67,18 +121,27 @@ public class VeterinarianService {
         veterinarian.setIsAvailableForChat(request.isAvailableForChat());
         veterinarian.setAcceptsNewPatients(request.acceptsNewPatients());
         veterinarian.setConsultationFee(request.consultationFee());
+        locationService.applyCanonicalLocation(veterinarian);
 
         Veterinarian savedVet = veterinarianRepository.save(veterinarian);
         return toResponseDTO(savedVet);
     }
 
     @Transactional(readOnly = true)
+    @Cacheable(cacheNames = CacheConfig.VETERINARIANS, key = "#id")
     public VeterinarianResponseDTO getVeterinarianById(UUID id) {
         Veterinarian veterinarian = veterinarianRepository.findById(id)
                 .orElseThrow(() -> new EntityNotFoundException("Veterinarian not found with id: " + id));
         return toResponseDTO(veterinarian);
     }
 
+    @Transactional(readOnly = true)
+    public BatchResponseDTO<VeterinarianResponseDTO> getVeterinariansByIds(List<String> ids) {
+        return BatchLookup.lookup(ids, cacheManager.getCache(CacheConfig.VETERINARIANS), VeterinarianResponseDTO.class,
+                misses -> veterinarianRepository.findByVeterinarianIdIn(misses).stream()
+                        .collect(Collectors.toMap(Veterinarian::getVeterinarianId, this::toResponseDTO)));
+    }
+
     @Transactional(readOnly = true)
     public Page<VeterinarianResponseDTO> getAllVeterinarians(Boolean verified, Boolean availableForChat, Pageable pageable) {
         Page<Veterinarian> veterinarians;
@@ -110,6 +173,9 @@ public class VeterinarianService {
         } else {
             if (specialty != null) {
                 veterinarians = veterinarianRepository.findBySpecialization(specialty, pageable);
+            } else if (hasText(city) || hasText(state)) {
+                veterinarians = findByLocation(city, state, pageable, veterinarianRepository::findByLocation,
+                        veterinarianRepository::findByLocationText);
             } else {
                 veterinarians = veterinarianRepository.findAll(pageable);
             }
@@ -118,6 +184,34 @@ public class VeterinarianService {
         return veterinarians.map(this::toResponseDTO);
     }
 
+    @Transactional(readOnly = true)
+    public Page<VeterinarianCardDTO> getVeterinarianCards(Boolean verified, Boolean availableForChat, Pageable pageable) {
+        if (verified != null) {
+            return veterinarianRepository.findCardsByIsVerified(verified, pageable);
+        } else if (availableForChat != null) {
+            return veterinarianRepository.findCardsByIsAvailableForChat(availableForChat, pageable);
+        }
+        return veterinarianRepository.findCards(pageable);
+    }
+
+    @Transactional(readOnly = true)
+    public Page<VeterinarianCardDTO> searchVeterinarianCards(
+            String query,
+            VeterinarianSpecialization specialty,
+            String city,
+            String state,
+            Pageable pageable) {
+        if (query != null && !query.trim().isEmpty()) {
+            return veterinarianRepository.searchCards(query.trim(), pageable);
+        } else if (specialty != null) {
+            return veterinarianRepository.findCardsBySpecialization(specialty, pageable);
+        } else if (hasText(city) || hasText(state)) {
+            return findByLocation(city, state, pageable, veterinarianRepository::findCardsByLocation,
+                    veterinarianRepository::findCardsByLocationText);
+        }
+        return veterinarianRepository.findCards(pageable);
+    }
+
     @Transactional(readOnly = true)
     public Page<VeterinarianResponseDTO> getBySpecialization(VeterinarianSpecialization specialization, Pageable pageable) {
         Page<Veterinarian> veterinarians = veterinarianRepository.findBySpecialization(specialization, pageable);
@@ -126,7 +220,11 @@ public class VeterinarianService {
 
     @Transactional(readOnly = true)
     public List<VeterinarianResponseDTO> getNearbyVeterinarians(Double latitude, Double longitude, Double radiusKm) {
-        List<Veterinarian> veterinarians = veterinarianRepository.findNearby(latitude, longitude, radiusKm);
+        double latitudeDelta = radiusKm / KM_PER_DEGREE;
+        double longitudeDelta = radiusKm / (KM_PER_DEGREE * Math.max(Math.cos(Math.toRadians(latitude)), 0.01));
+        List<Veterinarian> veterinarians = veterinarianRepository.findNearby(latitude, longitude, radiusKm,
+                latitude - latitudeDelta, latitude + latitudeDelta,
+                longitude - longitudeDelta, longitude + longitudeDelta);
         return veterinarians.stream()
                 .map(this::toResponseDTO)
                 .collect(Collectors.toList());
@@ -141,6 +239,12 @@ public class VeterinarianService {
                 .collect(Collectors.toList());
     }
 
+    @Transactional(readOnly = true)
+    public List<VeterinarianCardDTO> getTopRatedVeterinarianCards(int limit) {
+        return veterinarianRepository.findTopRatedCards(PageRequest.of(0, limit));
+    }
+
+    @CacheEvict(cacheNames = CacheConfig.VETERINARIANS, key = "#id")
     public VeterinarianResponseDTO updateVeterinarian(UUID id, VeterinarianRequestDTO request) {
         Veterinarian veterinarian = veterinarianRepository.findById(id)
                 .orElseThrow(() -> new EntityNotFoundException("Veterinarian not found with id: " + id));
@@ -154,6 +258,7 @@ public class VeterinarianService {
         return getVeterinarianResponseDTO(request, veterinarian);
     }
 
+    @CacheEvict(cacheNames = CacheConfig.VETERINARIANS, key = "#id")
     public void deleteVeterinarian(UUID id) {
         Veterinarian veterinarian = veterinarianRepository.findById(id)
                 .orElseThrow(() -> new EntityNotFoundException("Veterinarian not found with id: " + id));
@@ -166,13 +271,46 @@ public class VeterinarianService {
         veterinarianRepository.delete(veterinarian);
     }
 
-    private VeterinarianResponseDTO toResponseDTO(Veterinarian vet) {
+    // Location filters compare the canonical city id / state code, so spelling and accents do not matter.
+    // Names the gazetteer does not know fall back to the typed text, which is what unresolved profiles keep.
+    private <T> Page<T> findByLocation(String city, String state, Pageable pageable,
+                                       LocationQuery<T> query, TextLocationQuery<T> textQuery) {
+        if (hasText(city)) {
+            Optional<CityResponseDTO> resolvedCity = locationGazetteer.resolveCity(city, state);
+            if (resolvedCity.isEmpty()) {
+                return textQuery.find(city.trim(), hasText(state) ? state.trim() : null, pageable);
+            }
+            return query.find(resolvedCity.get().cityId(), null, pageable);
+        }
+
+        Optional<StateResponseDTO> resolvedState = locationGazetteer.resolveState(state);
+        if (resolvedState.isEmpty()) {
+            return textQuery.find(null, state.trim(), pageable);
+        }
+        return query.find(null, resolvedState.get().code(), pageable);
+    }
+
+    // The entity and card variants of the location query
+    private interface LocationQuery<T> {
+        Page<T> find(Integer cityId, String stateCode, Pageable pageable);
+    }
+
+    private interface TextLocationQuery<T> {
+        Page<T> find(String city, String state, Pageable pageable);
+    }
+
+    private boolean hasText(String value) {
+        return value != null && !value.trim().isEmpty();
+    }
+
+    // Package-private for the JMH benchmarks in src/jmh/java
+    VeterinarianResponseDTO toResponseDTO(Veterinarian vet) {
         return new VeterinarianResponseDTO(
                 vet.getVeterinarianId(),
                 vet.getUser().getUserId(),
                 vet.getFullName(),
                 vet.getLicenseNumber(),
-                vet.getSpecializations(),
+                copyOf(vet.getSpecializations()),
                 vet.getBio(),
                 vet.getContactEmail(),
                 vet.getPhoneNumber(),
@@ -185,8 +323,8 @@ public class VeterinarianService {
                 vet.getLatitude(),
                 vet.getLongitude(),
                 vet.getYearsOfExperience(),
-                vet.getCertifications(),
-                vet.getLanguagesSpoken(),
+                copyOf(vet.getCertifications()),
+                copyOf(vet.getLanguagesSpoken()),
                 vet.getProfilePicture(),
                 vet.getIsVerified(),
                 vet.getIsAvailableForChat(),
@@ -199,6 +337,11 @@ public class VeterinarianService {
         );
     }
 
+    // Without open-in-view the DTO is serialized after the session closes, so lazy collections are copied here
+    private static <T> List<T> copyOf(List<T> values) {
+        return values != null ? new ArrayList<>(values) : null;
+    }
+
     private User getCurrentUser() {
         return (User) SecurityContextHolder.getContext().getAuthentication().getPrincipal();
     }
@@ -0,0 +1,142 @@
+package com.cesar.kaiju.service;
+
+import com.cesar.kaiju.dto.PinnedThreadSiteDTO;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordingStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Listens to the JFR {@code jdk.VirtualThreadPinned} event: a virtual thread that blocks while holding a
+ * monitor (or inside native code) keeps its carrier thread, and enough of them starve the carrier pool.
+ * Events are grouped by the first application frame of the stack, logged once per site and exposed
+ * through the admin API. Only runs when virtual threads are enabled.
+ */
+@Service
+public class VirtualThreadPinningMonitor {
+
+    private static final Logger logger = LoggerFactory.getLogger(VirtualThreadPinningMonitor.class);
+
+    private static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+    private static final String APPLICATION_PACKAGE = "com.cesar.kaiju.";
+    private static final int MAX_SITES = 200;
+    private static final int MAX_FRAMES = 20;
+
+    private final ConcurrentHashMap<String, PinnedSite> sites = new ConcurrentHashMap<>();
+    private final Timer pinnedTimer;
+
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean virtualThreadsEnabled;
+
+    @Value("${virtual-threads.pinning.threshold-ms:20}")
+    private long thresholdMs;
+
+    private RecordingStream recording;
+
+    public VirtualThreadPinningMonitor(MeterRegistry registry) {
+        this.pinnedTimer = Timer.builder("kaiju.virtual-threads.pinned")
+                .description("Time virtual threads spent blocked while pinned to their carrier thread")
+                .register(registry);
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!virtualThreadsEnabled) {
+            return;
+        }
+        recording = new RecordingStream();
+        recording.enable(PINNED_EVENT).withThreshold(Duration.ofMillis(thresholdMs)).withStackTrace();
+        recording.onEvent(PINNED_EVENT, this::record);
+        recording.startAsync();
+        logger.info("Reporting virtual threads pinned for more than {} ms", thresholdMs);
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (recording != null) {
+            recording.close();
+        }
+    }
+
+    public List<PinnedThreadSiteDTO> getPinnedSites() {
+        return sites.entrySet().stream()
+                .map(entry -> entry.getValue().toDTO(entry.getKey()))
+                .sorted(Comparator.comparingLong(PinnedThreadSiteDTO::count).reversed())
+                .toList();
+    }
+
+    private void record(RecordedEvent event) {
+        Duration duration = event.getDuration();
+        pinnedTimer.record(duration);
+
+        List<String> frames = frames(event.getStackTrace());
+        String site = frames.stream()
+                .filter(frame -> frame.startsWith(APPLICATION_PACKAGE))
+                .findFirst()
+                .orElse(frames.isEmpty() ? "unknown" : frames.get(0));
+
+        PinnedSite pinned = sites.get(site);
+        if (pinned == null) {
+            if (sites.size() >= MAX_SITES) {
+                return;
+            }
+            pinned = sites.computeIfAbsent(site, key -> new PinnedSite(frames));
+            if (pinned.count.sum() == 0) {
+                logger.warn("Virtual thread pinned for {} ms at {}\n\t{}", duration.toMillis(), site,
+                        String.join("\n\t", frames));
+            }
+        }
+        pinned.count.increment();
+        pinned.maxDurationMs.accumulateAndGet(duration.toMillis(), Math::max);
+        pinned.lastSeenAt = event.getEndTime();
+    }
+
+    private List<String> frames(RecordedStackTrace stackTrace) {
+        List<String> frames = new ArrayList<>();
+        if (stackTrace == null) {
+            return frames;
+        }
+        for (RecordedFrame frame : stackTrace.getFrames()) {
+            if (frames.size() >= MAX_FRAMES) {
+                break;
+            }
+            if (frame.isJavaFrame()) {
+                frames.add(frame.getMethod().getType().getName() + "." + frame.getMethod().getName()
+                        + ":" + frame.getLineNumber());
+            }
+        }
+        return frames;
+    }
+
+    private static final class PinnedSite {
+        private final List<String> stackTrace;
+        private final LongAdder count = new LongAdder();
+        private final AtomicLong maxDurationMs = new AtomicLong();
+        private volatile Instant lastSeenAt;
+
+        private PinnedSite(List<String> stackTrace) {
+            this.stackTrace = List.copyOf(stackTrace);
+        }
+
+        private PinnedThreadSiteDTO toDTO(String site) {
+            return new PinnedThreadSiteDTO(site, count.sum(), maxDurationMs.get(), lastSeenAt, stackTrace);
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package com.cesar.kaiju.util;
 
 import io.jsonwebtoken.Jwts;
+import io.micrometer.core.annotation.Timed;
 import io.jsonwebtoken.SignatureAlgorithm;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
@@ -8,6 +9,7 @@ import org.springframework.stereotype.Component;
 import java.util.Date;
 
 @Component
+@Timed("kaiju.jwt")
 public class JwtUtil {
 
     @Value("${JWT_SECRET_KEY}")
@@ -0,0 +1,149 @@
+package com.cesar.kaiju.util;
+
+import com.cesar.kaiju.dto.CityResponseDTO;
+import com.cesar.kaiju.dto.StateResponseDTO;
+import jakarta.annotation.PostConstruct;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.text.Normalizer;
+import java.util.*;
+import java.util.function.Consumer;
+import java.util.regex.Pattern;
+import java.util.zip.CRC32;
+
+/**
+ * Offline gazetteer of Brazilian states and cities, loaded once at startup. City ids are IBGE
+ * municipality codes, so the files can be swapped for the complete IBGE listing without code changes.
+ */
+@Component
+public class LocationGazetteer {
+
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    private final Map<String, StateResponseDTO> statesByKey = new HashMap<>();
+    private final List<StateResponseDTO> states = new ArrayList<>();
+    private final Map<Integer, CityResponseDTO> citiesById = new HashMap<>();
+    private final Map<String, List<CityResponseDTO>> citiesByKey = new HashMap<>();
+    private final Map<String, List<CityResponseDTO>> citiesByState = new HashMap<>();
+    private final TreeMap<String, List<CityResponseDTO>> citiesByName = new TreeMap<>();
+    private final CRC32 checksum = new CRC32();
+    private String version;
+
+    @PostConstruct
+    public void load() throws IOException {
+        readLines("locations/br-states.csv", fields -> {
+            StateResponseDTO state = new StateResponseDTO(
+                    fields[0],
+                    Integer.parseInt(fields[1]),
+                    fields[2],
+                    Integer.parseInt(fields[3]),
+                    Double.parseDouble(fields[4]),
+                    Double.parseDouble(fields[5])
+            );
+            states.add(state);
+            statesByKey.put(normalize(state.code()), state);
+            statesByKey.put(normalize(state.name()), state);
+        });
+
+        readLines("locations/br-cities.csv", fields -> {
+            CityResponseDTO city = new CityResponseDTO(
+                    Integer.parseInt(fields[0]),
+                    fields[1],
+                    fields[2],
+                    Double.parseDouble(fields[3]),
+                    Double.parseDouble(fields[4])
+            );
+            citiesById.put(city.cityId(), city);
+            citiesByState.computeIfAbsent(city.stateCode(), code -> new ArrayList<>()).add(city);
+            citiesByName.computeIfAbsent(normalize(city.name()), name -> new ArrayList<>()).add(city);
+            citiesByKey.computeIfAbsent(normalize(city.name()), name -> new ArrayList<>()).add(city);
+            if (fields.length > 5 && !fields[5].isBlank()) {
+                for (String alias : fields[5].split("\\|")) {
+                    citiesByKey.computeIfAbsent(normalize(alias), name -> new ArrayList<>()).add(city);
+                }
+            }
+        });
+
+        citiesByState.values().forEach(cities -> cities.sort(Comparator.comparing(CityResponseDTO::name)));
+        version = Long.toHexString(checksum.getValue());
+    }
+
+    /**
+     * Checksum of the loaded files. Profiles that did not resolve are marked with it, so they are
+     * only retried once the files change.
+     */
+    public String getVersion() {
+        return version;
+    }
+
+    public static String normalize(String value) {
+        if (value == null) {
+            return "";
+        }
+        String stripped = DIACRITICS.matcher(Normalizer.normalize(value, Normalizer.Form.NFD)).replaceAll("");
+        return WHITESPACE.matcher(stripped.toLowerCase(Locale.ROOT).trim()).replaceAll(" ");
+    }
+
+    public List<StateResponseDTO> getStates() {
+        return Collections.unmodifiableList(states);
+    }
+
+    public Optional<StateResponseDTO> resolveState(String value) {
+        return Optional.ofNullable(statesByKey.get(normalize(value)));
+    }
+
+    public Optional<CityResponseDTO> getCity(Integer cityId) {
+        return Optional.ofNullable(citiesById.get(cityId));
+    }
+
+    public List<CityResponseDTO> getCities(String stateCode) {
+        return citiesByState.getOrDefault(stateCode, List.of());
+    }
+
+    public Optional<CityResponseDTO> resolveCity(String city, String state) {
+        Optional<StateResponseDTO> resolvedState = resolveState(state);
+        List<CityResponseDTO> candidates = citiesByKey.getOrDefault(normalize(city), List.of());
+
+        if (candidates.isEmpty()) {
+            // Free-text city fields often hold the state instead ("SP"); use its capital
+            return resolveState(city).map(StateResponseDTO::capitalCityId).map(citiesById::get);
+        }
+        if (resolvedState.isPresent()) {
+            String stateCode = resolvedState.get().code();
+            return candidates.stream().filter(candidate -> candidate.stateCode().equals(stateCode)).findFirst();
+        }
+        return candidates.size() == 1 ? Optional.of(candidates.get(0)) : Optional.empty();
+    }
+
+    public List<CityResponseDTO> searchCities(String prefix, int limit) {
+        String key = normalize(prefix);
+        List<CityResponseDTO> result = new ArrayList<>();
+        for (Map.Entry<String, List<CityResponseDTO>> entry : citiesByName.tailMap(key, true).entrySet()) {
+            if (result.size() >= limit || !entry.getKey().startsWith(key)) {
+                break;
+            }
+            entry.getValue().stream().limit(limit - result.size()).forEach(result::add);
+        }
+        return result;
+    }
+
+    private void readLines(String path, Consumer<String[]> consumer) throws IOException {
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(new ClassPathResource(path).getInputStream(), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank() || line.startsWith("#")) {
+                    continue;
+                }
+                checksum.update(line.getBytes(StandardCharsets.UTF_8));
+                consumer.accept(line.split(";", -1));
+            }
+        }
+    }
+}
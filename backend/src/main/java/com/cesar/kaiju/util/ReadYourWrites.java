@@ -0,0 +1,25 @@
+package com.cesar.kaiju.util;
+
+/**
+ * Marks the current thread as belonging to a client that wrote recently; its read-only transactions
+ * go to the primary so it does not read its own write from a replica that has not replayed it yet.
+ */
+public final class ReadYourWrites {
+
+    private static final ThreadLocal<Boolean> PRIMARY_REQUIRED = new ThreadLocal<>();
+
+    private ReadYourWrites() {
+    }
+
+    public static void requirePrimary() {
+        PRIMARY_REQUIRED.set(Boolean.TRUE);
+    }
+
+    public static boolean isPrimaryRequired() {
+        return PRIMARY_REQUIRED.get() != null;
+    }
+
+    public static void clear() {
+        PRIMARY_REQUIRED.remove();
+    }
+}
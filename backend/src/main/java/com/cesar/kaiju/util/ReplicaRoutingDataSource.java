@@ -0,0 +1,118 @@
+package com.cesar.kaiju.util;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Target for read-only connections. Picks a replica round-robin among those whose replication lag is
+ * within the limit, and falls back to the primary when none is, or when the current client must read
+ * its own writes ({@link ReadYourWrites}). Lag is refreshed by {@link #checkLag()}.
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+    public static final String PRIMARY = "primary";
+
+    private static final Logger logger = LoggerFactory.getLogger(ReplicaRoutingDataSource.class);
+
+    // 0 on a primary or a replica that has replayed everything it received
+    private static final String LAG_SQL =
+            "SELECT CASE WHEN NOT pg_is_in_recovery() OR pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0 " +
+            "ELSE COALESCE(EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()), 0) END";
+
+    private final List<Replica> replicas = new ArrayList<>();
+    private final double maxLagSeconds;
+    private final AtomicInteger next = new AtomicInteger();
+    private final Map<String, Counter> routed = new HashMap<>();
+
+    public ReplicaRoutingDataSource(DataSource primary, Map<String, DataSource> replicaPools, Duration maxLag,
+                                    MeterRegistry registry) {
+        this.maxLagSeconds = maxLag.toMillis() / 1000.0;
+
+        Map<Object, Object> targets = new LinkedHashMap<>();
+        targets.put(PRIMARY, primary);
+        routed.put(PRIMARY, routedCounter(registry, PRIMARY));
+        replicaPools.forEach((name, dataSource) -> {
+            Replica replica = new Replica(name, new JdbcTemplate(dataSource));
+            replicas.add(replica);
+            targets.put(name, dataSource);
+            routed.put(name, routedCounter(registry, name));
+            Gauge.builder("kaiju.datasource.replica.lag", replica, r -> r.lagSeconds)
+                    .description("Replication lag of the replica in seconds, -1 when unreachable")
+                    .baseUnit("seconds")
+                    .tag("pool", name)
+                    .register(registry);
+        });
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        String key = PRIMARY;
+        if (!ReadYourWrites.isPrimaryRequired() && !replicas.isEmpty()) {
+            int size = replicas.size();
+            int start = Math.floorMod(next.getAndIncrement(), size);
+            for (int i = 0; i < size; i++) {
+                Replica replica = replicas.get((start + i) % size);
+                if (replica.available) {
+                    key = replica.name;
+                    break;
+                }
+            }
+        }
+        routed.get(key).increment();
+        return key;
+    }
+
+    public void checkLag() {
+        for (Replica replica : replicas) {
+            boolean wasAvailable = replica.available;
+            try {
+                Double lag = replica.jdbcTemplate.queryForObject(LAG_SQL, Double.class);
+                replica.lagSeconds = lag != null ? lag : 0;
+                replica.available = replica.lagSeconds <= maxLagSeconds;
+            } catch (RuntimeException e) {
+                replica.lagSeconds = -1;
+                replica.available = false;
+            }
+            if (wasAvailable != replica.available) {
+                logger.warn("Replica {} {} (lag {} s)", replica.name,
+                        replica.available ? "is back in rotation" : "removed from rotation", replica.lagSeconds);
+            }
+        }
+    }
+
+    private static Counter routedCounter(MeterRegistry registry, String target) {
+        return Counter.builder("kaiju.datasource.routed")
+                .description("Read-only connections handed out, by target pool")
+                .tag("pool", target)
+                .register(registry);
+    }
+
+    private static final class Replica {
+        private final String name;
+        private final JdbcTemplate jdbcTemplate;
+        // Out of rotation until the first lag check succeeds
+        private volatile boolean available;
+        private volatile double lagSeconds = -1;
+
+        private Replica(String name, JdbcTemplate jdbcTemplate) {
+            this.name = name;
+            this.jdbcTemplate = jdbcTemplate;
+        }
+    }
+}
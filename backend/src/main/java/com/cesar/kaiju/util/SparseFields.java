@@ -0,0 +1,61 @@
+package com.cesar.kaiju.util;
+
+import com.fasterxml.jackson.databind.ser.FilterProvider;
+import com.fasterxml.jackson.databind.ser.impl.SimpleBeanPropertyFilter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
+import org.springframework.http.converter.json.MappingJacksonValue;
+
+import java.lang.reflect.RecordComponent;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Sparse fieldsets and card views for list endpoints ({@code ?fields=productId,name,price} or
+ * {@code ?view=card}). Response DTOs opt in with {@code @JsonFilter(SparseFields.FILTER)}; the
+ * application's ObjectMapper writes every property of them unless a request narrows it.
+ */
+public final class SparseFields {
+
+    public static final String FILTER = "fields";
+    public static final String CARD_VIEW = "card";
+
+    private static final Map<Class<?>, Set<String>> COMPONENTS = new ConcurrentHashMap<>();
+
+    private SparseFields() {
+    }
+
+    // Installed on every ObjectMapper that writes the filtered DTOs
+    public static FilterProvider serializeAll() {
+        return new SimpleFilterProvider().setDefaultFilter(SimpleBeanPropertyFilter.serializeAll());
+    }
+
+    /**
+     * Whether a listing can be served from the card projection: either the client asked for it, or
+     * every requested field is one of the card's, so the wider row would only be filtered away.
+     */
+    public static boolean useCard(String view, Set<String> fields, Class<? extends Record> card) {
+        if (CARD_VIEW.equalsIgnoreCase(view)) {
+            return true;
+        }
+        return fields != null && !fields.isEmpty() && components(card).containsAll(fields);
+    }
+
+    // Unknown names are ignored, as they would be by a client reading the full object
+    public static MappingJacksonValue select(Object body, Set<String> fields) {
+        MappingJacksonValue value = new MappingJacksonValue(body);
+        if (fields != null && !fields.isEmpty()) {
+            value.setFilters(new SimpleFilterProvider()
+                    .addFilter(FILTER, SimpleBeanPropertyFilter.filterOutAllExcept(fields)));
+        }
+        return value;
+    }
+
+    private static Set<String> components(Class<? extends Record> type) {
+        return COMPONENTS.computeIfAbsent(type, t -> Arrays.stream(t.getRecordComponents())
+                .map(RecordComponent::getName)
+                .collect(Collectors.toUnmodifiableSet()));
+    }
+}
@@ -0,0 +1,18 @@
+-- A veterinarian's slots may not overlap: neither two bookings nor a free slot over a booked one. Until
+-- now only identical start times were unique, so overlapping templates or a change of slot length could
+-- double-book. Free slots that overlap another slot are dropped first (the booked one, or the earlier
+-- free one, is kept); the next materialization fills the gaps without overlapping. btree_gist provides
+-- the gist operator class for the uuid equality and is trusted, like pg_trgm.
+CREATE EXTENSION IF NOT EXISTS btree_gist;
+
+DELETE FROM consultation_slots s
+WHERE s.status = 'AVAILABLE'
+  AND EXISTS (
+    SELECT 1 FROM consultation_slots o
+    WHERE o.veterinarian_id = s.veterinarian_id
+      AND o.slot_id <> s.slot_id
+      AND tstzrange(o.starts_at, o.ends_at) && tstzrange(s.starts_at, s.ends_at)
+      AND (o.status <> 'AVAILABLE' OR (o.starts_at, o.slot_id) < (s.starts_at, s.slot_id)));
+
+ALTER TABLE consultation_slots ADD CONSTRAINT ex_consultation_slots_vet_overlap
+    EXCLUDE USING gist (veterinarian_id WITH =, tstzrange(starts_at, ends_at) WITH &&);
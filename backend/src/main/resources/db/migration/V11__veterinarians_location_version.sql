@@ -0,0 +1,3 @@
+-- LocationService.backfillCanonicalLocations marks each profile it could not resolve with the
+-- LocationGazetteer version it tried, and skips it until the gazetteer files change.
+ALTER TABLE veterinarians ADD COLUMN location_version varchar(16);
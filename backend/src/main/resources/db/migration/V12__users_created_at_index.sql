@@ -0,0 +1,3 @@
+-- UsernameAvailabilityService.syncRecentRegistrations reads the latest registrations every few
+-- seconds on every node. Built CONCURRENTLY like V5, hence the .conf next to this file.
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_users_created_at ON users (created_at);
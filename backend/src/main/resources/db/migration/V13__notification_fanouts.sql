@@ -0,0 +1,23 @@
+-- NotificationFanoutService persists each fan-out in the transaction of the change that triggers it.
+-- last_user_id is the keyset cursor over the recipients and is advanced in the same transaction as each
+-- batch of notifications, so a fan-out cut short by a restart or a full executor resumes where it stopped.
+-- A fan-out whose dedupe_key is already taken is not created: that is the per-product, per-day throttle.
+CREATE TABLE notification_fanouts (
+    id               uuid                        NOT NULL,
+    type             varchar(40)                 NOT NULL,
+    subject_id       uuid                        NOT NULL,
+    excluded_user_id uuid,
+    title            varchar(255)                NOT NULL,
+    message          varchar(500)                NOT NULL,
+    link             varchar(255),
+    dedupe_key       varchar(100)                NOT NULL,
+    status           varchar(20)                 NOT NULL,
+    last_user_id     uuid,
+    delivered        bigint                      NOT NULL,
+    leased_until     timestamp(6) with time zone NOT NULL,
+    created_at       timestamp(6) with time zone NOT NULL,
+    finished_at      timestamp(6) with time zone,
+    CONSTRAINT notification_fanouts_pkey PRIMARY KEY (id),
+    CONSTRAINT uk_notification_fanouts_dedupe_key UNIQUE (dedupe_key)
+);
+CREATE INDEX idx_notification_fanouts_pending ON notification_fanouts (leased_until) WHERE status <> 'DONE';
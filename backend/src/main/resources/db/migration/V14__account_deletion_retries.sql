@@ -0,0 +1,7 @@
+-- AccountDeletionService retries FAILED jobs with exponential backoff: attempts counts the failed runs
+-- and next_attempt_at is when the job becomes runnable again.
+ALTER TABLE account_deletion_jobs ADD COLUMN attempts integer NOT NULL DEFAULT 0;
+ALTER TABLE account_deletion_jobs ADD COLUMN next_attempt_at timestamp(6) with time zone;
+
+-- Jobs that failed before retries existed are retried right away
+UPDATE account_deletion_jobs SET attempts = 1, next_attempt_at = CURRENT_TIMESTAMP WHERE status = 'FAILED';
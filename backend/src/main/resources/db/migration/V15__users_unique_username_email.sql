@@ -0,0 +1,22 @@
+-- Registration used to look the username and email up and then insert, so two concurrent sign-ups
+-- could store the same username or email, and findByUsername then fails for both accounts. UserService
+-- now relies on these constraints alone. Duplicates are resolved first: the account created first keeps
+-- the value (ties by user_id) and the others get one derived from their id, so no row is deleted and
+-- nothing that references them changes. The renamed accounts are listed in docs/migrations.md.
+-- New registrations are blocked until the constraints exist, so none can slip in between.
+LOCK TABLE users IN SHARE ROW EXCLUSIVE MODE;
+
+UPDATE users u
+SET username = left(u.username, 11) || '_' || left(replace(u.user_id::text, '-', ''), 8)
+FROM (SELECT user_id, row_number() OVER (PARTITION BY username ORDER BY created_at NULLS LAST, user_id) AS n
+      FROM users) ranked
+WHERE ranked.user_id = u.user_id AND ranked.n > 1;
+
+UPDATE users u
+SET email = 'duplicate+' || u.user_id || '@kaiju.invalid'
+FROM (SELECT user_id, row_number() OVER (PARTITION BY email ORDER BY created_at NULLS LAST, user_id) AS n
+      FROM users) ranked
+WHERE ranked.user_id = u.user_id AND ranked.n > 1;
+
+ALTER TABLE users ADD CONSTRAINT uk_users_username UNIQUE (username);
+ALTER TABLE users ADD CONSTRAINT uk_users_email UNIQUE (email);
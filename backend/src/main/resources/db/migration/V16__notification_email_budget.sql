@@ -0,0 +1,9 @@
+-- Shared pacing for fan-out emails. Every chunk reserves its emails by pushing next_free_at forward by
+-- count / emails-per-second and waits until the slot it got, so the rate holds for the whole cluster
+-- however many fan-outs run at once, on however many nodes.
+CREATE TABLE notification_email_budget (
+    id           integer                     NOT NULL,
+    next_free_at timestamp(6) with time zone NOT NULL,
+    CONSTRAINT notification_email_budget_pkey PRIMARY KEY (id)
+);
+INSERT INTO notification_email_budget (id, next_free_at) VALUES (1, CURRENT_TIMESTAMP);
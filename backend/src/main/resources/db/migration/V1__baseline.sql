@@ -0,0 +1,148 @@
+-- Schema as ddl-auto=update generated it at the last release before Flyway. Existing databases are
+-- baselined at this version (spring.flyway.baseline-on-migrate), so this script only runs on empty
+-- databases and must not gain anything that release did not have: changes go in V2 onwards. The
+-- constraint names are the ones Hibernate generated, so both kinds of database end up with the same names.
+
+CREATE TABLE users (
+    user_id     uuid         NOT NULL,
+    username    varchar(20)  NOT NULL,
+    name        varchar(255) NOT NULL,
+    password    varchar(255) NOT NULL,
+    email       varchar(255) NOT NULL,
+    role        varchar(255),
+    avatar      varchar(255),
+    header      varchar(255),
+    description varchar(255),
+    situation   varchar(255) NOT NULL,
+    created_at  date,
+    CONSTRAINT users_pkey PRIMARY KEY (user_id),
+    CONSTRAINT users_role_check CHECK (role IN ('USER', 'VETERINARIAN', 'SELLER', 'ADMIN')),
+    CONSTRAINT users_situation_check CHECK (situation IN ('VERIFIED', 'INACTIVE', 'PENDING', 'BLOCKED'))
+);
+
+CREATE TABLE user_verifications (
+    id                 uuid         NOT NULL,
+    user_id            uuid         NOT NULL,
+    verification_token varchar(255) NOT NULL,
+    created_at         timestamp(6) NOT NULL,
+    expires_at         timestamp(6) NOT NULL,
+    verified_at        timestamp(6),
+    CONSTRAINT user_verifications_pkey PRIMARY KEY (id),
+    CONSTRAINT uki59dql99dm2a2f71enh7rg70g UNIQUE (user_id),
+    CONSTRAINT ukjlnvuhppd89s33yp9wc5o797a UNIQUE (verification_token),
+    CONSTRAINT fk4q9dq815k45asu73lv4oyu0ex FOREIGN KEY (user_id) REFERENCES users (user_id)
+);
+
+CREATE TABLE password_reset_tokens (
+    id         uuid                        NOT NULL,
+    token      varchar(255)                NOT NULL,
+    user_id    uuid                        NOT NULL,
+    expiration timestamp(6) with time zone NOT NULL,
+    created_at timestamp(6),
+    CONSTRAINT password_reset_tokens_pkey PRIMARY KEY (id),
+    CONSTRAINT uk71lqwbwtklmljk3qlsugr1mig UNIQUE (token),
+    CONSTRAINT ukla2ts67g4oh2sreayswhox1i6 UNIQUE (user_id),
+    CONSTRAINT fkk3ndxg5xp6v7wd4gjyusp15gq FOREIGN KEY (user_id) REFERENCES users (user_id)
+);
+
+CREATE TABLE products (
+    product_id     uuid           NOT NULL,
+    name           varchar(200)   NOT NULL,
+    description    text,
+    price          numeric(38, 2) NOT NULL,
+    category       varchar(255)   NOT NULL,
+    status         varchar(255)   NOT NULL,
+    stock_quantity integer        NOT NULL,
+    seller_id      uuid           NOT NULL,
+    brand          varchar(100),
+    manufacturer   varchar(100),
+    rating         float(53),
+    review_count   integer,
+    created_at     timestamp(6)   NOT NULL,
+    updated_at     timestamp(6),
+    CONSTRAINT products_pkey PRIMARY KEY (product_id),
+    CONSTRAINT products_category_check CHECK (category IN
+        ('FOOD', 'HABITAT', 'HEATING', 'LIGHTING', 'DECORATION', 'HEALTHCARE', 'ACCESSORIES', 'BOOKS')),
+    CONSTRAINT products_status_check CHECK (status IN ('ACTIVE', 'INACTIVE', 'OUT_OF_STOCK', 'DISCONTINUED')),
+    CONSTRAINT fkbgw3lyxhsml3kfqnfr45o0vbj FOREIGN KEY (seller_id) REFERENCES users (user_id)
+);
+
+CREATE TABLE product_images (
+    product_id uuid NOT NULL,
+    image_url  varchar(255),
+    CONSTRAINT fkqnq71xsohugpqwf3c9gxmsuy FOREIGN KEY (product_id) REFERENCES products (product_id)
+);
+
+CREATE TABLE product_tags (
+    product_id uuid NOT NULL,
+    tag        varchar(255),
+    CONSTRAINT fk5rk6s19k3risy7q7wqdr41uss FOREIGN KEY (product_id) REFERENCES products (product_id)
+);
+
+CREATE TABLE product_reviews (
+    id         bigint GENERATED BY DEFAULT AS IDENTITY,
+    product_id uuid         NOT NULL,
+    user_id    uuid         NOT NULL,
+    rating     integer      NOT NULL,
+    comment    text         NOT NULL,
+    helpful    integer      NOT NULL,
+    created_at timestamp(6) NOT NULL,
+    CONSTRAINT product_reviews_pkey PRIMARY KEY (id),
+    CONSTRAINT product_reviews_rating_check CHECK (rating >= 1 AND rating <= 5),
+    CONSTRAINT fk35kxxqe2g9r4mww80w9e3tnw9 FOREIGN KEY (product_id) REFERENCES products (product_id),
+    CONSTRAINT fk58i39bhws2hss3tbcvdmrm60f FOREIGN KEY (user_id) REFERENCES users (user_id)
+);
+
+CREATE TABLE veterinarians (
+    veterinarian_id       uuid         NOT NULL,
+    user_id               uuid,
+    full_name             varchar(200) NOT NULL,
+    license_number        varchar(255) NOT NULL,
+    bio                   text,
+    contact_email         varchar(255) NOT NULL,
+    phone_number          varchar(20),
+    clinic_name           varchar(500),
+    clinic_address        text,
+    city                  varchar(100),
+    state                 varchar(100),
+    zip_code              varchar(20),
+    country               varchar(100),
+    latitude              float(53),
+    longitude             float(53),
+    years_of_experience   integer,
+    profile_picture       varchar(500),
+    is_verified           boolean      NOT NULL,
+    is_available_for_chat boolean      NOT NULL,
+    rating                float(53),
+    review_count          integer,
+    consultation_fee      float(53),
+    accepts_new_patients  boolean      NOT NULL,
+    created_at            timestamp(6) NOT NULL,
+    updated_at            timestamp(6),
+    CONSTRAINT veterinarians_pkey PRIMARY KEY (veterinarian_id),
+    CONSTRAINT uki71b2hki7hnf0mqimb8u8723i UNIQUE (user_id),
+    CONSTRAINT ukgytfdgjl0ugcl9ecjocnld6tw UNIQUE (license_number),
+    CONSTRAINT fkc0848sr3veps5xqnxchutpd3n FOREIGN KEY (user_id) REFERENCES users (user_id)
+);
+
+CREATE TABLE veterinarian_specializations (
+    veterinarian_id uuid NOT NULL,
+    specialization  varchar(255),
+    CONSTRAINT veterinarian_specializations_specialization_check CHECK (specialization IN
+        ('REPTILE_GENERAL', 'HERPETOLOGY', 'EXOTIC_ANIMALS', 'REPTILE_SURGERY', 'REPTILE_NUTRITION',
+         'REPTILE_EMERGENCY', 'REPTILE_DERMATOLOGY', 'REPTILE_BEHAVIOR', 'SNAKE_SPECIALIST', 'LIZARD_SPECIALIST',
+         'TURTLE_TORTOISE', 'CROCODILIAN', 'BREEDING_GENETICS')),
+    CONSTRAINT fkc1x8okplljo4ubwdkfhu072gt FOREIGN KEY (veterinarian_id) REFERENCES veterinarians (veterinarian_id)
+);
+
+CREATE TABLE veterinarian_certifications (
+    veterinarian_id uuid NOT NULL,
+    certification   varchar(255),
+    CONSTRAINT fkcumftcuew9hmcnkr3ht92oyjv FOREIGN KEY (veterinarian_id) REFERENCES veterinarians (veterinarian_id)
+);
+
+CREATE TABLE veterinarian_languages (
+    veterinarian_id uuid NOT NULL,
+    language        varchar(255),
+    CONSTRAINT fkmtvmfvenw81nuoo0w3xmu0hqw FOREIGN KEY (veterinarian_id) REFERENCES veterinarians (veterinarian_id)
+);
@@ -0,0 +1,154 @@
+-- Tables, columns and constraints added since the baseline release. Indexes on the baseline tables are
+-- built CONCURRENTLY in V5; the ones here are on tables created by this script, still empty.
+
+-- Enum columns become plain varchar: new enum values (UserSituation.DELETED, ...) do not need a migration
+ALTER TABLE users DROP CONSTRAINT IF EXISTS users_role_check;
+ALTER TABLE users DROP CONSTRAINT IF EXISTS users_situation_check;
+ALTER TABLE products DROP CONSTRAINT IF EXISTS products_category_check;
+ALTER TABLE products DROP CONSTRAINT IF EXISTS products_status_check;
+ALTER TABLE veterinarian_specializations DROP CONSTRAINT IF EXISTS veterinarian_specializations_specialization_check;
+
+-- The unique keys on username and email come in V15, after the duplicates are resolved
+ALTER TABLE users ADD COLUMN deleted_at timestamp(6);
+
+-- Canonical location, resolved against the IBGE gazetteer by LocationService
+ALTER TABLE veterinarians ADD COLUMN city_id integer;
+ALTER TABLE veterinarians ADD COLUMN state_code varchar(2);
+
+CREATE TABLE veterinarian_availabilities (
+    availability_id uuid         NOT NULL,
+    veterinarian_id uuid         NOT NULL,
+    day_of_week     varchar(255) NOT NULL,
+    start_time      time(6)      NOT NULL,
+    end_time        time(6)      NOT NULL,
+    slot_minutes    integer      NOT NULL,
+    CONSTRAINT veterinarian_availabilities_pkey PRIMARY KEY (availability_id),
+    CONSTRAINT fk_veterinarian_availabilities_vet FOREIGN KEY (veterinarian_id) REFERENCES veterinarians (veterinarian_id)
+);
+CREATE INDEX idx_veterinarian_availabilities_vet ON veterinarian_availabilities (veterinarian_id);
+
+CREATE TABLE consultation_slots (
+    slot_id         uuid                        NOT NULL,
+    veterinarian_id uuid                        NOT NULL,
+    starts_at       timestamp(6) with time zone NOT NULL,
+    ends_at         timestamp(6) with time zone NOT NULL,
+    status          varchar(255)                NOT NULL,
+    patient_id      uuid,
+    booked_at       timestamp(6) with time zone,
+    created_at      timestamp(6) with time zone NOT NULL,
+    CONSTRAINT consultation_slots_pkey PRIMARY KEY (slot_id),
+    CONSTRAINT uk_consultation_slots_vet_start UNIQUE (veterinarian_id, starts_at),
+    CONSTRAINT fk_consultation_slots_vet FOREIGN KEY (veterinarian_id) REFERENCES veterinarians (veterinarian_id),
+    CONSTRAINT fk_consultation_slots_patient FOREIGN KEY (patient_id) REFERENCES users (user_id)
+);
+CREATE INDEX idx_consultation_slots_patient ON consultation_slots (patient_id, starts_at);
+
+CREATE TABLE conversations (
+    conversation_id           uuid         NOT NULL,
+    user_id                   uuid         NOT NULL,
+    veterinarian_id           uuid,
+    veterinarian_user_id      uuid,
+    status                    varchar(255) NOT NULL,
+    requested_specialization  varchar(255),
+    subject                   varchar(200),
+    last_seq                  bigint       NOT NULL,
+    last_message_seq          bigint       NOT NULL,
+    last_message_preview      varchar(140),
+    last_message_at           timestamp(6),
+    user_unread_count         integer      NOT NULL,
+    veterinarian_unread_count integer      NOT NULL,
+    created_at                timestamp(6) NOT NULL,
+    updated_at                timestamp(6),
+    CONSTRAINT conversations_pkey PRIMARY KEY (conversation_id),
+    CONSTRAINT fk_conversations_user FOREIGN KEY (user_id) REFERENCES users (user_id),
+    CONSTRAINT fk_conversations_vet FOREIGN KEY (veterinarian_id) REFERENCES veterinarians (veterinarian_id),
+    CONSTRAINT fk_conversations_vet_user FOREIGN KEY (veterinarian_user_id) REFERENCES users (user_id)
+);
+-- In the inbox's order, so each branch of its UNION ALL reads the newest rows first and stops at the limit
+CREATE INDEX idx_conversations_user_last_message ON conversations (user_id, last_message_at DESC NULLS LAST);
+CREATE INDEX idx_conversations_vet_user_last_message ON conversations (veterinarian_user_id, last_message_at DESC NULLS LAST);
+CREATE INDEX idx_conversations_vet_status ON conversations (veterinarian_id, status);
+
+CREATE TABLE conversation_messages (
+    message_id      uuid         NOT NULL,
+    conversation_id uuid         NOT NULL,
+    sender_id       uuid         NOT NULL,
+    seq             bigint       NOT NULL,
+    type            varchar(255) NOT NULL,
+    content         text         NOT NULL,
+    created_at      timestamp(6) NOT NULL,
+    CONSTRAINT conversation_messages_pkey PRIMARY KEY (message_id),
+    CONSTRAINT uk_conversation_messages_seq UNIQUE (conversation_id, seq),
+    CONSTRAINT fk_conversation_messages_conversation FOREIGN KEY (conversation_id) REFERENCES conversations (conversation_id),
+    CONSTRAINT fk_conversation_messages_sender FOREIGN KEY (sender_id) REFERENCES users (user_id)
+);
+
+CREATE TABLE notifications (
+    notification_id uuid                        NOT NULL,
+    user_id         uuid                        NOT NULL,
+    type            varchar(40)                 NOT NULL,
+    title           varchar(255)                NOT NULL,
+    message         varchar(500)                NOT NULL,
+    link            varchar(255),
+    created_at      timestamp(6) with time zone NOT NULL,
+    read_at         timestamp(6) with time zone,
+    CONSTRAINT notifications_pkey PRIMARY KEY (notification_id),
+    CONSTRAINT fk_notifications_user FOREIGN KEY (user_id) REFERENCES users (user_id)
+);
+CREATE INDEX idx_notifications_user_created ON notifications (user_id, created_at);
+
+CREATE TABLE mail_outbox (
+    id              uuid                        NOT NULL,
+    recipient       varchar(255)                NOT NULL,
+    subject         varchar(255)                NOT NULL,
+    template_name   varchar(100)                NOT NULL,
+    variables       text,
+    body            text,
+    status          varchar(20)                 NOT NULL,
+    attempts        integer                     NOT NULL,
+    next_attempt_at timestamp(6) with time zone NOT NULL,
+    last_error      varchar(1000),
+    created_at      timestamp(6) with time zone NOT NULL,
+    sent_at         timestamp(6) with time zone,
+    CONSTRAINT mail_outbox_pkey PRIMARY KEY (id)
+);
+CREATE INDEX idx_mail_outbox_status_next_attempt ON mail_outbox (status, next_attempt_at);
+
+CREATE TABLE account_deletion_jobs (
+    job_id             uuid                        NOT NULL,
+    user_id            uuid                        NOT NULL,
+    status             varchar(20)                 NOT NULL,
+    current_step       varchar(40),
+    products_deleted   bigint                      NOT NULL,
+    reviews_deleted    bigint                      NOT NULL,
+    ratings_recomputed bigint                      NOT NULL,
+    other_rows_deleted bigint                      NOT NULL,
+    requested_at       timestamp(6) with time zone NOT NULL,
+    started_at         timestamp(6) with time zone,
+    finished_at        timestamp(6) with time zone,
+    last_error         varchar(1000),
+    CONSTRAINT account_deletion_jobs_pkey PRIMARY KEY (job_id),
+    CONSTRAINT fk_account_deletion_jobs_user FOREIGN KEY (user_id) REFERENCES users (user_id)
+);
+CREATE INDEX idx_account_deletion_jobs_status ON account_deletion_jobs (status, requested_at);
+
+CREATE TABLE job_leases (
+    job_name     varchar(100)                NOT NULL,
+    owner        varchar(100)                NOT NULL,
+    leased_until timestamp(6) with time zone NOT NULL,
+    acquired_at  timestamp(6) with time zone NOT NULL,
+    CONSTRAINT job_leases_pkey PRIMARY KEY (job_name)
+);
+
+CREATE TABLE job_runs (
+    id          bigint GENERATED BY DEFAULT AS IDENTITY,
+    job_name    varchar(100)                NOT NULL,
+    owner       varchar(100)                NOT NULL,
+    status      varchar(255)                NOT NULL,
+    started_at  timestamp(6) with time zone NOT NULL,
+    finished_at timestamp(6) with time zone NOT NULL,
+    duration_ms bigint                      NOT NULL,
+    error       varchar(1000),
+    CONSTRAINT job_runs_pkey PRIMARY KEY (id)
+);
+CREATE INDEX idx_job_runs_job_started ON job_runs (job_name, started_at);
@@ -0,0 +1,8 @@
+-- product_reviews.id moves from the IDENTITY column created by ddl-auto=update (V1) to the pooled sequence
+-- used by ProductReview (blocks of 50 ids, so inserts can be batched).
+CREATE SEQUENCE IF NOT EXISTS product_reviews_seq START WITH 1 INCREMENT BY 50;
+ALTER SEQUENCE product_reviews_seq INCREMENT BY 50;
+ALTER TABLE product_reviews ALTER COLUMN id DROP IDENTITY IF EXISTS;
+SELECT setval('product_reviews_seq', GREATEST(
+        (SELECT last_value FROM product_reviews_seq),
+        (SELECT COALESCE(MAX(id), 0) FROM product_reviews) + 50));
@@ -0,0 +1,51 @@
+-- Built CONCURRENTLY so the tables keep taking writes while the indexes are built. That cannot run
+-- inside a transaction, hence V5__performance_indexes.sql.conf. If a build fails PostgreSQL keeps an
+-- INVALID index with the same name, which IF NOT EXISTS would skip: drop it before rerunning.
+
+-- Declared on the entities: token expiry cleanup, review lookups by product and author, location search
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_user_verifications_expires_at ON user_verifications (expires_at);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_password_reset_tokens_expiration ON password_reset_tokens (expiration);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_product_reviews_product_user ON product_reviews (product_id, user_id);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_veterinarians_city_id ON veterinarians (city_id);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_veterinarians_state_code ON veterinarians (state_code);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_veterinarians_lat_lon ON veterinarians (latitude, longitude);
+
+-- Element collections are loaded by batch fetch (owner_id IN (...)) and deleted by owner
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_product_images_product ON product_images (product_id);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_product_tags_product ON product_tags (product_id);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_veterinarian_specializations_vet ON veterinarian_specializations (veterinarian_id);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_veterinarian_certifications_vet ON veterinarian_certifications (veterinarian_id);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_veterinarian_languages_vet ON veterinarian_languages (veterinarian_id);
+
+-- VeterinarianRepository.findBySpecialization starts from the specialization
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_veterinarian_specializations_specialization
+    ON veterinarian_specializations (specialization, veterinarian_id);
+
+-- Product listings, seller pages and account deletion
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_products_seller ON products (seller_id);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_products_category_status ON products (category, status);
+-- findLatestProducts and findTopRatedByCategory only read active products
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_products_active_created
+    ON products (created_at DESC) WHERE status = 'ACTIVE';
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_products_active_category_rating
+    ON products (category, rating DESC, review_count DESC) WHERE status = 'ACTIVE';
+
+-- searchProducts / searchVeterinarians: LOWER(col) LIKE '%termo%'
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_products_name_trgm ON products USING gin (lower(name) gin_trgm_ops);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_products_description_trgm ON products USING gin (lower(description) gin_trgm_ops);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_veterinarians_full_name_trgm ON veterinarians USING gin (lower(full_name) gin_trgm_ops);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_veterinarians_clinic_name_trgm ON veterinarians USING gin (lower(clinic_name) gin_trgm_ops);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_veterinarians_bio_trgm ON veterinarians USING gin (lower(bio) gin_trgm_ops);
+
+-- VeterinarianRepository.findTopRated
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_veterinarians_verified_rating
+    ON veterinarians (rating DESC, review_count DESC) WHERE is_verified;
+
+-- Reviews by author: ProductReviewRepository.deleteByUser and account deletion
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_product_reviews_user ON product_reviews (user_id);
+
+-- NotificationRepository.countUnread / markAllRead
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_notifications_user_unread ON notifications (user_id) WHERE read_at IS NULL;
+
+-- MailOutboxRepository.deleteSentBatch
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_mail_outbox_sent ON mail_outbox (sent_at) WHERE status = 'SENT';
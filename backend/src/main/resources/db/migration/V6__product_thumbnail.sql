@@ -0,0 +1,12 @@
+-- Card listings read one image per product from products instead of the product_images collection.
+-- Product keeps thumbnail_url equal to the first image whenever the images are replaced. The
+-- collection has no order column, so existing rows take the first one in physical order, which is the
+-- order Hibernate loads the list in.
+ALTER TABLE products ADD COLUMN thumbnail_url varchar(255);
+
+UPDATE products p
+SET thumbnail_url = first_image.image_url
+FROM (SELECT DISTINCT ON (product_id) product_id, image_url
+      FROM product_images
+      ORDER BY product_id, ctid) first_image
+WHERE first_image.product_id = p.product_id;
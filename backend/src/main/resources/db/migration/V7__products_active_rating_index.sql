@@ -0,0 +1,4 @@
+-- ProductRepository.findTopRated / findTopRatedCards (top-rated across categories, read by the home
+-- snapshot every few seconds). Built CONCURRENTLY like V5, hence the .conf next to this file.
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_products_active_rating
+    ON products (rating DESC, review_count DESC) WHERE status = 'ACTIVE';
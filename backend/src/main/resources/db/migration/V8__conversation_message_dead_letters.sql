@@ -0,0 +1,15 @@
+-- Chat messages the database rejected after they were delivered to the participants. MessageBatchWriter
+-- moves a row here when its own insert fails a constraint, so the table has no foreign keys.
+CREATE TABLE conversation_message_dead_letters (
+    message_id      uuid                        NOT NULL,
+    conversation_id uuid                        NOT NULL,
+    sender_id       uuid                        NOT NULL,
+    seq             bigint                      NOT NULL,
+    type            varchar(255)                NOT NULL,
+    content         text                        NOT NULL,
+    created_at      timestamp(6)                NOT NULL,
+    error           varchar(1000),
+    failed_at       timestamp(6) with time zone NOT NULL,
+    CONSTRAINT conversation_message_dead_letters_pkey PRIMARY KEY (message_id)
+);
+CREATE INDEX idx_conversation_message_dead_letters_conversation ON conversation_message_dead_letters (conversation_id, seq);
@@ -0,0 +1,4 @@
+-- ConversationRepository.lockOldestWaiting / existsByStatus: WAITING conversations are the routing
+-- queue, polled by every node. Built CONCURRENTLY like V5, hence the .conf next to this file.
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_conversations_waiting
+    ON conversations (created_at) WHERE status = 'WAITING';
@@ -0,0 +1,203 @@
+package com.cesar.kaiju.config;
+
+import com.cesar.kaiju.support.FakeSmtpConfig;
+import com.cesar.kaiju.util.ReplicaRoutingDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import jakarta.servlet.http.Cookie;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Replica routing against two embedded PostgreSQL servers, one as the primary and one as replica r1,
+ * plus a replica r2 nobody listens on. r1 is not a streaming standby: the recovery functions the lag
+ * check calls are shadowed in a schema that comes first on its search_path, reporting the delay
+ * stored in lagging.replay_delay.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@Import(FakeSmtpConfig.class)
+class ReplicaRoutingTest {
+
+    private static final String PRIMARY = ReplicaRoutingDataSource.PRIMARY;
+    private static final String REPLICA = "replica-r1";
+    private static final String UNREACHABLE = "replica-r2";
+
+    private static final EmbeddedPostgres primary = start();
+    private static final EmbeddedPostgres replica = startReplica();
+
+    @Autowired
+    private ReplicaRoutingConfig replicaRoutingConfig;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private MeterRegistry registry;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    private final JdbcTemplate replicaJdbc = new JdbcTemplate(replica.getPostgresDatabase());
+
+    @DynamicPropertySource
+    static void dataSources(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", () -> primary.getJdbcUrl("postgres", "postgres"));
+        registry.add("spring.datasource.username", () -> "postgres");
+        registry.add("spring.datasource.password", () -> "postgres");
+        registry.add("datasource.replicas.enabled", () -> "true");
+        registry.add("datasource.replicas.max-lag", () -> "5s");
+        // Only the explicit checkReplicaLag() calls below move replicas in and out of rotation
+        registry.add("datasource.replicas.lag-check-interval-ms", () -> "3600000");
+        registry.add("datasource.replicas.pools[0].name", () -> "r1");
+        registry.add("datasource.replicas.pools[0].url", () -> replica.getJdbcUrl("postgres", "postgres"));
+        registry.add("datasource.replicas.pools[0].username", () -> "postgres");
+        registry.add("datasource.replicas.pools[0].password", () -> "postgres");
+        registry.add("datasource.replicas.pools[0].maximum-pool-size", () -> "2");
+        registry.add("datasource.replicas.pools[1].name", () -> "r2");
+        registry.add("datasource.replicas.pools[1].url", () -> "jdbc:postgresql://localhost:1/postgres");
+        registry.add("datasource.replicas.pools[1].username", () -> "postgres");
+        registry.add("datasource.replicas.pools[1].password", () -> "postgres");
+        registry.add("datasource.replicas.pools[1].maximum-pool-size", () -> "2");
+    }
+
+    @AfterEach
+    void catchUp() {
+        setReplayDelay(0);
+        replicaRoutingConfig.checkReplicaLag();
+    }
+
+    @AfterAll
+    static void stop() throws IOException {
+        primary.close();
+        replica.close();
+    }
+
+    @Test
+    void readOnlyTransactionsSkipTheUnreachableReplica() {
+        double toReplica = routed(REPLICA);
+        double toPrimary = routed(PRIMARY);
+
+        for (int i = 0; i < 4; i++) {
+            assertThat(readServerPort()).isEqualTo(replica.getPort());
+        }
+
+        // Round-robin lands on r2 every other time, and has to move on to r1
+        assertThat(routed(REPLICA) - toReplica).isGreaterThanOrEqualTo(4);
+        assertThat(routed(UNREACHABLE)).isZero();
+        assertThat(routed(PRIMARY) - toPrimary).isZero();
+    }
+
+    @Test
+    void laggingReplicaFallsBackToThePrimary() {
+        setReplayDelay(30);
+        replicaRoutingConfig.checkReplicaLag();
+        double toReplica = routed(REPLICA);
+        double toPrimary = routed(PRIMARY);
+
+        assertThat(readServerPort()).isEqualTo(primary.getPort());
+
+        assertThat(routed(PRIMARY) - toPrimary).isGreaterThanOrEqualTo(1);
+        assertThat(routed(REPLICA) - toReplica).isZero();
+
+        setReplayDelay(0);
+        replicaRoutingConfig.checkReplicaLag();
+
+        assertThat(readServerPort()).isEqualTo(replica.getPort());
+    }
+
+    @Test
+    void requestAfterAWriteReadsFromThePrimary() throws Exception {
+        double toReplica = routed(REPLICA);
+        double toPrimary = routed(PRIMARY);
+
+        mockMvc.perform(get("/api/veterinarians").param("view", "card"))
+                .andExpect(status().isOk());
+
+        assertThat(routed(REPLICA) - toReplica).isGreaterThanOrEqualTo(1);
+        assertThat(routed(PRIMARY) - toPrimary).isZero();
+
+        toReplica = routed(REPLICA);
+        String windowEnd = Long.toString(System.currentTimeMillis() + 60_000);
+        mockMvc.perform(get("/api/veterinarians").param("view", "card")
+                        .cookie(new Cookie(ReadYourWritesFilter.COOKIE_NAME, windowEnd)))
+                .andExpect(status().isOk());
+
+        assertThat(routed(PRIMARY) - toPrimary).isGreaterThanOrEqualTo(1);
+        assertThat(routed(REPLICA) - toReplica).isZero();
+    }
+
+    private int readServerPort() {
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        return readOnly.execute(status -> new JdbcTemplate(dataSource)
+                .queryForObject("SELECT current_setting('port')::int", Integer.class));
+    }
+
+    private double routed(String pool) {
+        return registry.get("kaiju.datasource.routed").tag("pool", pool).counter().count();
+    }
+
+    private void setReplayDelay(int seconds) {
+        replicaJdbc.update("UPDATE lagging.replay_delay SET seconds = ?", seconds);
+    }
+
+    private static EmbeddedPostgres start() {
+        try {
+            return EmbeddedPostgres.start();
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static EmbeddedPostgres startReplica() {
+        EmbeddedPostgres postgres = start();
+        // Same lock setting as spring.flyway.postgresql.transactional-lock, or V5's concurrent index build waits on it
+        Flyway.configure()
+                .dataSource(postgres.getPostgresDatabase())
+                .configuration(Map.of("flyway.postgresql.transactional.lock", "false"))
+                .load()
+                .migrate();
+        JdbcTemplate jdbc = new JdbcTemplate(postgres.getPostgresDatabase());
+        jdbc.execute("""
+                CREATE SCHEMA lagging;
+                CREATE TABLE lagging.replay_delay (seconds int NOT NULL);
+                INSERT INTO lagging.replay_delay VALUES (0);
+                CREATE FUNCTION lagging.pg_is_in_recovery() RETURNS boolean
+                    LANGUAGE sql AS 'SELECT true';
+                CREATE FUNCTION lagging.pg_last_wal_receive_lsn() RETURNS pg_lsn
+                    LANGUAGE sql AS 'SELECT ''0/2''::pg_lsn';
+                CREATE FUNCTION lagging.pg_last_wal_replay_lsn() RETURNS pg_lsn
+                    LANGUAGE sql AS 'SELECT ''0/1''::pg_lsn';
+                CREATE FUNCTION lagging.pg_last_xact_replay_timestamp() RETURNS timestamptz
+                    LANGUAGE sql AS 'SELECT now() - make_interval(secs => seconds) FROM lagging.replay_delay';
+                ALTER DATABASE postgres SET search_path = lagging, pg_catalog, public;
+                """);
+        return postgres;
+    }
+}
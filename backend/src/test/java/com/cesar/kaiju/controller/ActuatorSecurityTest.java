@@ -0,0 +1,35 @@
+package com.cesar.kaiju.controller;
+
+import com.cesar.kaiju.support.IntegrationTest;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Metrics name endpoints, jobs and pool sizes; only the health probes are public
+@IntegrationTest
+class ActuatorSecurityTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void healthIsPublic() throws Exception {
+        mockMvc.perform(get("/actuator/health/liveness"))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void prometheusRequiresAdmin() throws Exception {
+        mockMvc.perform(get("/actuator/prometheus"))
+                .andExpect(status().is4xxClientError());
+        mockMvc.perform(get("/actuator/prometheus").with(user("someone").authorities(() -> "USER")))
+                .andExpect(status().isForbidden());
+        // Metric exporters are off in tests, so the admin side is checked on /actuator/metrics, same rule
+        mockMvc.perform(get("/actuator/metrics").with(user("admin").authorities(() -> "ADMIN")))
+                .andExpect(status().isOk());
+    }
+}
@@ -0,0 +1,133 @@
+package com.cesar.kaiju.controller;
+
+import com.cesar.kaiju.enums.ProductCategory;
+import com.cesar.kaiju.enums.ProductStatus;
+import com.cesar.kaiju.model.Product;
+import com.cesar.kaiju.model.User;
+import com.cesar.kaiju.repository.ProductRepository;
+import com.cesar.kaiju.repository.UserRepository;
+import com.cesar.kaiju.support.IntegrationTest;
+import com.cesar.kaiju.support.QueryBudget;
+import com.cesar.kaiju.support.TestData;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@IntegrationTest
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class ProductQueryBudgetTest {
+
+    private static final int PRODUCTS_PER_SELLER = 15;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    private UUID productId;
+    private List<UUID> batchIds;
+
+    // Two sellers, so a page spans several seller proxies and the collections of many products
+    @BeforeAll
+    void seed() {
+        List<Product> products = new ArrayList<>();
+        for (int s = 0; s < 2; s++) {
+            User seller = userRepository.save(TestData.newUser("qbseller" + s));
+            for (int i = 0; i < PRODUCTS_PER_SELLER; i++) {
+                Product product = new Product();
+                product.setName("Lâmpada UVB " + s + "-" + i);
+                product.setDescription("Lâmpada para terrário");
+                product.setPrice(new BigDecimal("89.90"));
+                product.setCategory(ProductCategory.LIGHTING);
+                product.setStatus(ProductStatus.ACTIVE);
+                product.setImages(List.of("https://img.kaiju.invalid/" + s + "-" + i + "-a.png",
+                        "https://img.kaiju.invalid/" + s + "-" + i + "-b.png"));
+                product.setStockQuantity(10);
+                product.setSeller(seller);
+                product.setTags(List.of("uvb", "iluminacao"));
+                products.add(product);
+            }
+        }
+        List<Product> saved = productRepository.saveAll(products);
+        productId = saved.get(0).getProductId();
+        batchIds = saved.stream().skip(1).limit(20).map(Product::getProductId).toList();
+    }
+
+    // page + count + sellers + images + tags
+    @Test
+    @QueryBudget(5)
+    void listProducts() throws Exception {
+        mockMvc.perform(get("/api/products").param("size", "20"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.length()").value(20));
+    }
+
+    // page + count + sellers + images + tags
+    @Test
+    @QueryBudget(5)
+    void searchProducts() throws Exception {
+        mockMvc.perform(get("/api/products/search").param("keyword", "uvb").param("size", "20"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.length()").value(20));
+    }
+
+    // page + count, straight from the products table
+    @Test
+    @QueryBudget(2)
+    void listProductCards() throws Exception {
+        mockMvc.perform(get("/api/products").param("view", "card").param("size", "20"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.length()").value(20))
+                .andExpect(jsonPath("$.content[0].thumbnailUrl").exists())
+                .andExpect(jsonPath("$.content[0].description").doesNotExist());
+    }
+
+    // Every requested field is on the card, so the card query serves it
+    @Test
+    @QueryBudget(2)
+    void listProductFields() throws Exception {
+        mockMvc.perform(get("/api/products").param("fields", "productId,name,price").param("size", "20"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].name").exists())
+                .andExpect(jsonPath("$.content[0].rating").doesNotExist());
+    }
+
+    // product + seller + images + tags
+    @Test
+    @QueryBudget(4)
+    void getProduct() throws Exception {
+        mockMvc.perform(get("/api/products/{id}", productId))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.images.length()").value(2));
+    }
+
+    // One IN query with the sellers + images + tags, whatever part of the batch is already cached
+    @Test
+    @QueryBudget(3)
+    void batchProducts() throws Exception {
+        List<String> ids = new ArrayList<>(batchIds.reversed().stream().map(UUID::toString).toList());
+        ids.add(UUID.randomUUID().toString());
+        ids.add("not-a-uuid");
+        mockMvc.perform(get("/api/products/batch").param("ids", String.join(",", ids)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items.length()").value(20))
+                .andExpect(jsonPath("$.items[0].productId").value(batchIds.getLast().toString()))
+                .andExpect(jsonPath("$.missing.length()").value(2))
+                .andExpect(jsonPath("$.missing[1]").value("not-a-uuid"));
+    }
+}
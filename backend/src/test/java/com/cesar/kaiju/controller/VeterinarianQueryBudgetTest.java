@@ -0,0 +1,119 @@
+package com.cesar.kaiju.controller;
+
+import com.cesar.kaiju.dto.CityResponseDTO;
+import com.cesar.kaiju.enums.VeterinarianSpecialization;
+import com.cesar.kaiju.model.User;
+import com.cesar.kaiju.model.Veterinarian;
+import com.cesar.kaiju.repository.UserRepository;
+import com.cesar.kaiju.repository.VeterinarianRepository;
+import com.cesar.kaiju.support.IntegrationTest;
+import com.cesar.kaiju.support.QueryBudget;
+import com.cesar.kaiju.support.TestData;
+import com.cesar.kaiju.util.LocationGazetteer;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@IntegrationTest
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class VeterinarianQueryBudgetTest {
+
+    private static final int VETERINARIANS = 25;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private VeterinarianRepository veterinarianRepository;
+
+    @Autowired
+    private LocationGazetteer locationGazetteer;
+
+    private UUID veterinarianId;
+
+    @BeforeAll
+    void seed() {
+        CityResponseDTO recife = locationGazetteer.resolveCity("Recife", "PE").orElseThrow();
+
+        List<Veterinarian> veterinarians = new ArrayList<>();
+        for (int i = 0; i < VETERINARIANS; i++) {
+            User user = userRepository.save(TestData.newUser("qbvet"));
+
+            Veterinarian vet = new Veterinarian();
+            vet.setUser(user);
+            vet.setFullName("Dra. Kaiju " + i);
+            vet.setLicenseNumber("CRMV-PE " + UUID.randomUUID().toString().substring(0, 8));
+            vet.setSpecializations(List.of(VeterinarianSpecialization.HERPETOLOGY, VeterinarianSpecialization.REPTILE_GENERAL));
+            vet.setContactEmail(user.getEmail());
+            vet.setCity(recife.name());
+            vet.setState(recife.stateCode());
+            vet.setCityId(recife.cityId());
+            vet.setStateCode(recife.stateCode());
+            vet.setLatitude(recife.latitude());
+            vet.setLongitude(recife.longitude());
+            vet.setCertifications(List.of("Medicina de Répteis"));
+            vet.setLanguagesSpoken(List.of("pt", "en"));
+            vet.setIsVerified(true);
+            veterinarians.add(vet);
+        }
+        veterinarianId = veterinarianRepository.saveAll(veterinarians).get(0).getVeterinarianId();
+    }
+
+    // page + count + users + specializations + certifications + languages
+    @Test
+    @QueryBudget(6)
+    void listVeterinarians() throws Exception {
+        mockMvc.perform(get("/api/veterinarians").param("size", "20"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.length()").value(20));
+    }
+
+    @Test
+    @QueryBudget(6)
+    void searchBySpecialty() throws Exception {
+        mockMvc.perform(get("/api/veterinarians/search").param("specialty", "HERPETOLOGY").param("size", "20"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.length()").value(20));
+    }
+
+    @Test
+    @QueryBudget(6)
+    void searchByCity() throws Exception {
+        mockMvc.perform(get("/api/veterinarians/search").param("city", "recife").param("size", "20"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.length()").value(20));
+    }
+
+    // page + count, straight from the veterinarians table
+    @Test
+    @QueryBudget(2)
+    void searchCardsByCity() throws Exception {
+        mockMvc.perform(get("/api/veterinarians/search").param("city", "recife").param("view", "card").param("size", "20"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.length()").value(20))
+                .andExpect(jsonPath("$.content[0].fullName").exists())
+                .andExpect(jsonPath("$.content[0].specializations").doesNotExist());
+    }
+
+    // veterinarian joined with its user + three collections
+    @Test
+    @QueryBudget(4)
+    void getVeterinarian() throws Exception {
+        mockMvc.perform(get("/api/veterinarians/{id}", veterinarianId))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.specializations.length()").value(2));
+    }
+}
@@ -0,0 +1,135 @@
+package com.cesar.kaiju.service;
+
+import com.cesar.kaiju.config.CacheConfig;
+import com.cesar.kaiju.dto.AccountDeletionJobResponseDTO;
+import com.cesar.kaiju.enums.AccountDeletionStatus;
+import com.cesar.kaiju.enums.ProductCategory;
+import com.cesar.kaiju.enums.ProductStatus;
+import com.cesar.kaiju.model.Product;
+import com.cesar.kaiju.model.User;
+import com.cesar.kaiju.repository.ProductRepository;
+import com.cesar.kaiju.repository.UserRepository;
+import com.cesar.kaiju.support.IntegrationTest;
+import com.cesar.kaiju.support.TestData;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.CacheManager;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+
+// processQueue also runs on its schedule; whichever run holds the lease does the work
+@IntegrationTest
+class AccountDeletionServiceTest {
+
+    @Autowired
+    private AccountDeletionService accountDeletionService;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void failedPurgeIsRetriedAndResumes() {
+        User user = userRepository.save(TestData.newUser("leaving"));
+        UUID productId = newProduct(user);
+        productService.getProductById(productId);
+        assertThat(cacheManager.getCache(CacheConfig.PRODUCTS).get(productId)).isNotNull();
+
+        // A row the purge does not know about keeps the product from being deleted
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS test_product_holds " +
+                "(product_id uuid NOT NULL REFERENCES products (product_id))");
+        jdbcTemplate.update("INSERT INTO test_product_holds (product_id) VALUES (?)", productId);
+
+        UUID jobId = accountDeletionService.requestDeletion(user).jobId();
+        await().atMost(Duration.ofSeconds(10)).until(() -> {
+            accountDeletionService.processQueue();
+            return accountDeletionService.getJob(jobId).status() == AccountDeletionStatus.FAILED;
+        });
+        AccountDeletionJobResponseDTO failed = accountDeletionService.getJob(jobId);
+        assertThat(failed.attempts()).isEqualTo(1);
+        assertThat(failed.lastError()).isNotNull();
+        assertThat(failed.nextAttemptAt()).isAfter(Instant.now());
+
+        // Not due yet: the next run leaves it alone
+        accountDeletionService.processQueue();
+        assertThat(accountDeletionService.getJob(jobId).status()).isEqualTo(AccountDeletionStatus.FAILED);
+
+        jdbcTemplate.update("DELETE FROM test_product_holds WHERE product_id = ?", productId);
+        jdbcTemplate.update("UPDATE account_deletion_jobs SET next_attempt_at = ? WHERE job_id = ?",
+                Timestamp.from(Instant.now().minusSeconds(1)), jobId);
+        await().atMost(Duration.ofSeconds(10)).until(() -> {
+            accountDeletionService.processQueue();
+            return accountDeletionService.getJob(jobId).status() == AccountDeletionStatus.COMPLETED;
+        });
+
+        assertThat(productRepository.existsById(productId)).isFalse();
+        assertThat(cacheManager.getCache(CacheConfig.PRODUCTS).get(productId)).isNull();
+        assertThat(accountDeletionService.getJob(jobId).productsDeleted()).isEqualTo(1L);
+    }
+
+    @Test
+    void jobIsAbandonedAfterMaxAttempts() {
+        User user = userRepository.save(TestData.newUser("stuck"));
+        UUID jobId = accountDeletionService.requestDeletion(user).jobId();
+        jdbcTemplate.update("UPDATE account_deletion_jobs SET status = 'FAILED', attempts = 5, next_attempt_at = ? " +
+                "WHERE job_id = ?", Timestamp.from(Instant.now().minusSeconds(60)), jobId);
+
+        accountDeletionService.processQueue();
+
+        assertThat(accountDeletionService.getJob(jobId).status()).isEqualTo(AccountDeletionStatus.FAILED);
+        assertThat(accountDeletionService.getJob(jobId).attempts()).isEqualTo(5);
+    }
+
+    @Test
+    void recomputedRatingsAreNotServedFromTheCache() {
+        User seller = userRepository.save(TestData.newUser("seller"));
+        User reviewer = userRepository.save(TestData.newUser("reviewer"));
+        UUID productId = newProduct(seller);
+        jdbcTemplate.update("INSERT INTO product_reviews (id, product_id, user_id, rating, comment, helpful, created_at) " +
+                "VALUES (nextval('product_reviews_seq'), ?, ?, 2, 'Esquentou pouco', 0, now())", productId, reviewer.getUserId());
+        jdbcTemplate.update("UPDATE products SET rating = 2, review_count = 1 WHERE product_id = ?", productId);
+        assertThat(productService.getProductById(productId).reviewCount()).isEqualTo(1);
+
+        UUID jobId = accountDeletionService.requestDeletion(reviewer).jobId();
+        await().atMost(Duration.ofSeconds(10)).until(() -> {
+            accountDeletionService.processQueue();
+            return accountDeletionService.getJob(jobId).status() == AccountDeletionStatus.COMPLETED;
+        });
+
+        assertThat(cacheManager.getCache(CacheConfig.PRODUCTS).get(productId)).isNull();
+        assertThat(productService.getProductById(productId).reviewCount()).isZero();
+    }
+
+    private UUID newProduct(User seller) {
+        Product product = new Product();
+        product.setName("Aquecedor " + seller.getUsername());
+        product.setPrice(new BigDecimal("59.90"));
+        product.setCategory(ProductCategory.HEATING);
+        product.setStatus(ProductStatus.ACTIVE);
+        product.setImages(List.of("https://img.kaiju.invalid/aquecedor.png"));
+        product.setStockQuantity(3);
+        product.setSeller(seller);
+        product.setTags(List.of("aquecimento"));
+        return productRepository.save(product).getProductId();
+    }
+}
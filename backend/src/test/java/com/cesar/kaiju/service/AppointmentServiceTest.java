@@ -0,0 +1,153 @@
+package com.cesar.kaiju.service;
+
+import com.cesar.kaiju.dto.AvailabilityRequestDTO;
+import com.cesar.kaiju.dto.ConsultationSlotResponseDTO;
+import com.cesar.kaiju.enums.SlotStatus;
+import com.cesar.kaiju.enums.VeterinarianSpecialization;
+import com.cesar.kaiju.model.User;
+import com.cesar.kaiju.model.Veterinarian;
+import com.cesar.kaiju.repository.UserRepository;
+import com.cesar.kaiju.repository.VeterinarianRepository;
+import com.cesar.kaiju.support.IntegrationTest;
+import com.cesar.kaiju.support.TestData;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@IntegrationTest
+class AppointmentServiceTest {
+
+    private static final ZoneId ZONE = ZoneId.of("America/Sao_Paulo");
+
+    @Autowired
+    private AppointmentService appointmentService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private VeterinarianRepository veterinarianRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final LocalDate tomorrow = LocalDate.now(ZONE).plusDays(1);
+
+    @AfterEach
+    void clearAuthentication() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void overlappingTemplatesAreRejected() {
+        User vetUser = newVeterinarianUser();
+
+        assertThatThrownBy(() -> as(vetUser, () -> appointmentService.setAvailability(List.of(
+                window(LocalTime.of(9, 0), LocalTime.of(12, 0), 30),
+                window(LocalTime.of(9, 15), LocalTime.of(10, 0), 15)))))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    // Booked 09:00-09:30, then 45-minute slots: the new 09:00-09:45 would overlap the booking and is skipped
+    @Test
+    void slotLengthChangeNeverOverlapsABooking() {
+        User vetUser = newVeterinarianUser();
+        UUID veterinarianId = veterinarianRepository.findByUser(vetUser).orElseThrow().getVeterinarianId();
+        as(vetUser, () -> appointmentService.setAvailability(List.of(window(LocalTime.of(9, 0), LocalTime.of(12, 0), 30))));
+        ConsultationSlotResponseDTO first = appointmentService.getAvailableSlots(veterinarianId, tomorrow).getFirst();
+        as(userRepository.save(TestData.newUser("patient")), () -> appointmentService.bookSlot(first.slotId()));
+
+        as(vetUser, () -> appointmentService.setAvailability(List.of(window(LocalTime.of(9, 0), LocalTime.of(12, 0), 45))));
+
+        List<ConsultationSlotResponseDTO> free = appointmentService.getAvailableSlots(veterinarianId, tomorrow).stream()
+                .filter(slot -> LocalDate.ofInstant(slot.startsAt(), ZONE).equals(tomorrow))
+                .toList();
+        assertThat(free).extracting(slot -> LocalTime.ofInstant(slot.startsAt(), ZONE))
+                .containsExactly(LocalTime.of(9, 45), LocalTime.of(10, 30), LocalTime.of(11, 15));
+        assertThat(free).allSatisfy(slot -> assertThat(slot.startsAt()).isAfterOrEqualTo(first.endsAt()));
+    }
+
+    @Test
+    void concurrentBookingsOfOneSlotLetExactlyOneThrough() throws Exception {
+        User vetUser = newVeterinarianUser();
+        UUID veterinarianId = veterinarianRepository.findByUser(vetUser).orElseThrow().getVeterinarianId();
+        as(vetUser, () -> appointmentService.setAvailability(List.of(window(LocalTime.of(14, 0), LocalTime.of(15, 0), 30))));
+        UUID slotId = appointmentService.getAvailableSlots(veterinarianId, tomorrow).getFirst().slotId();
+
+        CountDownLatch start = new CountDownLatch(1);
+        List<CompletableFuture<Boolean>> attempts = List.of(bookWhenReleased(slotId, start), bookWhenReleased(slotId, start));
+        start.countDown();
+
+        assertThat(attempts.stream().map(CompletableFuture::join)).containsExactlyInAnyOrder(true, false);
+        assertThat(jdbcTemplate.queryForObject("SELECT status FROM consultation_slots WHERE slot_id = ?", String.class, slotId))
+                .isEqualTo(SlotStatus.BOOKED.name());
+    }
+
+    @Test
+    void databaseRejectsOverlappingSlots() {
+        UUID veterinarianId = veterinarianRepository.findByUser(newVeterinarianUser()).orElseThrow().getVeterinarianId();
+        Instant startsAt = tomorrow.atTime(16, 0).atZone(ZONE).toInstant();
+        insertSlot(veterinarianId, startsAt, startsAt.plusSeconds(1800));
+
+        assertThatThrownBy(() -> insertSlot(veterinarianId, startsAt.plusSeconds(900), startsAt.plusSeconds(2700)))
+                .isInstanceOf(DataIntegrityViolationException.class);
+    }
+
+    private CompletableFuture<Boolean> bookWhenReleased(UUID slotId, CountDownLatch start) {
+        User patient = userRepository.save(TestData.newUser("patient"));
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                start.await();
+                as(patient, () -> appointmentService.bookSlot(slotId));
+                return true;
+            } catch (IllegalStateException e) {
+                return false;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException(e);
+            } finally {
+                SecurityContextHolder.clearContext();
+            }
+        });
+    }
+
+    private void insertSlot(UUID veterinarianId, Instant startsAt, Instant endsAt) {
+        jdbcTemplate.update("INSERT INTO consultation_slots (slot_id, veterinarian_id, starts_at, ends_at, status, created_at) " +
+                        "VALUES (?, ?, ?, ?, 'AVAILABLE', now())",
+                UUID.randomUUID(), veterinarianId, Timestamp.from(startsAt), Timestamp.from(endsAt));
+    }
+
+    private AvailabilityRequestDTO window(LocalTime start, LocalTime end, int slotMinutes) {
+        return new AvailabilityRequestDTO(tomorrow.getDayOfWeek(), start, end, slotMinutes);
+    }
+
+    private User newVeterinarianUser() {
+        User user = userRepository.save(TestData.newUser("agenda"));
+        veterinarianRepository.save(TestData.newVeterinarian(user, VeterinarianSpecialization.REPTILE_GENERAL));
+        return user;
+    }
+
+    private static <T> T as(User user, Supplier<T> action) {
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(user, null, user.getAuthorities()));
+        return action.get();
+    }
+}
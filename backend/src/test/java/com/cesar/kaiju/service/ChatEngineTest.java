@@ -0,0 +1,156 @@
+package com.cesar.kaiju.service;
+
+import com.cesar.kaiju.dto.MessageResponseDTO;
+import com.cesar.kaiju.enums.ConversationStatus;
+import com.cesar.kaiju.enums.MessageType;
+import com.cesar.kaiju.enums.UserRole;
+import com.cesar.kaiju.enums.VeterinarianSpecialization;
+import com.cesar.kaiju.model.Conversation;
+import com.cesar.kaiju.model.User;
+import com.cesar.kaiju.model.Veterinarian;
+import com.cesar.kaiju.repository.ConversationRepository;
+import com.cesar.kaiju.repository.UserRepository;
+import com.cesar.kaiju.repository.VeterinarianRepository;
+import com.cesar.kaiju.support.IntegrationTest;
+import com.cesar.kaiju.support.TestData;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.awaitility.Awaitility.await;
+
+@IntegrationTest
+class ChatEngineTest {
+
+    private static final int SENDERS = 8;
+    private static final int MESSAGES_PER_SENDER = 25;
+
+    @Autowired
+    private ChatEngine chatEngine;
+
+    @Autowired
+    private MessageBatchWriter messageBatchWriter;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ConversationRepository conversationRepository;
+
+    @Autowired
+    private VeterinarianRepository veterinarianRepository;
+
+    @Autowired
+    private ConversationActivityTracker activityTracker;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Test
+    void concurrentSendsGetGaplessIncreasingSeqs() throws Exception {
+        User user = userRepository.save(TestData.newUser("chat"));
+        UUID conversationId = conversationRepository.save(MessageBatchWriterTest.newConversation(user)).getConversationId();
+
+        List<List<Long>> perSender = new ArrayList<>();
+        try (ExecutorService executor = Executors.newFixedThreadPool(SENDERS)) {
+            List<Future<List<Long>>> futures = new ArrayList<>();
+            for (int s = 0; s < SENDERS; s++) {
+                futures.add(executor.submit(() -> {
+                    List<Long> seqs = new ArrayList<>();
+                    for (int i = 0; i < MESSAGES_PER_SENDER; i++) {
+                        seqs.add(chatEngine.send(conversationId, user, MessageType.TEXT, "oi " + i).seq());
+                    }
+                    return seqs;
+                }));
+            }
+            for (Future<List<Long>> future : futures) {
+                perSender.add(future.get());
+            }
+        }
+
+        long total = SENDERS * MESSAGES_PER_SENDER;
+        List<Long> expected = LongStream.rangeClosed(1, total).boxed().toList();
+        // Each sender sees its own messages in the order it sent them
+        perSender.forEach(seqs -> assertThat(seqs).isSorted());
+        assertThat(perSender.stream().flatMap(List::stream).sorted().toList()).isEqualTo(expected);
+        await().atMost(Duration.ofSeconds(10)).untilAsserted(() ->
+                assertThat(persistedSeqs(conversationId)).isEqualTo(expected));
+    }
+
+    // A second engine stands for another node: the vet is claimed there after this node loaded the channel
+    @Test
+    void nodesSharingAConversationAllocateDistinctSeqsAndSeeTheClaimingVet() {
+        User user = userRepository.save(TestData.newUser("node"));
+        User newVetUser = TestData.newUser("nodevet");
+        newVetUser.setRole(UserRole.VETERINARIAN);
+        User vetUser = userRepository.save(newVetUser);
+        Veterinarian veterinarian = veterinarianRepository.save(
+                TestData.newVeterinarian(vetUser, VeterinarianSpecialization.TURTLE_TORTOISE));
+        Conversation conversation = MessageBatchWriterTest.newConversation(user);
+        conversation.setStatus(ConversationStatus.WAITING);
+        UUID conversationId = conversationRepository.save(conversation).getConversationId();
+        List<String> delivered = new CopyOnWriteArrayList<>();
+        ChatEngine otherNode = otherNode(delivered);
+
+        MessageResponseDTO waiting = otherNode.send(conversationId, user, MessageType.TEXT, "alguem?");
+        transactionTemplate.executeWithoutResult(status ->
+                conversationRepository.assignVeterinarian(conversationId, veterinarian, vetUser));
+        chatEngine.assignVeterinarian(conversationId, vetUser.getUserId(), vetUser.getUsername());
+        MessageResponseDTO greeting = chatEngine.send(conversationId, vetUser, MessageType.TEXT, "oi, sou a vet");
+        MessageResponseDTO reply = otherNode.send(conversationId, vetUser, MessageType.TEXT, "pode mandar foto?");
+        MessageResponseDTO photo = otherNode.send(conversationId, user, MessageType.TEXT, "mandei");
+
+        assertThat(List.of(waiting.seq(), greeting.seq(), reply.seq(), photo.seq())).containsExactly(1L, 2L, 3L, 4L);
+        assertThat(delivered).filteredOn(destination -> destination.contains(vetUser.getUsername())).hasSize(2);
+        await().atMost(Duration.ofSeconds(10)).untilAsserted(() ->
+                assertThat(persistedSeqs(conversationId)).containsExactly(1L, 2L, 3L, 4L));
+    }
+
+    @Test
+    void conversationClosedThroughAnotherNodeRejectsSends() {
+        User user = userRepository.save(TestData.newUser("closed"));
+        UUID conversationId = conversationRepository.save(MessageBatchWriterTest.newConversation(user)).getConversationId();
+        chatEngine.send(conversationId, user, MessageType.TEXT, "antes");
+
+        jdbcTemplate.update("UPDATE conversations SET status = 'CLOSED' WHERE conversation_id = ?", conversationId);
+
+        assertThatThrownBy(() -> chatEngine.send(conversationId, user, MessageType.TEXT, "depois"))
+                .isInstanceOf(IllegalStateException.class);
+    }
+
+    private ChatEngine otherNode(List<String> delivered) {
+        SimpMessagingTemplate messagingTemplate = new SimpMessagingTemplate((message, timeout) -> {
+            delivered.add(SimpMessageHeaderAccessor.getDestination(message.getHeaders()));
+            return true;
+        });
+        return new ChatEngine(conversationRepository, messageBatchWriter, messagingTemplate, activityTracker,
+                jdbcTemplate, transactionManager);
+    }
+
+    private List<Long> persistedSeqs(UUID conversationId) {
+        return jdbcTemplate.queryForList(
+                "SELECT seq FROM conversation_messages WHERE conversation_id = ? ORDER BY seq", Long.class, conversationId);
+    }
+}
@@ -0,0 +1,114 @@
+package com.cesar.kaiju.service;
+
+import com.cesar.kaiju.dto.JobRunResponseDTO;
+import com.cesar.kaiju.enums.JobRunStatus;
+import com.cesar.kaiju.support.IntegrationTest;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Job names are random so every test starts without a lease
+@IntegrationTest
+class ClusterJobRunnerTest {
+
+    @Autowired
+    private ClusterJobRunner clusterJobRunner;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void concurrentTriggersRunTheJobOnce() throws Exception {
+        String job = newJobName();
+        AtomicInteger executions = new AtomicInteger();
+        CountDownLatch running = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        CompletableFuture<Boolean> first = CompletableFuture.supplyAsync(() ->
+                clusterJobRunner.run(job, Duration.ofSeconds(10), Duration.ZERO, () -> {
+                    executions.incrementAndGet();
+                    running.countDown();
+                    await(release);
+                }));
+        assertThat(running.await(5, TimeUnit.SECONDS)).isTrue();
+
+        boolean second = clusterJobRunner.run(job, Duration.ofSeconds(10), Duration.ZERO, executions::incrementAndGet);
+        release.countDown();
+
+        assertThat(first.get(10, TimeUnit.SECONDS)).isTrue();
+        assertThat(second).isFalse();
+        assertThat(executions).hasValue(1);
+    }
+
+    @Test
+    void leaseIsHeldForTheMinimumInterval() {
+        String held = newJobName();
+        assertThat(clusterJobRunner.run(held, Duration.ofSeconds(10), Duration.ofHours(1), () -> { })).isTrue();
+        assertThat(clusterJobRunner.run(held, Duration.ofSeconds(10), Duration.ofHours(1), () -> { })).isFalse();
+
+        String free = newJobName();
+        assertThat(clusterJobRunner.run(free, Duration.ofSeconds(10), Duration.ZERO, () -> { })).isTrue();
+        assertThat(clusterJobRunner.run(free, Duration.ofSeconds(10), Duration.ZERO, () -> { })).isTrue();
+    }
+
+    @Test
+    void expiredLeaseOfAnotherNodeIsTakenOver() {
+        String job = newJobName();
+        Timestamp past = Timestamp.from(Instant.now().minusSeconds(60));
+        jdbcTemplate.update("INSERT INTO job_leases (job_name, owner, leased_until, acquired_at) VALUES (?, 'dead-node', ?, ?)",
+                job, past, past);
+
+        assertThat(clusterJobRunner.run(job, Duration.ofSeconds(10), Duration.ZERO, () -> { })).isTrue();
+        assertThat(jdbcTemplate.queryForObject("SELECT owner FROM job_leases WHERE job_name = ?", String.class, job))
+                .isNotEqualTo("dead-node");
+    }
+
+    @Test
+    void runsAreRecordedWithTheirOutcome() {
+        String failing = newJobName();
+        clusterJobRunner.run(failing, Duration.ofSeconds(10), Duration.ZERO, () -> {
+            throw new IllegalStateException("boom");
+        });
+        String slow = newJobName();
+        clusterJobRunner.run(slow, Duration.ofMillis(200), Duration.ZERO, () -> {
+            try {
+                Thread.sleep(10_000);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+
+        List<JobRunResponseDTO> failedRuns = clusterJobRunner.getRecentRuns(failing, 10);
+        assertThat(failedRuns).singleElement().satisfies(run -> {
+            assertThat(run.status()).isEqualTo(JobRunStatus.FAILED);
+            assertThat(run.error()).contains("boom");
+        });
+        assertThat(clusterJobRunner.getRecentRuns(slow, 10)).singleElement()
+                .extracting(JobRunResponseDTO::status)
+                .isEqualTo(JobRunStatus.TIMED_OUT);
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static String newJobName() {
+        return "test-" + UUID.randomUUID();
+    }
+}
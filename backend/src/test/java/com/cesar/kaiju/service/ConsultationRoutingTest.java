@@ -0,0 +1,143 @@
+package com.cesar.kaiju.service;
+
+import com.cesar.kaiju.enums.ConversationStatus;
+import com.cesar.kaiju.enums.UserRole;
+import com.cesar.kaiju.enums.VeterinarianSpecialization;
+import com.cesar.kaiju.model.Conversation;
+import com.cesar.kaiju.model.User;
+import com.cesar.kaiju.model.Veterinarian;
+import com.cesar.kaiju.repository.ConversationRepository;
+import com.cesar.kaiju.repository.UserRepository;
+import com.cesar.kaiju.repository.VeterinarianRepository;
+import com.cesar.kaiju.support.IntegrationTest;
+import com.cesar.kaiju.support.TestData;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Routing state lives in the database: nothing here goes through ConversationService, as after a restart
+@IntegrationTest
+class ConsultationRoutingTest {
+
+    @Autowired
+    private ConsultationAssignmentService consultationAssignmentService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private VeterinarianRepository veterinarianRepository;
+
+    @Autowired
+    private ConversationRepository conversationRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final List<User> connected = new ArrayList<>();
+
+    @AfterEach
+    void disconnect() {
+        connected.forEach(consultationAssignmentService::veterinarianDisconnected);
+        connected.clear();
+    }
+
+    @Test
+    void connectingVeterinarianClaimsMatchingWaitingConsultation() {
+        UUID matching = waitingConversation(VeterinarianSpecialization.CROCODILIAN);
+        UUID otherSpecialty = waitingConversation(VeterinarianSpecialization.BREEDING_GENETICS);
+        User vetUser = newVeterinarianUser(VeterinarianSpecialization.CROCODILIAN);
+
+        connect(vetUser);
+
+        Veterinarian veterinarian = veterinarianRepository.findByUser(vetUser).orElseThrow();
+        assertThat(status(matching)).isEqualTo(ConversationStatus.OPEN.name());
+        assertThat(assignee(matching)).isEqualTo(veterinarian.getVeterinarianId());
+        assertThat(status(otherSpecialty)).isEqualTo(ConversationStatus.WAITING.name());
+    }
+
+    // SKIP LOCKED: two vets claiming at the same time never get the same consultation
+    @Test
+    void concurrentClaimsAssignEachConsultationOnce() {
+        List<UUID> waiting = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            waiting.add(waitingConversation(VeterinarianSpecialization.TURTLE_TORTOISE));
+        }
+        User first = newVeterinarianUser(VeterinarianSpecialization.TURTLE_TORTOISE);
+        User second = newVeterinarianUser(VeterinarianSpecialization.TURTLE_TORTOISE);
+
+        CompletableFuture.allOf(
+                CompletableFuture.runAsync(() -> connect(first)),
+                CompletableFuture.runAsync(() -> connect(second))).join();
+
+        Map<UUID, Long> perVeterinarian = waiting.stream()
+                .peek(id -> assertThat(status(id)).isEqualTo(ConversationStatus.OPEN.name()))
+                .collect(Collectors.groupingBy(this::assignee, Collectors.counting()));
+        assertThat(perVeterinarian.values()).allSatisfy(count -> assertThat(count).isLessThanOrEqualTo(5));
+        assertThat(perVeterinarian.values().stream().mapToLong(Long::longValue).sum()).isEqualTo(6);
+    }
+
+    // Conversations opened through other nodes never went through this node's router
+    @Test
+    void conversationsOpenedThroughOtherNodesCountTowardsTheLimit() {
+        User vetUser = newVeterinarianUser(VeterinarianSpecialization.REPTILE_DERMATOLOGY);
+        connect(vetUser);
+        Veterinarian veterinarian = veterinarianRepository.findByUser(vetUser).orElseThrow();
+        for (int i = 0; i < 5; i++) {
+            Conversation open = new Conversation();
+            open.setUser(userRepository.save(TestData.newUser("patient")));
+            open.setVeterinarian(veterinarian);
+            open.setVeterinarianUser(vetUser);
+            open.setStatus(ConversationStatus.OPEN);
+            conversationRepository.save(open);
+        }
+        UUID waiting = waitingConversation(VeterinarianSpecialization.REPTILE_DERMATOLOGY);
+
+        consultationAssignmentService.assignWaitingToIdleVeterinarians();
+
+        assertThat(status(waiting)).isEqualTo(ConversationStatus.WAITING.name());
+    }
+
+    private void connect(User vetUser) {
+        synchronized (connected) {
+            connected.add(vetUser);
+        }
+        consultationAssignmentService.veterinarianConnected(vetUser);
+    }
+
+    private User newVeterinarianUser(VeterinarianSpecialization specialization) {
+        User user = TestData.newUser("router");
+        user.setRole(UserRole.VETERINARIAN);
+        user = userRepository.save(user);
+        veterinarianRepository.save(TestData.newVeterinarian(user, specialization));
+        return user;
+    }
+
+    private UUID waitingConversation(VeterinarianSpecialization specialization) {
+        Conversation conversation = new Conversation();
+        conversation.setUser(userRepository.save(TestData.newUser("patient")));
+        conversation.setStatus(ConversationStatus.WAITING);
+        conversation.setRequestedSpecialization(specialization);
+        return conversationRepository.save(conversation).getConversationId();
+    }
+
+    private String status(UUID conversationId) {
+        return jdbcTemplate.queryForObject(
+                "SELECT status FROM conversations WHERE conversation_id = ?", String.class, conversationId);
+    }
+
+    private UUID assignee(UUID conversationId) {
+        return jdbcTemplate.queryForObject(
+                "SELECT veterinarian_id FROM conversations WHERE conversation_id = ?", UUID.class, conversationId);
+    }
+}
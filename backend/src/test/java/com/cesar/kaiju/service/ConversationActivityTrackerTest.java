@@ -0,0 +1,96 @@
+package com.cesar.kaiju.service;
+
+import com.cesar.kaiju.model.User;
+import com.cesar.kaiju.repository.ConversationRepository;
+import com.cesar.kaiju.repository.UserRepository;
+import com.cesar.kaiju.support.IntegrationTest;
+import com.cesar.kaiju.support.TestData;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Collection;
+import java.util.Date;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@IntegrationTest
+class ConversationActivityTrackerTest {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ConversationRepository conversationRepository;
+
+    @Test
+    void failedFlushIsRetriedWithLaterActivity() {
+        UUID conversationId = newConversation();
+        ConversationActivityTracker tracker = new ConversationActivityTracker(failingOnce(), transactionTemplate);
+
+        tracker.recordMessage(conversationId, 1, true, "primeira", new Date());
+        tracker.recordMessage(conversationId, 2, true, "segunda", new Date());
+        tracker.flush();
+        tracker.recordMessage(conversationId, 3, false, "resposta", new Date());
+        tracker.flush();
+
+        Map<String, Object> row = row(conversationId);
+        assertThat(row.get("last_message_seq")).isEqualTo(3L);
+        assertThat(row.get("last_message_preview")).isEqualTo("resposta");
+        assertThat(row.get("veterinarian_unread_count")).isEqualTo(2);
+        assertThat(row.get("user_unread_count")).isEqualTo(1);
+    }
+
+    @Test
+    void readAfterFailedFlushClearsTheRetriedUnreadCount() {
+        UUID conversationId = newConversation();
+        ConversationActivityTracker tracker = new ConversationActivityTracker(failingOnce(), transactionTemplate);
+
+        tracker.recordMessage(conversationId, 1, true, "primeira", new Date());
+        tracker.flush();
+        tracker.markRead(conversationId, false);
+        tracker.flush();
+
+        Map<String, Object> row = row(conversationId);
+        assertThat(row.get("last_message_seq")).isEqualTo(1L);
+        assertThat(row.get("veterinarian_unread_count")).isEqualTo(0);
+    }
+
+    private UUID newConversation() {
+        User user = userRepository.save(TestData.newUser("tracker"));
+        return conversationRepository.save(MessageBatchWriterTest.newConversation(user)).getConversationId();
+    }
+
+    private Map<String, Object> row(UUID conversationId) {
+        return jdbcTemplate.queryForMap(
+                "SELECT last_message_seq, last_message_preview, user_unread_count, veterinarian_unread_count " +
+                "FROM conversations WHERE conversation_id = ?", conversationId);
+    }
+
+    // Same database, but the first batch fails as if the connection had dropped
+    private JdbcTemplate failingOnce() {
+        AtomicInteger calls = new AtomicInteger();
+        return new JdbcTemplate(jdbcTemplate.getDataSource()) {
+            @Override
+            public <T> int[][] batchUpdate(String sql, Collection<T> batchArgs, int batchSize,
+                                           ParameterizedPreparedStatementSetter<T> pss) {
+                if (calls.getAndIncrement() == 0) {
+                    throw new DataAccessResourceFailureException("connection lost");
+                }
+                return super.batchUpdate(sql, batchArgs, batchSize, pss);
+            }
+        };
+    }
+}
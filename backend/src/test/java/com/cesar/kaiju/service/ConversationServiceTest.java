@@ -0,0 +1,91 @@
+package com.cesar.kaiju.service;
+
+import com.cesar.kaiju.dto.ConversationSummaryDTO;
+import com.cesar.kaiju.enums.ConversationStatus;
+import com.cesar.kaiju.enums.UserRole;
+import com.cesar.kaiju.model.Conversation;
+import com.cesar.kaiju.model.User;
+import com.cesar.kaiju.model.Veterinarian;
+import com.cesar.kaiju.repository.ConversationRepository;
+import com.cesar.kaiju.repository.UserRepository;
+import com.cesar.kaiju.repository.VeterinarianRepository;
+import com.cesar.kaiju.support.IntegrationTest;
+import com.cesar.kaiju.support.TestData;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@IntegrationTest
+class ConversationServiceTest {
+
+    @Autowired
+    private ConversationService conversationService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private VeterinarianRepository veterinarianRepository;
+
+    @Autowired
+    private ConversationRepository conversationRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    void clearAuthentication() {
+        SecurityContextHolder.clearContext();
+    }
+
+    // The vet is the patient in one conversation and the vet in the others: both branches are merged by recency
+    @Test
+    void inboxMergesBothRolesNewestFirstAndStopsAtTheLimit() {
+        Veterinarian veterinarian = newVeterinarian();
+        Veterinarian colleague = newVeterinarian();
+        User vetUser = veterinarian.getUser();
+        UUID asPatient = conversation(vetUser, colleague, Duration.ofHours(1), 4, 9);
+        UUID recent = conversation(userRepository.save(TestData.newUser("inbox")), veterinarian, Duration.ofMinutes(10), 9, 2);
+        UUID silent = conversation(userRepository.save(TestData.newUser("inbox")), veterinarian, null, 0, 0);
+        UUID older = conversation(userRepository.save(TestData.newUser("inbox")), veterinarian, Duration.ofHours(2), 9, 1);
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(vetUser, null, vetUser.getAuthorities()));
+
+        List<ConversationSummaryDTO> inbox = conversationService.getInbox(10);
+
+        assertThat(inbox).extracting(ConversationSummaryDTO::conversationId).containsExactly(recent, asPatient, older, silent);
+        assertThat(inbox).extracting(ConversationSummaryDTO::unreadCount).containsExactly(2, 4, 1, 0);
+        assertThat(conversationService.getInbox(2)).extracting(ConversationSummaryDTO::conversationId)
+                .containsExactly(recent, asPatient);
+    }
+
+    private Veterinarian newVeterinarian() {
+        User user = TestData.newUser("inboxvet");
+        user.setRole(UserRole.VETERINARIAN);
+        return veterinarianRepository.save(TestData.newVeterinarian(userRepository.save(user)));
+    }
+
+    private UUID conversation(User user, Veterinarian veterinarian, Duration age, int userUnread, int veterinarianUnread) {
+        Conversation conversation = new Conversation();
+        conversation.setUser(user);
+        conversation.setVeterinarian(veterinarian);
+        conversation.setVeterinarianUser(veterinarian.getUser());
+        conversation.setStatus(ConversationStatus.OPEN);
+        UUID conversationId = conversationRepository.save(conversation).getConversationId();
+        jdbcTemplate.update("UPDATE conversations SET last_message_at = ?, user_unread_count = ?, " +
+                        "veterinarian_unread_count = ? WHERE conversation_id = ?",
+                age != null ? Timestamp.from(Instant.now().minus(age)) : null, userUnread, veterinarianUnread, conversationId);
+        return conversationId;
+    }
+}
@@ -0,0 +1,196 @@
+package com.cesar.kaiju.service;
+
+import com.cesar.kaiju.dto.CategoryCountDTO;
+import com.cesar.kaiju.dto.HomeResponseDTO;
+import com.cesar.kaiju.dto.ProductCardDTO;
+import com.cesar.kaiju.dto.VeterinarianCardDTO;
+import com.cesar.kaiju.enums.ProductCategory;
+import com.cesar.kaiju.enums.ProductStatus;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// No Spring context: the services behind the parts are stubs that can be made slow or failing
+class HomeSnapshotServiceTest {
+
+    private static final long PART_TIMEOUT_MS = 200;
+
+    private final StubProductService productService = new StubProductService();
+    private final StubVeterinarianService veterinarianService = new StubVeterinarianService();
+    private final HomeSnapshotService homeSnapshotService =
+            new HomeSnapshotService(productService, veterinarianService, PART_TIMEOUT_MS, 60_000, 8);
+
+    @AfterEach
+    void stop() {
+        homeSnapshotService.stop();
+    }
+
+    @Test
+    void slowPartIsCutOffAtThePartTimeoutAndKeepsItsPreviousValue() {
+        List<ProductCardDTO> firstTopRated = List.of(productCard("top 1"));
+        productService.topRated = firstTopRated;
+        homeSnapshotService.refresh();
+
+        List<ProductCardDTO> newLatest = List.of(productCard("latest 2"));
+        productService.latest = newLatest;
+        productService.topRated = List.of(productCard("top 2"));
+        productService.topRatedDelay = Duration.ofSeconds(10);
+        long start = System.nanoTime();
+        homeSnapshotService.refresh();
+        Duration took = Duration.ofNanos(System.nanoTime() - start);
+
+        HomeResponseDTO snapshot = homeSnapshotService.getSnapshot();
+        assertThat(took).isLessThan(Duration.ofSeconds(2));
+        assertThat(snapshot.stale()).containsExactly("topRatedProducts");
+        assertThat(snapshot.topRatedProducts()).isEqualTo(firstTopRated);
+        assertThat(snapshot.latestProducts()).isEqualTo(newLatest);
+    }
+
+    @Test
+    void failingPartIsListedAsStaleAndKeepsItsPreviousValue() {
+        List<VeterinarianCardDTO> firstVets = List.of(veterinarianCard("vet 1"));
+        veterinarianService.topRated = firstVets;
+        homeSnapshotService.refresh();
+        assertThat(homeSnapshotService.getSnapshot().stale()).isEmpty();
+
+        veterinarianService.failure = new IllegalStateException("database down");
+        homeSnapshotService.refresh();
+
+        HomeResponseDTO snapshot = homeSnapshotService.getSnapshot();
+        assertThat(snapshot.stale()).containsExactly("topRatedVeterinarians");
+        assertThat(snapshot.topRatedVeterinarians()).isEqualTo(firstVets);
+
+        veterinarianService.failure = null;
+        homeSnapshotService.refresh();
+        assertThat(homeSnapshotService.getSnapshot().stale()).isEmpty();
+    }
+
+    // Nothing to fall back to on the first refresh: the part is empty, and still reported
+    @Test
+    void partFailingOnTheFirstRefreshIsEmptyAndStale() {
+        productService.countFailure = new IllegalStateException("database down");
+
+        HomeResponseDTO snapshot = homeSnapshotService.getSnapshot();
+
+        assertThat(snapshot.stale()).containsExactly("productCount");
+        assertThat(snapshot.productCount()).isNull();
+        assertThat(snapshot.categories()).isNotNull();
+    }
+
+    @Test
+    void concurrentFirstRequestsShareOneRefresh() throws Exception {
+        productService.latestDelay = Duration.ofMillis(100);
+        int requests = 8;
+        CountDownLatch go = new CountDownLatch(1);
+        ExecutorService callers = Executors.newFixedThreadPool(requests);
+        try {
+            List<Future<HomeResponseDTO>> snapshots = new ArrayList<>();
+            for (int i = 0; i < requests; i++) {
+                snapshots.add(callers.submit(() -> {
+                    go.await();
+                    return homeSnapshotService.getSnapshot();
+                }));
+            }
+            go.countDown();
+
+            HomeResponseDTO first = snapshots.get(0).get();
+            for (Future<HomeResponseDTO> snapshot : snapshots) {
+                assertThat(snapshot.get()).isSameAs(first);
+            }
+        } finally {
+            callers.shutdownNow();
+        }
+        assertThat(productService.latestCalls).hasValue(1);
+    }
+
+    private static ProductCardDTO productCard(String name) {
+        return new ProductCardDTO(UUID.randomUUID(), name, BigDecimal.TEN, ProductCategory.FOOD, ProductStatus.ACTIVE,
+                null, UUID.randomUUID(), 4.5, 3);
+    }
+
+    private static VeterinarianCardDTO veterinarianCard(String name) {
+        return new VeterinarianCardDTO(UUID.randomUUID(), name, null, null, null, null, true, true, 4.5, 3, 100.0);
+    }
+
+    private static void sleep(Duration delay) {
+        if (delay.isZero()) {
+            return;
+        }
+        try {
+            Thread.sleep(delay);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("interrupted", e);
+        }
+    }
+
+    private static class StubProductService extends ProductService {
+
+        private final AtomicInteger latestCalls = new AtomicInteger();
+        private volatile List<ProductCardDTO> latest = List.of();
+        private volatile List<ProductCardDTO> topRated = List.of();
+        private volatile Duration latestDelay = Duration.ZERO;
+        private volatile Duration topRatedDelay = Duration.ZERO;
+        private volatile RuntimeException countFailure;
+
+        private StubProductService() {
+            super(null, null, null, null, null);
+        }
+
+        @Override
+        public Long getProductCount() {
+            if (countFailure != null) {
+                throw countFailure;
+            }
+            return 42L;
+        }
+
+        @Override
+        public List<CategoryCountDTO> getCategoryCounts() {
+            return List.of(new CategoryCountDTO(ProductCategory.FOOD, 42L));
+        }
+
+        @Override
+        public List<ProductCardDTO> getLatestProductCards(int limit) {
+            latestCalls.incrementAndGet();
+            sleep(latestDelay);
+            return latest;
+        }
+
+        @Override
+        public List<ProductCardDTO> getTopRatedProductCards(int limit) {
+            sleep(topRatedDelay);
+            return topRated;
+        }
+    }
+
+    private static class StubVeterinarianService extends VeterinarianService {
+
+        private volatile List<VeterinarianCardDTO> topRated = List.of();
+        private volatile RuntimeException failure;
+
+        private StubVeterinarianService() {
+            super(null, null, null, null, null, null);
+        }
+
+        @Override
+        public List<VeterinarianCardDTO> getTopRatedVeterinarianCards(int limit) {
+            if (failure != null) {
+                throw failure;
+            }
+            return topRated;
+        }
+    }
+}
@@ -0,0 +1,138 @@
+package com.cesar.kaiju.service;
+
+import com.cesar.kaiju.config.CacheConfig;
+import com.cesar.kaiju.dto.CityResponseDTO;
+import com.cesar.kaiju.dto.VeterinarianCardDTO;
+import com.cesar.kaiju.model.User;
+import com.cesar.kaiju.model.Veterinarian;
+import com.cesar.kaiju.repository.UserRepository;
+import com.cesar.kaiju.repository.VeterinarianRepository;
+import com.cesar.kaiju.support.IntegrationTest;
+import com.cesar.kaiju.support.TestData;
+import com.cesar.kaiju.util.LocationGazetteer;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.IOException;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@IntegrationTest
+class LocationServiceTest {
+
+    @Autowired
+    private LocationService locationService;
+
+    @Autowired
+    private VeterinarianService veterinarianService;
+
+    @Autowired
+    private LocationGazetteer gazetteer;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private VeterinarianRepository veterinarianRepository;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private ClusterJobRunner clusterJobRunner;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void cityOutsideGazetteerFallsBackToTypedText() {
+        String city = "Sobral " + UUID.randomUUID().toString().substring(0, 8);
+        UUID veterinarianId = newVeterinarian(city, "CE");
+
+        assertThat(veterinarianService.searchVeterinarianCards(null, null, city.toUpperCase(), null, PageRequest.of(0, 10)))
+                .extracting(VeterinarianCardDTO::veterinarianId)
+                .containsExactly(veterinarianId);
+        assertThat(veterinarianService.searchVeterinarians(null, null, city, null, null, null, PageRequest.of(0, 10)))
+                .hasSize(1);
+    }
+
+    @Test
+    void backfillSkipsProfilesAlreadyTriedAgainstCurrentGazetteer() {
+        UUID unresolvable = newVeterinarian("Sobral " + UUID.randomUUID().toString().substring(0, 8), "CE");
+        UUID resolvable = newVeterinarian("fortaleza", "ceara");
+
+        locationService.backfillCanonicalLocations();
+
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT location_version FROM veterinarians WHERE veterinarian_id = ?", String.class, unresolvable))
+                .isEqualTo(gazetteer.getVersion());
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT city_id FROM veterinarians WHERE veterinarian_id = ?", Integer.class, resolvable))
+                .isEqualTo(2304400);
+
+        // A row marked with the current version is not read again, even if it would now resolve
+        jdbcTemplate.update("UPDATE veterinarians SET city = 'Fortaleza' WHERE veterinarian_id = ?", unresolvable);
+        locationService.backfillCanonicalLocations();
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT city_id FROM veterinarians WHERE veterinarian_id = ?", Integer.class, unresolvable))
+                .isNull();
+
+        jdbcTemplate.update("UPDATE veterinarians SET location_version = 'outdated' WHERE veterinarian_id = ?", unresolvable);
+        locationService.backfillCanonicalLocations();
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT city_id FROM veterinarians WHERE veterinarian_id = ?", Integer.class, unresolvable))
+                .isEqualTo(2304400);
+    }
+
+    @Test
+    void backfillEvictsRewrittenProfilesFromTheCache() {
+        UUID veterinarianId = newVeterinarian("recife", "pernambuco");
+        assertThat(veterinarianService.getVeterinarianById(veterinarianId).city()).isEqualTo("recife");
+
+        locationService.backfillCanonicalLocations();
+
+        assertThat(cacheManager.getCache(CacheConfig.VETERINARIANS).get(veterinarianId)).isNull();
+        assertThat(veterinarianService.getVeterinarianById(veterinarianId).city()).isEqualTo("Recife");
+    }
+
+    // The profile is edited to a city the gazetteer does not know while the backfill works on what it read
+    @Test
+    void backfillKeepsProfilesEditedAfterItsRead() throws IOException {
+        UUID veterinarianId = newVeterinarian("natal", "rn");
+        LocationGazetteer editedMeanwhile = new LocationGazetteer() {
+            @Override
+            public Optional<CityResponseDTO> resolveCity(String city, String state) {
+                jdbcTemplate.update("UPDATE veterinarians SET city = 'Parnamirim', location_version = ? " +
+                        "WHERE veterinarian_id = ?", getVersion(), veterinarianId);
+                return super.resolveCity(city, state);
+            }
+        };
+        editedMeanwhile.load();
+
+        new LocationService(editedMeanwhile, entityManagerFactory, clusterJobRunner, cacheManager)
+                .backfillCanonicalLocations();
+
+        assertThat(jdbcTemplate.queryForMap(
+                "SELECT city, city_id FROM veterinarians WHERE veterinarian_id = ?", veterinarianId))
+                .containsEntry("city", "Parnamirim")
+                .containsEntry("city_id", null);
+    }
+
+    // Saved as typed, the way rows written before the canonical columns existed look
+    private UUID newVeterinarian(String city, String state) {
+        User user = userRepository.save(TestData.newUser("loc"));
+        Veterinarian veterinarian = TestData.newVeterinarian(user);
+        veterinarian.setCity(city);
+        veterinarian.setState(state);
+        return veterinarianRepository.save(veterinarian).getVeterinarianId();
+    }
+}
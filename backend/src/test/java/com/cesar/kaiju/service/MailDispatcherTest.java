@@ -0,0 +1,109 @@
+package com.cesar.kaiju.service;
+
+import com.cesar.kaiju.enums.MailStatus;
+import com.cesar.kaiju.model.MailOutbox;
+import com.cesar.kaiju.repository.MailOutboxRepository;
+import com.cesar.kaiju.support.FakeSmtpServer;
+import com.cesar.kaiju.support.IntegrationTest;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+
+// The scheduled dispatch runs alongside the explicit calls; either one may deliver a given row
+@IntegrationTest
+class MailDispatcherTest {
+
+    @Autowired
+    private MailDispatcher mailDispatcher;
+
+    @Autowired
+    private MailService mailService;
+
+    @Autowired
+    private MailOutboxRepository mailOutboxRepository;
+
+    @Autowired
+    private FakeSmtpServer fakeSmtpServer;
+
+    @Value("${mail.outbox.max-attempts}")
+    private int maxAttempts;
+
+    @Test
+    void deliversOutboxOverSmtp() {
+        String recipient = newRecipient();
+        mailService.sendAccountVerificationEmail(recipient, "https://kaiju.invalid/verify", "kaiju");
+
+        mailDispatcher.dispatch();
+
+        await().atMost(Duration.ofSeconds(10)).until(() -> outboxRow(recipient).getStatus() == MailStatus.SENT);
+        assertThat(fakeSmtpServer.receivedBy(recipient)).hasSize(1);
+        assertThat(outboxRow(recipient).getAttempts()).isEqualTo(1);
+    }
+
+    @Test
+    void refusedRecipientIsRetriedLaterWithoutHoldingBackTheBatch() {
+        String refused = newRecipient();
+        String accepted = newRecipient();
+        fakeSmtpServer.rejectRecipient(refused);
+        mailService.sendAccountVerificationEmail(refused, "https://kaiju.invalid/verify", "kaiju");
+        mailService.sendAccountVerificationEmail(accepted, "https://kaiju.invalid/verify", "kaiju");
+
+        mailDispatcher.dispatch();
+
+        await().atMost(Duration.ofSeconds(10)).until(() -> outboxRow(refused).getLastError() != null
+                && outboxRow(accepted).getStatus() == MailStatus.SENT);
+        MailOutbox retried = outboxRow(refused);
+        assertThat(retried.getStatus()).isEqualTo(MailStatus.PENDING);
+        assertThat(retried.getAttempts()).isEqualTo(1);
+        assertThat(retried.getNextAttemptAt()).isAfter(Instant.now());
+        assertThat(fakeSmtpServer.receivedBy(refused)).isEmpty();
+    }
+
+    // A node that dies mid-send leaves the row SENDING; the reclaim counts as an attempt like any other
+    @Test
+    void expiredLeasesUseUpAttempts() {
+        String exhausted = newRecipient();
+        String reclaimed = newRecipient();
+        expiredLease(exhausted, maxAttempts);
+        expiredLease(reclaimed, 2);
+
+        mailDispatcher.dispatch();
+
+        await().atMost(Duration.ofSeconds(10)).until(() -> outboxRow(exhausted).getStatus() == MailStatus.FAILED
+                && outboxRow(reclaimed).getStatus() == MailStatus.SENT);
+        assertThat(outboxRow(exhausted).getAttempts()).isEqualTo(maxAttempts + 1);
+        assertThat(fakeSmtpServer.receivedBy(exhausted)).isEmpty();
+        assertThat(outboxRow(reclaimed).getAttempts()).isEqualTo(3);
+        assertThat(fakeSmtpServer.receivedBy(reclaimed)).hasSize(1);
+    }
+
+    private void expiredLease(String recipient, int attempts) {
+        MailOutbox mail = new MailOutbox();
+        mail.setRecipient(recipient);
+        mail.setSubject("Lease test");
+        mail.setTemplateName("account-verification");
+        mail.setBody("<p>lease</p>");
+        mail.setStatus(MailStatus.SENDING);
+        mail.setAttempts(attempts);
+        mail.setNextAttemptAt(Instant.now().minusSeconds(60));
+        mailOutboxRepository.save(mail);
+    }
+
+    private MailOutbox outboxRow(String recipient) {
+        return mailOutboxRepository.findAll().stream()
+                .filter(mail -> mail.getRecipient().equals(recipient))
+                .findFirst()
+                .orElseThrow();
+    }
+
+    private static String newRecipient() {
+        return "mail" + UUID.randomUUID().toString().substring(0, 8) + "@kaiju.invalid";
+    }
+}
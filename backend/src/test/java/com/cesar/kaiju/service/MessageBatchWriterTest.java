@@ -0,0 +1,132 @@
+package com.cesar.kaiju.service;
+
+import com.cesar.kaiju.dto.MessageResponseDTO;
+import com.cesar.kaiju.enums.ConversationStatus;
+import com.cesar.kaiju.exception.ChatBackpressureException;
+import com.cesar.kaiju.enums.MessageType;
+import com.cesar.kaiju.model.Conversation;
+import com.cesar.kaiju.model.User;
+import com.cesar.kaiju.repository.ConversationRepository;
+import com.cesar.kaiju.repository.UserRepository;
+import com.cesar.kaiju.support.IntegrationTest;
+import com.cesar.kaiju.support.TestData;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+import org.springframework.jdbc.core.PreparedStatementSetter;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.awaitility.Awaitility.await;
+
+@IntegrationTest
+class MessageBatchWriterTest {
+
+    @Autowired
+    private MessageBatchWriter messageBatchWriter;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ConversationRepository conversationRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    // The unknown sender fails the whole batch; the other rows still land and the bad one is kept aside
+    @Test
+    void rejectedRowGoesToDeadLetterAndTheRestIsPersisted() {
+        User user = userRepository.save(TestData.newUser("writer"));
+        Conversation conversation = conversationRepository.save(newConversation(user));
+        UUID conversationId = conversation.getConversationId();
+
+        for (long seq = 1; seq <= 5; seq++) {
+            UUID senderId = seq == 3 ? UUID.randomUUID() : user.getUserId();
+            messageBatchWriter.enqueue(new MessageResponseDTO(UUID.randomUUID(), conversationId, seq, senderId,
+                    user.getName(), MessageType.TEXT, "mensagem " + seq, new Date()));
+        }
+
+        await().atMost(Duration.ofSeconds(10)).untilAsserted(() -> {
+            assertThat(seqs("conversation_messages", conversationId)).containsExactly(1L, 2L, 4L, 5L);
+            assertThat(seqs("conversation_message_dead_letters", conversationId)).containsExactly(3L);
+        });
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT error FROM conversation_message_dead_letters WHERE conversation_id = ?",
+                String.class, conversationId)).contains("fk_conversation_messages_sender");
+    }
+
+    // While the database keeps failing, sends are turned away once the unpersisted backlog reaches the cap
+    @Test
+    void sendsAreRejectedWhileTheBacklogIsFullAndAcceptedOnceItDrains() throws InterruptedException {
+        User user = userRepository.save(TestData.newUser("backlog"));
+        UUID conversationId = conversationRepository.save(newConversation(user)).getConversationId();
+        AtomicBoolean databaseDown = new AtomicBoolean(true);
+        MessageBatchWriter writer = new MessageBatchWriter(failingWhile(databaseDown), transactionTemplate, 200, 10, 100, 3);
+        writer.start();
+        try {
+            for (long seq = 1; seq <= 3; seq++) {
+                writer.enqueue(new MessageResponseDTO(UUID.randomUUID(), conversationId, seq, user.getUserId(),
+                        user.getName(), MessageType.TEXT, "sem banco " + seq, new Date()));
+            }
+            await().atMost(Duration.ofSeconds(10)).untilAsserted(() ->
+                    assertThatThrownBy(writer::ensureCapacity).isInstanceOf(ChatBackpressureException.class));
+
+            databaseDown.set(false);
+
+            await().atMost(Duration.ofSeconds(10)).untilAsserted(() -> {
+                assertThat(seqs("conversation_messages", conversationId)).containsExactly(1L, 2L, 3L);
+                writer.ensureCapacity();
+            });
+        } finally {
+            writer.stop();
+        }
+    }
+
+    private JdbcTemplate failingWhile(AtomicBoolean databaseDown) {
+        return new JdbcTemplate(jdbcTemplate.getDataSource()) {
+            @Override
+            public <T> int[][] batchUpdate(String sql, Collection<T> batchArgs, int batchSize,
+                                           ParameterizedPreparedStatementSetter<T> pss) {
+                if (databaseDown.get()) {
+                    throw new DataAccessResourceFailureException("connection refused");
+                }
+                return super.batchUpdate(sql, batchArgs, batchSize, pss);
+            }
+
+            @Override
+            public int update(String sql, PreparedStatementSetter pss) {
+                if (databaseDown.get()) {
+                    throw new DataAccessResourceFailureException("connection refused");
+                }
+                return super.update(sql, pss);
+            }
+        };
+    }
+
+    private List<Long> seqs(String table, UUID conversationId) {
+        return jdbcTemplate.queryForList(
+                "SELECT seq FROM " + table + " WHERE conversation_id = ? ORDER BY seq", Long.class, conversationId);
+    }
+
+    static Conversation newConversation(User user) {
+        Conversation conversation = new Conversation();
+        conversation.setUser(user);
+        conversation.setStatus(ConversationStatus.OPEN);
+        conversation.setSubject("Jabuti sem apetite");
+        return conversation;
+    }
+}
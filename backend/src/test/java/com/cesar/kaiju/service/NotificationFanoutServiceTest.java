@@ -0,0 +1,168 @@
+package com.cesar.kaiju.service;
+
+import com.cesar.kaiju.enums.NotificationType;
+import com.cesar.kaiju.model.User;
+import com.cesar.kaiju.model.Veterinarian;
+import com.cesar.kaiju.repository.UserRepository;
+import com.cesar.kaiju.repository.VeterinarianRepository;
+import com.cesar.kaiju.support.IntegrationTest;
+import com.cesar.kaiju.support.TestData;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+
+@IntegrationTest
+class NotificationFanoutServiceTest {
+
+    @Autowired
+    private NotificationFanoutService notificationFanoutService;
+
+    @Autowired
+    private VeterinarianService veterinarianService;
+
+    @Autowired
+    private LocationService locationService;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private VeterinarianRepository veterinarianRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void priceDropReachesEachReviewerOncePerDay() {
+        User seller = userRepository.save(TestData.newUser("seller"));
+        UUID productId = newProduct(seller);
+        List<UUID> reviewers = newReviewers(productId, 3);
+        String title = "Baixou " + productId;
+
+        for (int i = 0; i < 2; i++) {
+            transactionTemplate.executeWithoutResult(status -> eventPublisher.publishEvent(new NotificationFanoutService.Request(
+                    NotificationType.PRODUCT_PRICE_DROP, productId, seller.getUserId(), title, "Mais barato.", null)));
+        }
+
+        await().atMost(Duration.ofSeconds(10)).until(() -> "DONE".equals(fanoutStatus(productId)));
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM notification_fanouts WHERE subject_id = ?", Integer.class, productId)).isEqualTo(1);
+        for (UUID reviewer : reviewers) {
+            assertThat(notificationsFor(reviewer, title)).isEqualTo(1);
+        }
+        assertThat(notificationsFor(seller.getUserId(), title)).isZero();
+    }
+
+    // Runs on any node reserve from the same budget: at 20 emails per second, each pair of emails gets a slot 100 ms after the last
+    @Test
+    void emailBudgetIsSharedBetweenRuns() throws Exception {
+        List<Long> slots = new ArrayList<>();
+        try (ExecutorService runs = Executors.newFixedThreadPool(4)) {
+            List<Future<Long>> reservations = new ArrayList<>();
+            for (int i = 0; i < 4; i++) {
+                reservations.add(runs.submit(() -> notificationFanoutService.reserveEmails(2) + System.currentTimeMillis()));
+            }
+            for (Future<Long> reservation : reservations) {
+                slots.add(reservation.get());
+            }
+        }
+
+        List<Long> sorted = slots.stream().sorted().toList();
+        for (int i = 1; i < sorted.size(); i++) {
+            assertThat(sorted.get(i) - sorted.get(i - 1)).isGreaterThanOrEqualTo(90);
+        }
+    }
+
+    // As left by a node that died after writing the first chunk
+    @Test
+    void interruptedFanoutResumesFromItsCursor() {
+        User seller = userRepository.save(TestData.newUser("seller"));
+        UUID productId = newProduct(seller);
+        List<UUID> reviewers = newReviewers(productId, 4);
+        String title = "Retomado " + productId;
+        Timestamp expired = Timestamp.from(Instant.now().minusSeconds(60));
+        jdbcTemplate.update("INSERT INTO notification_fanouts (id, type, subject_id, excluded_user_id, title, message, " +
+                        "dedupe_key, status, last_user_id, delivered, leased_until, created_at) " +
+                        "VALUES (?, 'PRODUCT_RESTOCKED', ?, ?, ?, 'De volta.', ?, 'RUNNING', ?, 1, ?, ?)",
+                UUID.randomUUID(), productId, seller.getUserId(), title, "test:" + productId, reviewers.get(0), expired, expired);
+
+        notificationFanoutService.drain();
+
+        await().atMost(Duration.ofSeconds(10)).until(() -> "DONE".equals(fanoutStatus(productId)));
+        assertThat(notificationsFor(reviewers.get(0), title)).isZero();
+        for (UUID reviewer : reviewers.subList(1, reviewers.size())) {
+            assertThat(notificationsFor(reviewer, title)).isEqualTo(1);
+        }
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT delivered FROM notification_fanouts WHERE subject_id = ?", Long.class, productId)).isEqualTo(4L);
+    }
+
+    @Test
+    void nearbyPatientsAreNotifiedOnVerificationOnly() {
+        User user = userRepository.save(TestData.newUser("newvet"));
+        Veterinarian veterinarian = TestData.newVeterinarian(user);
+        veterinarian.setIsVerified(false);
+        veterinarian.setCity("Recife");
+        veterinarian.setState("PE");
+        locationService.applyCanonicalLocation(veterinarian);
+        UUID veterinarianId = veterinarianRepository.save(veterinarian).getVeterinarianId();
+        assertThat(fanoutStatus(veterinarianId)).isNull();
+
+        veterinarianService.setVerified(veterinarianId, true);
+        assertThat(fanoutStatus(veterinarianId)).isNotNull();
+
+        veterinarianService.setVerified(veterinarianId, false);
+        veterinarianService.setVerified(veterinarianId, true);
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM notification_fanouts WHERE subject_id = ?", Integer.class, veterinarianId)).isEqualTo(1);
+    }
+
+    private UUID newProduct(User seller) {
+        UUID productId = UUID.randomUUID();
+        jdbcTemplate.update("INSERT INTO products (product_id, name, price, category, status, stock_quantity, seller_id, thumbnail_url, created_at) " +
+                "VALUES (?, 'Termostato', 120.00, 'HEATING', 'ACTIVE', 5, ?, 'https://img.kaiju.invalid/termostato.png', now())", productId, seller.getUserId());
+        return productId;
+    }
+
+    // In the database's uuid order, the one the fan-out walks them in (UUID.compareTo differs)
+    private List<UUID> newReviewers(UUID productId, int count) {
+        for (int i = 0; i < count; i++) {
+            User reviewer = userRepository.save(TestData.newUser("reviewer"));
+            jdbcTemplate.update("INSERT INTO product_reviews (id, product_id, user_id, rating, comment, helpful, created_at) " +
+                    "VALUES (nextval('product_reviews_seq'), ?, ?, 5, 'Bom', 0, now())", productId, reviewer.getUserId());
+        }
+        return jdbcTemplate.queryForList(
+                "SELECT user_id FROM product_reviews WHERE product_id = ? ORDER BY user_id", UUID.class, productId);
+    }
+
+    private String fanoutStatus(UUID subjectId) {
+        return jdbcTemplate.query("SELECT status FROM notification_fanouts WHERE subject_id = ?",
+                rs -> rs.next() ? rs.getString(1) : null, subjectId);
+    }
+
+    private int notificationsFor(UUID userId, String title) {
+        return jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM notifications WHERE user_id = ? AND title = ?", Integer.class, userId, title);
+    }
+}
@@ -0,0 +1,47 @@
+package com.cesar.kaiju.service;
+
+import com.cesar.kaiju.model.User;
+import com.cesar.kaiju.repository.UserRepository;
+import com.cesar.kaiju.support.IntegrationTest;
+import com.cesar.kaiju.support.TestData;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@IntegrationTest
+class UsernameAvailabilityServiceTest {
+
+    @Autowired
+    private UsernameAvailabilityService usernameAvailabilityService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @BeforeEach
+    void rebuild() {
+        usernameAvailabilityService.rebuild();
+    }
+
+    @Test
+    void takenValuesAreNeverReportedAvailable() {
+        User existing = userRepository.save(TestData.newUser("taken"));
+        usernameAvailabilityService.rebuild();
+
+        assertThat(usernameAvailabilityService.isUsernameAvailable(existing.getUsername())).isFalse();
+        assertThat(usernameAvailabilityService.isEmailAvailable(existing.getEmail())).isFalse();
+        assertThat(usernameAvailabilityService.isUsernameAvailable(existing.getUsername() + "x")).isTrue();
+    }
+
+    // Saved through the repository, the filter of this node never hears of it: as if registered on another node
+    @Test
+    void registrationsOnOtherNodesArePickedUpByTheSync() {
+        User elsewhere = userRepository.save(TestData.newUser("remote"));
+
+        usernameAvailabilityService.syncRecentRegistrations();
+
+        assertThat(usernameAvailabilityService.isUsernameAvailable(elsewhere.getUsername())).isFalse();
+        assertThat(usernameAvailabilityService.isEmailAvailable(elsewhere.getEmail())).isFalse();
+    }
+}
@@ -0,0 +1,28 @@
+package com.cesar.kaiju.support;
+
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+
+import java.io.IOException;
+
+// Replaces the SMTPS sender of application.properties, so mail sent during tests never leaves the machine
+@TestConfiguration(proxyBeanMethods = false)
+public class FakeSmtpConfig {
+
+    @Bean(destroyMethod = "close")
+    public FakeSmtpServer fakeSmtpServer() throws IOException {
+        return new FakeSmtpServer();
+    }
+
+    @Bean
+    public JavaMailSender javaMailSender(FakeSmtpServer fakeSmtpServer) {
+        JavaMailSenderImpl mailSender = new JavaMailSenderImpl();
+        mailSender.setHost("localhost");
+        mailSender.setPort(fakeSmtpServer.getPort());
+        mailSender.setProtocol("smtp");
+        mailSender.getJavaMailProperties().put("mail.smtp.timeout", "5000");
+        return mailSender;
+    }
+}
@@ -0,0 +1,17 @@
+package com.cesar.kaiju.support;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Maximum number of SQL statements a test may execute on its own thread. Enforced by
+ * {@link QueryBudgetExtension}; statements issued while seeding data outside the test method are not counted.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface QueryBudget {
+
+    int value();
+}
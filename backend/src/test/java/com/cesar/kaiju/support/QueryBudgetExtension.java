@@ -0,0 +1,41 @@
+package com.cesar.kaiju.support;
+
+import net.ttddyy.dsproxy.QueryCount;
+import net.ttddyy.dsproxy.QueryCountHolder;
+import org.junit.jupiter.api.extension.AfterTestExecutionCallback;
+import org.junit.jupiter.api.extension.BeforeTestExecutionCallback;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.junit.platform.commons.support.AnnotationSupport;
+
+/**
+ * Fails a test annotated with {@link QueryBudget} when it executes more statements than its budget.
+ * Counts are collected per thread by the proxy installed in {@link StatementCountingConfig}, so work
+ * done by schedulers and async executors does not leak into the measurement.
+ */
+public class QueryBudgetExtension implements BeforeTestExecutionCallback, AfterTestExecutionCallback {
+
+    @Override
+    public void beforeTestExecution(ExtensionContext context) {
+        QueryCountHolder.clear();
+    }
+
+    @Override
+    public void afterTestExecution(ExtensionContext context) {
+        QueryCount count = QueryCountHolder.getGrandTotal();
+        QueryCountHolder.clear();
+
+        QueryBudget budget = AnnotationSupport.findAnnotation(context.getElement(), QueryBudget.class).orElse(null);
+        if (budget == null) {
+            return;
+        }
+
+        long executed = count.getTotal();
+        context.publishReportEntry("statements", executed + "/" + budget.value());
+        if (executed > budget.value()) {
+            throw new AssertionError(String.format(
+                    "%s executed %d statements (select=%d, insert=%d, update=%d, delete=%d, other=%d), budget is %d",
+                    context.getDisplayName(), executed, count.getSelect(), count.getInsert(), count.getUpdate(),
+                    count.getDelete(), count.getOther(), budget.value()));
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package com.cesar.kaiju.support;
+
+import com.cesar.kaiju.enums.UserRole;
+import com.cesar.kaiju.enums.UserSituation;
+import com.cesar.kaiju.enums.VeterinarianSpecialization;
+import com.cesar.kaiju.model.User;
+import com.cesar.kaiju.model.Veterinarian;
+
+import java.util.List;
+import java.util.UUID;
+
+// Entities for seeding the shared test database; names get a random suffix so test classes never collide
+public final class TestData {
+
+    private TestData() {
+    }
+
+    public static User newUser(String prefix) {
+        String suffix = UUID.randomUUID().toString().substring(0, 8);
+        User user = new User();
+        user.setUsername(prefix + suffix);
+        user.setName("Kaiju " + prefix);
+        user.setEmail(prefix + suffix + "@kaiju.invalid");
+        user.setPassword("not-a-real-hash");
+        user.setRole(UserRole.USER);
+        user.setSituation(UserSituation.VERIFIED);
+        return user;
+    }
+
+    // Verified and open to chat, without a location
+    public static Veterinarian newVeterinarian(User user, VeterinarianSpecialization... specializations) {
+        Veterinarian veterinarian = new Veterinarian();
+        veterinarian.setUser(user);
+        veterinarian.setFullName("Dra. " + user.getName());
+        veterinarian.setLicenseNumber("CRMV-PE " + UUID.randomUUID().toString().substring(0, 8));
+        veterinarian.setSpecializations(List.of(specializations));
+        veterinarian.setContactEmail(user.getEmail());
+        veterinarian.setCertifications(List.of());
+        veterinarian.setLanguagesSpoken(List.of("pt"));
+        veterinarian.setIsVerified(true);
+        return veterinarian;
+    }
+}